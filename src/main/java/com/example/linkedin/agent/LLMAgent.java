@@ -4,6 +4,9 @@ import com.example.linkedin.model.Comment;
 import com.example.linkedin.model.GeneratedResponse;
 import com.example.linkedin.model.Post;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Interface for LLM-based response generation.
  * Handles generating contextual, comedic responses to comments.
@@ -19,6 +22,24 @@ public interface LLMAgent {
      */
     GeneratedResponse generateResponse(Post post, Comment comment, String tonePreference);
     
+    /**
+     * Generates responses to several comments on the same post, e.g. when backfilling its history.
+     * Implementations may share work between the comments, such as analyzing the post only once.
+     * @param post The original post
+     * @param comments The comments to respond to
+     * @param tonePreference The desired tone
+     * @param model The model to use, or null for the agent's default model
+     * @return One generated response per comment, in the same order
+     */
+    default List<GeneratedResponse> generateResponses(Post post, List<Comment> comments, String tonePreference,
+                                                      String model) {
+        List<GeneratedResponse> responses = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            responses.add(generateResponse(post, comment, tonePreference));
+        }
+        return responses;
+    }
+    
     /**
      * Analyzes the theme and tone of a post.
      * @param post The post to analyze
@@ -3,6 +3,7 @@ package com.example.linkedin.agent;
 import com.example.linkedin.model.Comment;
 import com.example.linkedin.model.GeneratedResponse;
 import com.example.linkedin.model.Post;
+import com.example.linkedin.util.KeywordMatcher;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.completion.chat.ChatMessage;
@@ -26,6 +27,9 @@ public class OpenAILLMAgent implements LLMAgent {
     
     private static final Logger logger = LoggerFactory.getLogger(OpenAILLMAgent.class);
     private static final int MAX_RESPONSE_LENGTH = 1250;
+    private static final KeywordMatcher SENSITIVE_KEYWORDS = KeywordMatcher.compile(List.of(
+            "urgent", "complaint", "refund", "legal", "lawsuit",
+            "discrimination", "harassment", "offensive"), false);
     
     private final OpenAiService openAiService;
     private final String primaryModel;
@@ -51,28 +55,52 @@ public class OpenAILLMAgent implements LLMAgent {
     @Override
     public GeneratedResponse generateResponse(Post post, Comment comment, String tonePreference) {
         logger.info("Generating response for comment {} on post {}", comment.getId(), post.getId());
+        return generateResponse(post, comment, tonePreference, null, primaryModel);
+    }
+    
+    @Override
+    public List<GeneratedResponse> generateResponses(Post post, List<Comment> comments, String tonePreference,
+                                                     String model) {
+        String batchModel = model == null || model.isBlank() ? primaryModel : model;
+        logger.info("Generating {} responses on post {} with model {}", comments.size(), post.getId(), batchModel);
         
+        // One theme analysis serves the whole batch
+        String theme = analyzePostTheme(post, batchModel);
+        List<GeneratedResponse> responses = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            responses.add(generateResponse(post, comment, tonePreference, theme, batchModel));
+        }
+        return responses;
+    }
+    
+    /**
+     * Generates a response with the given model, analyzing the post theme first unless it is given.
+     */
+    private GeneratedResponse generateResponse(Post post, Comment comment, String tonePreference,
+                                               String theme, String model) {
         try {
             // Analyze post theme first
-            String theme = analyzePostTheme(post);
+            if (theme == null) {
+                theme = analyzePostTheme(post, model);
+            }
             
             // Build the prompt
             String prompt = buildPrompt(post, comment, tonePreference, theme);
             
-            // Try with primary model
-            String responseText = callLLM(prompt, primaryModel);
+            // Try with the requested model
+            String responseText = callLLM(prompt, model);
             
             // Validate the response
             if (!validateResponse(responseText)) {
                 logger.warn("Generated response failed validation, retrying...");
-                responseText = callLLM(prompt, primaryModel);
+                responseText = callLLM(prompt, model);
             }
             
             // Create response object
             GeneratedResponse response = new GeneratedResponse(
                 responseText,
                 0.85, // Confidence score - could be enhanced with actual scoring
-                "Generated using " + primaryModel + " with theme: " + theme
+                "Generated using " + model + " with theme: " + theme
             );
             
             // Add warnings if needed
@@ -88,18 +116,22 @@ public class OpenAILLMAgent implements LLMAgent {
             return response;
             
         } catch (Exception e) {
-            logger.error("Error generating response with primary model, trying fallback", e);
+            logger.error("Error generating response with {}, trying fallback", model, e);
             return generateResponseWithFallback(post, comment, tonePreference);
         }
     }
     
     @Override
     public String analyzePostTheme(Post post) {
+        return analyzePostTheme(post, primaryModel);
+    }
+    
+    private String analyzePostTheme(Post post, String model) {
         logger.debug("Analyzing theme for post {}", post.getId());
         
         try {
             String analysisPrompt = buildThemeAnalysisPrompt(post);
-            String theme = callLLM(analysisPrompt, primaryModel);
+            String theme = callLLM(analysisPrompt, model);
             
             logger.debug("Identified theme: {}", theme);
             return theme;
@@ -278,18 +310,6 @@ public class OpenAILLMAgent implements LLMAgent {
      * Checks if the text contains sensitive keywords.
      */
     private boolean containsSensitiveKeywords(String text) {
-        String lowerText = text.toLowerCase();
-        String[] sensitiveKeywords = {
-            "urgent", "complaint", "refund", "legal", "lawsuit", 
-            "discrimination", "harassment", "offensive"
-        };
-        
-        for (String keyword : sensitiveKeywords) {
-            if (lowerText.contains(keyword)) {
-                return true;
-            }
-        }
-        
-        return false;
+        return SENSITIVE_KEYWORDS.matches(text);
     }
 }
@@ -1,10 +1,18 @@
 package com.example.linkedin.api;
 
 import com.example.linkedin.api.dto.*;
+import com.example.linkedin.coordination.Lease;
+import com.example.linkedin.model.BackfillJob;
 import com.example.linkedin.model.Comment;
 import com.example.linkedin.model.GeneratedResponse;
 import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.PendingApproval;
+import com.example.linkedin.model.ReplyRetry;
 import com.example.linkedin.model.WorkflowConfig;
+import com.example.linkedin.orchestrator.CommentWorkQueue;
+import com.example.linkedin.orchestrator.PostCache;
+import com.example.linkedin.orchestrator.StagedPipeline;
+import com.example.linkedin.orchestrator.WatchedPost;
 import com.example.linkedin.orchestrator.WorkflowOrchestrator;
 import com.example.linkedin.repository.StorageRepository;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,17 +24,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing the LinkedIn Comment Responder workflow.
@@ -52,7 +60,8 @@ public class ManagementController {
     @PostMapping("/polling/start")
     @Operation(
         summary = "Start polling for comments",
-        description = "Starts the automated polling workflow for a specific LinkedIn post"
+        description = "Starts the automated polling workflow for a LinkedIn post. Several posts can be "
+                + "watched at once; each keeps its own configuration and polling interval"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -67,7 +76,7 @@ public class ManagementController {
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "409",
-            description = "Polling is already active",
+            description = "The post is already being polled",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
         )
     })
@@ -77,12 +86,12 @@ public class ManagementController {
         logger.info("Received request to start polling for post: {}", request.getPostId());
         
         try {
-            // Check if already polling
-            if (orchestrator.isPolling()) {
-                logger.warn("Polling is already active");
+            // Check if this post is already being polled
+            if (orchestrator.isPolling(request.getPostId())) {
+                logger.warn("Polling is already active for post: {}", request.getPostId());
                 return ResponseEntity
                         .status(HttpStatus.CONFLICT)
-                        .body(ApiResponse.error("Polling is already active", "ALREADY_POLLING"));
+                        .body(ApiResponse.error("Polling is already active for this post", "ALREADY_POLLING"));
             }
             
             // Create workflow config from request
@@ -120,7 +129,7 @@ public class ManagementController {
     @PostMapping("/polling/stop")
     @Operation(
         summary = "Stop polling for comments",
-        description = "Stops the automated polling workflow"
+        description = "Stops polling a single post, or all watched posts when no postId is given"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -134,10 +143,23 @@ public class ManagementController {
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
         )
     })
-    public ResponseEntity<ApiResponse<Void>> stopPolling() {
-        logger.info("Received request to stop polling");
+    public ResponseEntity<ApiResponse<Void>> stopPolling(
+            @Parameter(description = "Post to stop polling (all posts if omitted)")
+            @RequestParam(required = false) String postId) {
+        logger.info("Received request to stop polling{}", postId == null ? "" : " for post: " + postId);
         
         try {
+            if (postId != null) {
+                if (!orchestrator.stopPolling(postId)) {
+                    logger.warn("Polling is not active for post: {}", postId);
+                    return ResponseEntity
+                            .badRequest()
+                            .body(ApiResponse.error("Polling is not active for this post", "NOT_POLLING"));
+                }
+                logger.info("Polling stopped successfully for post: {}", postId);
+                return ResponseEntity.ok(ApiResponse.success("Polling stopped successfully"));
+            }
+            
             if (!orchestrator.isPolling()) {
                 logger.warn("Polling is not active");
                 return ResponseEntity
@@ -186,13 +208,327 @@ public class ManagementController {
         }
     }
 
+    /**
+     * List watched posts.
+     */
+    @GetMapping("/polling/posts")
+    @Operation(
+        summary = "List watched posts",
+        description = "Returns every watched post with its configuration, last and next poll time, "
+                + "and poll and comment counters"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Watched posts retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<List<WatchedPost>>> getWatchedPosts() {
+        logger.debug("Received request for watched posts");
+        
+        List<WatchedPost> posts = orchestrator.getWatchedPosts();
+        return ResponseEntity.ok(ApiResponse.success(posts.size() + " posts watched", posts));
+    }
+
+    /**
+     * List post leases across instances.
+     */
+    @GetMapping("/coordination/leases")
+    @Operation(
+        summary = "List post leases",
+        description = "Returns which instance holds the lease of each watched post and the live instances; "
+                + "empty when coordination is disabled"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Leases retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<List<Lease>>> getLeases() {
+        logger.debug("Received request for post leases");
+        
+        List<String> nodes = orchestrator.getLiveNodes();
+        if (nodes.isEmpty()) {
+            return ResponseEntity.ok(ApiResponse.success("Coordination is disabled", List.of()));
+        }
+        return ResponseEntity.ok(ApiResponse.success(nodes.size() + " live instances: " + String.join(", ", nodes),
+                orchestrator.getLeases()));
+    }
+
+    /**
+     * Get post cache statistics.
+     */
+    @GetMapping("/cache/posts")
+    @Operation(
+        summary = "Get post cache statistics",
+        description = "Returns hit, miss and eviction counters and the current size of the post cache"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<PostCache.Stats>> getPostCacheStats() {
+        logger.debug("Received request for post cache statistics");
+        return ResponseEntity.ok(ApiResponse.success("Post cache statistics", orchestrator.getPostCacheStats()));
+    }
+
+    /**
+     * Invalidate cached posts.
+     */
+    @DeleteMapping("/cache/posts")
+    @Operation(
+        summary = "Invalidate cached posts",
+        description = "Drops one cached post, or the whole post cache when no postId is given, "
+                + "so the next comment fetches the post again"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Cache invalidated successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<Void>> invalidatePostCache(
+            @Parameter(description = "Post to invalidate (whole cache if omitted)")
+            @RequestParam(required = false) String postId) {
+        logger.info("Received request to invalidate post cache{}", postId == null ? "" : " for post: " + postId);
+        orchestrator.invalidatePostCache(postId);
+        return ResponseEntity.ok(ApiResponse.success("Post cache invalidated"));
+    }
+
+    /**
+     * Get staged pipeline statistics.
+     */
+    @GetMapping("/pipeline/stats")
+    @Operation(
+        summary = "Get pipeline statistics",
+        description = "Returns queue depth, busy workers and latency of each comment processing stage; "
+                + "empty when the staged pipeline is disabled"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<List<StagedPipeline.StageStats>>> getPipelineStats() {
+        logger.debug("Received request for pipeline statistics");
+        return ResponseEntity.ok(ApiResponse.success("Pipeline statistics", orchestrator.getPipelineStats()));
+    }
+
+    /**
+     * Get work queue statistics.
+     */
+    @GetMapping("/work-queue/stats")
+    @Operation(
+        summary = "Get work queue statistics",
+        description = "Returns the number of fetched comments waiting in the on-disk work queue, "
+                + "its consumer offset and its disk use"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "The work queue is disabled",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<CommentWorkQueue.Stats>> getWorkQueueStats() {
+        logger.debug("Received request for work queue statistics");
+        CommentWorkQueue.Stats stats = orchestrator.getWorkQueueStats();
+        if (stats == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Work queue is disabled", "WORK_QUEUE_DISABLED"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Work queue statistics", stats));
+    }
+
+    /**
+     * List replies waiting to be retried.
+     */
+    @GetMapping("/retries")
+    @Operation(
+        summary = "List reply retries",
+        description = "Returns replies that failed to post and are scheduled for another attempt"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Retries retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<List<ReplyRetry>>> getReplyRetries() {
+        logger.debug("Received request for reply retries");
+        
+        List<ReplyRetry> retries = orchestrator.getReplyRetries();
+        return ResponseEntity.ok(ApiResponse.success(retries.size() + " replies awaiting retry", retries));
+    }
+
+    /**
+     * Start a backfill job.
+     */
+    @PostMapping("/backfill")
+    @Operation(
+        summary = "Backfill comment history",
+        description = "Queues a job replying to the existing comments of the given posts. Backfills run on "
+                + "their own workers within workflow.backfill.comments-per-minute, generate responses in "
+                + "batches with workflow.backfill.model, and resume after a restart"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "202",
+            description = "Backfill job queued",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid request parameters",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<BackfillJob>> startBackfill(@Valid @RequestBody BackfillRequest request) {
+        logger.info("Received request to backfill posts: {}", request.getPostIds());
+        
+        try {
+            WorkflowConfig config = new WorkflowConfig();
+            config.setRequireManualApproval(request.getRequireManualApproval());
+            config.setTonePreference(request.getTonePreference());
+            config.setManualReviewKeywords(request.getManualReviewKeywords());
+            config.setMaxRetries(request.getMaxRetries());
+            
+            BackfillJob job = orchestrator.startBackfill(request.getPostIds(), config, request.getModel(),
+                    request.getMaxComments());
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Backfill job queued", job));
+            
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid backfill request: {}", e.getMessage());
+            return ResponseEntity
+                    .badRequest()
+                    .body(ApiResponse.error("Invalid backfill request", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to start backfill", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to start backfill", e.getMessage()));
+        }
+    }
+
+    /**
+     * List backfill jobs.
+     */
+    @GetMapping("/backfill")
+    @Operation(
+        summary = "List backfill jobs",
+        description = "Returns all backfill jobs, oldest first, with their progress"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Jobs retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<List<BackfillJob>>> getBackfillJobs() {
+        logger.debug("Received request for backfill jobs");
+        
+        List<BackfillJob> jobs = orchestrator.getBackfillJobs();
+        return ResponseEntity.ok(ApiResponse.success(jobs.size() + " backfill jobs", jobs));
+    }
+
+    /**
+     * Get one backfill job.
+     */
+    @GetMapping("/backfill/{jobId}")
+    @Operation(
+        summary = "Get a backfill job",
+        description = "Returns the state and progress of a backfill job"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Job retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "No such backfill job",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<BackfillJob>> getBackfillJob(@PathVariable String jobId) {
+        BackfillJob job = orchestrator.getBackfillJob(jobId);
+        if (job == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("No backfill job", "NO_BACKFILL_JOB"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Backfill job " + job.getState(), job));
+    }
+
+    /**
+     * Cancel a backfill job.
+     */
+    @DeleteMapping("/backfill/{jobId}")
+    @Operation(
+        summary = "Cancel a backfill job",
+        description = "Stops a queued or running backfill job; batches already running finish first"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Job cancelled",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "No such backfill job",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "409",
+            description = "The job has already finished",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<BackfillJob>> cancelBackfill(@PathVariable String jobId) {
+        logger.info("Received request to cancel backfill job {}", jobId);
+        
+        if (orchestrator.getBackfillJob(jobId) == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("No backfill job", "NO_BACKFILL_JOB"));
+        }
+        BackfillJob job = orchestrator.cancelBackfill(jobId);
+        if (job == null) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Backfill job has already finished", "ALREADY_FINISHED"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Backfill job cancelled", job));
+    }
+
     /**
      * Get pending response awaiting approval.
      */
     @GetMapping("/approval/pending")
     @Operation(
         summary = "Get pending response",
-        description = "Returns the pending response awaiting manual approval, if any"
+        description = "Returns the oldest response awaiting manual approval, if any"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -219,6 +555,7 @@ public class ManagementController {
         }
         
         PendingResponseDto dto = new PendingResponseDto();
+        dto.setPostId(pendingComment.getPostId());
         dto.setCommentId(pendingComment.getId());
         dto.setCommenterName(pendingComment.getAuthorName());
         dto.setCommentText(pendingComment.getText());
@@ -230,13 +567,145 @@ public class ManagementController {
         return ResponseEntity.ok(ApiResponse.success("Pending response retrieved", dto));
     }
 
+    /**
+     * List the approval queue.
+     */
+    @GetMapping("/approval/queue")
+    @Operation(
+        summary = "List approval queue",
+        description = "Returns every response awaiting approval, oldest first, optionally for one post"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Approval queue retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<List<PendingResponseDto>>> getApprovalQueue(
+            @Parameter(description = "Filter by post ID")
+            @RequestParam(required = false) String postId) {
+        logger.debug("Received request for approval queue");
+        
+        List<PendingResponseDto> items = orchestrator.getPendingApprovals(postId).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(items.size() + " responses queued", items));
+    }
+
+    /**
+     * Get one approval queue item.
+     */
+    @GetMapping("/approval/queue/{approvalId}")
+    @Operation(
+        summary = "Get queued response",
+        description = "Returns one response from the approval queue"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Queued response retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "No such queued response",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<PendingResponseDto>> getQueuedResponse(@PathVariable String approvalId) {
+        PendingApproval approval = orchestrator.getPendingApproval(approvalId);
+        if (approval == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("No pending response", "NO_PENDING_RESPONSE"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Queued response retrieved", toDto(approval)));
+    }
+
+    /**
+     * Approve or reject one approval queue item.
+     */
+    @PostMapping("/approval/queue/{approvalId}/decision")
+    @Operation(
+        summary = "Approve or reject a queued response",
+        description = "Approving returns immediately and posts the reply in the background; "
+                + "rejecting removes the response from the queue"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Response rejected",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "202",
+            description = "Response approved; the reply is being posted",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "No such queued response",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "409",
+            description = "The response has already been approved",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    public ResponseEntity<ApiResponse<Void>> decideQueuedResponse(
+            @PathVariable String approvalId,
+            @Valid @RequestBody ApprovalRequest request) {
+        
+        logger.info("Received approval decision for {}: {}", approvalId, request.getApprove());
+        
+        try {
+            if (orchestrator.getPendingApproval(approvalId) == null) {
+                return ResponseEntity
+                        .status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("No pending response", "NO_PENDING_RESPONSE"));
+            }
+            
+            if (request.getApprove()) {
+                orchestrator.approveResponse(approvalId);
+                return ResponseEntity
+                        .status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.success("Response approved; reply is being posted"));
+            }
+            
+            if (!orchestrator.rejectResponse(approvalId)) {
+                return ResponseEntity
+                        .status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("Response has already been approved", "ALREADY_DECIDED"));
+            }
+            logger.info("Response {} rejected. Reason: {}", approvalId, request.getReason());
+            return ResponseEntity.ok(ApiResponse.success("Response rejected"));
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("No pending response", "NO_PENDING_RESPONSE"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Response has already been approved", "ALREADY_DECIDED"));
+        } catch (Exception e) {
+            logger.error("Failed to process approval decision", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to process decision", e.getMessage()));
+        }
+    }
+
     /**
      * Approve or reject a pending response.
      */
     @PostMapping("/approval/decision")
     @Operation(
         summary = "Approve or reject pending response",
-        description = "Approves or rejects the pending response awaiting manual approval"
+        description = "Approves or rejects the oldest response awaiting manual approval, "
+                + "waiting for an approved reply to be posted"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -292,6 +761,25 @@ public class ManagementController {
         }
     }
 
+    private PendingResponseDto toDto(PendingApproval approval) {
+        Comment comment = approval.getComment();
+        GeneratedResponse response = approval.getResponse();
+        
+        PendingResponseDto dto = new PendingResponseDto();
+        dto.setApprovalId(approval.getId());
+        dto.setPostId(comment.getPostId());
+        dto.setState(approval.getState().name());
+        dto.setCreatedAt(approval.getCreatedAt());
+        dto.setCommentId(comment.getId());
+        dto.setCommenterName(comment.getAuthorName());
+        dto.setCommentText(comment.getText());
+        dto.setGeneratedResponse(response.getText());
+        dto.setConfidenceScore(response.getConfidenceScore());
+        dto.setReasoning(response.getReasoning());
+        dto.setWarnings(response.getWarnings());
+        return dto;
+    }
+
     /**
      * Query interaction history.
      */
@@ -315,10 +803,12 @@ public class ManagementController {
     public ResponseEntity<ApiResponse<List<Interaction>>> queryHistory(
             @Parameter(description = "Filter by post ID") @RequestParam(required = false) String postId,
             @Parameter(description = "Start date (ISO-8601)") @RequestParam(required = false) String startDate,
-            @Parameter(description = "End date (ISO-8601)") @RequestParam(required = false) String endDate) {
+            @Parameter(description = "End date (ISO-8601)") @RequestParam(required = false) String endDate,
+            @Parameter(description = "Also search archived interactions (may fetch remote segments)")
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         
-        logger.info("Received history query request - postId: {}, startDate: {}, endDate: {}", 
-                postId, startDate, endDate);
+        logger.info("Received history query request - postId: {}, startDate: {}, endDate: {}, includeArchived: {}", 
+                postId, startDate, endDate, includeArchived);
         
         try {
             Instant start = null;
@@ -332,7 +822,9 @@ public class ManagementController {
                 end = Instant.parse(endDate);
             }
             
-            List<Interaction> history = storageRepository.getInteractionHistory(postId, start, end);
+            List<Interaction> history = includeArchived
+                    ? storageRepository.getInteractionHistory(postId, start, end, true)
+                    : storageRepository.getInteractionHistory(postId, start, end);
             
             logger.info("Retrieved {} interactions", history.size());
             return ResponseEntity.ok(ApiResponse.success(
@@ -359,7 +851,7 @@ public class ManagementController {
     @GetMapping("/history/export")
     @Operation(
         summary = "Export interaction history",
-        description = "Exports interaction history to JSON or CSV format"
+        description = "Streams interaction history in JSON, NDJSON or CSV format"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -374,39 +866,38 @@ public class ManagementController {
         )
     })
     public ResponseEntity<?> exportHistory(
-            @Parameter(description = "Export format (json or csv)") 
+            @Parameter(description = "Export format (json, ndjson or csv)") 
             @RequestParam(defaultValue = "json") String format) {
         
         logger.info("Received history export request - format: {}", format);
         
         try {
-            if (!format.equalsIgnoreCase("json") && !format.equalsIgnoreCase("csv")) {
-                return ResponseEntity
-                        .badRequest()
-                        .body(ApiResponse.error("Invalid format", "Format must be 'json' or 'csv'"));
-            }
-            
-            String filePath = storageRepository.exportHistory(format.toLowerCase());
-            Resource resource = new FileSystemResource(filePath);
-            
-            if (!resource.exists()) {
-                logger.error("Export file not found: {}", filePath);
-                return ResponseEntity
-                        .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(ApiResponse.error("Export failed", "File not found"));
+            String normalizedFormat = format.toLowerCase();
+            String contentType;
+            switch (normalizedFormat) {
+                case "json":
+                    contentType = "application/json";
+                    break;
+                case "ndjson":
+                    contentType = "application/x-ndjson";
+                    break;
+                case "csv":
+                    contentType = "text/csv";
+                    break;
+                default:
+                    return ResponseEntity
+                            .badRequest()
+                            .body(ApiResponse.error("Invalid format", "Format must be 'json', 'ndjson' or 'csv'"));
             }
             
-            String contentType = format.equalsIgnoreCase("json") 
-                    ? "application/json" 
-                    : "text/csv";
-            
-            String filename = "interaction_history_" + Instant.now().getEpochSecond() + "." + format.toLowerCase();
+            String filename = "interaction_history_" + Instant.now().getEpochSecond() + "." + normalizedFormat;
+            StreamingResponseBody body = out -> storageRepository.exportHistory(normalizedFormat, out);
             
             logger.info("Exporting history file: {}", filename);
             return ResponseEntity.ok()
                     .contentType(MediaType.parseMediaType(contentType))
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .body(resource);
+                    .body(body);
             
         } catch (Exception e) {
             logger.error("Failed to export history", e);
@@ -437,6 +928,8 @@ public class ManagementController {
         )
     })
     public ResponseEntity<ApiResponse<WorkflowConfig>> updateConfig(
+            @Parameter(description = "Post whose configuration to update (most recently started post if omitted)")
+            @RequestParam(required = false) String postId,
             @Valid @RequestBody ConfigUpdateRequest request) {
         
         logger.info("Received config update request");
@@ -448,7 +941,7 @@ public class ManagementController {
                         .body(ApiResponse.error("Cannot update config", "Polling is not active"));
             }
             
-            WorkflowConfig currentConfig = orchestrator.getConfig();
+            WorkflowConfig currentConfig = postId == null ? orchestrator.getConfig() : orchestrator.getConfig(postId);
             if (currentConfig == null) {
                 return ResponseEntity
                         .badRequest()
@@ -474,6 +967,8 @@ public class ManagementController {
             if (request.getRetryBackoffSeconds() != null) {
                 currentConfig.setRetryBackoffSeconds(request.getRetryBackoffSeconds());
             }
+            // Reapply so a changed polling interval takes effect from the post's last poll
+            orchestrator.startPolling(currentConfig);
             
             logger.info("Configuration updated successfully");
             return ResponseEntity.ok(ApiResponse.success("Configuration updated", currentConfig));
@@ -0,0 +1,134 @@
+package com.example.linkedin.api;
+
+import com.example.linkedin.api.dto.ApiResponse;
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.orchestrator.WorkflowOrchestrator;
+import com.example.linkedin.webhook.CommentNotificationParser;
+import com.example.linkedin.webhook.WebhookSignatures;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller receiving LinkedIn webhook deliveries, so new comments are answered as they
+ * arrive instead of on the next poll.
+ */
+@RestController
+@RequestMapping("/webhooks/linkedin")
+@Tag(name = "Webhooks", description = "Push endpoint for LinkedIn comment notifications")
+public class WebhookController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WebhookController.class);
+    
+    private final WorkflowOrchestrator orchestrator;
+    private final String secret;
+    private final CommentNotificationParser parser = new CommentNotificationParser();
+    
+    public WebhookController(WorkflowOrchestrator orchestrator,
+                             @Value("${linkedin.webhook.secret:${linkedin.api.client-secret:}}") String secret) {
+        this.orchestrator = orchestrator;
+        this.secret = secret;
+    }
+    
+    /**
+     * Answer LinkedIn's validation challenge.
+     */
+    @GetMapping
+    @Operation(
+        summary = "Answer a webhook validation challenge",
+        description = "LinkedIn calls this when the webhook URL is registered and periodically afterwards; "
+                + "the response proves that this endpoint knows the app's client secret"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Challenge answered"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Webhooks are disabled or no secret is configured"
+        )
+    })
+    public ResponseEntity<Map<String, String>> validate(
+            @Parameter(description = "Challenge sent by LinkedIn") @RequestParam String challengeCode) {
+        if (!isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        logger.info("Answering webhook validation challenge");
+        return ResponseEntity.ok(Map.of(
+                "challengeCode", challengeCode,
+                "challengeResponse", WebhookSignatures.challengeResponse(secret, challengeCode)));
+    }
+    
+    /**
+     * Receive comment notifications.
+     */
+    @PostMapping
+    @Operation(
+        summary = "Receive comment notifications",
+        description = "Accepts a signed LinkedIn social action notification delivery and queues its new comments "
+                + "on watched posts for processing. Returns before they are processed; duplicates and comments "
+                + "on other posts are skipped"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Delivery accepted",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "The body is not a notification delivery",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "Missing or invalid X-LI-Signature",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Webhooks are disabled or no secret is configured"
+        )
+    })
+    public ResponseEntity<ApiResponse<WorkflowOrchestrator.IngestResult>> receive(
+            @RequestHeader(value = WebhookSignatures.HEADER, required = false) String signature,
+            @RequestBody byte[] body) {
+        if (!isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!WebhookSignatures.verify(secret, body, signature)) {
+            logger.warn("Rejected webhook delivery with {} signature", signature == null ? "no" : "an invalid");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("Invalid signature", "X-LI-Signature does not match the body"));
+        }
+        
+        List<Comment> comments;
+        try {
+            comments = parser.parse(body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected malformed webhook delivery: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Malformed notification", e.getMessage()));
+        }
+        
+        WorkflowOrchestrator.IngestResult result = orchestrator.ingestComments(comments);
+        return ResponseEntity.ok(ApiResponse.success(result.getQueued() + " comments queued", result));
+    }
+    
+    private boolean isEnabled() {
+        return orchestrator.isWebhookEnabled() && secret != null && !secret.isBlank();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.linkedin.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request DTO for backfilling the comment history of posts.
+ */
+@Schema(description = "Request to reply to the existing comments of one or more LinkedIn posts")
+public class BackfillRequest {
+    
+    @NotEmpty
+    @Schema(description = "LinkedIn post IDs to backfill", example = "[\"urn:li:share:1234567890\"]")
+    private List<String> postIds = new ArrayList<>();
+    
+    @NotNull
+    @Schema(description = "Whether manual approval is required before posting (posts not being watched)", example = "false")
+    private Boolean requireManualApproval = false;
+    
+    @NotBlank
+    @Schema(description = "Tone preference for generated responses (posts not being watched)", example = "witty", allowableValues = {"witty", "sarcastic", "wholesome", "professional"})
+    private String tonePreference = "witty";
+    
+    @Schema(description = "Keywords that trigger manual review (posts not being watched)", example = "[\"urgent\", \"complaint\", \"refund\"]")
+    private List<String> manualReviewKeywords = new ArrayList<>();
+    
+    @Min(1)
+    @Schema(description = "Maximum number of retry attempts (posts not being watched)", example = "3", minimum = "1")
+    private int maxRetries = 3;
+    
+    @Schema(description = "LLM model for the backfill; defaults to workflow.backfill.model", example = "gpt-3.5-turbo")
+    private String model;
+    
+    @Min(0)
+    @Schema(description = "Maximum comments to process across all posts, 0 for no limit", example = "1000", minimum = "0")
+    private int maxComments = 0;
+
+    // Getters and Setters
+    public List<String> getPostIds() {
+        return postIds;
+    }
+
+    public void setPostIds(List<String> postIds) {
+        this.postIds = postIds;
+    }
+
+    public Boolean getRequireManualApproval() {
+        return requireManualApproval;
+    }
+
+    public void setRequireManualApproval(Boolean requireManualApproval) {
+        this.requireManualApproval = requireManualApproval;
+    }
+
+    public String getTonePreference() {
+        return tonePreference;
+    }
+
+    public void setTonePreference(String tonePreference) {
+        this.tonePreference = tonePreference;
+    }
+
+    public List<String> getManualReviewKeywords() {
+        return manualReviewKeywords;
+    }
+
+    public void setManualReviewKeywords(List<String> manualReviewKeywords) {
+        this.manualReviewKeywords = manualReviewKeywords;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public int getMaxComments() {
+        return maxComments;
+    }
+
+    public void setMaxComments(int maxComments) {
+        this.maxComments = maxComments;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.linkedin.api.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -10,6 +11,18 @@ import java.util.List;
 @Schema(description = "Information about a pending response awaiting approval")
 public class PendingResponseDto {
     
+    @Schema(description = "Approval queue item ID", example = "018f3c1e-7b2a-7c4d-9e1f-2a3b4c5d6e7f")
+    private String approvalId;
+    
+    @Schema(description = "Post ID", example = "urn:li:share:1234567890")
+    private String postId;
+    
+    @Schema(description = "Review state: PENDING, or APPROVED while the reply is being posted", example = "PENDING")
+    private String state;
+    
+    @Schema(description = "When the response was queued")
+    private Instant createdAt;
+    
     @Schema(description = "Comment ID", example = "comment-123")
     private String commentId;
     
@@ -32,6 +45,38 @@ public class PendingResponseDto {
     private List<String> warnings;
 
     // Getters and Setters
+    public String getApprovalId() {
+        return approvalId;
+    }
+    
+    public void setApprovalId(String approvalId) {
+        this.approvalId = approvalId;
+    }
+    
+    public String getPostId() {
+        return postId;
+    }
+    
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+    
+    public String getState() {
+        return state;
+    }
+    
+    public void setState(String state) {
+        this.state = state;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
     public String getCommentId() {
         return commentId;
     }
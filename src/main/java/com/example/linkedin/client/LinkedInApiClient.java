@@ -6,10 +6,12 @@ import com.example.linkedin.model.Post;
 import com.example.linkedin.model.PostResult;
 import com.example.linkedin.resilience.CircuitBreaker;
 import com.example.linkedin.resilience.CircuitBreakerRegistry;
+import com.example.linkedin.util.Sleeper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,12 +19,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Client for interacting with LinkedIn API.
@@ -33,8 +37,7 @@ public class LinkedInApiClient {
     private static final Logger logger = LoggerFactory.getLogger(LinkedInApiClient.class);
     
     private static final String LINKEDIN_API_BASE_URL = "https://api.linkedin.com/v2";
-    private static final int MAX_RETRIES = 3;
-    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final int COMMENTS_PAGE_SIZE = 100;
     
     // Token bucket rate limiter
     private final TokenBucket rateLimiter;
@@ -44,12 +47,22 @@ public class LinkedInApiClient {
     private final CircuitBreaker circuitBreaker;
     private LinkedInCredentials credentials;
 
+    @Autowired
     public LinkedInApiClient(CircuitBreakerRegistry circuitBreakerRegistry) {
+        this(circuitBreakerRegistry, Clock.systemUTC(), Sleeper.SYSTEM);
+    }
+    
+    /**
+     * @param clock Refills the rate limiter
+     * @param sleeper Waits for the rate limiter to refill; with a simulated clock, hours of rate
+     *                limiting pass without waiting
+     */
+    public LinkedInApiClient(CircuitBreakerRegistry circuitBreakerRegistry, Clock clock, Sleeper sleeper) {
         this.webClient = WebClient.builder()
                 .baseUrl(LINKEDIN_API_BASE_URL)
                 .build();
         this.objectMapper = new ObjectMapper();
-        this.rateLimiter = new TokenBucket(100, 60); // 100 requests per 60 seconds
+        this.rateLimiter = new TokenBucket(100, 60, clock, sleeper); // 100 requests per 60 seconds
         this.circuitBreaker = circuitBreakerRegistry.getOrCreate("linkedin-api");
     }
 
@@ -132,14 +145,12 @@ public class LinkedInApiClient {
         try {
             // Use circuit breaker for external API call
             String response = circuitBreaker.execute(() -> 
-                executeWithRetry(() -> 
-                    webClient.get()
-                        .uri("/socialActions/{postId}/comments", postId)
-                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + getValidAccessToken())
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .block()
-                )
+                webClient.get()
+                    .uri("/socialActions/{postId}/comments", postId)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + getValidAccessToken())
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block()
             );
             
             logger.debug("Received response: {}", response);
@@ -161,6 +172,79 @@ public class LinkedInApiClient {
         }
     }
 
+    /**
+     * Fetch the comments of a post created at or after the given time.
+     * Pages through the comments with LinkedIn's start/count parameters and stops at the first page
+     * holding no comment created since then, so the cost follows new activity rather than the post's
+     * lifetime comment count. The API does not promise an order, so a page mixing new and older
+     * comments does not end the scan. Older comments are skipped without being parsed.
+     * 
+     * @param postId LinkedIn post ID
+     * @param since Earliest creation time to return
+     * @return Comments created at or after {@code since}, in the order the API returned them
+     */
+    public List<Comment> fetchCommentsSince(String postId, Instant since) {
+        logger.info("Fetching comments for post {} created since {}", postId, since);
+        
+        List<Comment> comments = new ArrayList<>();
+        int start = 0;
+        int pages = 0;
+        
+        try {
+            while (true) {
+                // Wait for rate limiter; every page is a separate request
+                rateLimiter.acquire();
+                
+                int pageStart = start;
+                String response = circuitBreaker.execute(() ->
+                    webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                            .path("/socialActions/{postId}/comments")
+                            .queryParam("start", pageStart)
+                            .queryParam("count", COMMENTS_PAGE_SIZE)
+                            .build(postId))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + getValidAccessToken())
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .block()
+                );
+                pages++;
+                
+                JsonNode elements = objectMapper.readTree(response).get("elements");
+                int pageSize = elements != null && elements.isArray() ? elements.size() : 0;
+                int newOnPage = 0;
+                for (int i = 0; i < pageSize; i++) {
+                    JsonNode element = elements.get(i);
+                    JsonNode created = element.get("created");
+                    if (created != null && created.has("time") && created.get("time").asLong() < since.toEpochMilli()) {
+                        continue;
+                    }
+                    comments.add(parseComment(element, postId));
+                    newOnPage++;
+                }
+                
+                // A whole page before the watermark means the rest of the history is too
+                if (newOnPage == 0 || pageSize < COMMENTS_PAGE_SIZE) {
+                    break;
+                }
+                start += pageSize;
+            }
+            
+            logger.info("Fetched {} new comments for post {} in {} pages", comments.size(), postId, pages);
+            return comments;
+            
+        } catch (CircuitBreaker.CircuitBreakerOpenException e) {
+            logger.error("Circuit breaker is open for LinkedIn API", e);
+            throw new RuntimeException("LinkedIn API is currently unavailable", e);
+        } catch (WebClientResponseException e) {
+            handleApiError(e);
+            throw new RuntimeException("Failed to fetch comments", e);
+        } catch (Exception e) {
+            logger.error("Unexpected error fetching comments", e);
+            throw new RuntimeException("Failed to fetch comments", e);
+        }
+    }
+
     /**
      * Fetch post details.
      * 
@@ -176,14 +260,12 @@ public class LinkedInApiClient {
         try {
             // Use circuit breaker for external API call
             String response = circuitBreaker.execute(() ->
-                executeWithRetry(() ->
-                    webClient.get()
-                        .uri("/ugcPosts/{postId}", postId)
-                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + getValidAccessToken())
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .block()
-                )
+                webClient.get()
+                    .uri("/ugcPosts/{postId}", postId)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + getValidAccessToken())
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block()
             );
             
             logger.debug("Received response: {}", response);
@@ -207,6 +289,7 @@ public class LinkedInApiClient {
 
     /**
      * Post a reply to a comment.
+     * Makes a single attempt; callers schedule retries so no thread waits out a backoff here.
      * 
      * @param commentId Comment ID to reply to
      * @param responseText Response text
@@ -227,16 +310,14 @@ public class LinkedInApiClient {
             message.put("text", responseText);
             requestBody.put("message", message);
             
-            String response = executeWithRetry(() ->
-                webClient.post()
-                    .uri("/socialActions/{commentId}/comments", commentId)
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + getValidAccessToken())
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block()
-            );
+            String response = webClient.post()
+                .uri("/socialActions/{commentId}/comments", commentId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + getValidAccessToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block();
             
             logger.info("Successfully posted reply to comment {}", commentId);
             logger.debug("Response: {}", response);
@@ -258,48 +339,6 @@ public class LinkedInApiClient {
         }
     }
 
-    /**
-     * Execute an operation with retry logic and exponential backoff.
-     */
-    private <T> T executeWithRetry(java.util.function.Supplier<T> operation) {
-        int attempt = 0;
-        long backoffMs = INITIAL_BACKOFF_MS;
-        
-        while (attempt < MAX_RETRIES) {
-            try {
-                return operation.get();
-            } catch (WebClientResponseException e) {
-                attempt++;
-                
-                // Don't retry on client errors (except 429)
-                if (e.getStatusCode().is4xxClientError() && 
-                    e.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS) {
-                    throw e;
-                }
-                
-                if (attempt >= MAX_RETRIES) {
-                    logger.error("Max retries ({}) exceeded", MAX_RETRIES);
-                    throw e;
-                }
-                
-                logger.warn("Request failed (attempt {}/{}): {} - {}. Retrying in {}ms", 
-                        attempt, MAX_RETRIES, e.getStatusCode(), e.getMessage(), backoffMs);
-                
-                try {
-                    Thread.sleep(backoffMs);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted during backoff", ie);
-                }
-                
-                // Exponential backoff with jitter
-                backoffMs = (long) (backoffMs * 2 * (0.5 + Math.random() * 0.5));
-            }
-        }
-        
-        throw new RuntimeException("Failed after " + MAX_RETRIES + " retries");
-    }
-
     /**
      * Get a valid access token, refreshing if necessary.
      */
@@ -357,29 +396,7 @@ public class LinkedInApiClient {
             
             if (elements != null && elements.isArray()) {
                 for (JsonNode element : elements) {
-                    Comment comment = new Comment();
-                    comment.setId(element.get("id").asText());
-                    comment.setPostId(postId);
-                    
-                    JsonNode actor = element.get("actor");
-                    if (actor != null) {
-                        comment.setAuthorId(actor.asText());
-                        // In real implementation, we'd fetch the author name separately
-                        comment.setAuthorName("User " + actor.asText().substring(0, 8));
-                    }
-                    
-                    JsonNode message = element.get("message");
-                    if (message != null && message.has("text")) {
-                        comment.setText(message.get("text").asText());
-                    }
-                    
-                    JsonNode created = element.get("created");
-                    if (created != null && created.has("time")) {
-                        long timestamp = created.get("time").asLong();
-                        comment.setTimestamp(Instant.ofEpochMilli(timestamp));
-                    }
-                    
-                    comments.add(comment);
+                    comments.add(parseComment(element, postId));
                 }
             }
         } catch (Exception e) {
@@ -390,6 +407,35 @@ public class LinkedInApiClient {
         return comments;
     }
 
+    /**
+     * Parse a single comment element from a LinkedIn API response.
+     */
+    private Comment parseComment(JsonNode element, String postId) {
+        Comment comment = new Comment();
+        comment.setId(element.get("id").asText());
+        comment.setPostId(postId);
+        
+        JsonNode actor = element.get("actor");
+        if (actor != null) {
+            comment.setAuthorId(actor.asText());
+            // In real implementation, we'd fetch the author name separately
+            comment.setAuthorName("User " + actor.asText().substring(0, 8));
+        }
+        
+        JsonNode message = element.get("message");
+        if (message != null && message.has("text")) {
+            comment.setText(message.get("text").asText());
+        }
+        
+        JsonNode created = element.get("created");
+        if (created != null && created.has("time")) {
+            long timestamp = created.get("time").asLong();
+            comment.setTimestamp(Instant.ofEpochMilli(timestamp));
+        }
+        
+        return comment;
+    }
+
     /**
      * Parse post from LinkedIn API response.
      */
@@ -448,39 +494,51 @@ public class LinkedInApiClient {
 
     /**
      * Token bucket rate limiter implementation.
+     * Callers wait for a token outside the lock, so a virtual thread waiting here unmounts
+     * instead of pinning its carrier, and other callers can still take tokens meanwhile.
      */
-    private static class TokenBucket {
+    static class TokenBucket {
         private final int capacity;
         private final int refillRatePerSecond;
         private final AtomicInteger tokens;
         private long lastRefillTime;
+        private final Clock clock;
+        private final Sleeper sleeper;
+        private final ReentrantLock lock = new ReentrantLock();
         
-        public TokenBucket(int capacity, int refillPeriodSeconds) {
+        public TokenBucket(int capacity, int refillPeriodSeconds, Clock clock, Sleeper sleeper) {
             this.capacity = capacity;
             this.refillRatePerSecond = capacity / refillPeriodSeconds;
             this.tokens = new AtomicInteger(capacity);
-            this.lastRefillTime = System.currentTimeMillis();
+            this.clock = clock;
+            this.sleeper = sleeper;
+            this.lastRefillTime = clock.millis();
         }
         
-        public synchronized void acquire() {
-            refill();
-            
-            while (tokens.get() <= 0) {
+        public void acquire() {
+            while (true) {
+                lock.lock();
                 try {
-                    logger.debug("Rate limit reached, waiting for tokens...");
-                    Thread.sleep(1000);
                     refill();
+                    if (tokens.get() > 0) {
+                        tokens.decrementAndGet();
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    logger.debug("Rate limit reached, waiting for tokens...");
+                    sleeper.sleep(1000);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     throw new RuntimeException("Interrupted while waiting for rate limit", e);
                 }
             }
-            
-            tokens.decrementAndGet();
         }
         
         private void refill() {
-            long now = System.currentTimeMillis();
+            long now = clock.millis();
             long timePassed = now - lastRefillTime;
             int tokensToAdd = (int) (timePassed / 1000 * refillRatePerSecond);
             
@@ -492,8 +550,14 @@ public class LinkedInApiClient {
         }
         
         public void handleRateLimit() {
-            // When we hit a rate limit, reduce tokens to zero
-            tokens.set(0);
+            // When we hit a rate limit, reduce tokens to zero and refill only from now on
+            lock.lock();
+            try {
+                tokens.set(0);
+                lastRefillTime = clock.millis();
+            } finally {
+                lock.unlock();
+            }
             logger.info("Rate limit hit, tokens reset to 0");
         }
     }
@@ -0,0 +1,63 @@
+package com.example.linkedin.config;
+
+import com.example.linkedin.repository.archive.ArchiveSink;
+import com.example.linkedin.repository.archive.S3ArchiveSink;
+import com.example.linkedin.repository.archive.S3ObjectClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Configures the optional S3-compatible archive sink.
+ * When {@code storage.archive.sink} is not {@code s3}, archives stay in the local archive directory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "storage.archive.sink", havingValue = "s3")
+public class ArchiveSinkConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveSinkConfig.class);
+    
+    @Value("${storage.archive.s3.endpoint}")
+    private String endpoint;
+    
+    @Value("${storage.archive.s3.region:us-east-1}")
+    private String region;
+    
+    @Value("${storage.archive.s3.bucket}")
+    private String bucket;
+    
+    @Value("${storage.archive.s3.access-key}")
+    private String accessKey;
+    
+    @Value("${storage.archive.s3.secret-key}")
+    private String secretKey;
+    
+    @Value("${storage.archive.s3.prefix:archive/}")
+    private String prefix;
+    
+    @Value("${storage.archive.s3.part-size-bytes:8388608}")
+    private int partSizeBytes;
+    
+    @Value("${storage.archive.s3.create-bucket:false}")
+    private boolean createBucket;
+    
+    @Value("${storage.archive.directory:./data/archive}")
+    private String archiveDirectory;
+    
+    @Value("${storage.archive.cache.max-bytes:268435456}")
+    private long cacheMaxBytes;
+    
+    @Bean
+    public ArchiveSink s3ArchiveSink() throws IOException {
+        S3ObjectClient client = new S3ObjectClient(endpoint, region, bucket, accessKey, secretKey);
+        if (createBucket) {
+            client.ensureBucket();
+        }
+        logger.info("Archiving to S3-compatible store {} (bucket: {}, prefix: {})", endpoint, bucket, prefix);
+        return new S3ArchiveSink(client, prefix, partSizeBytes, archiveDirectory + "/cache", cacheMaxBytes);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.linkedin.config;
+
+import com.example.linkedin.coordination.CoordinationStore;
+import com.example.linkedin.coordination.FileCoordinationStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Configures coordination between several instances sharing the watched posts.
+ * When {@code coordination.enabled} is not {@code true}, this instance polls every watched post itself.
+ */
+@Configuration
+@ConditionalOnProperty(name = "coordination.enabled", havingValue = "true")
+public class CoordinationConfig {
+    
+    @Value("${coordination.directory:./data/coordination}")
+    private String directory;
+    
+    /**
+     * Shared-directory store; declare another {@link CoordinationStore} bean to use a different backend.
+     */
+    @Bean
+    @ConditionalOnMissingBean(CoordinationStore.class)
+    public CoordinationStore fileCoordinationStore() {
+        return new FileCoordinationStore(Paths.get(directory));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.linkedin.coordination;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shared state through which several instances divide the watched posts between them.
+ *
+ * The store tracks which instances are alive, which instance holds the lease of each post, and
+ * which comments have been replied to by any instance. Every operation must be atomic across all
+ * instances sharing the store. {@link FileCoordinationStore} keeps this state in a shared
+ * directory; stronger backends (a database, etcd, ZooKeeper) can be plugged in by declaring
+ * another implementation as a bean.
+ */
+public interface CoordinationStore {
+    
+    /**
+     * Registers or refreshes an instance as alive for the given time.
+     */
+    void heartbeat(String node, Duration ttl);
+    
+    /**
+     * Removes an instance from the live members, e.g. on shutdown.
+     */
+    void leave(String node);
+    
+    /**
+     * Returns the instances whose heartbeat has not expired, sorted by name.
+     */
+    List<String> liveNodes();
+    
+    /**
+     * Acquires or renews the lease of a resource.
+     * Renewing keeps the fencing token; taking over a released or expired lease issues a higher one.
+     *
+     * @return The lease, or null while another owner holds an unexpired lease
+     */
+    Lease tryAcquire(String resource, String owner, Duration ttl);
+    
+    /**
+     * Gives up a lease so another instance can take the resource over right away.
+     */
+    void release(Lease lease);
+    
+    /**
+     * Checks that a lease is still the current, unexpired lease of its resource.
+     * Called right before a side effect so an instance that lost the lease does not act on it.
+     */
+    boolean isCurrent(Lease lease);
+    
+    /**
+     * Returns every lease known to the store, including expired ones.
+     */
+    List<Lease> leases();
+    
+    /**
+     * Records that a comment has been replied to, for every instance to see.
+     */
+    void markProcessed(String postId, String commentId);
+    
+    /**
+     * Checks whether any instance has replied to a comment.
+     */
+    boolean isProcessed(String postId, String commentId);
+}
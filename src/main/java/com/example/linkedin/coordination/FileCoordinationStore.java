@@ -0,0 +1,266 @@
+package com.example.linkedin.coordination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Coordination store kept in a directory shared by all instances, e.g. on a network file system.
+ *
+ * Every operation runs under an exclusive lock on {@code coordination.lock} in the directory and
+ * rewrites the member and lease files atomically, so instances on different hosts see a
+ * consistent state as long as the file system honours file locks. Replied comments are appended
+ * to one log per post, which each instance reads incrementally.
+ */
+public class FileCoordinationStore implements CoordinationStore {
+    private static final Logger logger = LoggerFactory.getLogger(FileCoordinationStore.class);
+    
+    // File locks are held per process, so instances sharing a directory within one JVM also need a JVM lock
+    private static final Map<Path, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+    
+    private final Path directory;
+    private final Path lockFile;
+    private final Path membersFile;
+    private final Path leasesFile;
+    private final Path processedDirectory;
+    private final Clock clock;
+    private final ReentrantLock jvmLock;
+    private final ObjectMapper objectMapper;
+    
+    // Guarded by the store lock
+    private final Map<String, Set<String>> processed = new HashMap<>();
+    private final Map<String, Long> processedOffsets = new HashMap<>();
+    
+    public FileCoordinationStore(Path directory) {
+        this(directory, Clock.systemUTC());
+    }
+    
+    public FileCoordinationStore(Path directory, Clock clock) {
+        try {
+            Files.createDirectories(directory.resolve("processed"));
+            this.directory = directory.toRealPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create coordination directory " + directory, e);
+        }
+        this.lockFile = this.directory.resolve("coordination.lock");
+        this.membersFile = this.directory.resolve("members.json");
+        this.leasesFile = this.directory.resolve("leases.json");
+        this.processedDirectory = this.directory.resolve("processed");
+        this.clock = clock;
+        this.jvmLock = JVM_LOCKS.computeIfAbsent(this.directory, path -> new ReentrantLock());
+        
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        logger.info("Coordinating through shared directory {}", this.directory);
+    }
+    
+    @Override
+    public void heartbeat(String node, Duration ttl) {
+        locked(() -> {
+            Map<String, Instant> members = readMembers();
+            members.put(node, clock.instant().plus(ttl));
+            write(membersFile, members);
+            return null;
+        });
+    }
+    
+    @Override
+    public void leave(String node) {
+        locked(() -> {
+            Map<String, Instant> members = readMembers();
+            if (members.remove(node) != null) {
+                write(membersFile, members);
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public List<String> liveNodes() {
+        return locked(() -> {
+            Instant now = clock.instant();
+            return readMembers().entrySet().stream()
+                    .filter(member -> now.isBefore(member.getValue()))
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .collect(Collectors.toList());
+        });
+    }
+    
+    @Override
+    public Lease tryAcquire(String resource, String owner, Duration ttl) {
+        return locked(() -> {
+            Instant now = clock.instant();
+            Map<String, Lease> leases = readLeases();
+            Lease current = leases.get(resource);
+            long token;
+            if (current != null && current.isValidAt(now)) {
+                if (!current.getOwner().equals(owner)) {
+                    return null;
+                }
+                token = current.getToken();
+            } else {
+                token = current == null ? 1 : current.getToken() + 1;
+            }
+            Lease lease = new Lease(resource, owner, token, now.plus(ttl));
+            leases.put(resource, lease);
+            write(leasesFile, leases);
+            return lease;
+        });
+    }
+    
+    @Override
+    public void release(Lease lease) {
+        locked(() -> {
+            Map<String, Lease> leases = readLeases();
+            Lease current = leases.get(lease.getResource());
+            if (isSameLease(current, lease)) {
+                // Kept with its token so the next owner is issued a higher one
+                current.setExpiresAt(clock.instant());
+                write(leasesFile, leases);
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public boolean isCurrent(Lease lease) {
+        return locked(() -> {
+            Lease current = readLeases().get(lease.getResource());
+            return isSameLease(current, lease) && current.isValidAt(clock.instant());
+        });
+    }
+    
+    @Override
+    public List<Lease> leases() {
+        return locked(() -> new ArrayList<>(readLeases().values()));
+    }
+    
+    @Override
+    public void markProcessed(String postId, String commentId) {
+        locked(() -> {
+            refreshProcessed(postId);
+            if (processed.get(postId).add(commentId)) {
+                Path log = processedLog(postId);
+                Files.write(log, (commentId + "\n").getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                processedOffsets.put(postId, Files.size(log));
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public boolean isProcessed(String postId, String commentId) {
+        return locked(() -> {
+            refreshProcessed(postId);
+            return processed.get(postId).contains(commentId);
+        });
+    }
+    
+    /**
+     * Reads the lines other instances appended to a post's log since it was last read.
+     */
+    private void refreshProcessed(String postId) throws IOException {
+        Set<String> ids = processed.computeIfAbsent(postId, id -> new HashSet<>());
+        Path log = processedLog(postId);
+        if (!Files.exists(log)) {
+            return;
+        }
+        long offset = processedOffsets.getOrDefault(postId, 0L);
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "r")) {
+            if (file.length() <= offset) {
+                return;
+            }
+            byte[] appended = new byte[(int) (file.length() - offset)];
+            file.seek(offset);
+            file.readFully(appended);
+            for (String line : new String(appended, StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isEmpty()) {
+                    ids.add(line);
+                }
+            }
+            processedOffsets.put(postId, file.length());
+        }
+    }
+    
+    private Path processedLog(String postId) {
+        return processedDirectory.resolve(URLEncoder.encode(postId, StandardCharsets.UTF_8) + ".log");
+    }
+    
+    private static boolean isSameLease(Lease current, Lease lease) {
+        return current != null && current.getToken() == lease.getToken() && current.getOwner().equals(lease.getOwner());
+    }
+    
+    private Map<String, Instant> readMembers() throws IOException {
+        if (!Files.exists(membersFile)) {
+            return new TreeMap<>();
+        }
+        return objectMapper.readValue(membersFile.toFile(),
+                objectMapper.getTypeFactory().constructMapType(TreeMap.class, String.class, Instant.class));
+    }
+    
+    private Map<String, Lease> readLeases() throws IOException {
+        if (!Files.exists(leasesFile)) {
+            return new TreeMap<>();
+        }
+        return objectMapper.readValue(leasesFile.toFile(),
+                objectMapper.getTypeFactory().constructMapType(TreeMap.class, String.class, Lease.class));
+    }
+    
+    private void write(Path path, Object value) throws IOException {
+        // Write then rename so an instance that dies mid-write never leaves a truncated file
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), value);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private <T> T locked(IoSupplier<T> action) {
+        jvmLock.lock();
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                return action.get();
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Coordination store " + directory + " failed", e);
+        } finally {
+            jvmLock.unlock();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface IoSupplier<T> {
+        T get() throws IOException;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.linkedin.coordination;
+
+import java.time.Instant;
+
+/**
+ * Time-limited ownership of a resource by one instance.
+ *
+ * The fencing token grows every time the resource changes owner, so a holder whose lease was
+ * taken over can be told apart from the current one even after a pause.
+ */
+public class Lease {
+    private String resource;
+    
+    private String owner;
+    
+    private long token;
+    
+    private Instant expiresAt;
+    
+    // Constructors
+    public Lease() {
+    }
+    
+    public Lease(String resource, String owner, long token, Instant expiresAt) {
+        this.resource = resource;
+        this.owner = owner;
+        this.token = token;
+        this.expiresAt = expiresAt;
+    }
+    
+    public boolean isValidAt(Instant instant) {
+        return expiresAt != null && instant.isBefore(expiresAt);
+    }
+    
+    // Getters and Setters
+    public String getResource() {
+        return resource;
+    }
+    
+    public void setResource(String resource) {
+        this.resource = resource;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public long getToken() {
+        return token;
+    }
+    
+    public void setToken(long token) {
+        this.token = token;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.linkedin.coordination;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Divides the watched posts between the live instances and keeps this instance's leases fresh.
+ *
+ * Every instance watches the same posts. Each post is assigned to one live instance by rendezvous
+ * hashing, so when an instance joins or leaves only the posts assigned to it move. An instance
+ * polls a post only while it holds the post's lease: on each rebalance it acquires or renews the
+ * leases of the posts assigned to it and releases those assigned elsewhere, which hands them
+ * over on the new owner's next rebalance. An instance that dies stops renewing, and its posts
+ * move once its heartbeat and leases expire.
+ */
+public class LeaseCoordinator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LeaseCoordinator.class);
+    
+    private final CoordinationStore store;
+    private final String nodeId;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Lease> held = new ConcurrentHashMap<>();
+    private ScheduledExecutorService renewer;
+    
+    public LeaseCoordinator(CoordinationStore store, String nodeId, Duration ttl) {
+        this(store, nodeId, ttl, Clock.systemUTC());
+    }
+    
+    public LeaseCoordinator(CoordinationStore store, String nodeId, Duration ttl, Clock clock) {
+        if (ttl.toMillis() < 3) {
+            throw new IllegalArgumentException("Lease TTL is too short: " + ttl);
+        }
+        this.store = store;
+        this.nodeId = nodeId;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+    
+    /**
+     * Rebalances now and then every third of the lease TTL, so leases are renewed well before they expire.
+     *
+     * @param posts Supplies the posts currently watched
+     */
+    public synchronized void start(Supplier<Collection<String>> posts) {
+        if (renewer != null) {
+            return;
+        }
+        rebalance(posts.get());
+        renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-coordinator-1");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = ttl.toMillis() / 3;
+        renewer.scheduleWithFixedDelay(() -> {
+            try {
+                rebalance(posts.get());
+            } catch (RuntimeException e) {
+                // Leases not renewed in time expire and fencing keeps this instance from acting on them
+                logger.error("Lease rebalance failed: {}", e.getMessage(), e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Refreshes this instance's heartbeat, then acquires or renews the leases of the posts assigned
+     * to it and releases the others.
+     */
+    public synchronized void rebalance(Collection<String> posts) {
+        store.heartbeat(nodeId, ttl);
+        List<String> nodes = store.liveNodes();
+        if (!nodes.contains(nodeId)) {
+            nodes = new ArrayList<>(nodes);
+            nodes.add(nodeId);
+        }
+        
+        Set<String> watched = new HashSet<>(posts);
+        for (String postId : watched) {
+            if (nodeId.equals(assign(postId, nodes))) {
+                Lease lease = store.tryAcquire(postId, nodeId, ttl);
+                if (lease != null) {
+                    Lease previous = held.put(postId, lease);
+                    if (previous == null || previous.getToken() != lease.getToken()) {
+                        logger.info("Acquired lease of post {} (token {})", postId, lease.getToken());
+                    }
+                } else if (held.remove(postId) != null) {
+                    logger.warn("Lost lease of post {} to another instance", postId);
+                }
+            } else {
+                releaseHeld(postId, "reassigned");
+            }
+        }
+        for (String postId : new ArrayList<>(held.keySet())) {
+            if (!watched.contains(postId)) {
+                releaseHeld(postId, "no longer watched");
+            }
+        }
+    }
+    
+    /**
+     * Checks whether this instance holds an unexpired lease of a post, without asking the store.
+     */
+    public boolean owns(String postId) {
+        Lease lease = held.get(postId);
+        return lease != null && lease.isValidAt(clock.instant());
+    }
+    
+    /**
+     * Confirms with the store that this instance still holds a post's lease. Called right before
+     * a reply is posted; a lease found lost is dropped so the post is no longer polled.
+     *
+     * @return The current lease, or null if this instance must not act on the post
+     */
+    public Lease fence(String postId) {
+        Lease lease = held.get(postId);
+        if (lease == null) {
+            return null;
+        }
+        if (!lease.isValidAt(clock.instant()) || !store.isCurrent(lease)) {
+            held.remove(postId, lease);
+            logger.warn("Lease of post {} (token {}) is no longer current", postId, lease.getToken());
+            return null;
+        }
+        return lease;
+    }
+    
+    public void markProcessed(String postId, String commentId) {
+        store.markProcessed(postId, commentId);
+    }
+    
+    public boolean isProcessed(String postId, String commentId) {
+        return store.isProcessed(postId, commentId);
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public List<String> getLiveNodes() {
+        return store.liveNodes();
+    }
+    
+    public List<Lease> getLeases() {
+        return store.leases();
+    }
+    
+    /**
+     * Picks the owner of a post by rendezvous hashing: the node with the highest hash of node and post.
+     */
+    static String assign(String postId, List<String> nodes) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String node : nodes) {
+            long score = hash(node + '\0' + postId);
+            if (owner == null || score > best || (score == best && node.compareTo(owner) < 0)) {
+                owner = node;
+                best = score;
+            }
+        }
+        return owner;
+    }
+    
+    /**
+     * 64-bit FNV-1a with a final mix, spreading posts evenly over the nodes.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+    
+    private void releaseHeld(String postId, String reason) {
+        Lease lease = held.remove(postId);
+        if (lease != null) {
+            store.release(lease);
+            logger.info("Released lease of post {} ({})", postId, reason);
+        }
+    }
+    
+    /**
+     * Stops renewing, releases all leases and leaves the cluster so other instances take over at once.
+     */
+    @Override
+    public synchronized void close() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+            renewer = null;
+        }
+        try {
+            for (String postId : new ArrayList<>(held.keySet())) {
+                releaseHeld(postId, "shutting down");
+            }
+            store.leave(nodeId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not release leases on shutdown; they expire after {}", ttl, e);
+        }
+    }
+}
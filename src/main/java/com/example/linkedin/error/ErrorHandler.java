@@ -1,5 +1,6 @@
 package com.example.linkedin.error;
 
+import com.example.linkedin.util.TimeOrderedIds;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -8,7 +9,6 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Centralized error handler that categorizes errors and provides structured logging.
@@ -184,7 +184,7 @@ public class ErrorHandler {
     private String getOrCreateCorrelationId() {
         String correlationId = MDC.get(CORRELATION_ID_KEY);
         if (correlationId == null) {
-            correlationId = UUID.randomUUID().toString();
+            correlationId = TimeOrderedIds.nextString();
             MDC.put(CORRELATION_ID_KEY, correlationId);
         }
         return correlationId;
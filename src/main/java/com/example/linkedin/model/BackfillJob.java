@@ -0,0 +1,195 @@
+package com.example.linkedin.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A job replying to the existing comments of one or more posts.
+ * Persisted with its progress after every batch, so an interrupted job resumes where it stopped.
+ */
+public class BackfillJob {
+    
+    /**
+     * Lifecycle of a backfill job.
+     */
+    public enum State {
+        /** Waiting for the job before it to finish */
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+    
+    private String id;
+    
+    private State state;
+    
+    private List<String> postIds = new ArrayList<>();
+    
+    private WorkflowConfig config;
+    
+    private String model;
+    
+    private int maxComments;
+    
+    private List<String> completedPostIds = new ArrayList<>();
+    
+    private String currentPostId;
+    
+    private int processedComments;
+    
+    private int failedComments;
+    
+    private int remainingComments;
+    
+    private String error;
+    
+    private Instant createdAt;
+    
+    private Instant startedAt;
+    
+    private Instant finishedAt;
+    
+    // Constructors
+    public BackfillJob() {
+        this.state = State.QUEUED;
+    }
+    
+    public BackfillJob(String id, List<String> postIds, WorkflowConfig config, String model, int maxComments,
+                       Instant createdAt) {
+        this.id = id;
+        this.state = State.QUEUED;
+        this.postIds = new ArrayList<>(postIds);
+        this.config = config;
+        this.model = model;
+        this.maxComments = maxComments;
+        this.createdAt = createdAt;
+    }
+    
+    public boolean hasFinished() {
+        return state == State.COMPLETED || state == State.CANCELLED || state == State.FAILED;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public void setState(State state) {
+        this.state = state;
+    }
+    
+    public List<String> getPostIds() {
+        return postIds;
+    }
+    
+    public void setPostIds(List<String> postIds) {
+        this.postIds = postIds;
+    }
+    
+    public WorkflowConfig getConfig() {
+        return config;
+    }
+    
+    public void setConfig(WorkflowConfig config) {
+        this.config = config;
+    }
+    
+    public String getModel() {
+        return model;
+    }
+    
+    public void setModel(String model) {
+        this.model = model;
+    }
+    
+    public int getMaxComments() {
+        return maxComments;
+    }
+    
+    public void setMaxComments(int maxComments) {
+        this.maxComments = maxComments;
+    }
+    
+    public List<String> getCompletedPostIds() {
+        return completedPostIds;
+    }
+    
+    public void setCompletedPostIds(List<String> completedPostIds) {
+        this.completedPostIds = completedPostIds;
+    }
+    
+    public String getCurrentPostId() {
+        return currentPostId;
+    }
+    
+    public void setCurrentPostId(String currentPostId) {
+        this.currentPostId = currentPostId;
+    }
+    
+    public int getProcessedComments() {
+        return processedComments;
+    }
+    
+    public void setProcessedComments(int processedComments) {
+        this.processedComments = processedComments;
+    }
+    
+    public int getFailedComments() {
+        return failedComments;
+    }
+    
+    public void setFailedComments(int failedComments) {
+        this.failedComments = failedComments;
+    }
+    
+    public int getRemainingComments() {
+        return remainingComments;
+    }
+    
+    public void setRemainingComments(int remainingComments) {
+        this.remainingComments = remainingComments;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.linkedin.model;
+
+import java.time.Instant;
+
+/**
+ * Progress of a comment through the workflow, persisted after each completed stage.
+ * After a restart the comment resumes from its last completed stage, so a generated response
+ * is not generated again and a posted reply is not posted again.
+ */
+public class CommentCheckpoint {
+    
+    /**
+     * Last completed stage of a comment. A comment moves forward only.
+     */
+    public enum State {
+        /** Fetched and screened; the response has not been generated yet */
+        FETCHED,
+        /** The response has been generated and is checkpointed */
+        GENERATED,
+        /** The reply is cleared for posting, automatically or by a reviewer */
+        APPROVED,
+        /** The reply has been posted; only the bookkeeping is left */
+        POSTED
+    }
+    
+    private String id;
+    
+    private State state;
+    
+    private Post post;
+    
+    private Comment comment;
+    
+    private WorkflowConfig config;
+    
+    private boolean requiresManualReview;
+    
+    private GeneratedResponse response;
+    
+    private boolean manuallyApproved;
+    
+    private String responseId;
+    
+    private Instant createdAt;
+    
+    private Instant updatedAt;
+    
+    // Constructors
+    public CommentCheckpoint() {
+        this.state = State.FETCHED;
+    }
+    
+    public CommentCheckpoint(String id, Comment comment, WorkflowConfig config, Instant createdAt) {
+        this.id = id;
+        this.state = State.FETCHED;
+        this.comment = comment;
+        this.config = config;
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+    }
+    
+    /**
+     * Checks whether the comment has completed the given stage.
+     */
+    public boolean hasReached(State stage) {
+        return state != null && state.compareTo(stage) >= 0;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public void setState(State state) {
+        this.state = state;
+    }
+    
+    public Post getPost() {
+        return post;
+    }
+    
+    public void setPost(Post post) {
+        this.post = post;
+    }
+    
+    public Comment getComment() {
+        return comment;
+    }
+    
+    public void setComment(Comment comment) {
+        this.comment = comment;
+    }
+    
+    public WorkflowConfig getConfig() {
+        return config;
+    }
+    
+    public void setConfig(WorkflowConfig config) {
+        this.config = config;
+    }
+    
+    public boolean isRequiresManualReview() {
+        return requiresManualReview;
+    }
+    
+    public void setRequiresManualReview(boolean requiresManualReview) {
+        this.requiresManualReview = requiresManualReview;
+    }
+    
+    public GeneratedResponse getResponse() {
+        return response;
+    }
+    
+    public void setResponse(GeneratedResponse response) {
+        this.response = response;
+    }
+    
+    public boolean isManuallyApproved() {
+        return manuallyApproved;
+    }
+    
+    public void setManuallyApproved(boolean manuallyApproved) {
+        this.manuallyApproved = manuallyApproved;
+    }
+    
+    public String getResponseId() {
+        return responseId;
+    }
+    
+    public void setResponseId(String responseId) {
+        this.responseId = responseId;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.linkedin.model;
+
+import java.time.Instant;
+
+/**
+ * High-watermark of the comments already fetched for a post.
+ * Polls only request comments created at or after the watermark, minus a re-scan window.
+ */
+public class CommentCursor {
+    private String postId;
+    
+    private Instant lastCreatedAt;
+    
+    private String lastCommentId;
+    
+    private Instant updatedAt;
+    
+    // Constructors
+    public CommentCursor() {
+    }
+    
+    public CommentCursor(String postId, Instant lastCreatedAt, String lastCommentId, Instant updatedAt) {
+        this.postId = postId;
+        this.lastCreatedAt = lastCreatedAt;
+        this.lastCommentId = lastCommentId;
+        this.updatedAt = updatedAt;
+    }
+    
+    /**
+     * Checks whether a comment lies beyond this watermark, ordering by creation time and then comment ID.
+     */
+    public boolean isBefore(Comment comment) {
+        if (comment.getTimestamp() == null) {
+            return false;
+        }
+        if (lastCreatedAt == null) {
+            return true;
+        }
+        int byTime = comment.getTimestamp().compareTo(lastCreatedAt);
+        if (byTime != 0) {
+            return byTime > 0;
+        }
+        return lastCommentId == null || (comment.getId() != null && comment.getId().compareTo(lastCommentId) > 0);
+    }
+    
+    // Getters and Setters
+    public String getPostId() {
+        return postId;
+    }
+    
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+    
+    public Instant getLastCreatedAt() {
+        return lastCreatedAt;
+    }
+    
+    public void setLastCreatedAt(Instant lastCreatedAt) {
+        this.lastCreatedAt = lastCreatedAt;
+    }
+    
+    public String getLastCommentId() {
+        return lastCommentId;
+    }
+    
+    public void setLastCommentId(String lastCommentId) {
+        this.lastCommentId = lastCommentId;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.linkedin.model;
+
+import java.time.Instant;
+
+/**
+ * A generated response queued for manual approval.
+ * Persisted until its reply has been posted or it has been rejected.
+ */
+public class PendingApproval {
+    
+    /**
+     * Review state of a queued response.
+     */
+    public enum State {
+        /** Waiting for a reviewer's decision */
+        PENDING,
+        /** Approved; the reply is being posted */
+        APPROVED
+    }
+    
+    private String id;
+    
+    private State state;
+    
+    private Post post;
+    
+    private Comment comment;
+    
+    private GeneratedResponse response;
+    
+    private WorkflowConfig config;
+    
+    private Instant createdAt;
+    
+    private Instant decidedAt;
+    
+    // Constructors
+    public PendingApproval() {
+        this.state = State.PENDING;
+    }
+    
+    public PendingApproval(String id, Post post, Comment comment, GeneratedResponse response,
+                           WorkflowConfig config, Instant createdAt) {
+        this.id = id;
+        this.state = State.PENDING;
+        this.post = post;
+        this.comment = comment;
+        this.response = response;
+        this.config = config;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public void setState(State state) {
+        this.state = state;
+    }
+    
+    public Post getPost() {
+        return post;
+    }
+    
+    public void setPost(Post post) {
+        this.post = post;
+    }
+    
+    public Comment getComment() {
+        return comment;
+    }
+    
+    public void setComment(Comment comment) {
+        this.comment = comment;
+    }
+    
+    public GeneratedResponse getResponse() {
+        return response;
+    }
+    
+    public void setResponse(GeneratedResponse response) {
+        this.response = response;
+    }
+    
+    public WorkflowConfig getConfig() {
+        return config;
+    }
+    
+    public void setConfig(WorkflowConfig config) {
+        this.config = config;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Instant getDecidedAt() {
+        return decidedAt;
+    }
+    
+    public void setDecidedAt(Instant decidedAt) {
+        this.decidedAt = decidedAt;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.linkedin.model;
+
+import java.time.Instant;
+
+/**
+ * A reply whose posting failed and is waiting for its next attempt.
+ * Persisted until the reply is posted or its attempts are exhausted.
+ */
+public class ReplyRetry {
+    private String id;
+    
+    private Post post;
+    
+    private Comment comment;
+    
+    private GeneratedResponse response;
+    
+    private WorkflowConfig config;
+    
+    private boolean manuallyApproved;
+    
+    private int attempts;
+    
+    private Instant nextAttemptAt;
+    
+    private String lastError;
+    
+    private int lastStatusCode;
+    
+    private Instant createdAt;
+    
+    // Constructors
+    public ReplyRetry() {
+    }
+    
+    public ReplyRetry(String id, Post post, Comment comment, GeneratedResponse response,
+                      WorkflowConfig config, boolean manuallyApproved, Instant createdAt) {
+        this.id = id;
+        this.post = post;
+        this.comment = comment;
+        this.response = response;
+        this.config = config;
+        this.manuallyApproved = manuallyApproved;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Post getPost() {
+        return post;
+    }
+    
+    public void setPost(Post post) {
+        this.post = post;
+    }
+    
+    public Comment getComment() {
+        return comment;
+    }
+    
+    public void setComment(Comment comment) {
+        this.comment = comment;
+    }
+    
+    public GeneratedResponse getResponse() {
+        return response;
+    }
+    
+    public void setResponse(GeneratedResponse response) {
+        this.response = response;
+    }
+    
+    public WorkflowConfig getConfig() {
+        return config;
+    }
+    
+    public void setConfig(WorkflowConfig config) {
+        this.config = config;
+    }
+    
+    public boolean isManuallyApproved() {
+        return manuallyApproved;
+    }
+    
+    public void setManuallyApproved(boolean manuallyApproved) {
+        this.manuallyApproved = manuallyApproved;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public int getLastStatusCode() {
+        return lastStatusCode;
+    }
+    
+    public void setLastStatusCode(int lastStatusCode) {
+        this.lastStatusCode = lastStatusCode;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.linkedin.model;
 
+import com.example.linkedin.util.KeywordMatcher;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -24,6 +25,9 @@ public class WorkflowConfig {
     
     private List<String> manualReviewKeywords;
     
+    // Compiled from manualReviewKeywords on first use and dropped when they are replaced; not serialized
+    private volatile KeywordMatcher manualReviewMatcher;
+    
     @Min(1)
     private int maxRetries;
     
@@ -90,6 +94,20 @@ public class WorkflowConfig {
 
     public void setManualReviewKeywords(List<String> manualReviewKeywords) {
         this.manualReviewKeywords = manualReviewKeywords;
+        this.manualReviewMatcher = null;
+    }
+    
+    /**
+     * Returns the manual review keywords compiled for matching. The keywords are compiled once and
+     * again only after {@link #setManualReviewKeywords} replaces them or the matching mode changes.
+     */
+    public KeywordMatcher manualReviewMatcher(boolean wholeWords) {
+        KeywordMatcher matcher = manualReviewMatcher;
+        if (matcher == null || matcher.isWholeWords() != wholeWords) {
+            matcher = KeywordMatcher.compile(manualReviewKeywords, wholeWords);
+            manualReviewMatcher = matcher;
+        }
+        return matcher;
     }
 
     public int getMaxRetries() {
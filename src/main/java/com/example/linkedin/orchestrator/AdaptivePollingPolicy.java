@@ -0,0 +1,144 @@
+package com.example.linkedin.orchestrator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Chooses each watched post's next polling interval from how many new comments its polls find.
+ *
+ * The policy keeps an EWMA of the new comments each poll finds, normalized by the time since the
+ * post's previous poll so polls of different lengths, including ones delayed past their interval,
+ * are comparable. A poll that finds nothing doubles
+ * the interval up to the maximum; otherwise the interval is set so that a poll is expected to find
+ * about {@code targetCommentsPerPoll} comments, bounded by the minimum and maximum. When the
+ * watched posts together would poll more often than the per-minute API budget, every post's
+ * interval is stretched by the same factor, and {@link #tryAcquirePoll(long)} enforces the budget
+ * as a hard limit.
+ *
+ * When disabled every post polls on its configured {@code pollingIntervalSeconds}.
+ */
+class AdaptivePollingPolicy {
+    private static final long WINDOW_MILLIS = 60_000;
+    
+    private final boolean enabled;
+    private final long minIntervalSeconds;
+    private final long maxIntervalSeconds;
+    private final double smoothing;
+    private final double targetCommentsPerPoll;
+    private final int pollBudgetPerMinute;
+    
+    // Guarded by this
+    private long windowStartMillis = Long.MIN_VALUE;
+    private int pollsInWindow;
+    
+    /**
+     * @param pollBudgetPerMinute Maximum polls across all posts per minute, or 0 for no limit
+     */
+    AdaptivePollingPolicy(boolean enabled, long minIntervalSeconds, long maxIntervalSeconds,
+                          double smoothing, double targetCommentsPerPoll, int pollBudgetPerMinute) {
+        if (minIntervalSeconds < 1 || maxIntervalSeconds < minIntervalSeconds) {
+            throw new IllegalArgumentException("Polling intervals must satisfy 1 <= min <= max");
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("EWMA smoothing must be in (0, 1]");
+        }
+        this.enabled = enabled;
+        this.minIntervalSeconds = minIntervalSeconds;
+        this.maxIntervalSeconds = maxIntervalSeconds;
+        this.smoothing = smoothing;
+        this.targetCommentsPerPoll = Math.max(1, targetCommentsPerPoll);
+        this.pollBudgetPerMinute = Math.max(0, pollBudgetPerMinute);
+    }
+    
+    /**
+     * Returns the interval a newly watched or reconfigured post starts with.
+     */
+    long initialIntervalSeconds(long configuredSeconds) {
+        long configured = Math.max(1, configuredSeconds);
+        return enabled ? clamp(configured) : configured;
+    }
+    
+    /**
+     * Records a finished poll of a post and returns the interval until its next poll.
+     *
+     * @param newComments New comments the poll found, or -1 if the poll failed
+     * @param polledAt When the poll started
+     * @param watched All watched posts, used to stay within the API budget
+     */
+    long nextIntervalSeconds(WatchedPost post, int newComments, Instant polledAt, Collection<WatchedPost> watched) {
+        long configured = Math.max(1, post.getConfig().getPollingIntervalSeconds());
+        if (!enabled) {
+            return configured;
+        }
+        
+        long current = post.getPollIntervalSeconds();
+        long next;
+        if (newComments < 0) {
+            // A failed poll says nothing about activity
+            next = current;
+        } else {
+            double commentsPerSecond = post.recordCommentRate(newComments / coveredSeconds(post, polledAt), smoothing);
+            if (newComments == 0) {
+                next = Math.min(maxIntervalSeconds, current * 2);
+            } else {
+                next = clamp(Math.round(targetCommentsPerPoll / commentsPerSecond));
+            }
+        }
+        return withinBudget(post, next, watched);
+    }
+    
+    /**
+     * Claims one poll from the per-minute budget.
+     *
+     * @return false if the budget of the current minute is spent and the poll should wait
+     */
+    synchronized boolean tryAcquirePoll(long nowMillis) {
+        if (!enabled || pollBudgetPerMinute == 0) {
+            return true;
+        }
+        if (windowStartMillis == Long.MIN_VALUE || nowMillis - windowStartMillis >= WINDOW_MILLIS) {
+            windowStartMillis = nowMillis;
+            pollsInWindow = 0;
+        }
+        if (pollsInWindow >= pollBudgetPerMinute) {
+            return false;
+        }
+        pollsInWindow++;
+        return true;
+    }
+    
+    /**
+     * Stretches an interval so the polls per minute of all watched posts fit the budget.
+     */
+    private long withinBudget(WatchedPost post, long intervalSeconds, Collection<WatchedPost> watched) {
+        if (pollBudgetPerMinute == 0) {
+            return intervalSeconds;
+        }
+        double pollsPerMinute = 60.0 / intervalSeconds;
+        for (WatchedPost other : watched) {
+            if (other != post) {
+                pollsPerMinute += 60.0 / other.getPollIntervalSeconds();
+            }
+        }
+        if (pollsPerMinute <= pollBudgetPerMinute) {
+            return intervalSeconds;
+        }
+        return (long) Math.ceil(intervalSeconds * pollsPerMinute / pollBudgetPerMinute);
+    }
+    
+    /**
+     * Returns the time since the post's previous poll, or its planned interval for the first poll.
+     */
+    private static double coveredSeconds(WatchedPost post, Instant polledAt) {
+        Instant previous = post.getLastPolledAt();
+        if (previous == null) {
+            return post.getPollIntervalSeconds();
+        }
+        return Math.max(1, Duration.between(previous, polledAt).toMillis() / 1000.0);
+    }
+    
+    private long clamp(long seconds) {
+        return Math.max(minIntervalSeconds, Math.min(maxIntervalSeconds, seconds));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.PendingApproval;
+import com.example.linkedin.repository.StorageRepository;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable queue of generated responses awaiting manual approval.
+ * Items are indexed by ID, by post and by comment, and every change is written through
+ * to the storage repository so the queue survives restarts.
+ */
+class ApprovalQueue {
+    private final StorageRepository storageRepository;
+    private final Clock clock;
+
+    // A lock rather than a monitor, since storage writes happen while holding it and a virtual
+    // thread blocked on a monitor pins its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Oldest first; guarded by lock
+    private final Map<String, PendingApproval> items = new LinkedHashMap<>();
+    private final Map<String, Set<String>> idsByPost = new HashMap<>();
+    private final Set<String> commentKeys = new HashSet<>();
+
+    ApprovalQueue(StorageRepository storageRepository) {
+        this(storageRepository, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock Times approval decisions
+     */
+    ApprovalQueue(StorageRepository storageRepository, Clock clock) {
+        this.storageRepository = storageRepository;
+        this.clock = clock;
+        for (PendingApproval approval : storageRepository.getPendingApprovals()) {
+            index(approval);
+        }
+    }
+
+    /**
+     * Queues an item unless its comment is already queued.
+     *
+     * @return true if the item was added
+     */
+    boolean add(PendingApproval approval) {
+        lock.lock();
+        try {
+            if (commentKeys.contains(commentKey(approval.getComment()))) {
+                return false;
+            }
+            storageRepository.savePendingApproval(approval);
+            index(approval);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    PendingApproval get(String id) {
+        lock.lock();
+        try {
+            return id == null ? null : items.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lists queued items oldest first, optionally only those of one post.
+     */
+    List<PendingApproval> list(String postId) {
+        lock.lock();
+        try {
+            if (postId == null) {
+                return new ArrayList<>(items.values());
+            }
+            List<PendingApproval> result = new ArrayList<>();
+            for (String id : idsByPost.getOrDefault(postId, Set.of())) {
+                result.add(items.get(id));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the oldest item still waiting for a decision.
+     */
+    PendingApproval oldestPending() {
+        lock.lock();
+        try {
+            for (PendingApproval approval : items.values()) {
+                if (approval.getState() == PendingApproval.State.PENDING) {
+                    return approval;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean containsComment(String postId, String commentId) {
+        lock.lock();
+        try {
+            return commentKeys.contains(postId + '\0' + commentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves a pending item to APPROVED so it cannot be decided twice.
+     *
+     * @return The approved item, or null if it is unknown or already decided
+     */
+    PendingApproval markApproved(String id) {
+        lock.lock();
+        try {
+            PendingApproval approval = items.get(id);
+            if (approval == null || approval.getState() != PendingApproval.State.PENDING) {
+                return null;
+            }
+            approval.setState(PendingApproval.State.APPROVED);
+            approval.setDecidedAt(clock.instant());
+            storageRepository.savePendingApproval(approval);
+            return approval;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a pending item that a reviewer rejected.
+     *
+     * @return The rejected item, or null if it is unknown or already decided
+     */
+    PendingApproval removePending(String id) {
+        lock.lock();
+        try {
+            PendingApproval approval = items.get(id);
+            if (approval == null || approval.getState() != PendingApproval.State.PENDING) {
+                return null;
+            }
+            remove(id);
+            return approval;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(String id) {
+        lock.lock();
+        try {
+            PendingApproval approval = items.remove(id);
+            if (approval == null) {
+                return;
+            }
+            String postId = approval.getComment().getPostId();
+            Set<String> ids = idsByPost.get(postId);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsByPost.remove(postId);
+                }
+            }
+            commentKeys.remove(commentKey(approval.getComment()));
+            storageRepository.deletePendingApproval(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void index(PendingApproval approval) {
+        items.put(approval.getId(), approval);
+        idsByPost.computeIfAbsent(approval.getComment().getPostId(), key -> new LinkedHashSet<>()).add(approval.getId());
+        commentKeys.add(commentKey(approval.getComment()));
+    }
+
+    private static String commentKey(Comment comment) {
+        return comment.getPostId() + '\0' + comment.getId();
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.BackfillJob;
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.repository.StorageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs backfill jobs, which reply to the existing comments of posts being onboarded.
+ *
+ * Jobs run one at a time in submission order. Each post's pending comments are split into
+ * batches, and up to {@code concurrency} batches run at once on workers of their own, paced to
+ * {@code commentsPerMinute}, so a backfill never takes the threads or the rate budget of live
+ * polling. Progress is written through to the storage repository after every batch; jobs still
+ * queued or running when the application stops resume on the next start, and skip the comments
+ * replied to in the meantime.
+ */
+class BackfillRunner implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BackfillRunner.class);
+    
+    /**
+     * The steps of a backfill that belong to the orchestrator.
+     */
+    interface Steps {
+        
+        /**
+         * Fetches the comments of a post that still need a reply, oldest first.
+         */
+        List<Comment> pendingComments(String postId);
+        
+        /**
+         * Replies to a batch of comments on one post.
+         *
+         * @return How many of the comments were replied to or queued for approval
+         * @throws InterruptedException If the batch was not processed because of shutdown; it is not counted
+         */
+        int processBatch(BackfillJob job, String postId, List<Comment> batch) throws InterruptedException;
+    }
+    
+    private final StorageRepository storageRepository;
+    private final Steps steps;
+    private final int concurrency;
+    private final int batchSize;
+    private final long commentIntervalNanos;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService workers;
+    
+    // Guarded by this
+    private final Map<String, BackfillJob> jobs = new LinkedHashMap<>();
+    private final Map<String, Instant> cutoffs = new HashMap<>();
+    private long nextPermitNanos = System.nanoTime();
+    
+    private volatile boolean draining;
+    
+    /**
+     * @param commentsPerMinute Comments a backfill may process per minute, or 0 for no limit
+     */
+    BackfillRunner(StorageRepository storageRepository, Steps steps, int concurrency, int batchSize,
+                   int commentsPerMinute) {
+        if (concurrency < 1 || batchSize < 1 || commentsPerMinute < 0) {
+            throw new IllegalArgumentException("Invalid backfill settings: concurrency " + concurrency
+                    + ", batch size " + batchSize + ", comments per minute " + commentsPerMinute);
+        }
+        this.storageRepository = storageRepository;
+        this.steps = steps;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.commentIntervalNanos = commentsPerMinute == 0 ? 0 : TimeUnit.MINUTES.toNanos(1) / commentsPerMinute;
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backfill-1");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "backfill-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        int resumed = 0;
+        synchronized (this) {
+            for (BackfillJob job : storageRepository.getBackfillJobs()) {
+                jobs.put(job.getId(), job);
+                if (!job.hasFinished()) {
+                    jobExecutor.execute(() -> run(job));
+                    resumed++;
+                }
+            }
+        }
+        if (resumed > 0) {
+            logger.info("Resuming {} backfill jobs", resumed);
+        }
+    }
+    
+    /**
+     * Queues a job behind the jobs already queued.
+     */
+    synchronized BackfillJob submit(BackfillJob job) {
+        storageRepository.saveBackfillJob(job);
+        jobs.put(job.getId(), job);
+        jobExecutor.execute(() -> run(job));
+        logger.info("Queued backfill job {} for {} posts", job.getId(), job.getPostIds().size());
+        return job;
+    }
+    
+    synchronized BackfillJob get(String id) {
+        return id == null ? null : jobs.get(id);
+    }
+    
+    /**
+     * Lists all jobs, oldest first.
+     */
+    synchronized List<BackfillJob> list() {
+        return new ArrayList<>(jobs.values());
+    }
+    
+    /**
+     * Cancels a job. Batches already running finish; no further batches start.
+     *
+     * @return The cancelled job, or null if it is unknown or already finished
+     */
+    synchronized BackfillJob cancel(String id) {
+        BackfillJob job = get(id);
+        if (job == null || job.hasFinished()) {
+            return null;
+        }
+        job.setState(BackfillJob.State.CANCELLED);
+        job.setFinishedAt(Instant.now());
+        storageRepository.saveBackfillJob(job);
+        logger.info("Cancelled backfill job {}", id);
+        return job;
+    }
+    
+    /**
+     * Starts no further batches or jobs, so shutdown only waits for the batches already running.
+     * The running job stays RUNNING and resumes on the next start.
+     */
+    void drain() {
+        draining = true;
+    }
+    
+    /**
+     * Checks whether a running backfill is replying to a comment, so live polling leaves it alone.
+     * A backfill covers every comment of its current post up to the newest one it fetched.
+     */
+    synchronized boolean covers(Comment comment) {
+        Instant cutoff = cutoffs.get(comment.getPostId());
+        return cutoff != null && comment.getTimestamp() != null && !comment.getTimestamp().isAfter(cutoff);
+    }
+    
+    private void run(BackfillJob job) {
+        synchronized (this) {
+            if (job.hasFinished() || draining) {
+                return;
+            }
+            job.setState(BackfillJob.State.RUNNING);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(Instant.now());
+            }
+            storageRepository.saveBackfillJob(job);
+        }
+        logger.info("Starting backfill job {}", job.getId());
+        try {
+            for (String postId : job.getPostIds()) {
+                if (job.getCompletedPostIds().contains(postId)) {
+                    continue;
+                }
+                runPost(job, postId);
+                synchronized (this) {
+                    if (job.hasFinished()) {
+                        return;
+                    }
+                    job.getCompletedPostIds().add(postId);
+                    job.setCurrentPostId(null);
+                    storageRepository.saveBackfillJob(job);
+                }
+            }
+            finish(job, BackfillJob.State.COMPLETED, null);
+        } catch (InterruptedException e) {
+            // Shutting down; the job stays RUNNING and resumes on the next start
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Backfill job {} failed: {}", job.getId(), e.getMessage(), e);
+            finish(job, BackfillJob.State.FAILED, e.getMessage());
+        }
+    }
+    
+    private void runPost(BackfillJob job, String postId) throws InterruptedException {
+        List<Comment> pending = steps.pendingComments(postId);
+        if (job.getMaxComments() > 0) {
+            int budget = Math.max(0, job.getMaxComments() - job.getProcessedComments() - job.getFailedComments());
+            pending = pending.subList(0, Math.min(budget, pending.size()));
+        }
+        Instant cutoff = pending.stream().map(Comment::getTimestamp).filter(Objects::nonNull)
+                .max(Comparator.naturalOrder()).orElse(null);
+        synchronized (this) {
+            job.setCurrentPostId(postId);
+            job.setRemainingComments(pending.size());
+            storageRepository.saveBackfillJob(job);
+            if (cutoff != null) {
+                cutoffs.put(postId, cutoff);
+            }
+        }
+        logger.info("Backfilling {} comments on post {} (job {})", pending.size(), postId, job.getId());
+        
+        List<Future<?>> batches = new ArrayList<>();
+        Semaphore slots = new Semaphore(concurrency);
+        try {
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<Comment> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                slots.acquire();
+                if (job.hasFinished() || draining) {
+                    slots.release();
+                    break;
+                }
+                batches.add(workers.submit(() -> {
+                    try {
+                        runBatch(job, postId, batch);
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+            if (draining) {
+                // The post is not complete; its remaining comments are backfilled on the next start
+                throw new InterruptedException("Backfill drained for shutdown");
+            }
+        } catch (InterruptedException e) {
+            batches.forEach(batch -> batch.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            // runBatch catches everything, so this only happens on errors such as OutOfMemoryError
+            throw new IllegalStateException("Backfill worker failed", e.getCause());
+        } finally {
+            synchronized (this) {
+                cutoffs.remove(postId);
+            }
+        }
+    }
+    
+    private void runBatch(BackfillJob job, String postId, List<Comment> batch) {
+        int handled = 0;
+        try {
+            awaitBudget(batch.size());
+            if (draining) {
+                return;
+            }
+            handled = steps.processBatch(job, postId, batch);
+        } catch (InterruptedException e) {
+            // Shutting down; the batch is not counted and is backfilled again on the next start
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Backfill batch of {} comments on post {} failed: {}", batch.size(), postId, e.getMessage(), e);
+        }
+        synchronized (this) {
+            job.setProcessedComments(job.getProcessedComments() + handled);
+            job.setFailedComments(job.getFailedComments() + batch.size() - handled);
+            job.setRemainingComments(Math.max(0, job.getRemainingComments() - batch.size()));
+            storageRepository.saveBackfillJob(job);
+        }
+    }
+    
+    /**
+     * Reserves the share of the per-minute budget a batch needs and waits until it is due.
+     */
+    private void awaitBudget(int comments) throws InterruptedException {
+        if (commentIntervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextPermitNanos);
+            nextPermitNanos = start + commentIntervalNanos * comments;
+            waitNanos = start - now;
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+    
+    private synchronized void finish(BackfillJob job, BackfillJob.State state, String error) {
+        if (job.hasFinished()) {
+            return;
+        }
+        job.setState(state);
+        job.setError(error);
+        job.setCurrentPostId(null);
+        job.setFinishedAt(Instant.now());
+        storageRepository.saveBackfillJob(job);
+        logger.info("Backfill job {} {}: {} comments processed, {} failed", job.getId(),
+                state.name().toLowerCase(), job.getProcessedComments(), job.getFailedComments());
+    }
+    
+    /**
+     * Stops the running job; it stays RUNNING in storage and resumes on the next start.
+     */
+    @Override
+    public void close() {
+        jobExecutor.shutdownNow();
+        workers.shutdownNow();
+    }
+}
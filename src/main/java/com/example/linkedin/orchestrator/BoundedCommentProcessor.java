@@ -0,0 +1,196 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs a batch of comments through a processing step with at most {@code concurrency}
+ * comments in flight, and returns once the whole batch has finished.
+ *
+ * Duplicates within a batch are dropped, and a comment that is still being processed by a
+ * concurrent batch is skipped, so the same comment is never worked on twice at the same time. Each comment runs with
+ * an empty MDC that is discarded afterwards, so correlation IDs cannot leak between comments
+ * sharing a worker thread. With a concurrency of 1 comments run inline on the caller's thread.
+ *
+ * With virtual threads every comment gets a thread of its own and a semaphore, rather than the
+ * pool size, keeps at most {@code concurrency} of them working; waiting on LinkedIn or the LLM
+ * then costs no platform thread, so the concurrency can be raised into the thousands.
+ */
+class BoundedCommentProcessor implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BoundedCommentProcessor.class);
+    
+    private final int concurrency;
+    private final ExecutorService executor;
+    // Bounds the comments in flight on virtual threads; null with a fixed pool
+    private final Semaphore permits;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    
+    BoundedCommentProcessor(int concurrency) {
+        this(concurrency, false);
+    }
+    
+    /**
+     * @param virtualThreads Whether to run comments on virtual threads; the caller checks {@link VirtualThreads#isSupported()}
+     */
+    BoundedCommentProcessor(int concurrency, boolean virtualThreads) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Processing concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        if (concurrency == 1) {
+            this.executor = null;
+            this.permits = null;
+        } else if (virtualThreads) {
+            this.executor = VirtualThreads.newThreadPerTaskExecutor("comment-worker-");
+            this.permits = new Semaphore(concurrency);
+        } else {
+            this.permits = null;
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "comment-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    int getConcurrency() {
+        return concurrency;
+    }
+    
+    /**
+     * Checks whether a comment is queued or running in a batch, on this or any other caller's thread.
+     */
+    boolean isInFlight(Comment comment) {
+        return inFlight.contains(key(comment));
+    }
+    
+    /**
+     * Processes every comment and waits for all of them to finish.
+     * Failures are logged per comment and do not affect the rest of the batch.
+     *
+     * @return number of comments processed (duplicates and in-flight comments excluded)
+     * @throws InterruptedException If the caller was interrupted or the processor closed before the batch finished
+     */
+    int processAll(List<Comment> comments, Consumer<Comment> step) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(comments.size());
+        List<String> queuedKeys = new ArrayList<>(comments.size());
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        Set<String> batchKeys = new HashSet<>();
+        int accepted = 0;
+        try {
+            for (Comment comment : comments) {
+                String key = key(comment);
+                if (!batchKeys.add(key)) {
+                    continue;
+                }
+                if (!inFlight.add(key)) {
+                    logger.debug("Comment {} is already being processed, skipping", comment.getId());
+                    continue;
+                }
+                accepted++;
+                if (executor == null) {
+                    runIsolated(comment, key, step);
+                } else {
+                    queuedKeys.add(key);
+                    futures.add(executor.submit(() -> {
+                        if (permits != null && !acquirePermit(key)) {
+                            return;
+                        }
+                        started.add(key);
+                        try {
+                            runIsolated(comment, key, step);
+                        } finally {
+                            if (permits != null) {
+                                permits.release();
+                            }
+                        }
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (CancellationException e) {
+                    // Dropped from the pool's queue by close()
+                    throw new InterruptedException("Comment processor closed");
+                }
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            // Tasks that never started will not release their keys themselves
+            queuedKeys.stream().filter(key -> !started.contains(key)).forEach(inFlight::remove);
+            throw e;
+        } catch (ExecutionException e) {
+            // runIsolated catches everything, so this only happens on errors such as OutOfMemoryError
+            throw new IllegalStateException("Comment worker failed", e.getCause());
+        }
+        return accepted;
+    }
+    
+    private boolean acquirePermit(String key) {
+        try {
+            permits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            // Cancelled before it started
+            inFlight.remove(key);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void runIsolated(Comment comment, String key, Consumer<Comment> step) {
+        Map<String, String> callerContext = MDC.getCopyOfContextMap();
+        MDC.clear();
+        try {
+            step.accept(comment);
+        } catch (Exception e) {
+            logger.error("Failed to process comment {}: {}", comment.getId(), e.getMessage(), e);
+        } finally {
+            inFlight.remove(key);
+            if (callerContext != null) {
+                MDC.setContextMap(callerContext);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+    
+    private static String key(Comment comment) {
+        return comment.getPostId() + '\u0000' + comment.getId();
+    }
+    
+    /**
+     * Interrupts the comments being processed and cancels those still queued, so callers waiting
+     * for their batch return instead of waiting for comments that will never run.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            for (Runnable queued : executor.shutdownNow()) {
+                if (queued instanceof Future) {
+                    ((Future<?>) queued).cancel(false);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.CommentCheckpoint;
+import com.example.linkedin.repository.StorageRepository;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable checkpoints of the comments in progress, at most one per comment.
+ * Every stage a comment completes is written through to the storage repository, and a
+ * checkpoint is removed once its comment is done or handed over to the approval queue.
+ */
+class CommentCheckpoints {
+    private final StorageRepository storageRepository;
+    private final Clock clock;
+    
+    // Guards the maps only; checkpoints are written through outside it, so one slow write does
+    // not hold up every other comment. A comment is handled by one thread at a time, so the
+    // writes of one checkpoint never race each other.
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Guarded by lock
+    private final Map<String, CommentCheckpoint> checkpoints = new LinkedHashMap<>();
+    private final Set<String> resuming = new HashSet<>();
+    
+    CommentCheckpoints(StorageRepository storageRepository) {
+        this(storageRepository, Clock.systemUTC());
+    }
+    
+    /**
+     * @param clock Times checkpoint updates
+     */
+    CommentCheckpoints(StorageRepository storageRepository, Clock clock) {
+        this.storageRepository = storageRepository;
+        this.clock = clock;
+        for (CommentCheckpoint checkpoint : storageRepository.getCommentCheckpoints()) {
+            checkpoints.put(commentKey(checkpoint.getComment()), checkpoint);
+        }
+    }
+    
+    CommentCheckpoint get(String postId, String commentId) {
+        lock.lock();
+        try {
+            return checkpoints.get(postId + '\0' + commentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Lists the checkpoints, oldest first.
+     */
+    List<CommentCheckpoint> list() {
+        lock.lock();
+        try {
+            return new ArrayList<>(checkpoints.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Records that a comment has completed a stage. A checkpoint never moves back to an earlier stage.
+     */
+    void advance(CommentCheckpoint checkpoint, CommentCheckpoint.State state) {
+        if (!checkpoint.hasReached(state)) {
+            checkpoint.setState(state);
+        }
+        checkpoint.setUpdatedAt(clock.instant());
+        storageRepository.saveCommentCheckpoint(checkpoint);
+        lock.lock();
+        try {
+            checkpoints.put(commentKey(checkpoint.getComment()), checkpoint);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void remove(CommentCheckpoint checkpoint) {
+        if (checkpoint == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            String key = commentKey(checkpoint.getComment());
+            if (checkpoints.get(key) == checkpoint) {
+                checkpoints.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        storageRepository.deleteCommentCheckpoint(checkpoint.getId());
+    }
+    
+    /**
+     * Marks a checkpoint as being resumed after a restart, so polls leave its comment alone meanwhile.
+     *
+     * @return false if it is already being resumed
+     */
+    boolean beginResume(CommentCheckpoint checkpoint) {
+        lock.lock();
+        try {
+            return resuming.add(commentKey(checkpoint.getComment()));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void endResume(CommentCheckpoint checkpoint) {
+        lock.lock();
+        try {
+            resuming.remove(commentKey(checkpoint.getComment()));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    boolean isResuming(String postId, String commentId) {
+        lock.lock();
+        try {
+            return resuming.contains(postId + '\0' + commentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int size() {
+        lock.lock();
+        try {
+            return checkpoints.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static String commentKey(Comment comment) {
+        return comment.getPostId() + '\0' + comment.getId();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ranks pending comments so urgent and valuable ones are handled first.
+ *
+ * A comment's score adds up a weight for containing a manual review keyword, a recency bonus
+ * that fades linearly over the recency window, a length bonus that saturates at
+ * {@code longCommentChars}, and the configured weight of its author. To keep low-scoring
+ * comments from starving under backlog, a queued comment gains {@code agingPerMinute} for every
+ * minute it waits. Since every comment ages at the same rate, the order this produces never
+ * changes while comments wait, so the rank can be fixed when a comment is queued:
+ * {@code score - agingPerMinute * minutesQueuedAt}, higher ranks first.
+ */
+class CommentPrioritizer {
+    private final boolean enabled;
+    private final double keywordWeight;
+    private final double recencyWeight;
+    private final long recencyWindowSeconds;
+    private final double lengthWeight;
+    private final int longCommentChars;
+    private final double agingPerMinute;
+    private final Map<String, Double> authorWeights;
+    private final Instant epoch;
+    
+    /**
+     * @param authorWeights Extra score per author, keyed by author ID or name
+     */
+    CommentPrioritizer(boolean enabled, double keywordWeight, double recencyWeight, long recencyWindowSeconds,
+                       double lengthWeight, int longCommentChars, double agingPerMinute,
+                       Map<String, Double> authorWeights, Instant epoch) {
+        if (recencyWindowSeconds < 1 || longCommentChars < 1) {
+            throw new IllegalArgumentException("Recency window and long comment length must be positive");
+        }
+        if (agingPerMinute < 0) {
+            throw new IllegalArgumentException("Aging rate must not be negative");
+        }
+        this.enabled = enabled;
+        this.keywordWeight = keywordWeight;
+        this.recencyWeight = recencyWeight;
+        this.recencyWindowSeconds = recencyWindowSeconds;
+        this.lengthWeight = lengthWeight;
+        this.longCommentChars = longCommentChars;
+        this.agingPerMinute = agingPerMinute;
+        this.authorWeights = Map.copyOf(authorWeights);
+        this.epoch = epoch;
+    }
+    
+    boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Returns the score of a comment at the given time, before aging.
+     *
+     * @param hasReviewKeyword Whether the comment contains one of its post's manual review keywords
+     */
+    double score(Comment comment, boolean hasReviewKeyword, Instant now) {
+        double score = hasReviewKeyword ? keywordWeight : 0;
+        if (comment.getTimestamp() != null) {
+            long ageSeconds = Math.max(0, Duration.between(comment.getTimestamp(), now).getSeconds());
+            score += recencyWeight * Math.max(0, 1 - (double) ageSeconds / recencyWindowSeconds);
+        }
+        int length = comment.getText() == null ? 0 : comment.getText().length();
+        score += lengthWeight * Math.min(1, (double) length / longCommentChars);
+        score += authorWeight(comment);
+        return score;
+    }
+    
+    /**
+     * Returns the rank of a comment queued at the given time; higher ranks are handled first.
+     */
+    double rank(Comment comment, boolean hasReviewKeyword, Instant queuedAt) {
+        double minutesQueuedAt = Duration.between(epoch, queuedAt).toMillis() / 60_000.0;
+        return score(comment, hasReviewKeyword, queuedAt) - agingPerMinute * minutesQueuedAt;
+    }
+    
+    private double authorWeight(Comment comment) {
+        if (authorWeights.isEmpty()) {
+            return 0;
+        }
+        Double weight = comment.getAuthorId() == null ? null : authorWeights.get(comment.getAuthorId());
+        if (weight == null && comment.getAuthorName() != null) {
+            weight = authorWeights.get(comment.getAuthorName());
+        }
+        return weight == null ? 0 : weight;
+    }
+    
+    /**
+     * Parses author weights given as {@code author=weight} pairs separated by commas.
+     */
+    static Map<String, Double> parseWeights(String value) {
+        if (value == null || value.isBlank()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Author weight must be author=weight: " + entry.trim());
+            }
+            try {
+                weights.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid author weight: " + entry.trim());
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,484 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.WorkflowConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable queue of fetched comments waiting to be processed, kept on local disk so a burst of
+ * comments costs disk space rather than heap and survives a restart.
+ *
+ * Comments are appended to memory-mapped segment files of a fixed size, each named after the
+ * sequence number of its first record. A record is its payload length, a CRC32 of the payload
+ * and the comment with the configuration it was polled with, as JSON; the length is written
+ * last, so a write torn by a crash reads as the end of the log and is overwritten on reopen.
+ * The consumer offset, the sequence of the oldest comment not yet acknowledged, is kept in a
+ * memory-mapped file of its own. Comments may be acknowledged in any order, but the offset only
+ * moves past a contiguous run of them, so after a restart reading resumes at the oldest
+ * unacknowledged comment and comments acknowledged after it are read again. Segments whose
+ * comments have all been acknowledged are deleted.
+ */
+public class CommentWorkQueue implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CommentWorkQueue.class);
+    
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_FILE = "consumer.offset";
+    private static final int HEADER_BYTES = 8;
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final ObjectMapper objectMapper;
+    
+    // Appends, reads and acknowledgements come from different threads; a lock rather than a
+    // monitor, since file writes happen while holding it
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Guarded by lock; keyed by base sequence
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Set<Long> acknowledged = new HashSet<>();
+    private MappedByteBuffer offsetBuffer;
+    private long committed;
+    private long nextSequence;
+    private Segment readSegment;
+    private int readPosition;
+    private long readSequence;
+    private boolean closed;
+    
+    /**
+     * Opens the queue in the given directory, creating it if needed, and recovers the comments
+     * that were not acknowledged before the last shutdown.
+     *
+     * @param segmentBytes Size of each segment file; a single comment must fit in one
+     */
+    CommentWorkQueue(Path directory, int segmentBytes, ObjectMapper objectMapper) throws IOException {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.objectMapper = objectMapper;
+        open();
+    }
+    
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(directory.resolve(OFFSET_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            offsetBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+        }
+        committed = offsetBuffer.getLong(0);
+        
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            long size = Files.size(file);
+            segments.put(base, Segment.map(file, base, size > 0 ? size : segmentBytes));
+        }
+        
+        // Every segment but the last is full up to the next one's base; the last one is scanned
+        // for its end, which also discards a record torn by a crash
+        for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+            Map.Entry<Long, Segment> next = segments.higherEntry(entry.getKey());
+            Segment segment = entry.getValue();
+            if (next != null) {
+                segment.records = (int) (next.getKey() - segment.base);
+            } else {
+                recoverTail(segment);
+            }
+        }
+        
+        if (segments.isEmpty()) {
+            segments.put(committed, Segment.map(segmentFile(committed), committed, segmentBytes));
+        }
+        Segment last = segments.lastEntry().getValue();
+        nextSequence = last.base + last.records;
+        if (committed < segments.firstKey() || committed > nextSequence) {
+            logger.warn("Work queue offset {} is outside the log ({} to {}), resuming at {}",
+                    committed, segments.firstKey(), nextSequence, segments.firstKey());
+            commit(segments.firstKey());
+        }
+        deleteAcknowledgedSegments();
+        rewind();
+        if (size() > 0) {
+            logger.info("Work queue opened with {} unprocessed comments in {} segments", size(), segments.size());
+        }
+    }
+    
+    private void recoverTail(Segment segment) {
+        int position = 0;
+        int records = 0;
+        while (true) {
+            int length = segment.recordLength(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || !segment.isIntact(position, length)) {
+                logger.warn("Discarding a torn record at the end of work queue segment {}", segment.file.getFileName());
+                segment.clear(position);
+                break;
+            }
+            position += HEADER_BYTES + length;
+            records++;
+        }
+        segment.records = records;
+        segment.writePosition = position;
+    }
+    
+    /**
+     * Appends comments with the configuration of the post each was polled for, and returns once
+     * they are on disk.
+     *
+     * @throws IllegalArgumentException if a comment does not fit in a segment
+     */
+    void append(List<Comment> comments, WorkflowConfig config) throws IOException {
+        if (comments.isEmpty()) {
+            return;
+        }
+        List<byte[]> payloads = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.set("comment", objectMapper.valueToTree(comment));
+            node.set("config", objectMapper.valueToTree(config));
+            byte[] payload = objectMapper.writeValueAsBytes(node);
+            if (HEADER_BYTES + payload.length > segmentBytes) {
+                throw new IllegalArgumentException("Comment " + comment.getId() + " takes " + payload.length
+                        + " bytes, more than a work queue segment holds");
+            }
+            payloads.add(payload);
+        }
+        
+        lock.lock();
+        try {
+            ensureOpen();
+            Set<Segment> written = new HashSet<>();
+            Segment segment = segments.lastEntry().getValue();
+            for (byte[] payload : payloads) {
+                if (segment.writePosition + HEADER_BYTES + payload.length > segment.capacity) {
+                    segment = Segment.map(segmentFile(nextSequence), nextSequence, segmentBytes);
+                    segments.put(segment.base, segment);
+                }
+                segment.write(payload);
+                written.add(segment);
+                nextSequence++;
+            }
+            for (Segment touched : written) {
+                touched.buffer.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Reads up to {@code max} comments past the ones read before, oldest first.
+     */
+    List<Item> read(int max) {
+        lock.lock();
+        try {
+            ensureOpen();
+            List<Item> items = new ArrayList<>(Math.min(max, (int) Math.min(Integer.MAX_VALUE, nextSequence - readSequence)));
+            while (items.size() < max && readSequence < nextSequence) {
+                if (readSequence == readSegment.base + readSegment.records) {
+                    readSegment = segments.higherEntry(readSegment.base).getValue();
+                    readPosition = 0;
+                }
+                int length = readSegment.recordLength(readPosition);
+                byte[] payload = readSegment.payload(readPosition, length);
+                long sequence = readSequence++;
+                readPosition += HEADER_BYTES + length;
+                try {
+                    JsonNode node = objectMapper.readTree(payload);
+                    items.add(new Item(sequence, objectMapper.treeToValue(node.get("comment"), Comment.class),
+                            objectMapper.treeToValue(node.get("config"), WorkflowConfig.class)));
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable work queue record {}: {}", sequence, e.getMessage());
+                    acknowledged.add(sequence);
+                }
+            }
+            advanceCommitted();
+            return items;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Moves reading back to the oldest comment not yet acknowledged, so comments read but not
+     * acknowledged, e.g. because processing was interrupted, are read again.
+     */
+    void rewind() {
+        lock.lock();
+        try {
+            ensureOpen();
+            readSegment = segments.floorEntry(committed).getValue();
+            readPosition = 0;
+            for (long sequence = readSegment.base; sequence < committed; sequence++) {
+                readPosition += HEADER_BYTES + readSegment.recordLength(readPosition);
+            }
+            readSequence = committed;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Records that a comment has been processed. Acknowledging a comment twice has no effect.
+     */
+    void acknowledge(Item item) {
+        lock.lock();
+        try {
+            if (closed || item.sequence < committed) {
+                return;
+            }
+            acknowledged.add(item.sequence);
+            advanceCommitted();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void advanceCommitted() {
+        long offset = committed;
+        while (acknowledged.remove(offset)) {
+            offset++;
+        }
+        if (offset != committed) {
+            commit(offset);
+            deleteAcknowledgedSegments();
+        }
+    }
+    
+    private void commit(long offset) {
+        committed = offset;
+        offsetBuffer.putLong(0, offset);
+        offsetBuffer.force();
+    }
+    
+    /**
+     * Deletes the segments before the one holding the consumer offset; the segment being
+     * appended to is always kept.
+     */
+    private void deleteAcknowledgedSegments() {
+        while (segments.size() > 1) {
+            Map.Entry<Long, Segment> first = segments.firstEntry();
+            long end = segments.higherKey(first.getKey());
+            if (end > committed) {
+                break;
+            }
+            segments.remove(first.getKey());
+            try {
+                Files.deleteIfExists(first.getValue().file);
+            } catch (IOException e) {
+                logger.warn("Could not delete work queue segment {}: {}", first.getValue().file, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Returns the number of comments appended and not yet acknowledged.
+     */
+    long size() {
+        lock.lock();
+        try {
+            return nextSequence - committed - acknowledged.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public Stats getStats() {
+        lock.lock();
+        try {
+            long bytes = 0;
+            for (Segment segment : segments.values()) {
+                bytes += segment.capacity;
+            }
+            return new Stats(nextSequence - committed - acknowledged.size(), committed, nextSequence,
+                    segments.size(), bytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Path segmentFile(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Work queue is closed");
+        }
+    }
+    
+    /**
+     * Flushes the consumer offset; comments not acknowledged yet are read again on reopen.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                offsetBuffer.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * A queued comment with the configuration of the post it was polled for.
+     */
+    static final class Item {
+        private final long sequence;
+        private final Comment comment;
+        private final WorkflowConfig config;
+        
+        Item(long sequence, Comment comment, WorkflowConfig config) {
+            this.sequence = sequence;
+            this.comment = comment;
+            this.config = config;
+        }
+        
+        long getSequence() {
+            return sequence;
+        }
+        
+        Comment getComment() {
+            return comment;
+        }
+        
+        WorkflowConfig getConfig() {
+            return config;
+        }
+    }
+    
+    private static final class Segment {
+        final Path file;
+        final long base;
+        final int capacity;
+        final MappedByteBuffer buffer;
+        int records;
+        int writePosition;
+        
+        private Segment(Path file, long base, int capacity, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.capacity = capacity;
+            this.buffer = buffer;
+        }
+        
+        static Segment map(Path file, long base, long capacity) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Mapping past the end grows the file; the new bytes read as zero, the end of the log
+                return new Segment(file, base, (int) capacity, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            }
+        }
+        
+        /**
+         * Returns the payload length of the record at a position, 0 past the last record, or a
+         * negative value if the length cannot be right.
+         */
+        int recordLength(int position) {
+            if (position + HEADER_BYTES > capacity) {
+                return 0;
+            }
+            int length = buffer.getInt(position);
+            return length > capacity - position - HEADER_BYTES ? -1 : length;
+        }
+        
+        boolean isIntact(int position, int length) {
+            CRC32 crc = new CRC32();
+            crc.update(payload(position, length));
+            return (int) crc.getValue() == buffer.getInt(position + Integer.BYTES);
+        }
+        
+        byte[] payload(int position, int length) {
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            return payload;
+        }
+        
+        void write(byte[] payload) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buffer.put(writePosition + HEADER_BYTES, payload);
+            buffer.putInt(writePosition + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt(writePosition, payload.length);
+            writePosition += HEADER_BYTES + payload.length;
+            records++;
+        }
+        
+        /**
+         * Zeroes the segment from a position on.
+         */
+        void clear(int position) {
+            for (int i = position; i < capacity; i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+    
+    public static final class Stats {
+        private final long pending;
+        private final long consumerOffset;
+        private final long nextOffset;
+        private final int segments;
+        private final long diskBytes;
+        
+        Stats(long pending, long consumerOffset, long nextOffset, int segments, long diskBytes) {
+            this.pending = pending;
+            this.consumerOffset = consumerOffset;
+            this.nextOffset = nextOffset;
+            this.segments = segments;
+            this.diskBytes = diskBytes;
+        }
+        
+        public long getPending() {
+            return pending;
+        }
+        
+        public long getConsumerOffset() {
+            return consumerOffset;
+        }
+        
+        public long getNextOffset() {
+            return nextOffset;
+        }
+        
+        public int getSegments() {
+            return segments;
+        }
+        
+        public long getDiskBytes() {
+            return diskBytes;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.linkedin.orchestrator;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts the work in progress, so shutdown can stop taking new work and wait for the rest.
+ *
+ * Every poll, pushed comment, resume and reply attempt enters the gate before it starts and
+ * leaves it when done. Once draining, the gate admits nothing new; once abandoned, the work
+ * still inside is about to be interrupted and should leave its checkpoint or queue entry for the
+ * next run instead of recording a failure.
+ */
+class DrainGate {
+    
+    // Held only briefly, never around the work itself
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition idle = lock.newCondition();
+    
+    // Guarded by lock
+    private int active;
+    
+    private volatile boolean draining;
+    private volatile boolean abandoned;
+    
+    /**
+     * Admits a unit of work unless the gate is draining; admitted work must call {@link #exit()}.
+     *
+     * @return true if the work may start
+     */
+    boolean tryEnter() {
+        lock.lock();
+        try {
+            if (draining) {
+                return false;
+            }
+            active++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    void exit() {
+        lock.lock();
+        try {
+            if (active <= 0) {
+                throw new IllegalStateException("Drain gate exited more often than entered");
+            }
+            if (--active == 0) {
+                idle.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Stops admitting work. Work already admitted carries on.
+     */
+    void beginDrain() {
+        lock.lock();
+        try {
+            draining = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Waits until all admitted work has left the gate.
+     *
+     * @return true if it did within the timeout
+     */
+    boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (active > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = idle.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gives up on the work still inside, which is interrupted next.
+     */
+    void abandon() {
+        beginDrain();
+        abandoned = true;
+    }
+    
+    boolean isDraining() {
+        return draining;
+    }
+    
+    boolean isAbandoned() {
+        return abandoned;
+    }
+    
+    int getActive() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.linkedin.orchestrator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs polls exactly when the next watched post is due, instead of on a fixed tick.
+ *
+ * After every poll, and whenever the watched posts or their configuration change, the single
+ * pending wake-up is replaced by one at the earliest due time. With no post watched nothing is
+ * scheduled, so an idle instance never wakes up. Polls run one at a time on one thread; a change
+ * made while a poll runs is picked up when it finishes. A post that was already due when a poll
+ * started but was left unpolled, e.g. because the poll budget was spent, is retried after the
+ * retry delay rather than in a busy loop.
+ */
+class PollScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PollScheduler.class);
+    
+    private final Supplier<Instant> nextPollTime;
+    private final Runnable poll;
+    private final long retryDelayMillis;
+    private final ScheduledExecutorService executor;
+    private final Clock clock;
+    
+    // Guarded by this
+    private ScheduledFuture<?> pending;
+    private Instant pendingAt;
+    private long generation;
+    private boolean running;
+    private boolean closed;
+    
+    /**
+     * @param nextPollTime Returns when the next poll is due, or null while nothing is watched
+     * @param poll Polls every post that is due
+     * @param retryDelay Wait before polling again a post that a poll left due
+     * @param executor Runs the polls; its delays must elapse on {@code clock}
+     */
+    PollScheduler(Supplier<Instant> nextPollTime, Runnable poll, Duration retryDelay,
+                  ScheduledExecutorService executor, Clock clock) {
+        if (retryDelay.isNegative() || retryDelay.isZero()) {
+            throw new IllegalArgumentException("Poll retry delay must be positive: " + retryDelay);
+        }
+        this.nextPollTime = nextPollTime;
+        this.poll = poll;
+        this.retryDelayMillis = retryDelay.toMillis();
+        this.executor = executor;
+        this.clock = clock;
+    }
+    
+    /**
+     * Replaces the pending wake-up with one at the current earliest due time. Called whenever
+     * posts are watched, reconfigured or dropped.
+     */
+    void reschedule() {
+        long request;
+        synchronized (this) {
+            if (closed || running) {
+                // A running poll reschedules when it finishes
+                return;
+            }
+            request = ++generation;
+        }
+        schedule(request, null);
+    }
+    
+    /**
+     * @return When the next poll is scheduled, or null if none is
+     */
+    synchronized Instant getNextWakeUp() {
+        return pendingAt;
+    }
+    
+    /**
+     * Looks up the next due time without holding the lock, since the lookup calls back into the
+     * orchestrator, then installs the wake-up unless a newer request has superseded this one.
+     */
+    private void schedule(long request, Instant pollStartedAt) {
+        Instant next = nextPollTime.get();
+        Instant now = clock.instant();
+        if (next != null && pollStartedAt != null && !next.isAfter(pollStartedAt)) {
+            // Due before the last poll started yet not polled by it
+            next = now.plusMillis(retryDelayMillis);
+        }
+        synchronized (this) {
+            if (closed || request != generation) {
+                return;
+            }
+            if (pending != null) {
+                pending.cancel(false);
+                pending = null;
+                pendingAt = null;
+            }
+            if (next == null) {
+                logger.debug("No posts to poll, poll scheduler idle");
+                return;
+            }
+            long delayMillis = Math.max(0, Duration.between(now, next).toMillis());
+            pendingAt = now.plusMillis(delayMillis);
+            pending = executor.schedule(this::run, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void run() {
+        Instant startedAt;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            running = true;
+            pending = null;
+            pendingAt = null;
+            startedAt = clock.instant();
+        }
+        try {
+            poll.run();
+        } catch (RuntimeException e) {
+            logger.error("Scheduled poll failed: {}", e.getMessage(), e);
+        } finally {
+            long request;
+            synchronized (this) {
+                running = false;
+                request = ++generation;
+            }
+            schedule(request, startedAt);
+        }
+    }
+    
+    /**
+     * Cancels the pending wake-up; a poll already running is interrupted.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        pending = null;
+        pendingAt = null;
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Post;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-bounded cache of posts keyed by post ID.
+ * Concurrent lookups of a missing post share a single load, so a batch of comments on one post
+ * costs at most one post fetch. Failed loads are not cached.
+ */
+public class PostCache {
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public PostCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+    
+    PostCache(Duration ttl, int maxEntries, LongSupplier clock) {
+        if (ttl.isNegative() || maxEntries < 1) {
+            throw new IllegalArgumentException("Post cache needs a non-negative TTL and at least one entry");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+    
+    /**
+     * Returns the cached post, loading it if it is missing or expired.
+     * Callers arriving while a load is in flight wait for that load instead of starting another.
+     *
+     * @param postId The post to look up
+     * @param loader Fetches the post on a miss
+     * @return The cached or freshly loaded post
+     */
+    public Post get(String postId, Function<String, Post> loader) {
+        long now = clock.getAsLong();
+        Entry cached = entries.get(postId);
+        if (cached != null && !cached.isExpired(now)) {
+            hits.increment();
+            return await(cached);
+        }
+        
+        Entry fresh = new Entry();
+        Entry winner = entries.compute(postId, (key, current) ->
+                current != null && !current.isExpired(now) ? current : fresh);
+        if (winner != fresh) {
+            hits.increment();
+            return await(winner);
+        }
+        
+        misses.increment();
+        try {
+            Post post = loader.apply(postId);
+            fresh.expiresAt = clock.getAsLong() + ttlNanos;
+            fresh.future.complete(post);
+            evictIfFull();
+            return post;
+        } catch (Throwable e) {
+            // Errors too, or waiting callers hang on a load that never completes
+            entries.remove(postId, fresh);
+            fresh.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Drops a cached post so the next lookup fetches it again.
+     */
+    public void invalidate(String postId) {
+        entries.remove(postId);
+    }
+    
+    public void invalidateAll() {
+        entries.clear();
+    }
+    
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+    
+    private static Post await(Entry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Removes expired entries and then, if still above the bound, the entries closest to expiry.
+     */
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = clock.getAsLong();
+        entries.forEach((postId, entry) -> {
+            if (entry.isExpired(now) && entries.remove(postId, entry)) {
+                evictions.increment();
+            }
+        });
+        while (entries.size() > maxEntries) {
+            Map.Entry<String, Entry> oldest = null;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (candidate.getValue().future.isDone()
+                        && (oldest == null || candidate.getValue().expiresAt - oldest.getValue().expiresAt < 0)) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest == null) {
+                return; // Only in-flight loads remain
+            }
+            if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+    
+    private static final class Entry {
+        private final CompletableFuture<Post> future = new CompletableFuture<>();
+        // Set before the future completes; loads in flight never expire
+        private volatile long expiresAt;
+        
+        boolean isExpired(long now) {
+            return future.isDone() && expiresAt - now <= 0;
+        }
+    }
+    
+    /**
+     * Snapshot of cache counters.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        
+        Stats(long hits, long misses, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+        
+        public long getHits() {
+            return hits;
+        }
+        
+        public long getMisses() {
+            return misses;
+        }
+        
+        public long getEvictions() {
+            return evictions;
+        }
+        
+        public int getSize() {
+            return size;
+        }
+        
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.ReplyRetry;
+import com.example.linkedin.repository.StorageRepository;
+import com.example.linkedin.util.SchedulerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Delayed retries of replies that failed to post.
+ *
+ * A retry waits in the delay queue of a scheduled executor instead of on a sleeping thread, so
+ * a failing reply never holds up polling or comment processing. Delays grow exponentially with
+ * jitter, and every retry is written through to the storage repository so pending retries are
+ * rescheduled at their original due time after a restart.
+ */
+class ReplyRetryScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplyRetryScheduler.class);
+    
+    private final StorageRepository storageRepository;
+    private final Consumer<ReplyRetry> attemptHandler;
+    private final long maxBackoffMillis;
+    private final ScheduledExecutorService executor;
+    private final Clock clock;
+    
+    // Storage is written while holding it, so a lock rather than a monitor for virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Guarded by lock
+    private final Map<String, ReplyRetry> retries = new LinkedHashMap<>();
+    private final Map<String, CompletableFuture<Boolean>> outcomes = new HashMap<>();
+    private final Set<String> commentKeys = new HashSet<>();
+    
+    /**
+     * @param attemptHandler Makes the next attempt of a due retry, then either reschedules
+     *                       or completes it
+     */
+    ReplyRetryScheduler(StorageRepository storageRepository, int threads, Duration maxBackoff,
+                        Consumer<ReplyRetry> attemptHandler) {
+        this(storageRepository, SchedulerFactory.SYSTEM.newScheduledExecutor("reply-retry", threads), Clock.systemUTC(),
+                maxBackoff, attemptHandler);
+    }
+    
+    /**
+     * @param executor Makes the attempts; its delays must elapse on {@code clock}
+     */
+    ReplyRetryScheduler(StorageRepository storageRepository, ScheduledExecutorService executor, Clock clock,
+                        Duration maxBackoff, Consumer<ReplyRetry> attemptHandler) {
+        this.storageRepository = storageRepository;
+        this.attemptHandler = attemptHandler;
+        this.maxBackoffMillis = Math.max(0, maxBackoff.toMillis());
+        this.executor = executor;
+        this.clock = clock;
+        
+        List<ReplyRetry> stored = storageRepository.getReplyRetries();
+        lock.lock();
+        try {
+            for (ReplyRetry retry : stored) {
+                track(retry);
+                submit(retry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!stored.isEmpty()) {
+            logger.info("Resumed {} pending reply retries", stored.size());
+        }
+    }
+    
+    /**
+     * Schedules the next attempt of a reply, backing off according to the attempts made so far.
+     *
+     * @return Completes with true once the reply is posted, or false once it has failed for good
+     */
+    CompletableFuture<Boolean> schedule(ReplyRetry retry) {
+        long baseMillis = TimeUnit.SECONDS.toMillis(Math.max(0, retry.getConfig().getRetryBackoffSeconds()));
+        long delayMillis = backoffMillis(retry.getAttempts(), baseMillis, maxBackoffMillis,
+                ThreadLocalRandom.current().nextDouble());
+        retry.setNextAttemptAt(clock.instant().plusMillis(delayMillis));
+        
+        lock.lock();
+        try {
+            storageRepository.saveReplyRetry(retry);
+            CompletableFuture<Boolean> outcome = track(retry);
+            submit(retry);
+            logger.info("Retrying reply to comment {} in {} ms (attempt {} of {})", retry.getComment().getId(),
+                    delayMillis, retry.getAttempts() + 1, retry.getConfig().getMaxRetries());
+            return outcome;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Removes a retry that was posted or gave up, and completes its outcome.
+     */
+    void complete(ReplyRetry retry, boolean posted) {
+        CompletableFuture<Boolean> outcome;
+        lock.lock();
+        try {
+            retries.remove(retry.getId());
+            commentKeys.remove(commentKey(retry.getComment()));
+            storageRepository.deleteReplyRetry(retry.getId());
+            outcome = outcomes.remove(retry.getId());
+        } finally {
+            lock.unlock();
+        }
+        // Completed outside the lock since callers may chain further work onto the outcome
+        if (outcome != null) {
+            outcome.complete(posted);
+        }
+    }
+    
+    boolean containsComment(String postId, String commentId) {
+        lock.lock();
+        try {
+            return commentKeys.contains(postId + '\0' + commentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    List<ReplyRetry> list() {
+        lock.lock();
+        try {
+            return new ArrayList<>(retries.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int size() {
+        lock.lock();
+        try {
+            return retries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Stops the scheduler. Retries not yet attempted stay persisted and resume on the next start.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Exponential backoff with equal jitter: half of the exponential delay plus a random share of
+     * the other half, so replies that failed together do not retry in lockstep.
+     *
+     * @param attempts Attempts made so far, at least 1
+     * @param random A value in [0, 1)
+     */
+    static long backoffMillis(int attempts, long baseMillis, long maxMillis, double random) {
+        int exponent = Math.min(Math.max(attempts, 1) - 1, 30);
+        long delay = Math.min(maxMillis, baseMillis << exponent);
+        long half = delay / 2;
+        return half + (long) (random * (delay - half));
+    }
+    
+    private CompletableFuture<Boolean> track(ReplyRetry retry) {
+        retries.put(retry.getId(), retry);
+        commentKeys.add(commentKey(retry.getComment()));
+        return outcomes.computeIfAbsent(retry.getId(), id -> new CompletableFuture<>());
+    }
+    
+    private void submit(ReplyRetry retry) {
+        Instant now = clock.instant();
+        Instant due = retry.getNextAttemptAt() != null ? retry.getNextAttemptAt() : now;
+        long delayMillis = Math.max(0, Duration.between(now, due).toMillis());
+        try {
+            executor.schedule(() -> attempt(retry), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Retry scheduler is shut down; reply {} will be retried after a restart", retry.getId());
+        }
+    }
+    
+    private void attempt(ReplyRetry retry) {
+        try {
+            attemptHandler.accept(retry);
+        } catch (RuntimeException e) {
+            logger.error("Unexpected failure retrying reply {}", retry.getId(), e);
+            complete(retry, false);
+        }
+    }
+    
+    private static String commentKey(Comment comment) {
+        return comment.getPostId() + '\0' + comment.getId();
+    }
+}
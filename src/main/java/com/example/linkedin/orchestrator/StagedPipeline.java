@@ -0,0 +1,377 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs items through a chain of stages joined by bounded queues, each stage with its own workers.
+ *
+ * A worker hands a finished item to the next stage with a blocking put, so a slow stage fills the
+ * queues in front of it and eventually blocks {@link #submit}, throttling whoever feeds the
+ * pipeline. An item that fails in any stage is passed to the failure handler and leaves the
+ * pipeline. Each stage counts processed and failed items and its processing and queueing time.
+ *
+ * Queues are FIFO unless the pipeline is given a priority order, in which case every stage takes
+ * the highest-priority item it has queued, and items of equal priority in arrival order.
+ *
+ * Workers can be virtual threads, so a stage that blocks on I/O can be given hundreds of workers
+ * without tying up a platform thread for each.
+ */
+public class StagedPipeline<T> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(StagedPipeline.class);
+    
+    /**
+     * A named processing step and the number of workers running it.
+     */
+    static final class StageSpec<T> {
+        final String name;
+        final int workers;
+        final Consumer<T> step;
+        
+        StageSpec(String name, int workers, Consumer<T> step) {
+            if (workers < 1) {
+                throw new IllegalArgumentException("Stage " + name + " needs at least one worker");
+            }
+            this.name = name;
+            this.workers = workers;
+            this.step = step;
+        }
+    }
+    
+    private final List<Stage> stages = new ArrayList<>();
+    private final Function<T, String> keyOf;
+    private final BiConsumer<T, Exception> onFailure;
+    private final boolean virtualThreads;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean closed;
+    
+    /**
+     * @param keyOf Identifies an item; an item whose key is already in the pipeline is not admitted again
+     * @param onFailure Called with an item whose step threw
+     */
+    StagedPipeline(List<StageSpec<T>> specs, int queueCapacity, Function<T, String> keyOf,
+                   BiConsumer<T, Exception> onFailure) {
+        this(specs, queueCapacity, null, keyOf, onFailure);
+    }
+    
+    /**
+     * @param priority Orders queued items, first item first; null for FIFO queues
+     */
+    StagedPipeline(List<StageSpec<T>> specs, int queueCapacity, Comparator<? super T> priority,
+                   Function<T, String> keyOf, BiConsumer<T, Exception> onFailure) {
+        this(specs, queueCapacity, priority, keyOf, onFailure, false);
+    }
+    
+    /**
+     * @param virtualThreads Whether workers are virtual threads; the caller checks {@link VirtualThreads#isSupported()}
+     */
+    StagedPipeline(List<StageSpec<T>> specs, int queueCapacity, Comparator<? super T> priority,
+                   Function<T, String> keyOf, BiConsumer<T, Exception> onFailure, boolean virtualThreads) {
+        if (specs.isEmpty()) {
+            throw new IllegalArgumentException("A pipeline needs at least one stage");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Stage queue capacity must be at least 1");
+        }
+        this.keyOf = keyOf;
+        this.onFailure = onFailure;
+        this.virtualThreads = virtualThreads;
+        Comparator<Job> order = priority == null ? null
+                : Comparator.<Job, T>comparing(job -> job.item, priority).thenComparingLong(job -> job.sequence);
+        for (StageSpec<T> spec : specs) {
+            stages.add(new Stage(spec, queueCapacity, order));
+        }
+        for (int i = 0; i < stages.size(); i++) {
+            stages.get(i).start(i + 1 < stages.size() ? stages.get(i + 1) : null);
+        }
+    }
+    
+    /**
+     * Hands an item to the first stage, blocking while that stage's queue is full.
+     *
+     * @return Completes once the item has left the last stage or failed, or null if an item
+     *         with the same key is still in the pipeline
+     */
+    CompletableFuture<Void> submit(T item) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+        String key = keyOf.apply(item);
+        if (!inFlight.add(key)) {
+            logger.debug("Item {} is already in the pipeline, skipping", key);
+            return null;
+        }
+        Job job = new Job(item, key, sequence.getAndIncrement());
+        try {
+            stages.get(0).enqueue(job);
+        } catch (InterruptedException e) {
+            inFlight.remove(key);
+            throw e;
+        }
+        return job.done;
+    }
+    
+    /**
+     * Checks whether an item with the given key is in the pipeline, including while its failure is handled.
+     */
+    boolean isInFlight(String key) {
+        return inFlight.contains(key);
+    }
+    
+    /**
+     * Returns a snapshot of every stage's queue and latency counters, in pipeline order.
+     */
+    public List<StageStats> getStats() {
+        List<StageStats> stats = new ArrayList<>(stages.size());
+        for (Stage stage : stages) {
+            stats.add(stage.stats());
+        }
+        return stats;
+    }
+    
+    /**
+     * Stops all workers. Items still queued are cancelled.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Stage stage : stages) {
+            stage.executor.shutdownNow();
+        }
+        for (Stage stage : stages) {
+            List<Job> abandoned = new ArrayList<>();
+            stage.queue.drainTo(abandoned);
+            abandoned.forEach(job -> {
+                inFlight.remove(job.key);
+                job.done.cancel(false);
+            });
+        }
+    }
+    
+    private void finish(Job job, Exception failure) {
+        try {
+            if (failure != null) {
+                onFailure.accept(job.item, failure);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failure handler threw for item {}", job.key, e);
+        } finally {
+            // Still in flight while its failure is handled, so nothing sees it neither running nor failed
+            inFlight.remove(job.key);
+            job.done.complete(null);
+        }
+    }
+    
+    private final class Job {
+        final T item;
+        final String key;
+        final long sequence;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        long enqueuedAt;
+        
+        Job(T item, String key, long sequence) {
+            this.item = item;
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+    
+    private final class Stage {
+        final StageSpec<T> spec;
+        final BlockingQueue<Job> queue;
+        // Bounds the queue, since a priority queue has no capacity of its own
+        final Semaphore capacity;
+        final int queueCapacity;
+        final ExecutorService executor;
+        final AtomicInteger busyWorkers = new AtomicInteger();
+        final LongAdder processed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder totalProcessingNanos = new LongAdder();
+        final LongAdder totalWaitNanos = new LongAdder();
+        final AtomicLong maxProcessingNanos = new AtomicLong();
+        
+        Stage(StageSpec<T> spec, int queueCapacity, Comparator<Job> order) {
+            this.spec = spec;
+            this.queue = order == null ? new LinkedBlockingQueue<>() : new PriorityBlockingQueue<>(queueCapacity, order);
+            this.capacity = new Semaphore(queueCapacity);
+            this.queueCapacity = queueCapacity;
+            if (virtualThreads) {
+                this.executor = Executors.newFixedThreadPool(spec.workers,
+                        VirtualThreads.factory("pipeline-" + spec.name + "-"));
+            } else {
+                AtomicInteger threadCount = new AtomicInteger();
+                this.executor = Executors.newFixedThreadPool(spec.workers, runnable -> {
+                    Thread thread = new Thread(runnable, "pipeline-" + spec.name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+        
+        void start(Stage next) {
+            for (int i = 0; i < spec.workers; i++) {
+                executor.execute(() -> work(next));
+            }
+        }
+        
+        void enqueue(Job job) throws InterruptedException {
+            capacity.acquire();
+            job.enqueuedAt = System.nanoTime();
+            queue.add(job);
+        }
+        
+        private void work(Stage next) {
+            while (!Thread.currentThread().isInterrupted()) {
+                Job job;
+                try {
+                    job = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                capacity.release();
+                
+                long startedAt = System.nanoTime();
+                totalWaitNanos.add(startedAt - job.enqueuedAt);
+                busyWorkers.incrementAndGet();
+                Exception failure = null;
+                try {
+                    spec.step.accept(job.item);
+                } catch (Exception e) {
+                    failure = e;
+                } catch (Error e) {
+                    // Fail the item rather than the worker, which would leave its job never done
+                    logger.error("Stage {} failed with an error on item {}", spec.name, job.key, e);
+                    failure = new ExecutionException(e);
+                } finally {
+                    busyWorkers.decrementAndGet();
+                    MDC.clear();
+                }
+                long elapsed = System.nanoTime() - startedAt;
+                totalProcessingNanos.add(elapsed);
+                maxProcessingNanos.accumulateAndGet(elapsed, Math::max);
+                
+                if (failure != null) {
+                    failed.increment();
+                    finish(job, failure);
+                    continue;
+                }
+                processed.increment();
+                if (next == null) {
+                    finish(job, null);
+                    continue;
+                }
+                try {
+                    // Blocks while the next stage is saturated; this is the backpressure
+                    next.enqueue(job);
+                } catch (InterruptedException e) {
+                    inFlight.remove(job.key);
+                    job.done.cancel(false);
+                    return;
+                }
+            }
+        }
+        
+        StageStats stats() {
+            long done = processed.sum() + failed.sum();
+            return new StageStats(spec.name, spec.workers, busyWorkers.get(), queue.size(),
+                    queueCapacity, processed.sum(), failed.sum(),
+                    done == 0 ? 0 : totalProcessingNanos.sum() / done / 1_000_000.0,
+                    maxProcessingNanos.get() / 1_000_000.0,
+                    done == 0 ? 0 : totalWaitNanos.sum() / done / 1_000_000.0);
+        }
+    }
+    
+    /**
+     * Point-in-time counters of one stage.
+     */
+    public static class StageStats {
+        private final String name;
+        private final int workers;
+        private final int busyWorkers;
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final long processed;
+        private final long failed;
+        private final double averageLatencyMillis;
+        private final double maxLatencyMillis;
+        private final double averageQueueWaitMillis;
+        
+        StageStats(String name, int workers, int busyWorkers, int queueDepth, int queueCapacity,
+                   long processed, long failed, double averageLatencyMillis, double maxLatencyMillis,
+                   double averageQueueWaitMillis) {
+            this.name = name;
+            this.workers = workers;
+            this.busyWorkers = busyWorkers;
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.processed = processed;
+            this.failed = failed;
+            this.averageLatencyMillis = averageLatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+            this.averageQueueWaitMillis = averageQueueWaitMillis;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public int getWorkers() {
+            return workers;
+        }
+        
+        public int getBusyWorkers() {
+            return busyWorkers;
+        }
+        
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public long getProcessed() {
+            return processed;
+        }
+        
+        public long getFailed() {
+            return failed;
+        }
+        
+        public double getAverageLatencyMillis() {
+            return averageLatencyMillis;
+        }
+        
+        public double getMaxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+        
+        public double getAverageQueueWaitMillis() {
+            return averageQueueWaitMillis;
+        }
+    }
+}
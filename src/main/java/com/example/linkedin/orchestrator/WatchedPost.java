@@ -0,0 +1,144 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.WorkflowConfig;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A post watched by the orchestrator, with its own configuration, cadence and polling state.
+ * All watched posts share the orchestrator's scheduler, worker pool and API client.
+ */
+public class WatchedPost {
+    private final String postId;
+    private final Instant startedAt;
+    private final AtomicBoolean pollInProgress = new AtomicBoolean(false);
+    private final AtomicLong pollCount = new AtomicLong();
+    private final AtomicLong commentsProcessed = new AtomicLong();
+    
+    private volatile WorkflowConfig config;
+    private volatile Instant lastPolledAt;
+    private volatile Instant nextPollAt;
+    private volatile String lastError;
+    private volatile long pollIntervalSeconds;
+    private volatile double commentRateEwma = Double.NaN;
+    
+    WatchedPost(WorkflowConfig config, Instant now, long pollIntervalSeconds) {
+        this.postId = config.getPostId();
+        this.config = config;
+        this.startedAt = now;
+        this.nextPollAt = now;
+        this.pollIntervalSeconds = pollIntervalSeconds;
+    }
+    
+    /**
+     * Checks whether this post should be polled at the given time.
+     */
+    boolean isDue(Instant now) {
+        return !pollInProgress.get() && !now.isBefore(nextPollAt);
+    }
+    
+    /**
+     * Claims this post for a poll; fails if a poll is already running so polls never overlap.
+     */
+    boolean tryBeginPoll() {
+        return pollInProgress.compareAndSet(false, true);
+    }
+    
+    /**
+     * Records a finished poll and schedules the next one after the given delay, which is the
+     * interval with jitter applied.
+     */
+    void completePoll(Instant startedAt, String error, long intervalSeconds, long delayMillis) {
+        pollCount.incrementAndGet();
+        lastPolledAt = startedAt;
+        lastError = error;
+        pollIntervalSeconds = Math.max(1, intervalSeconds);
+        nextPollAt = startedAt.plusMillis(Math.max(1, delayMillis));
+        pollInProgress.set(false);
+    }
+    
+    /**
+     * Folds the comment arrival rate seen by a poll into the moving average and returns the average.
+     */
+    double recordCommentRate(double commentsPerSecond, double smoothing) {
+        double previous = commentRateEwma;
+        commentRateEwma = Double.isNaN(previous)
+                ? commentsPerSecond : smoothing * commentsPerSecond + (1 - smoothing) * previous;
+        return commentRateEwma;
+    }
+    
+    void recordProcessed() {
+        commentsProcessed.incrementAndGet();
+    }
+    
+    void setConfig(WorkflowConfig config) {
+        this.config = config;
+    }
+    
+    /**
+     * Restarts the polling cadence from the given interval, e.g. after the configuration changed.
+     */
+    void resetPollInterval(long intervalSeconds) {
+        pollIntervalSeconds = Math.max(1, intervalSeconds);
+        commentRateEwma = Double.NaN;
+        Instant polledAt = lastPolledAt;
+        if (polledAt != null) {
+            // The new interval counts from the last poll, so a shorter one can make the post due at once
+            nextPollAt = polledAt.plusSeconds(pollIntervalSeconds);
+        }
+    }
+    
+    // Getters
+    public String getPostId() {
+        return postId;
+    }
+    
+    public WorkflowConfig getConfig() {
+        return config;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public Instant getLastPolledAt() {
+        return lastPolledAt;
+    }
+    
+    public Instant getNextPollAt() {
+        return nextPollAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public boolean isPollInProgress() {
+        return pollInProgress.get();
+    }
+    
+    public long getPollCount() {
+        return pollCount.get();
+    }
+    
+    public long getCommentsProcessed() {
+        return commentsProcessed.get();
+    }
+    
+    /**
+     * @return Seconds between the last poll and the next one; adapts to activity when adaptive polling is on
+     */
+    public long getPollIntervalSeconds() {
+        return pollIntervalSeconds;
+    }
+    
+    /**
+     * @return Moving average of new comments per minute, or 0 before the first successful poll
+     */
+    public double getCommentsPerMinute() {
+        double ewma = commentRateEwma;
+        return Double.isNaN(ewma) ? 0 : ewma * 60;
+    }
+}
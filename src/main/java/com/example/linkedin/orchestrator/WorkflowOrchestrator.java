@@ -2,22 +2,58 @@ package com.example.linkedin.orchestrator;
 
 import com.example.linkedin.agent.LLMAgent;
 import com.example.linkedin.client.LinkedInApiClient;
+import com.example.linkedin.coordination.CoordinationStore;
+import com.example.linkedin.coordination.Lease;
+import com.example.linkedin.coordination.LeaseCoordinator;
 import com.example.linkedin.error.ErrorHandler;
 import com.example.linkedin.model.*;
 import com.example.linkedin.repository.StorageRepository;
+import com.example.linkedin.util.SchedulerFactory;
+import com.example.linkedin.util.TimeOrderedIds;
+import com.example.linkedin.util.VirtualThreads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -33,13 +69,206 @@ public class WorkflowOrchestrator {
     private final StorageRepository storageRepository;
     private final ErrorHandler errorHandler;
     
-    private WorkflowConfig config;
-    private final AtomicBoolean isPolling = new AtomicBoolean(false);
+    // System time and threads unless replaced through setClock
+    private volatile Clock clock = Clock.systemUTC();
+    private volatile SchedulerFactory schedulers = SchedulerFactory.SYSTEM;
+    private volatile LongSupplier ticker = System::nanoTime;
     
-    // For manual approval workflow
-    private GeneratedResponse pendingResponse;
-    private Comment pendingComment;
-    private Post pendingPost;
+    // Posts being watched, keyed by post ID; all share the scheduler tick and worker pool
+    private final Map<String, WatchedPost> watchedPosts = new ConcurrentHashMap<>();
+    private volatile String lastStartedPostId;
+    
+    @Value("${workflow.manual-review.whole-words:false}")
+    private boolean manualReviewWholeWords = false;
+    
+    @Value("${workflow.processing.concurrency:1}")
+    private int processingConcurrency = 1;
+    
+    // Failed processing attempts after which a comment is given up on and left recorded as failed
+    @Value("${workflow.processing.max-attempts:3}")
+    private int maxCommentAttempts = 3;
+    
+    private BoundedCommentProcessor commentProcessor;
+    
+    // Comment workers, pipeline stages and approval posters on virtual threads (Java 21+). Defaults
+    // to Spring's switch, which also moves Tomcat request handling onto virtual threads
+    @Value("${workflow.execution.virtual-threads:${spring.threads.virtual.enabled:false}}")
+    private boolean virtualThreads = false;
+    
+    @Value("${workflow.polling.jitter-ratio:0.1}")
+    private double pollJitterRatio = 0.1;
+    
+    @Value("${workflow.polling.retry-delay-ms:1000}")
+    private long pollRetryDelayMillis = 1000;
+    
+    // Wakes up when the next watched post is due; started once the application is ready
+    private PollScheduler pollScheduler;
+    
+    @Value("${workflow.polling.rescan-window-seconds:600}")
+    private long rescanWindowSeconds = 600;
+    
+    @Value("${workflow.polling.adaptive.enabled:false}")
+    private boolean adaptivePolling = false;
+    
+    @Value("${workflow.polling.adaptive.min-interval-seconds:30}")
+    private long minPollIntervalSeconds = 30;
+    
+    @Value("${workflow.polling.adaptive.max-interval-seconds:1800}")
+    private long maxPollIntervalSeconds = 1800;
+    
+    @Value("${workflow.polling.adaptive.smoothing:0.3}")
+    private double pollSmoothing = 0.3;
+    
+    @Value("${workflow.polling.adaptive.target-comments-per-poll:5}")
+    private double targetCommentsPerPoll = 5;
+    
+    @Value("${workflow.polling.adaptive.poll-budget-per-minute:0}")
+    private int pollBudgetPerMinute = 0;
+    
+    private volatile AdaptivePollingPolicy pollingPolicy;
+    
+    @Value("${workflow.post-cache.ttl-seconds:300}")
+    private long postCacheTtlSeconds = 300;
+    
+    @Value("${workflow.post-cache.max-entries:500}")
+    private int postCacheMaxEntries = 500;
+    
+    private volatile PostCache postCache;
+    
+    @Value("${workflow.approval.posting-threads:2}")
+    private int approvalPostingThreads = 2;
+    
+    // For manual approval workflow; approved replies are posted off the request thread
+    private volatile ApprovalQueue approvalQueue;
+    private ExecutorService approvalPoster;
+    
+    @Value("${workflow.retry.threads:2}")
+    private int retryThreads = 2;
+    
+    @Value("${workflow.retry.max-backoff-seconds:900}")
+    private long maxRetryBackoffSeconds = 900;
+    
+    // Failed replies wait here for their next attempt instead of on a sleeping thread
+    private volatile ReplyRetryScheduler retryScheduler;
+    
+    // Last completed stage of each comment in progress, so work survives a restart
+    private volatile CommentCheckpoints checkpoints;
+    
+    @Value("${workflow.backfill.concurrency:4}")
+    private int backfillConcurrency = 4;
+    
+    @Value("${workflow.backfill.batch-size:20}")
+    private int backfillBatchSize = 20;
+    
+    @Value("${workflow.backfill.comments-per-minute:30}")
+    private int backfillCommentsPerMinute = 30;
+    
+    @Value("${workflow.backfill.model:}")
+    private String backfillModel = "";
+    
+    // Replies to the comment history of onboarded posts, apart from live polling
+    private volatile BackfillRunner backfillRunner;
+    
+    // Comments pushed by LinkedIn webhooks are processed on arrival; polling only reconciles
+    @Value("${workflow.webhook.enabled:false}")
+    private boolean webhookEnabled = false;
+    
+    @Value("${workflow.webhook.reconciliation-interval-seconds:900}")
+    private long webhookReconciliationSeconds = 900;
+    
+    @Value("${workflow.webhook.queue-capacity:1000}")
+    private int webhookQueueCapacity = 1000;
+    
+    private ThreadPoolExecutor webhookIngester;
+    
+    // Comments accepted from a webhook and not yet handed to processing, keyed like the processors' in-flight sets
+    private final Set<String> ingesting = ConcurrentHashMap.newKeySet();
+    
+    // Failed processing attempts per comment since it last went through; below the limit the
+    // comment is retried and holds back its post's cursor or stays queued, at the limit it is skipped
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    
+    // Fetched comments are queued on local disk and processed from there, a batch at a time
+    @Value("${workflow.work-queue.enabled:false}")
+    private boolean workQueueEnabled = false;
+    
+    @Value("${workflow.work-queue.directory:${storage.directory:./data}/work-queue}")
+    private String workQueueDirectory = "./data/work-queue";
+    
+    @Value("${workflow.work-queue.segment-bytes:8388608}")
+    private int workQueueSegmentBytes = 8 * 1024 * 1024;
+    
+    @Value("${workflow.work-queue.batch-size:200}")
+    private int workQueueBatchSize = 200;
+    
+    private CommentWorkQueue workQueue;
+    
+    // Drains the work queue; a single thread, so a comment is never read from it twice concurrently
+    private ExecutorService workQueueConsumer;
+    
+    // Set while a drain is waiting to start, so appends during a burst queue one drain, not one each
+    private final AtomicBoolean workQueueSignalled = new AtomicBoolean();
+    
+    @Value("${workflow.pipeline.enabled:false}")
+    private boolean pipelineEnabled = false;
+    
+    @Value("${workflow.pipeline.queue-capacity:50}")
+    private int pipelineQueueCapacity = 50;
+    
+    @Value("${workflow.pipeline.screen.workers:2}")
+    private int screenWorkers = 2;
+    
+    @Value("${workflow.pipeline.generate.workers:4}")
+    private int generateWorkers = 4;
+    
+    @Value("${workflow.pipeline.record.workers:1}")
+    private int recordWorkers = 1;
+    
+    @Value("${workflow.pipeline.dispatch.workers:2}")
+    private int dispatchWorkers = 2;
+    
+    private StagedPipeline<CommentTask> pipeline;
+    
+    @Value("${workflow.priority.enabled:false}")
+    private boolean priorityEnabled = false;
+    
+    @Value("${workflow.priority.keyword-weight:10}")
+    private double priorityKeywordWeight = 10;
+    
+    @Value("${workflow.priority.recency-weight:2}")
+    private double priorityRecencyWeight = 2;
+    
+    @Value("${workflow.priority.recency-window-seconds:3600}")
+    private long priorityRecencyWindowSeconds = 3600;
+    
+    @Value("${workflow.priority.length-weight:1}")
+    private double priorityLengthWeight = 1;
+    
+    @Value("${workflow.priority.long-comment-chars:280}")
+    private int priorityLongCommentChars = 280;
+    
+    @Value("${workflow.priority.aging-per-minute:1}")
+    private double priorityAgingPerMinute = 1;
+    
+    @Value("${workflow.priority.author-weights:}")
+    private String priorityAuthorWeights = "";
+    
+    private volatile CommentPrioritizer prioritizer;
+    
+    @Value("${coordination.node-id:}")
+    private String nodeId = "";
+    
+    @Value("${coordination.lease-ttl-seconds:30}")
+    private long leaseTtlSeconds = 30;
+    
+    private CoordinationStore coordinationStore;
+    private volatile LeaseCoordinator coordinator;
+    
+    @Value("${workflow.shutdown.drain-timeout-seconds:30}")
+    private long drainTimeoutSeconds = 30;
+    
+    // Work in progress; shutdown stops taking new work and waits for this to finish
+    private final DrainGate drainGate = new DrainGate();
 
     public WorkflowOrchestrator(LinkedInApiClient apiClient, 
                                LLMAgent llmAgent, 
@@ -50,9 +279,44 @@ public class WorkflowOrchestrator {
         this.storageRepository = storageRepository;
         this.errorHandler = errorHandler;
     }
+    
+    /**
+     * Sets the store through which several instances share the watched posts.
+     * Without one, this instance polls every watched post itself.
+     */
+    @Autowired(required = false)
+    public void setCoordinationStore(CoordinationStore coordinationStore) {
+        this.coordinationStore = coordinationStore;
+    }
+    
+    /**
+     * Replaces the system clock, which times polls, reply retries and recorded timestamps.
+     * Scheduled work still waits on real threads; see {@link #setClock(Clock, SchedulerFactory, LongSupplier)}.
+     * Call it before polling starts.
+     */
+    public synchronized void setClock(Clock clock) {
+        this.clock = clock;
+    }
+    
+    /**
+     * Replaces the system clock together with what schedules polls and retries and what times
+     * cached posts, so a capacity test can run hours of polling and backoff by advancing a
+     * {@link com.example.linkedin.util.SimulatedClock}:
+     * {@code setClock(clock, clock, clock::nanoTime)}. Call it before polling starts.
+     *
+     * @param schedulers Creates the executors for polls and reply retries; their delays must
+     *                   elapse on {@code clock}
+     * @param ticker Nanosecond ticker for post cache expiry
+     */
+    public synchronized void setClock(Clock clock, SchedulerFactory schedulers, LongSupplier ticker) {
+        this.clock = clock;
+        this.schedulers = schedulers;
+        this.ticker = ticker;
+    }
 
     /**
-     * Starts polling for new comments on the configured post.
+     * Starts watching a post. If the post is already watched its configuration is replaced
+     * and its polling state kept; other watched posts are unaffected.
      * 
      * @param config Workflow configuration
      */
@@ -62,340 +326,1268 @@ public class WorkflowOrchestrator {
         }
         
         logger.info("Starting polling for post: {}", config.getPostId());
-        this.config = config;
-        isPolling.set(true);
-        logger.info("Polling started with interval: {} seconds", config.getPollingIntervalSeconds());
+        long initialInterval = reconciled(getPollingPolicy().initialIntervalSeconds(config.getPollingIntervalSeconds()));
+        watchedPosts.compute(config.getPostId(), (postId, existing) -> {
+            if (existing == null) {
+                return new WatchedPost(config, clock.instant(), initialInterval);
+            }
+            existing.setConfig(config);
+            existing.resetPollInterval(initialInterval);
+            return existing;
+        });
+        getPostCache().invalidate(config.getPostId());
+        lastStartedPostId = config.getPostId();
+        reschedulePolls();
+        logger.info("Polling started with interval: {} seconds ({} posts watched)",
+                config.getPollingIntervalSeconds(), watchedPosts.size());
     }
 
     /**
-     * Stops the polling process.
+     * Stops polling all watched posts. Comments already being processed finish with the
+     * configuration of the post they were polled for.
      */
     public void stopPolling() {
-        logger.info("Stopping polling");
-        isPolling.set(false);
-        config = null;
+        logger.info("Stopping polling for {} posts", watchedPosts.size());
+        watchedPosts.clear();
+        failedAttempts.clear();
+        lastStartedPostId = null;
+        getPostCache().invalidateAll();
+        reschedulePolls();
         logger.info("Polling stopped");
     }
 
     /**
-     * Scheduled method that polls for new comments.
-     * Runs based on the configured polling interval.
+     * Stops polling a single post. A poll already running for it finishes its current batch.
+     * 
+     * @param postId The post to stop watching
+     * @return true if the post was being watched
      */
-    @Scheduled(fixedDelayString = "${linkedin.polling.interval:300000}")
-    public void pollForComments() {
-        if (!isPolling.get() || config == null) {
-            return;
-        }
-        
-        logger.info("Polling for new comments on post: {}", config.getPostId());
-        
-        try {
-            // Fetch all comments for the post
-            List<Comment> allComments = apiClient.fetchComments(config.getPostId());
-            logger.info("Fetched {} total comments", allComments.size());
-            
-            // Filter out already processed comments
-            List<Comment> unprocessedComments = allComments.stream()
-                    .filter(comment -> !storageRepository.isCommentProcessed(comment.getId()))
-                    .collect(Collectors.toList());
-            
-            logger.info("Found {} unprocessed comments", unprocessedComments.size());
-            
-            // Process each unprocessed comment
-            for (Comment comment : unprocessedComments) {
-                try {
-                    processComment(comment);
-                } catch (Exception e) {
-                    logger.error("Failed to process comment {}: {}", comment.getId(), e.getMessage(), e);
-                    // Continue processing other comments even if one fails
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error during polling: {}", e.getMessage(), e);
+    public boolean stopPolling(String postId) {
+        WatchedPost removed = postId == null ? null : watchedPosts.remove(postId);
+        if (removed == null) {
+            return false;
         }
+        getPostCache().invalidate(postId);
+        failedAttempts.keySet().removeIf(key -> key.startsWith(postId + '\0'));
+        reschedulePolls();
+        logger.info("Stopped polling for post: {} ({} posts still watched)", postId, watchedPosts.size());
+        return true;
     }
 
     /**
-     * Processes a single comment through the complete workflow.
-     * 
-     * @param comment The comment to process
+     * Starts polling on schedule once the application is ready: each watched post is polled when
+     * its own interval has elapsed, and nothing runs while no post is watched.
      */
-    public void processComment(Comment comment) {
-        // Set correlation ID for this workflow execution
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put("correlationId", correlationId);
-        
-        logger.info("Processing comment: {} from {}", comment.getId(), comment.getAuthorName());
-        
-        try {
-            // Step 1: Fetch the original post
-            Post post = apiClient.fetchPost(comment.getPostId());
-            logger.debug("Fetched post: {}", post.getId());
-            
-            // Step 2: Check if manual review is required based on keywords
-            boolean requiresManualReview = checkManualReviewRequired(comment);
-            
-            // Step 3: Generate response using LLM
-            GeneratedResponse generatedResponse = llmAgent.generateResponse(
-                    post, 
-                    comment, 
-                    config.getTonePreference()
-            );
-            logger.info("Generated response for comment {}: {}", 
-                    comment.getId(), generatedResponse.getText().substring(0, Math.min(50, generatedResponse.getText().length())));
-            
-            // Create interaction record
-            Interaction interaction = createInteraction(post, comment, generatedResponse);
-            interaction.setStatus(ResponseStatus.GENERATED);
-            storageRepository.saveInteraction(interaction);
-            
-            // Step 4: Handle approval workflow
-            if (config.isRequireManualApproval() || requiresManualReview) {
-                handleManualApprovalWorkflow(post, comment, generatedResponse, interaction);
-            } else {
-                handleAutomaticPostingWorkflow(comment, generatedResponse, interaction);
-            }
-            
-        } catch (Exception e) {
-            // Use centralized error handler
-            Map<String, String> context = new HashMap<>();
-            context.put("commentId", comment.getId());
-            context.put("postId", comment.getPostId());
-            context.put("commenterName", comment.getAuthorName());
-            errorHandler.handleError(e, context);
-            
-            // Save failed interaction
-            Interaction failedInteraction = new Interaction();
-            failedInteraction.setId(UUID.randomUUID().toString());
-            failedInteraction.setCommentId(comment.getId());
-            failedInteraction.setPostId(comment.getPostId());
-            failedInteraction.setCommenterName(comment.getAuthorName());
-            failedInteraction.setCommentText(comment.getText());
-            failedInteraction.setTimestamp(Instant.now());
-            failedInteraction.setStatus(ResponseStatus.FAILED);
-            failedInteraction.getMetadata().put("error", e.getMessage());
-            failedInteraction.getMetadata().put("correlationId", correlationId);
-            storageRepository.saveInteraction(failedInteraction);
-        } finally {
-            MDC.clear();
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startScheduledPolling() {
+        if (pollScheduler != null) {
+            return;
+        }
+        if (pollJitterRatio < 0 || pollJitterRatio >= 1) {
+            throw new IllegalArgumentException("Poll jitter ratio must be in [0, 1): " + pollJitterRatio);
         }
+        pollScheduler = new PollScheduler(this::nextPollTime, this::pollForComments, Duration.ofMillis(pollRetryDelayMillis),
+                schedulers.newScheduledExecutor("poll-scheduler", 1), clock);
+        pollScheduler.reschedule();
+        logger.info("Scheduled polling started ({} posts watched)", watchedPosts.size());
     }
-
+    
     /**
-     * Handles the manual approval workflow.
-     * Stores the pending response and waits for user approval.
+     * Moves the scheduler's next wake-up to the earliest due post, e.g. after posts were added,
+     * reconfigured or removed.
      */
-    private void handleManualApprovalWorkflow(Post post, Comment comment, 
-                                             GeneratedResponse generatedResponse, 
-                                             Interaction interaction) {
-        logger.info("Manual approval required for comment: {}", comment.getId());
-        
-        // Store pending items for approval
-        this.pendingPost = post;
-        this.pendingComment = comment;
-        this.pendingResponse = generatedResponse;
-        
-        // Log for user to review
-        logger.info("=== MANUAL APPROVAL REQUIRED ===");
-        logger.info("Comment from {}: {}", comment.getAuthorName(), comment.getText());
-        logger.info("Generated Response: {}", generatedResponse.getText());
-        logger.info("Confidence Score: {}", generatedResponse.getConfidenceScore());
-        if (generatedResponse.getReasoning() != null) {
-            logger.info("Reasoning: {}", generatedResponse.getReasoning());
-        }
-        if (generatedResponse.getWarnings() != null && !generatedResponse.getWarnings().isEmpty()) {
-            logger.warn("Warnings: {}", String.join(", ", generatedResponse.getWarnings()));
+    private void reschedulePolls() {
+        PollScheduler scheduler = pollScheduler;
+        if (scheduler != null) {
+            scheduler.reschedule();
         }
-        logger.info("Call approveResponse() to approve or rejectResponse() to reject");
-        logger.info("================================");
-        
-        // Update interaction status
-        interaction.setStatus(ResponseStatus.GENERATED);
-        storageRepository.saveInteraction(interaction);
     }
-
+    
     /**
-     * Handles the automatic posting workflow.
-     * Posts the response immediately without user approval.
+     * Returns when the next watched post is due, or null if none is watched. Posts leased by
+     * another instance are checked again after a third of the lease TTL, in case they move here.
      */
-    private void handleAutomaticPostingWorkflow(Comment comment, 
-                                               GeneratedResponse generatedResponse, 
-                                               Interaction interaction) {
-        logger.info("Automatic posting enabled for comment: {}", comment.getId());
-        
-        // Post the response
-        PostResult result = postResponse(comment, generatedResponse.getText());
-        
-        if (result.isSuccess()) {
-            logger.info("Successfully posted response to comment: {}", comment.getId());
-            
-            // Mark comment as processed
-            storageRepository.markCommentProcessed(comment.getId());
-            
-            // Update interaction
-            interaction.setStatus(ResponseStatus.POSTED);
-            interaction.setPostedResponse(generatedResponse.getText());
-            interaction.getMetadata().put("response_id", result.getResponseId());
-            storageRepository.saveInteraction(interaction);
-        } else {
-            logger.error("Failed to post response to comment {}: {}", 
-                    comment.getId(), result.getErrorMessage());
-            
-            // Update interaction with failure
-            interaction.setStatus(ResponseStatus.FAILED);
-            interaction.getMetadata().put("error", result.getErrorMessage());
-            interaction.getMetadata().put("status_code", String.valueOf(result.getStatusCode()));
-            storageRepository.saveInteraction(interaction);
+    private Instant nextPollTime() {
+        Instant next = null;
+        for (WatchedPost post : watchedPosts.values()) {
+            Instant due = ownsPost(post.getPostId())
+                    ? post.getNextPollAt() : clock.instant().plusMillis(Math.max(1, leaseTtlSeconds * 1000 / 3));
+            if (next == null || due.isBefore(next)) {
+                next = due;
+            }
         }
+        return next;
     }
-
+    
     /**
-     * Approves and posts the pending response.
-     * Used in manual approval workflow.
-     * 
-     * @return true if successfully posted, false otherwise
+     * With webhooks on, polls only reconcile comments whose notifications were lost, so a post is
+     * polled no more often than the reconciliation interval.
      */
-    public boolean approveResponse() {
-        if (pendingResponse == null || pendingComment == null) {
-            logger.warn("No pending response to approve");
-            return false;
-        }
-        
-        logger.info("Approving response for comment: {}", pendingComment.getId());
-        
-        // Post the response
-        PostResult result = postResponse(pendingComment, pendingResponse.getText());
-        
-        if (result.isSuccess()) {
-            logger.info("Successfully posted approved response");
-            
-            // Mark comment as processed
-            storageRepository.markCommentProcessed(pendingComment.getId());
-            
-            // Update interaction
-            Interaction interaction = createInteraction(pendingPost, pendingComment, pendingResponse);
-            interaction.setStatus(ResponseStatus.POSTED);
-            interaction.setPostedResponse(pendingResponse.getText());
-            interaction.getMetadata().put("response_id", result.getResponseId());
-            interaction.getMetadata().put("manually_approved", "true");
-            storageRepository.saveInteraction(interaction);
-            
-            // Clear pending items
-            clearPendingItems();
-            return true;
-        } else {
-            logger.error("Failed to post approved response: {}", result.getErrorMessage());
-            
-            // Update interaction with failure
-            Interaction interaction = createInteraction(pendingPost, pendingComment, pendingResponse);
-            interaction.setStatus(ResponseStatus.FAILED);
-            interaction.getMetadata().put("error", result.getErrorMessage());
-            interaction.getMetadata().put("manually_approved", "true");
-            storageRepository.saveInteraction(interaction);
-            
-            // Clear pending items
-            clearPendingItems();
-            return false;
-        }
+    private long reconciled(long intervalSeconds) {
+        return webhookEnabled ? Math.max(intervalSeconds, webhookReconciliationSeconds) : intervalSeconds;
     }
-
+    
     /**
-     * Rejects the pending response.
-     * Used in manual approval workflow.
+     * Returns the delay until a post's next poll: its interval, spread by up to the jitter ratio
+     * either way so posts started together drift apart instead of polling in lockstep.
      */
-    public void rejectResponse() {
-        if (pendingResponse == null || pendingComment == null) {
-            logger.warn("No pending response to reject");
-            return;
+    private long jitteredDelayMillis(long intervalSeconds) {
+        long intervalMillis = Math.max(1, intervalSeconds) * 1000;
+        if (pollJitterRatio <= 0) {
+            return intervalMillis;
         }
-        
-        logger.info("Rejecting response for comment: {}", pendingComment.getId());
-        
-        // Update interaction
-        Interaction interaction = createInteraction(pendingPost, pendingComment, pendingResponse);
-        interaction.setStatus(ResponseStatus.REJECTED);
-        interaction.getMetadata().put("manually_rejected", "true");
-        storageRepository.saveInteraction(interaction);
-        
-        // Clear pending items
-        clearPendingItems();
+        double jitter = ThreadLocalRandom.current().nextDouble(-pollJitterRatio, pollJitterRatio);
+        return Math.max(1, Math.round(intervalMillis * (1 + jitter)));
     }
-
+    
     /**
-     * Posts a response to a comment with retry logic.
+     * Polls every watched post whose own polling interval has elapsed, fetching each post's
+     * comments and processing the combined batch on the shared worker pool, or, with the staged
+     * pipeline enabled, submitting each post's comments to the pipeline as soon as they are fetched.
+     * With the work queue enabled, each post's comments are appended to it instead and processed
+     * by the work-queue consumer while the poll goes on fetching.
+     * Called by the poll scheduler; posts already being polled are skipped, so calls never overlap.
+     * Nothing is polled once shutdown has begun draining.
      */
-    private PostResult postResponse(Comment comment, String responseText) {
-        int attempt = 0;
-        PostResult result = null;
-        
-        while (attempt < config.getMaxRetries()) {
-            attempt++;
-            logger.info("Posting response (attempt {}/{})", attempt, config.getMaxRetries());
-            
-            result = apiClient.postReply(comment.getId(), responseText);
-            
-            if (result.isSuccess()) {
-                return result;
+    public void pollForComments() {
+        if (watchedPosts.isEmpty() || !drainGate.tryEnter()) {
+            return;
+        }
+        try {
+            pollDuePosts();
+        } finally {
+            drainGate.exit();
+        }
+    }
+    
+    private void pollDuePosts() {
+        Instant now = clock.instant();
+        List<WatchedPost> duePosts = new ArrayList<>();
+        for (WatchedPost post : watchedPosts.values()) {
+            if (!post.isDue(now) || !ownsPost(post.getPostId())) {
+                continue;
             }
-            
-            // Don't retry on client errors (except rate limits)
-            if (result.getStatusCode() >= 400 && result.getStatusCode() < 500 
-                    && result.getStatusCode() != 429) {
-                logger.error("Client error, not retrying: {}", result.getStatusCode());
-                return result;
+            if (!getPollingPolicy().tryAcquirePoll(now.toEpochMilli())) {
+                // Over the API budget; the post stays due and is polled on a later tick
+                logger.debug("Poll budget spent, deferring post {}", post.getPostId());
+                continue;
             }
-            
-            if (attempt < config.getMaxRetries()) {
-                long backoffMs = (long) (config.getRetryBackoffSeconds() * 1000 * Math.pow(2, attempt - 1));
-                logger.info("Retrying in {} ms", backoffMs);
+            if (post.tryBeginPoll()) {
+                duePosts.add(post);
+            }
+        }
+        if (duePosts.isEmpty()) {
+            return;
+        }
+        
+        Map<WatchedPost, Integer> newComments = new HashMap<>();
+        Map<WatchedPost, String> errors = new HashMap<>();
+        Map<WatchedPost, CommentCursor> cursors = new HashMap<>();
+        Map<WatchedPost, List<Comment>> fetchedComments = new HashMap<>();
+        Map<WatchedPost, List<Comment>> unsettledComments = new HashMap<>();
+        List<Comment> unprocessedComments = new ArrayList<>();
+        // Each comment is processed with the configuration of the post it was polled for,
+        // even if that post is stopped while the batch runs
+        Map<Comment, WatchedPost> owners = new IdentityHashMap<>();
+        Set<String> submitted = new HashSet<>();
+        List<CompletableFuture<Void>> inPipeline = new ArrayList<>();
+        for (WatchedPost post : duePosts) {
+            String postId = post.getPostId();
+            if (drainGate.isDraining()) {
+                // Left for the first poll after the restart; its cursor has not moved
+                errors.put(post, "Shutting down");
+                continue;
+            }
+            logger.info("Polling for new comments on post: {}", postId);
+            try {
+                // Fetch only comments past the post's watermark, re-scanning a window before it
+                // for late arrivals; the first poll of a post fetches everything
+                CommentCursor cursor = storageRepository.getCommentCursor(postId);
+                List<Comment> allComments;
+                if (cursor == null || cursor.getLastCreatedAt() == null) {
+                    allComments = apiClient.fetchComments(postId);
+                } else {
+                    allComments = apiClient.fetchCommentsSince(postId,
+                            cursor.getLastCreatedAt().minusSeconds(Math.max(0, rescanWindowSeconds)));
+                }
+                logger.info("Fetched {} comments for post {}", allComments.size(), postId);
+                
+                // Filter out comments already handled or being worked on elsewhere
+                List<Comment> unsettled = allComments.stream()
+                        .filter(comment -> !isSettled(comment))
+                        .collect(Collectors.toList());
+                List<Comment> unprocessed = unsettled.stream()
+                        .filter(comment -> !isPassedOver(comment))
+                        .collect(Collectors.toList());
+                logger.info("Found {} unprocessed comments for post {}", unprocessed.size(), postId);
                 
-                try {
-                    Thread.sleep(backoffMs);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    logger.error("Interrupted during retry backoff", e);
-                    return result;
+                newComments.put(post, unprocessed.size());
+                if (workQueueEnabled) {
+                    // Once the comments are on disk they survive a restart and a failed one is
+                    // retried from there, so the cursor can move past all of them
+                    getWorkQueue().append(unprocessed, post.getConfig());
+                    CommentCursor queued = advanceCursor(postId, cursor, allComments);
+                    if (queued != cursor) {
+                        saveCursor(queued);
+                    }
+                    signalWorkQueue();
+                    continue;
                 }
+                cursors.put(post, cursor);
+                fetchedComments.put(post, allComments);
+                unsettledComments.put(post, unsettled);
+                if (pipelineEnabled) {
+                    // Hand the comments over before fetching the next post, so a saturated
+                    // pipeline holds back further fetches
+                    submitToPipeline(post, unprocessed, now, submitted, inPipeline);
+                } else {
+                    unprocessed.forEach(comment -> owners.put(comment, post));
+                    unprocessedComments.addAll(unprocessed);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while handing comments of post {} to the pipeline", postId);
+                errors.put(post, "Interrupted");
+                break;
+            } catch (Exception e) {
+                logger.error("Error polling post {}: {}", postId, e.getMessage(), e);
+                errors.put(post, e.getMessage());
             }
         }
         
-        logger.error("Failed to post response after {} attempts", config.getMaxRetries());
-        return result;
+        try {
+            // Process unprocessed comments with bounded concurrency; returns when all are done
+            // so the next poll of these posts never overlaps this batch
+            long startNanos = System.nanoTime();
+            if (workQueueEnabled) {
+                // The work-queue consumer is already processing them
+                logger.info("Queued {} comments from {} posts",
+                        newComments.values().stream().mapToInt(Integer::intValue).sum(), newComments.size());
+            } else {
+                int processed;
+                if (pipelineEnabled) {
+                    CompletableFuture.allOf(inPipeline.toArray(new CompletableFuture<?>[0])).get();
+                    processed = inPipeline.size();
+                } else {
+                    sortByRank(unprocessedComments, comment -> owners.get(comment).getConfig(), now);
+                    processed = getCommentProcessor().processAll(unprocessedComments, comment -> {
+                        WatchedPost owner = owners.get(comment);
+                        processComment(comment, owner.getConfig());
+                        owner.recordProcessed();
+                    });
+                }
+                logger.info("Processed {} comments from {} posts in {} ms",
+                        processed, newComments.size(), (System.nanoTime() - startNanos) / 1_000_000);
+            }
+            
+            // Move the watermarks only once the batch is done, so an interrupted poll fetches it
+            // again, and only past handled comments, so the next poll retries a failed one
+            if (!drainGate.isAbandoned()) {
+                fetchedComments.forEach((post, comments) -> {
+                    CommentCursor cursor = cursors.get(post);
+                    CommentCursor advanced = advanceCursorPastHandled(post, cursor, comments, unsettledComments.get(post));
+                    if (advanced != cursor) {
+                        saveCursor(advanced);
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while processing comments");
+        } catch (Exception e) {
+            logger.error("Error during polling: {}", e.getMessage(), e);
+        } finally {
+            for (WatchedPost post : duePosts) {
+                int fetched = errors.containsKey(post) ? -1 : newComments.getOrDefault(post, 0);
+                long interval = reconciled(getPollingPolicy().nextIntervalSeconds(post, fetched, now, watchedPosts.values()));
+                post.completePoll(now, errors.get(post), interval, jitteredDelayMillis(interval));
+                if (interval != post.getConfig().getPollingIntervalSeconds()) {
+                    logger.debug("Next poll of post {} in {} s ({} new comments per minute on average)",
+                            post.getPostId(), interval, String.format("%.1f", post.getCommentsPerMinute()));
+                }
+            }
+        }
     }
 
     /**
-     * Checks if a comment requires manual review based on configured keywords.
+     * Returns the cursor moved to the newest of the fetched comments, or the given cursor if none is newer.
      */
-    private boolean checkManualReviewRequired(Comment comment) {
-        if (config.getManualReviewKeywords() == null || config.getManualReviewKeywords().isEmpty()) {
-            return false;
-        }
-        
-        String commentTextLower = comment.getText().toLowerCase();
-        
-        for (String keyword : config.getManualReviewKeywords()) {
-            if (commentTextLower.contains(keyword.toLowerCase())) {
-                logger.info("Comment contains manual review keyword '{}': {}", keyword, comment.getId());
-                return true;
+    private CommentCursor advanceCursor(String postId, CommentCursor cursor, List<Comment> comments) {
+        CommentCursor newest = cursor;
+        for (Comment comment : comments) {
+            if (comment.getTimestamp() != null && (newest == null || newest.isBefore(comment))) {
+                newest = new CommentCursor(postId, comment.getTimestamp(), comment.getId(), null);
             }
         }
-        
-        return false;
+        if (newest != cursor) {
+            newest.setUpdatedAt(clock.instant());
+        }
+        return newest;
     }
-
+    
     /**
-     * Creates an Interaction record from the workflow components.
+     * Returns the cursor moved past the fetched comments that have been handled, stopping short of
+     * the oldest one still pending, so the next poll fetches that one again. The cursor never moves back.
+     *
+     * @param unsettled The fetched comments that were not settled when the poll filtered them;
+     *                  only these can still be pending
      */
-    private Interaction createInteraction(Post post, Comment comment, GeneratedResponse generatedResponse) {
-        Interaction interaction = new Interaction();
-        interaction.setId(UUID.randomUUID().toString());
-        interaction.setPostId(post.getId());
-        interaction.setCommentId(comment.getId());
-        interaction.setCommenterName(comment.getAuthorName());
+    private CommentCursor advanceCursorPastHandled(WatchedPost post, CommentCursor cursor, List<Comment> comments,
+                                                   List<Comment> unsettled) {
+        String postId = post.getPostId();
+        CommentCursor oldestPending = null;
+        for (Comment comment : unsettled) {
+            if (comment.getTimestamp() != null && isPending(comment)
+                    && (oldestPending == null || !oldestPending.isBefore(comment))) {
+                oldestPending = new CommentCursor(postId, comment.getTimestamp(), comment.getId(), null);
+            }
+        }
+        if (oldestPending == null) {
+            return advanceCursor(postId, cursor, comments);
+        }
+        CommentCursor bound = oldestPending;
+        logger.info("Holding the cursor of post {} before comment {}, which is not handled yet",
+                postId, bound.getLastCommentId());
+        return advanceCursor(postId, cursor, comments.stream()
+                .filter(comment -> !bound.isBefore(comment) && !comment.getId().equals(bound.getLastCommentId()))
+                .collect(Collectors.toList()));
+    }
+    
+    /**
+     * Checks whether an unsettled comment is still being worked on or will be attempted again.
+     */
+    private boolean isPending(Comment comment) {
+        return isInFlight(comment) || isRetryable(comment);
+    }
+    
+    /**
+     * Checks whether a comment is being delivered by a webhook or processed right now.
+     */
+    private boolean isInFlight(Comment comment) {
+        if (ingesting.contains(commentKey(comment))) {
+            return true;
+        }
+        return pipelineEnabled ? getPipeline().isInFlight(commentKey(comment)) : getCommentProcessor().isInFlight(comment);
+    }
+    
+    /**
+     * Checks whether a comment's processing failed fewer than {@code workflow.processing.max-attempts} times.
+     */
+    private boolean isRetryable(Comment comment) {
+        Integer attempts = failedAttempts.get(commentKey(comment));
+        return attempts != null && attempts < Math.max(1, maxCommentAttempts);
+    }
+    
+    /**
+     * Checks whether a comment that is not settled is still left alone: a webhook delivery has it,
+     * or its processing failed {@code workflow.processing.max-attempts} times.
+     */
+    private boolean isPassedOver(Comment comment) {
+        Integer attempts = failedAttempts.get(commentKey(comment));
+        return ingesting.contains(commentKey(comment)) || (attempts != null && attempts >= Math.max(1, maxCommentAttempts));
+    }
+    
+    /**
+     * Submits a post's new comments to the staged pipeline, blocking while its first stage is full.
+     */
+    private void submitToPipeline(WatchedPost owner, List<Comment> comments, Instant queuedAt, Set<String> submitted,
+                                  List<CompletableFuture<Void>> inPipeline) throws InterruptedException {
+        for (Comment comment : comments) {
+            if (!submitted.add(comment.getPostId() + '\0' + comment.getId())) {
+                continue;
+            }
+            CompletableFuture<Void> done = submit(comment, owner.getConfig(), queuedAt);
+            if (done != null) {
+                inPipeline.add(done.thenRun(owner::recordProcessed));
+            }
+        }
+    }
+    
+    /**
+     * Submits a comment to the staged pipeline, ranked when prioritization is on, blocking while
+     * the first stage is full.
+     *
+     * @return Completes once the comment leaves the pipeline, or null if it is already in it
+     */
+    private CompletableFuture<Void> submit(Comment comment, WorkflowConfig config, Instant queuedAt)
+            throws InterruptedException {
+        CommentTask task = new CommentTask(comment, config);
+        if (getPrioritizer().isEnabled()) {
+            task.rank = rank(comment, config, queuedAt);
+        }
+        return getPipeline().submit(task);
+    }
+    
+    /**
+     * Puts the highest-ranked comments first when prioritization is on, since the worker pool
+     * takes comments in submission order.
+     */
+    private void sortByRank(List<Comment> comments, Function<Comment, WorkflowConfig> configOf, Instant queuedAt) {
+        if (!getPrioritizer().isEnabled()) {
+            return;
+        }
+        Map<Comment, Double> ranks = new IdentityHashMap<>();
+        comments.forEach(comment -> ranks.put(comment, rank(comment, configOf.apply(comment), queuedAt)));
+        comments.sort(Comparator.<Comment>comparingDouble(ranks::get).reversed());
+    }
+    
+    /**
+     * Has the work-queue consumer drain the queue, unless a drain is already waiting to start.
+     */
+    private void signalWorkQueue() {
+        if (!workQueueSignalled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            getWorkQueueConsumer().execute(this::consumeWorkQueue);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the queued comments are drained after the restart
+            workQueueSignalled.set(false);
+        }
+    }
+    
+    private void consumeWorkQueue() {
+        // Comments appended from here on signal another drain
+        workQueueSignalled.set(false);
+        if (!drainGate.tryEnter()) {
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            int processed = drainWorkQueue();
+            if (processed > 0) {
+                logger.info("Processed {} queued comments in {} ms", processed, (System.nanoTime() - startNanos) / 1_000_000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while processing queued comments");
+        } catch (Exception e) {
+            logger.error("Error processing queued comments: {}", e.getMessage(), e);
+        } finally {
+            drainGate.exit();
+        }
+    }
+    
+    /**
+     * Processes the comments in the work queue, a batch at a time, until it is empty, and
+     * acknowledges each once it has been processed. Comments left when draining is interrupted,
+     * or when shutdown begins, stay queued for the next drain or, after a restart, for the first one.
+     * Runs only on the work-queue consumer.
+     *
+     * @return number of comments processed
+     */
+    private int drainWorkQueue() throws Exception {
+        CommentWorkQueue queue = getWorkQueue();
+        queue.rewind();
+        int processed = 0;
+        List<CommentWorkQueue.Item> batch;
+        while (!drainGate.isDraining() && !(batch = queue.read(Math.max(1, workQueueBatchSize))).isEmpty()) {
+            processed += processQueued(queue, batch);
+        }
+        return processed;
+    }
+    
+    /**
+     * Processes a batch read from the work queue with the configuration each comment was polled
+     * with, skipping comments handled since they were queued, e.g. before a restart.
+     */
+    private int processQueued(CommentWorkQueue queue, List<CommentWorkQueue.Item> batch) throws Exception {
+        Instant now = clock.instant();
+        List<CommentWorkQueue.Item> pending = new ArrayList<>();
+        for (CommentWorkQueue.Item item : batch) {
+            Comment comment = item.getComment();
+            if (shouldSkip(comment)) {
+                queue.acknowledge(item);
+            } else {
+                pending.add(item);
+            }
+        }
+        
+        if (pipelineEnabled) {
+            List<CompletableFuture<Void>> inPipeline = new ArrayList<>();
+            for (CommentWorkQueue.Item item : pending) {
+                CompletableFuture<Void> done = submit(item.getComment(), item.getConfig(), now);
+                if (done == null) {
+                    queue.acknowledge(item);
+                } else {
+                    inPipeline.add(done.thenRun(() -> {
+                        recordProcessed(item.getComment());
+                        // A failed comment stays queued for the next drain
+                        if (!isRetryable(item.getComment())) {
+                            queue.acknowledge(item);
+                        }
+                    }));
+                }
+            }
+            CompletableFuture.allOf(inPipeline.toArray(new CompletableFuture<?>[0])).get();
+            return inPipeline.size();
+        }
+        
+        Map<Comment, CommentWorkQueue.Item> items = new IdentityHashMap<>();
+        List<Comment> comments = new ArrayList<>(pending.size());
+        for (CommentWorkQueue.Item item : pending) {
+            items.put(item.getComment(), item);
+            comments.add(item.getComment());
+        }
+        sortByRank(comments, comment -> items.get(comment).getConfig(), now);
+        Set<CommentWorkQueue.Item> attempted = ConcurrentHashMap.newKeySet();
+        int processed = getCommentProcessor().processAll(comments, comment -> {
+            CommentWorkQueue.Item item = items.get(comment);
+            attempted.add(item);
+            try {
+                processComment(comment, item.getConfig());
+                recordProcessed(comment);
+            } finally {
+                // A comment cut short by shutdown stays queued for the next run, a failed one for the next drain
+                if (!drainGate.isAbandoned() && !isRetryable(comment)) {
+                    queue.acknowledge(item);
+                }
+            }
+        });
+        // Comments the processor skipped because another batch was already working on them
+        pending.stream().filter(item -> !attempted.contains(item)).forEach(queue::acknowledge);
+        return processed;
+    }
+    
+    private void recordProcessed(Comment comment) {
+        WatchedPost post = watchedPosts.get(comment.getPostId());
+        if (post != null) {
+            post.recordProcessed();
+        }
+    }
+    
+    /**
+     * Hands comments pushed by a webhook to processing without waiting for the next poll, and
+     * returns without waiting for them to be processed.
+     *
+     * Comments of posts this instance does not watch, or whose lease another instance holds, are
+     * ignored; comments already replied to, queued or in progress are counted as duplicates, so a
+     * notification delivered twice is processed once. A comment that does not fit in the ingest
+     * queue, or arrives once shutdown has begun draining, is left to the next reconciliation poll.
+     */
+    public IngestResult ingestComments(List<Comment> comments) {
+        int queued = 0;
+        int duplicates = 0;
+        int ignored = 0;
+        int deferred = 0;
+        for (Comment comment : comments) {
+            WatchedPost post = watchedPosts.get(comment.getPostId());
+            if (post == null || !ownsPost(comment.getPostId())) {
+                ignored++;
+                continue;
+            }
+            String key = commentKey(comment);
+            if (shouldSkip(comment) || !ingesting.add(key)) {
+                duplicates++;
+                continue;
+            }
+            if (!drainGate.tryEnter()) {
+                ingesting.remove(key);
+                deferred++;
+                continue;
+            }
+            try {
+                getWebhookIngester().execute(() -> {
+                    CompletableFuture<Void> done = null;
+                    try {
+                        done = ingest(post, comment);
+                    } finally {
+                        ingesting.remove(key);
+                        if (done == null) {
+                            drainGate.exit();
+                        } else {
+                            // Still in flight in the pipeline
+                            done.whenComplete((result, failure) -> drainGate.exit());
+                        }
+                    }
+                });
+                queued++;
+            } catch (RejectedExecutionException e) {
+                ingesting.remove(key);
+                drainGate.exit();
+                deferred++;
+            }
+        }
+        if (deferred > 0) {
+            logger.warn("Webhook ingest queue full, {} comments left to the next poll", deferred);
+        }
+        logger.info("Webhook delivered {} comments: {} queued, {} duplicates, {} ignored",
+                comments.size(), queued, duplicates, ignored);
+        return new IngestResult(queued, duplicates, ignored, deferred);
+    }
+    
+    /**
+     * Processes one pushed comment, or submits it to the pipeline, unless a poll got to it first.
+     *
+     * @return Completes once a comment submitted to the pipeline leaves it, or null if the comment is done
+     */
+    private CompletableFuture<Void> ingest(WatchedPost post, Comment comment) {
+        // The delivery holds the comment's ingest claim, so only the other reasons to skip apply
+        if (drainGate.isDraining() || isSettled(comment)) {
+            return null;
+        }
+        try {
+            if (pipelineEnabled) {
+                // Blocks while the pipeline is saturated, holding back further webhook comments
+                CompletableFuture<Void> done = submit(comment, post.getConfig(), clock.instant());
+                if (done != null) {
+                    done.thenRun(post::recordProcessed);
+                }
+                return done;
+            }
+            getCommentProcessor().processAll(List.of(comment), accepted -> {
+                processComment(accepted, post.getConfig());
+                post.recordProcessed();
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            logger.warn("Could not process pushed comment {}: {}", comment.getId(), e.getMessage());
+        }
+        return null;
+    }
+    
+    private static String commentKey(Comment comment) {
+        return comment.getPostId() + '\0' + comment.getId();
+    }
+    
+    public boolean isWebhookEnabled() {
+        return webhookEnabled;
+    }
+    
+    /**
+     * Checks whether this instance holds the lease of a post; always true without coordination.
+     */
+    private boolean ownsPost(String postId) {
+        LeaseCoordinator leases = getCoordinator();
+        return leases == null || leases.owns(postId);
+    }
+    
+    /**
+     * Checks the replies shared between instances, which cover comments replied to by a previous owner of the post.
+     */
+    private boolean isRepliedByAnyInstance(Comment comment) {
+        LeaseCoordinator leases = getCoordinator();
+        return leases != null && leases.isProcessed(comment.getPostId(), comment.getId());
+    }
+    
+    private double rank(Comment comment, WorkflowConfig config, Instant queuedAt) {
+        return getPrioritizer().rank(comment, findManualReviewKeyword(comment, config) != null, queuedAt);
+    }
+    
+    private void saveCursor(CommentCursor cursor) {
+        try {
+            storageRepository.saveCommentCursor(cursor);
+        } catch (Exception e) {
+            logger.error("Failed to save comment cursor for post {}: {}", cursor.getPostId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Processes a single comment through the complete workflow.
+     * 
+     * @param comment The comment to process
+     */
+    public void processComment(Comment comment) {
+        WatchedPost watched = watchedPosts.get(comment.getPostId());
+        processComment(comment, watched == null ? null : watched.getConfig());
+    }
+
+    private void processComment(Comment comment, WorkflowConfig config) {
+        CommentTask task = new CommentTask(comment, config);
+        MDC.put("correlationId", task.correlationId);
+        try {
+            screenComment(task);
+            generateResponse(task);
+            recordResponse(task);
+            dispatchResponse(task);
+        } catch (Exception e) {
+            handleProcessingFailure(task, e);
+        } finally {
+            MDC.clear();
+        }
+    }
+    
+    /**
+     * Step 1: fetches the original post and checks the comment for manual review keywords.
+     * A comment with a checkpoint from an earlier attempt picks up where that attempt stopped.
+     */
+    private void screenComment(CommentTask task) {
+        Comment comment = task.comment;
+        logger.info("Processing comment: {} from {}", comment.getId(), comment.getAuthorName());
+        if (task.config == null) {
+            throw new IllegalStateException("Post is not being watched: " + comment.getPostId());
+        }
+        
+        CommentCheckpoint checkpoint = getCheckpoints().get(comment.getPostId(), comment.getId());
+        if (checkpoint != null && checkpoint.getPost() != null) {
+            logger.info("Resuming comment {} from checkpoint {}", comment.getId(), checkpoint.getState());
+            task.post = checkpoint.getPost();
+        } else {
+            // Comments on the same post share one cached fetch
+            task.post = getPostCache().get(comment.getPostId(), apiClient::fetchPost);
+            logger.debug("Fetched post: {}", task.post.getId());
+        }
+        
+        task.requiresManualReview = checkManualReviewRequired(comment, task.config);
+        
+        if (checkpoint == null) {
+            checkpoint = new CommentCheckpoint(TimeOrderedIds.nextString(), comment, task.config, clock.instant());
+        }
+        checkpoint.setPost(task.post);
+        checkpoint.setConfig(task.config);
+        checkpoint.setRequiresManualReview(task.requiresManualReview);
+        task.checkpoint = checkpoint;
+        getCheckpoints().advance(checkpoint, CommentCheckpoint.State.FETCHED);
+    }
+    
+    /**
+     * Step 2: generates the response with the LLM, which also validates it, and checkpoints it.
+     * A response checkpointed before a failure or restart is reused instead of generated again.
+     */
+    private void generateResponse(CommentTask task) {
+        CommentCheckpoint checkpoint = task.checkpoint;
+        if (checkpoint.hasReached(CommentCheckpoint.State.GENERATED) && checkpoint.getResponse() != null) {
+            logger.info("Reusing checkpointed response for comment {}", task.comment.getId());
+            task.response = checkpoint.getResponse();
+            return;
+        }
+        
+        GeneratedResponse generatedResponse = llmAgent.generateResponse(
+                task.post, 
+                task.comment, 
+                task.config.getTonePreference()
+        );
+        logger.info("Generated response for comment {}: {}", 
+                task.comment.getId(), generatedResponse.getText().substring(0, Math.min(50, generatedResponse.getText().length())));
+        task.response = generatedResponse;
+        checkpoint.setResponse(generatedResponse);
+        getCheckpoints().advance(checkpoint, CommentCheckpoint.State.GENERATED);
+    }
+    
+    /**
+     * Step 3: records the generated response.
+     */
+    private void recordResponse(CommentTask task) {
+        Interaction interaction = createInteraction(task.post, task.comment, task.response, task.config);
+        interaction.setStatus(ResponseStatus.GENERATED);
+        storageRepository.saveInteraction(interaction);
+        task.interaction = interaction;
+    }
+    
+    /**
+     * Step 4: queues the response for approval or posts it.
+     */
+    private void dispatchResponse(CommentTask task) {
+        if (task.checkpoint.hasReached(CommentCheckpoint.State.APPROVED)) {
+            // Cleared for posting before the previous attempt stopped
+            handleAutomaticPostingWorkflow(task.post, task.comment, task.response, task.interaction, task.config);
+        } else if (task.config.isRequireManualApproval() || task.requiresManualReview) {
+            handleManualApprovalWorkflow(task.post, task.comment, task.response, task.interaction, task.config);
+            // The approval queue keeps the response from here on
+            getCheckpoints().remove(task.checkpoint);
+        } else {
+            handleAutomaticPostingWorkflow(task.post, task.comment, task.response, task.interaction, task.config);
+        }
+        failedAttempts.remove(commentKey(task.comment));
+    }
+    
+    private void handleProcessingFailure(CommentTask task, Exception e) {
+        Comment comment = task.comment;
+        
+        if (drainGate.isAbandoned()) {
+            // Interrupted by shutdown: the checkpoint, cursor or queued entry brings it back after the restart
+            logger.info("Comment {} was cut short by shutdown and resumes after the restart", comment.getId());
+            return;
+        }
+        
+        int attempts = failedAttempts.merge(commentKey(comment), 1, Integer::sum);
+        if (attempts >= Math.max(1, maxCommentAttempts)) {
+            logger.warn("Giving up on comment {} after {} failed attempts", comment.getId(), attempts);
+        }
+        
+        // A generated response stays checkpointed so the next attempt does not generate it again
+        if (task.checkpoint != null && !task.checkpoint.hasReached(CommentCheckpoint.State.GENERATED)) {
+            getCheckpoints().remove(task.checkpoint);
+        }
+        
+        // Use centralized error handler
+        Map<String, String> context = new HashMap<>();
+        context.put("commentId", comment.getId());
+        context.put("postId", comment.getPostId());
+        context.put("commenterName", comment.getAuthorName());
+        errorHandler.handleError(e, context);
+        
+        // Save failed interaction
+        Interaction failedInteraction = new Interaction();
+        failedInteraction.setId(TimeOrderedIds.nextString());
+        failedInteraction.setCommentId(comment.getId());
+        failedInteraction.setPostId(comment.getPostId());
+        failedInteraction.setCommenterName(comment.getAuthorName());
+        failedInteraction.setCommentText(comment.getText());
+        failedInteraction.setTimestamp(clock.instant());
+        failedInteraction.setStatus(ResponseStatus.FAILED);
+        failedInteraction.getMetadata().put("error", e.getMessage());
+        failedInteraction.getMetadata().put("correlationId", task.correlationId);
+        storageRepository.saveInteraction(failedInteraction);
+    }
+
+    /**
+     * Handles the manual approval workflow.
+     * Stores the pending response and waits for user approval.
+     */
+    private void handleManualApprovalWorkflow(Post post, Comment comment, 
+                                             GeneratedResponse generatedResponse, 
+                                             Interaction interaction,
+                                             WorkflowConfig config) {
+        logger.info("Manual approval required for comment: {}", comment.getId());
+        
+        // Queue for approval; a comment already waiting keeps its first response
+        PendingApproval approval = new PendingApproval(TimeOrderedIds.nextString(), post, comment,
+                generatedResponse, config, clock.instant());
+        if (!getApprovalQueue().add(approval)) {
+            logger.info("Comment {} is already awaiting approval", comment.getId());
+            return;
+        }
+        
+        // Log for user to review
+        logger.info("=== MANUAL APPROVAL REQUIRED ===");
+        logger.info("Comment from {}: {}", comment.getAuthorName(), comment.getText());
+        logger.info("Generated Response: {}", generatedResponse.getText());
+        logger.info("Confidence Score: {}", generatedResponse.getConfidenceScore());
+        if (generatedResponse.getReasoning() != null) {
+            logger.info("Reasoning: {}", generatedResponse.getReasoning());
+        }
+        if (generatedResponse.getWarnings() != null && !generatedResponse.getWarnings().isEmpty()) {
+            logger.warn("Warnings: {}", String.join(", ", generatedResponse.getWarnings()));
+        }
+        logger.info("Approval ID: {} ({} items awaiting approval)", approval.getId(), getApprovalQueue().size());
+        logger.info("================================");
+        
+        // Update interaction status
+        interaction.setStatus(ResponseStatus.GENERATED);
+        storageRepository.saveInteraction(interaction);
+    }
+
+    /**
+     * Handles the automatic posting workflow.
+     * Posts the response immediately without user approval; a failed post is retried in the background.
+     */
+    private void handleAutomaticPostingWorkflow(Post post,
+                                               Comment comment, 
+                                               GeneratedResponse generatedResponse, 
+                                               Interaction interaction,
+                                               WorkflowConfig config) {
+        logger.info("Automatic posting enabled for comment: {}", comment.getId());
+        
+        ReplyRetry reply = new ReplyRetry(TimeOrderedIds.nextString(), post, comment, generatedResponse,
+                config, false, clock.instant());
+        postReply(reply, interaction);
+    }
+
+    /**
+     * Approves and posts the oldest pending response, waiting for the reply to be posted.
+     * Used in manual approval workflow.
+     * 
+     * @return true if successfully posted, false otherwise
+     */
+    public boolean approveResponse() {
+        PendingApproval pending = getApprovalQueue().oldestPending();
+        if (pending == null) {
+            logger.warn("No pending response to approve");
+            return false;
+        }
+        try {
+            return approveResponse(pending.getId()).join();
+        } catch (IllegalStateException e) {
+            logger.warn("Pending response {} was decided concurrently", pending.getId());
+            return false;
+        } catch (CompletionException e) {
+            // E.g. shutdown began draining; the approval stays queued and is posted after the restart
+            logger.warn("Approved response {} was not posted: {}", pending.getId(), e.getCause().getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Approves a queued response. The reply is posted asynchronously so reviewers can clear
+     * the queue without waiting on LinkedIn.
+     * 
+     * @param approvalId The approval queue item
+     * @return Completes with true once the reply is posted, or false if posting failed
+     * @throws IllegalArgumentException if no such item is queued
+     * @throws IllegalStateException if the item has already been approved
+     */
+    public CompletableFuture<Boolean> approveResponse(String approvalId) {
+        if (getApprovalQueue().get(approvalId) == null) {
+            throw new IllegalArgumentException("No pending response with ID: " + approvalId);
+        }
+        PendingApproval approval = getApprovalQueue().markApproved(approvalId);
+        if (approval == null) {
+            throw new IllegalStateException("Response " + approvalId + " has already been approved");
+        }
+        
+        logger.info("Approving response {} for comment: {}", approvalId, approval.getComment().getId());
+        return CompletableFuture.supplyAsync(() -> postApprovedResponse(approval), getApprovalPoster())
+                .thenCompose(outcome -> outcome);
+    }
+
+    /**
+     * Posts an approved response and removes it from the approval queue.
+     * A failed post moves to the retry scheduler, which persists it in place of the queue item.
+     */
+    private CompletableFuture<Boolean> postApprovedResponse(PendingApproval approval) {
+        if (!drainGate.tryEnter()) {
+            // Stays queued as APPROVED and is posted on the next start
+            throw new IllegalStateException("Shutting down; approved response " + approval.getId()
+                    + " is posted after the restart");
+        }
+        try {
+            ReplyRetry reply = new ReplyRetry(approval.getId(), approval.getPost(), approval.getComment(),
+                    approval.getResponse(), approval.getConfig(), true, clock.instant());
+            return postReply(reply, null);
+        } finally {
+            getApprovalQueue().remove(approval.getId());
+            drainGate.exit();
+        }
+    }
+
+    /**
+     * Rejects the oldest pending response.
+     * Used in manual approval workflow.
+     */
+    public void rejectResponse() {
+        PendingApproval pending = getApprovalQueue().oldestPending();
+        if (pending == null) {
+            logger.warn("No pending response to reject");
+            return;
+        }
+        rejectResponse(pending.getId());
+    }
+
+    /**
+     * Rejects a queued response.
+     * 
+     * @param approvalId The approval queue item
+     * @return true if the item was pending and is now rejected
+     */
+    public boolean rejectResponse(String approvalId) {
+        PendingApproval approval = getApprovalQueue().removePending(approvalId);
+        if (approval == null) {
+            logger.warn("No pending response to reject with ID: {}", approvalId);
+            return false;
+        }
+        
+        logger.info("Rejecting response {} for comment: {}", approvalId, approval.getComment().getId());
+        
+        // Update interaction
+        Interaction interaction = createInteraction(approval.getPost(), approval.getComment(),
+                approval.getResponse(), approval.getConfig());
+        interaction.setStatus(ResponseStatus.REJECTED);
+        interaction.getMetadata().put("manually_rejected", "true");
+        storageRepository.saveInteraction(interaction);
+        return true;
+    }
+
+    /**
+     * Makes one attempt to post a reply and records the outcome. A retryable failure is handed to
+     * the retry scheduler rather than retried inline, so the calling thread never waits out a backoff.
+     * 
+     * @param interaction The interaction to update, or null to record the outcome as a new interaction
+     * @return Completes with true once the reply is posted, or false once it has failed for good
+     */
+    private CompletableFuture<Boolean> postReply(ReplyRetry reply, Interaction interaction) {
+        Comment comment = reply.getComment();
+        WorkflowConfig config = reply.getConfig();
+        LeaseCoordinator leases = getCoordinator();
+        Lease lease = null;
+        PostResult result;
+        
+        CommentCheckpoint checkpoint = getCheckpoints().get(comment.getPostId(), comment.getId());
+        if (checkpoint != null && checkpoint.hasReached(CommentCheckpoint.State.POSTED)) {
+            // Posted before a restart or failure; only the bookkeeping below is left
+            logger.info("Reply to comment {} was already posted as {}", comment.getId(), checkpoint.getResponseId());
+            result = new PostResult(true, checkpoint.getResponseId());
+        } else {
+            reply.setAttempts(reply.getAttempts() + 1);
+            logger.info("Posting response to comment {} (attempt {}/{})", comment.getId(),
+                    reply.getAttempts(), config.getMaxRetries());
+            
+            // Fence automatic replies: if the post moved to another instance, that instance replies instead.
+            // Manually approved replies were queued on this instance only and are always posted
+            if (leases != null && !reply.isManuallyApproved()) {
+                lease = leases.fence(comment.getPostId());
+                if (lease == null) {
+                    logger.warn("Not posting reply to comment {}: this instance no longer holds the lease of post {}",
+                            comment.getId(), comment.getPostId());
+                    getCheckpoints().remove(checkpoint);
+                    return CompletableFuture.completedFuture(false);
+                }
+            }
+            
+            if (checkpoint == null) {
+                checkpoint = new CommentCheckpoint(TimeOrderedIds.nextString(), comment, config, clock.instant());
+                checkpoint.setPost(reply.getPost());
+            }
+            checkpoint.setResponse(reply.getResponse());
+            checkpoint.setManuallyApproved(reply.isManuallyApproved());
+            getCheckpoints().advance(checkpoint, CommentCheckpoint.State.APPROVED);
+            
+            try {
+                result = apiClient.postReply(comment.getId(), reply.getResponse().getText());
+            } catch (RuntimeException e) {
+                result = new PostResult(false, e.getMessage(), 500);
+            }
+            
+            if (result.isSuccess()) {
+                checkpoint.setResponseId(result.getResponseId());
+                getCheckpoints().advance(checkpoint, CommentCheckpoint.State.POSTED);
+            } else {
+                // Don't retry on client errors (except rate limits)
+                boolean clientError = result.getStatusCode() >= 400 && result.getStatusCode() < 500
+                        && result.getStatusCode() != 429;
+                if (!clientError && reply.getAttempts() < config.getMaxRetries()) {
+                    // The checkpoint stays APPROVED while the retry is pending
+                    reply.setLastError(result.getErrorMessage());
+                    reply.setLastStatusCode(result.getStatusCode());
+                    return getRetryScheduler().schedule(reply);
+                }
+            }
+        }
+        
+        if (interaction == null) {
+            interaction = createInteraction(reply.getPost(), comment, reply.getResponse(), config);
+        }
+        if (reply.isManuallyApproved()) {
+            interaction.getMetadata().put("manually_approved", "true");
+        }
+        interaction.getMetadata().put("attempts", String.valueOf(reply.getAttempts()));
+        
+        if (result.isSuccess()) {
+            logger.info("Successfully posted response to comment: {}", comment.getId());
+            
+            // Mark comment as processed
+            storageRepository.markCommentProcessed(comment.getPostId(), comment.getId());
+            if (leases != null) {
+                leases.markProcessed(comment.getPostId(), comment.getId());
+            }
+            if (lease != null) {
+                interaction.getMetadata().put("lease_token", String.valueOf(lease.getToken()));
+            }
+            
+            // Update interaction
+            interaction.setStatus(ResponseStatus.POSTED);
+            interaction.setPostedResponse(reply.getResponse().getText());
+            interaction.getMetadata().put("response_id", result.getResponseId());
+        } else {
+            logger.error("Failed to post response to comment {} after {} attempts: {}",
+                    comment.getId(), reply.getAttempts(), result.getErrorMessage());
+            
+            // Update interaction with failure
+            interaction.setStatus(ResponseStatus.FAILED);
+            interaction.getMetadata().put("error", result.getErrorMessage());
+            interaction.getMetadata().put("status_code", String.valueOf(result.getStatusCode()));
+        }
+        storageRepository.saveInteraction(interaction);
+        getCheckpoints().remove(checkpoint);
+        return CompletableFuture.completedFuture(result.isSuccess());
+    }
+    
+    /**
+     * Makes the next attempt of a scheduled retry; a further failure reschedules it.
+     */
+    private void retryReply(ReplyRetry reply) {
+        if (!drainGate.tryEnter()) {
+            // Stays persisted and is attempted again on the next start
+            return;
+        }
+        try {
+            CompletableFuture<Boolean> outcome = postReply(reply, null);
+            if (outcome.isDone()) {
+                getRetryScheduler().complete(reply, outcome.join());
+            }
+        } finally {
+            drainGate.exit();
+        }
+    }
+
+    /**
+     * Starts replying to the existing comments of posts, e.g. when onboarding posts with a long
+     * comment history. The job runs after any jobs already queued, on its own workers and within
+     * its own per-minute budget, and live polling skips the comments it covers.
+     * 
+     * @param postIds The posts to backfill
+     * @param config Settings for posts that are not watched; watched posts use their own configuration
+     * @param model LLM model for the backfill, or null for {@code workflow.backfill.model}
+     * @param maxComments Maximum comments to process across all posts, or 0 for no limit
+     * @return The queued job
+     */
+    public BackfillJob startBackfill(List<String> postIds, WorkflowConfig config, String model, int maxComments) {
+        if (postIds == null || postIds.isEmpty() || postIds.stream().anyMatch(id -> id == null || id.isBlank())) {
+            throw new IllegalArgumentException("Invalid backfill request: at least one postId is required");
+        }
+        if (maxComments < 0) {
+            throw new IllegalArgumentException("Invalid backfill request: maxComments cannot be negative");
+        }
+        String jobModel = model != null && !model.isBlank() ? model
+                : backfillModel != null && !backfillModel.isBlank() ? backfillModel : null;
+        List<String> posts = postIds.stream().distinct().collect(Collectors.toList());
+        BackfillJob job = new BackfillJob(TimeOrderedIds.nextString(), posts,
+                config == null ? new WorkflowConfig() : config, jobModel, maxComments, clock.instant());
+        return getBackfillRunner().submit(job);
+    }
+    
+    public List<BackfillJob> getBackfillJobs() {
+        return getBackfillRunner().list();
+    }
+    
+    public BackfillJob getBackfillJob(String jobId) {
+        return getBackfillRunner().get(jobId);
+    }
+    
+    /**
+     * Cancels a backfill job; batches already running finish first.
+     * 
+     * @return The cancelled job, or null if it is unknown or already finished
+     */
+    public BackfillJob cancelBackfill(String jobId) {
+        return getBackfillRunner().cancel(jobId);
+    }
+    
+    /**
+     * Fetches a post's whole comment history and keeps the comments no one has replied to yet.
+     * A post without a cursor gets one at its newest comment, so live polls of it fetch only newer comments.
+     */
+    private List<Comment> pendingBackfillComments(String postId) {
+        if (getCoordinator() != null && !ownsPost(postId)) {
+            throw new IllegalStateException("Post " + postId + " is not leased by this instance");
+        }
+        List<Comment> comments = apiClient.fetchComments(postId);
+        if (storageRepository.getCommentCursor(postId) == null) {
+            CommentCursor cursor = advanceCursor(postId, null, comments);
+            if (cursor != null) {
+                saveCursor(cursor);
+            }
+        }
+        return comments.stream()
+                .filter(comment -> !isHandled(comment))
+                .filter(comment -> !getCheckpoints().isResuming(comment.getPostId(), comment.getId()))
+                .filter(comment -> !isRepliedByAnyInstance(comment))
+                .sorted(Comparator.comparing(Comment::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Generates the responses of a backfill batch together, with the job's model, then runs each
+     * comment through the workflow, which picks the generated responses up from their checkpoints.
+     */
+    private int processBackfillBatch(BackfillJob job, String postId, List<Comment> batch) {
+        WatchedPost watched = watchedPosts.get(postId);
+        WorkflowConfig config = watched != null ? watched.getConfig() : backfillConfig(job.getConfig(), postId);
+        Post post = getPostCache().get(postId, apiClient::fetchPost);
+        
+        List<Comment> toGenerate = batch.stream()
+                .filter(comment -> {
+                    CommentCheckpoint checkpoint = getCheckpoints().get(comment.getPostId(), comment.getId());
+                    return checkpoint == null || !checkpoint.hasReached(CommentCheckpoint.State.GENERATED);
+                })
+                .collect(Collectors.toList());
+        if (!toGenerate.isEmpty()) {
+            List<GeneratedResponse> responses = llmAgent.generateResponses(post, toGenerate,
+                    config.getTonePreference(), job.getModel());
+            for (int i = 0; i < toGenerate.size(); i++) {
+                Comment comment = toGenerate.get(i);
+                CommentCheckpoint checkpoint = getCheckpoints().get(comment.getPostId(), comment.getId());
+                if (checkpoint == null) {
+                    checkpoint = new CommentCheckpoint(TimeOrderedIds.nextString(), comment, config, clock.instant());
+                }
+                checkpoint.setPost(post);
+                checkpoint.setResponse(responses.get(i));
+                getCheckpoints().advance(checkpoint, CommentCheckpoint.State.GENERATED);
+            }
+        }
+        
+        int handled = 0;
+        for (Comment comment : batch) {
+            processComment(comment, config);
+            if (isHandled(comment)) {
+                handled++;
+            }
+        }
+        return handled;
+    }
+    
+    private static WorkflowConfig backfillConfig(WorkflowConfig template, String postId) {
+        WorkflowConfig config = new WorkflowConfig(postId, template.getPollingIntervalSeconds(),
+                template.isRequireManualApproval(), template.getTonePreference(), template.getMaxRetries(),
+                template.getRetryBackoffSeconds());
+        if (template.getManualReviewKeywords() != null) {
+            config.setManualReviewKeywords(template.getManualReviewKeywords());
+        }
+        return config;
+    }
+    
+    /**
+     * Checks whether a comment has been replied to or handed to the approval queue or retry scheduler.
+     */
+    private boolean isHandled(Comment comment) {
+        return storageRepository.isCommentProcessed(comment.getPostId(), comment.getId())
+                || getApprovalQueue().containsComment(comment.getPostId(), comment.getId())
+                || getRetryScheduler().containsComment(comment.getPostId(), comment.getId());
+    }
+    
+    /**
+     * Checks whether a fetched or pushed comment needs no processing here: it has been handled,
+     * or another instance, a resume, a backfill or a webhook delivery has it, or it was given up on.
+     */
+    private boolean shouldSkip(Comment comment) {
+        return isPassedOver(comment) || isSettled(comment);
+    }
+    
+    /**
+     * Like {@link #shouldSkip(Comment)}, without the webhook deliveries in progress and the comments given up on.
+     */
+    private boolean isSettled(Comment comment) {
+        return isHandled(comment) || isRepliedByAnyInstance(comment)
+                || getCheckpoints().isResuming(comment.getPostId(), comment.getId())
+                || getBackfillRunner().covers(comment);
+    }
+
+    /**
+     * Checks if a comment requires manual review based on configured keywords.
+     */
+    private boolean checkManualReviewRequired(Comment comment, WorkflowConfig config) {
+        String keyword = findManualReviewKeyword(comment, config);
+        if (keyword != null) {
+            logger.info("Comment contains manual review keyword '{}': {}", keyword, comment.getId());
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the first of the post's manual review keywords the comment contains, or null.
+     */
+    private String findManualReviewKeyword(Comment comment, WorkflowConfig config) {
+        if (config == null || comment.getText() == null) {
+            return null;
+        }
+        return config.manualReviewMatcher(manualReviewWholeWords).findFirst(comment.getText());
+    }
+
+    /**
+     * Creates an Interaction record from the workflow components.
+     */
+    private Interaction createInteraction(Post post, Comment comment, GeneratedResponse generatedResponse,
+                                          WorkflowConfig config) {
+        Interaction interaction = new Interaction();
+        interaction.setId(TimeOrderedIds.nextString());
+        interaction.setPostId(post.getId());
+        interaction.setCommentId(comment.getId());
+        interaction.setCommenterName(comment.getAuthorName());
         interaction.setCommentText(comment.getText());
         interaction.setGeneratedResponse(generatedResponse.getText());
-        interaction.setTimestamp(Instant.now());
+        interaction.setTimestamp(clock.instant());
         
         // Add metadata
         interaction.getMetadata().put("confidence_score", String.valueOf(generatedResponse.getConfidenceScore()));
@@ -411,28 +1603,640 @@ public class WorkflowOrchestrator {
     }
 
     /**
-     * Clears pending items after approval or rejection.
+     * Loads the approval queue and resumes posting replies that were approved before a restart,
+     * then resumes the comments that were in progress from their checkpoints.
+     */
+    @PostConstruct
+    public void initialize() {
+        List<PendingApproval> approved = getApprovalQueue().list(null).stream()
+                .filter(approval -> approval.getState() == PendingApproval.State.APPROVED)
+                .collect(Collectors.toList());
+        logger.info("{} responses awaiting approval, {} approved replies to resume",
+                getApprovalQueue().size() - approved.size(), approved.size());
+        for (PendingApproval approval : approved) {
+            CompletableFuture.supplyAsync(() -> postApprovedResponse(approval), getApprovalPoster());
+        }
+        logger.info("{} failed replies scheduled for retry", getRetryScheduler().size());
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            logger.warn("Virtual threads need Java 21 or later, running {}; using platform threads",
+                    Runtime.version().feature());
+        }
+        resumeCheckpoints();
+        resumeWorkQueue();
+        getBackfillRunner();
+        
+        LeaseCoordinator leases = getCoordinator();
+        if (leases != null) {
+            leases.start(() -> new ArrayList<>(watchedPosts.keySet()));
+            logger.info("Sharing watched posts with other instances as node {}", leases.getNodeId());
+        }
+    }
+    
+    /**
+     * Resumes the comments that were in progress when the previous run stopped, each from its
+     * last completed stage. Comments whose reply is queued for approval or retry are resumed by
+     * the approval queue and the retry scheduler instead.
+     */
+    private void resumeCheckpoints() {
+        Map<Comment, CommentCheckpoint> resumable = new IdentityHashMap<>();
+        for (CommentCheckpoint checkpoint : getCheckpoints().list()) {
+            Comment comment = checkpoint.getComment();
+            if (getApprovalQueue().containsComment(comment.getPostId(), comment.getId())
+                    || getRetryScheduler().containsComment(comment.getPostId(), comment.getId())
+                    || !getCheckpoints().beginResume(checkpoint)) {
+                continue;
+            }
+            resumable.put(comment, checkpoint);
+        }
+        if (resumable.isEmpty()) {
+            return;
+        }
+        
+        logger.info("Resuming {} comments from their checkpoints", resumable.size());
+        Thread resumer = new Thread(() -> {
+            if (!drainGate.tryEnter()) {
+                resumable.values().forEach(getCheckpoints()::endResume);
+                return;
+            }
+            try {
+                getCommentProcessor().processAll(new ArrayList<>(resumable.keySet()),
+                        comment -> resumeCheckpoint(resumable.get(comment)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while resuming checkpointed comments");
+            } finally {
+                resumable.values().forEach(getCheckpoints()::endResume);
+                drainGate.exit();
+            }
+        }, "checkpoint-resume-1");
+        resumer.setDaemon(true);
+        resumer.start();
+    }
+    
+    /**
+     * Drains the comments the previous run queued and did not get to, without waiting for the
+     * first poll.
+     */
+    private void resumeWorkQueue() {
+        if (!workQueueEnabled || getWorkQueue().size() == 0) {
+            return;
+        }
+        logger.info("Resuming {} queued comments", getWorkQueue().size());
+        signalWorkQueue();
+    }
+    
+    private void resumeCheckpoint(CommentCheckpoint checkpoint) {
+        Comment comment = checkpoint.getComment();
+        if (!checkpoint.hasReached(CommentCheckpoint.State.APPROVED)) {
+            processComment(comment, checkpoint.getConfig());
+            return;
+        }
+        if (checkpoint.getState() == CommentCheckpoint.State.APPROVED) {
+            // The previous run may have stopped while the reply was being posted
+            logger.warn("Reply to comment {} may have been posted before the restart; posting it again", comment.getId());
+        }
+        ReplyRetry reply = new ReplyRetry(TimeOrderedIds.nextString(), checkpoint.getPost(), comment,
+                checkpoint.getResponse(), checkpoint.getConfig(), checkpoint.isManuallyApproved(), clock.instant());
+        postReply(reply, null);
+    }
+    
+    private ApprovalQueue getApprovalQueue() {
+        ApprovalQueue queue = approvalQueue;
+        if (queue == null) {
+            synchronized (this) {
+                if (approvalQueue == null) {
+                    approvalQueue = new ApprovalQueue(storageRepository, clock);
+                }
+                queue = approvalQueue;
+            }
+        }
+        return queue;
+    }
+    
+    private CommentCheckpoints getCheckpoints() {
+        CommentCheckpoints current = checkpoints;
+        if (current == null) {
+            synchronized (this) {
+                if (checkpoints == null) {
+                    checkpoints = new CommentCheckpoints(storageRepository, clock);
+                }
+                current = checkpoints;
+            }
+        }
+        return current;
+    }
+    
+    private BackfillRunner getBackfillRunner() {
+        BackfillRunner runner = backfillRunner;
+        if (runner == null) {
+            synchronized (this) {
+                if (backfillRunner == null) {
+                    backfillRunner = new BackfillRunner(storageRepository, new BackfillRunner.Steps() {
+                        @Override
+                        public List<Comment> pendingComments(String postId) {
+                            return pendingBackfillComments(postId);
+                        }
+                        
+                        @Override
+                        public int processBatch(BackfillJob job, String postId, List<Comment> batch)
+                                throws InterruptedException {
+                            if (!drainGate.tryEnter()) {
+                                throw new InterruptedException("Shutting down");
+                            }
+                            try {
+                                return processBackfillBatch(job, postId, batch);
+                            } finally {
+                                drainGate.exit();
+                            }
+                        }
+                    }, Math.max(1, backfillConcurrency), Math.max(1, backfillBatchSize),
+                            Math.max(0, backfillCommentsPerMinute));
+                }
+                runner = backfillRunner;
+            }
+        }
+        return runner;
+    }
+    
+    private AdaptivePollingPolicy getPollingPolicy() {
+        AdaptivePollingPolicy policy = pollingPolicy;
+        if (policy == null) {
+            synchronized (this) {
+                if (pollingPolicy == null) {
+                    pollingPolicy = new AdaptivePollingPolicy(adaptivePolling, minPollIntervalSeconds,
+                            maxPollIntervalSeconds, pollSmoothing, targetCommentsPerPoll, pollBudgetPerMinute);
+                }
+                policy = pollingPolicy;
+            }
+        }
+        return policy;
+    }
+    
+    private ReplyRetryScheduler getRetryScheduler() {
+        ReplyRetryScheduler scheduler = retryScheduler;
+        if (scheduler == null) {
+            synchronized (this) {
+                if (retryScheduler == null) {
+                    retryScheduler = new ReplyRetryScheduler(storageRepository,
+                            schedulers.newScheduledExecutor("reply-retry", retryThreads), clock,
+                            Duration.ofSeconds(maxRetryBackoffSeconds), this::retryReply);
+                }
+                scheduler = retryScheduler;
+            }
+        }
+        return scheduler;
+    }
+    
+    private synchronized ExecutorService getApprovalPoster() {
+        if (approvalPoster == null) {
+            if (useVirtualThreads()) {
+                approvalPoster = Executors.newFixedThreadPool(Math.max(1, approvalPostingThreads),
+                        VirtualThreads.factory("approval-poster-"));
+            } else {
+                AtomicInteger threadCount = new AtomicInteger();
+                approvalPoster = Executors.newFixedThreadPool(Math.max(1, approvalPostingThreads), runnable -> {
+                    Thread thread = new Thread(runnable, "approval-poster-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+        return approvalPoster;
+    }
+    
+    /**
+     * Creates the webhook ingest workers on first use: one per concurrent comment with the worker
+     * pool, since each waits for its comment, or one feeding the pipeline.
+     */
+    private synchronized ExecutorService getWebhookIngester() {
+        if (webhookIngester == null) {
+            int threads = pipelineEnabled ? 1 : Math.max(1, processingConcurrency);
+            AtomicInteger threadCount = new AtomicInteger();
+            webhookIngester = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, webhookQueueCapacity)), useVirtualThreads()
+                            ? VirtualThreads.factory("webhook-ingest-")
+                            : runnable -> {
+                                Thread thread = new Thread(runnable, "webhook-ingest-" + threadCount.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
+        return webhookIngester;
+    }
+    
+    /**
+     * Opens the work queue on first use, recovering the comments a previous run left in it.
+     */
+    private synchronized CommentWorkQueue getWorkQueue() {
+        if (workQueue == null) {
+            ObjectMapper objectMapper = new ObjectMapper();
+            objectMapper.registerModule(new JavaTimeModule());
+            try {
+                workQueue = new CommentWorkQueue(Paths.get(workQueueDirectory), workQueueSegmentBytes, objectMapper);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not open the work queue in " + workQueueDirectory, e);
+            }
+        }
+        return workQueue;
+    }
+    
+    private synchronized ExecutorService getWorkQueueConsumer() {
+        if (workQueueConsumer == null) {
+            workQueueConsumer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "work-queue-consumer-1");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return workQueueConsumer;
+    }
+    
+    /**
+     * Returns the work queue's backlog and disk use, or null when the work queue is disabled.
+     */
+    public CommentWorkQueue.Stats getWorkQueueStats() {
+        return workQueueEnabled ? getWorkQueue().getStats() : null;
+    }
+    
+    private synchronized BoundedCommentProcessor getCommentProcessor() {
+        if (commentProcessor == null) {
+            commentProcessor = new BoundedCommentProcessor(Math.max(1, processingConcurrency), useVirtualThreads());
+            logger.info("Processing up to {} comments concurrently{}", commentProcessor.getConcurrency(),
+                    useVirtualThreads() ? " on virtual threads" : "");
+        }
+        return commentProcessor;
+    }
+    
+    /**
+     * Creates the staged pipeline on first use: screen, generate, record and dispatch, each with
+     * its own workers, joined by queues of {@code workflow.pipeline.queue-capacity} comments.
+     */
+    private synchronized StagedPipeline<CommentTask> getPipeline() {
+        if (pipeline == null) {
+            List<StagedPipeline.StageSpec<CommentTask>> stages = List.of(
+                    new StagedPipeline.StageSpec<>("screen", Math.max(1, screenWorkers), withCorrelationId(this::screenComment)),
+                    new StagedPipeline.StageSpec<>("generate", Math.max(1, generateWorkers), withCorrelationId(this::generateResponse)),
+                    new StagedPipeline.StageSpec<>("record", Math.max(1, recordWorkers), withCorrelationId(this::recordResponse)),
+                    new StagedPipeline.StageSpec<>("dispatch", Math.max(1, dispatchWorkers), withCorrelationId(this::dispatchResponse)));
+            // With prioritization on, every stage takes its highest-ranked comment first
+            Comparator<CommentTask> priority = getPrioritizer().isEnabled()
+                    ? Comparator.<CommentTask>comparingDouble(task -> task.rank).reversed() : null;
+            pipeline = new StagedPipeline<>(stages, Math.max(1, pipelineQueueCapacity), priority,
+                    task -> task.comment.getPostId() + '\0' + task.comment.getId(),
+                    (task, e) -> withCorrelationId(failed -> handleProcessingFailure(failed, e)).accept(task),
+                    useVirtualThreads());
+            logger.info("Processing comments in a staged pipeline with queues of {}", Math.max(1, pipelineQueueCapacity));
+        }
+        return pipeline;
+    }
+    
+    private boolean useVirtualThreads() {
+        return virtualThreads && VirtualThreads.isSupported();
+    }
+    
+    private static Consumer<CommentTask> withCorrelationId(Consumer<CommentTask> step) {
+        return task -> {
+            MDC.put("correlationId", task.correlationId);
+            try {
+                step.accept(task);
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+    
+    /**
+     * Returns queue depth and latency of each pipeline stage, or an empty list when the pipeline is disabled.
+     */
+    public synchronized List<StagedPipeline.StageStats> getPipelineStats() {
+        return pipeline == null ? List.of() : pipeline.getStats();
+    }
+    
+    private LeaseCoordinator getCoordinator() {
+        if (coordinationStore == null) {
+            return null;
+        }
+        LeaseCoordinator current = coordinator;
+        if (current == null) {
+            synchronized (this) {
+                if (coordinator == null) {
+                    String node = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+                    coordinator = new LeaseCoordinator(coordinationStore, node,
+                            Duration.ofSeconds(Math.max(1, leaseTtlSeconds)));
+                }
+                current = coordinator;
+            }
+        }
+        return current;
+    }
+    
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+    
+    /**
+     * Returns the leases of all watched posts across instances, or an empty list without coordination.
+     */
+    public List<Lease> getLeases() {
+        LeaseCoordinator leases = getCoordinator();
+        return leases == null ? List.of() : leases.getLeases();
+    }
+    
+    /**
+     * Returns the instances currently sharing the watched posts, or an empty list without coordination.
+     */
+    public List<String> getLiveNodes() {
+        LeaseCoordinator leases = getCoordinator();
+        return leases == null ? List.of() : leases.getLiveNodes();
+    }
+    
+    private CommentPrioritizer getPrioritizer() {
+        CommentPrioritizer current = prioritizer;
+        if (current == null) {
+            synchronized (this) {
+                if (prioritizer == null) {
+                    prioritizer = new CommentPrioritizer(priorityEnabled, priorityKeywordWeight, priorityRecencyWeight,
+                            priorityRecencyWindowSeconds, priorityLengthWeight, priorityLongCommentChars,
+                            priorityAgingPerMinute, CommentPrioritizer.parseWeights(priorityAuthorWeights), clock.instant());
+                }
+                current = prioritizer;
+            }
+        }
+        return current;
+    }
+    
+    private PostCache getPostCache() {
+        PostCache cache = postCache;
+        if (cache == null) {
+            synchronized (this) {
+                if (postCache == null) {
+                    postCache = new PostCache(Duration.ofSeconds(Math.max(0, postCacheTtlSeconds)),
+                            Math.max(1, postCacheMaxEntries), ticker);
+                }
+                cache = postCache;
+            }
+        }
+        return cache;
+    }
+    
+    /**
+     * Drops a cached post so the next comment on it fetches the post again.
+     * 
+     * @param postId The post to invalidate, or null to clear the whole cache
+     */
+    public void invalidatePostCache(String postId) {
+        if (postId == null) {
+            getPostCache().invalidateAll();
+        } else {
+            getPostCache().invalidate(postId);
+        }
+    }
+    
+    public PostCache.Stats getPostCacheStats() {
+        return getPostCache().getStats();
+    }
+    
+    /**
+     * Drains the workflow, then stops it. Called by Spring on shutdown, e.g. on SIGTERM during a
+     * rolling restart.
+     */
+    @PreDestroy
+    public void shutdown() {
+        drain(Duration.ofSeconds(Math.max(0, drainTimeoutSeconds)));
+        stopWorkers();
+    }
+    
+    /**
+     * Stops taking new work and waits for the work in progress to finish: no further polls start,
+     * a running poll fetches no further posts, the work queue hands out no further batches, and
+     * pushed comments and reply attempts are left for the next run. Comments already being
+     * processed, and replies already being posted, run to completion.
+     *
+     * Whatever is still running at the deadline is abandoned: it is interrupted by the shutdown
+     * that follows and, instead of being recorded as failed, resumes after the restart from its
+     * checkpoint, the work queue or the post's unmoved cursor.
+     *
+     * @return true if all work finished before the deadline
+     */
+    public boolean drain(Duration timeout) {
+        long startNanos = System.nanoTime();
+        drainGate.beginDrain();
+        ExecutorService ingester;
+        BackfillRunner backfill;
+        synchronized (this) {
+            ingester = webhookIngester;
+            backfill = backfillRunner;
+        }
+        if (ingester != null) {
+            // Queued deliveries return at once since the gate is draining
+            ingester.shutdown();
+        }
+        if (backfill != null) {
+            backfill.drain();
+        }
+        logger.info("Draining: {} polls, comments or replies in progress, waiting up to {} ms",
+                drainGate.getActive(), timeout.toMillis());
+        
+        boolean drained;
+        try {
+            drained = drainGate.awaitIdle(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        }
+        if (drained) {
+            logger.info("Drained in {} ms", (System.nanoTime() - startNanos) / 1_000_000);
+        } else {
+            drainGate.abandon();
+            logger.warn("{} polls, comments or replies still running after {} ms; they resume after the restart",
+                    drainGate.getActive(), (System.nanoTime() - startNanos) / 1_000_000);
+        }
+        return drained;
+    }
+    
+    public boolean isDraining() {
+        return drainGate.isDraining();
+    }
+    
+    /**
+     * Stops every worker and scheduler, interrupting any work a drain left running, and flushes
+     * the work queue. Storage writes are synchronous, so nothing else is buffered.
      */
-    private void clearPendingItems() {
-        pendingResponse = null;
-        pendingComment = null;
-        pendingPost = null;
+    private synchronized void stopWorkers() {
+        if (pollScheduler != null) {
+            pollScheduler.close();
+            pollScheduler = null;
+        }
+        if (webhookIngester != null) {
+            // Pushed comments not yet processed are picked up by the first poll after a restart
+            webhookIngester.shutdownNow();
+            webhookIngester = null;
+        }
+        if (workQueueConsumer != null) {
+            workQueueConsumer.shutdownNow();
+            workQueueConsumer = null;
+        }
+        if (commentProcessor != null) {
+            commentProcessor.close();
+            commentProcessor = null;
+        }
+        if (pipeline != null) {
+            pipeline.close();
+            pipeline = null;
+        }
+        if (workQueue != null) {
+            // Comments not acknowledged yet are processed again after the restart
+            workQueue.close();
+            workQueue = null;
+        }
+        if (approvalPoster != null) {
+            // Approved items still posting stay queued as APPROVED and resume on the next start
+            approvalPoster.shutdownNow();
+            approvalPoster = null;
+        }
+        if (retryScheduler != null) {
+            retryScheduler.close();
+            retryScheduler = null;
+        }
+        if (backfillRunner != null) {
+            // A running job stays RUNNING and resumes on the next start
+            backfillRunner.close();
+            backfillRunner = null;
+        }
+        if (coordinator != null) {
+            // Hand this instance's posts over right away instead of waiting for the leases to expire
+            coordinator.close();
+            coordinator = null;
+        }
     }
 
     // Getters for testing and management
     public boolean isPolling() {
-        return isPolling.get();
+        return !watchedPosts.isEmpty();
+    }
+
+    public boolean isPolling(String postId) {
+        return postId != null && watchedPosts.containsKey(postId);
     }
 
+    /**
+     * Returns the configuration of the most recently started watched post, or of any other
+     * watched post if that one has been stopped.
+     */
     public WorkflowConfig getConfig() {
-        return config;
+        String postId = lastStartedPostId;
+        WatchedPost post = postId == null ? null : watchedPosts.get(postId);
+        if (post == null) {
+            post = watchedPosts.values().stream().findFirst().orElse(null);
+        }
+        return post == null ? null : post.getConfig();
+    }
+
+    public WorkflowConfig getConfig(String postId) {
+        WatchedPost post = postId == null ? null : watchedPosts.get(postId);
+        return post == null ? null : post.getConfig();
+    }
+
+    public List<WatchedPost> getWatchedPosts() {
+        return new ArrayList<>(watchedPosts.values());
     }
 
     public GeneratedResponse getPendingResponse() {
-        return pendingResponse;
+        PendingApproval pending = getApprovalQueue().oldestPending();
+        return pending == null ? null : pending.getResponse();
     }
 
     public Comment getPendingComment() {
-        return pendingComment;
+        PendingApproval pending = getApprovalQueue().oldestPending();
+        return pending == null ? null : pending.getComment();
+    }
+
+    /**
+     * Lists queued responses oldest first, including approved ones still being posted.
+     * 
+     * @param postId Optional post filter
+     */
+    public List<PendingApproval> getPendingApprovals(String postId) {
+        return getApprovalQueue().list(postId);
+    }
+
+    public PendingApproval getPendingApproval(String approvalId) {
+        return getApprovalQueue().get(approvalId);
+    }
+    
+    public List<ReplyRetry> getReplyRetries() {
+        return getRetryScheduler().list();
+    }
+    
+    /**
+     * What became of the comments of one webhook delivery.
+     */
+    public static final class IngestResult {
+        private final int queued;
+        private final int duplicates;
+        private final int ignored;
+        private final int deferred;
+        
+        IngestResult(int queued, int duplicates, int ignored, int deferred) {
+            this.queued = queued;
+            this.duplicates = duplicates;
+            this.ignored = ignored;
+            this.deferred = deferred;
+        }
+        
+        /**
+         * Comments handed to processing.
+         */
+        public int getQueued() {
+            return queued;
+        }
+        
+        /**
+         * Comments already replied to, queued or in progress.
+         */
+        public int getDuplicates() {
+            return duplicates;
+        }
+        
+        /**
+         * Comments of posts not watched by this instance.
+         */
+        public int getIgnored() {
+            return ignored;
+        }
+        
+        /**
+         * Comments left to the next poll because the ingest queue was full.
+         */
+        public int getDeferred() {
+            return deferred;
+        }
+    }
+    
+    /**
+     * A comment on its way through the processing steps, filled in step by step.
+     */
+    private static final class CommentTask {
+        final Comment comment;
+        final WorkflowConfig config;
+        final String correlationId = TimeOrderedIds.nextString();
+        Post post;
+        boolean requiresManualReview;
+        GeneratedResponse response;
+        Interaction interaction;
+        CommentCheckpoint checkpoint;
+        // Higher ranks are processed first when prioritization is enabled
+        double rank;
+        
+        CommentTask(Comment comment, WorkflowConfig config) {
+            this.comment = comment;
+            this.config = config;
+        }
     }
 }
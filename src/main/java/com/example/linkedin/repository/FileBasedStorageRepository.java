@@ -1,37 +1,82 @@
 package com.example.linkedin.repository;
 
+import com.example.linkedin.model.BackfillJob;
+import com.example.linkedin.model.CommentCheckpoint;
+import com.example.linkedin.model.CommentCursor;
 import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.PendingApproval;
+import com.example.linkedin.model.ReplyRetry;
+import com.example.linkedin.repository.archive.ArchiveSegment;
+import com.example.linkedin.repository.archive.ArchiveSink;
+import com.example.linkedin.repository.archive.ArchiveStore;
+import com.example.linkedin.repository.archive.LocalArchiveSink;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.*;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * File-based implementation of StorageRepository using JSON serialization.
  * Provides interaction history storage with capacity management and archival.
  */
 @Repository
+@ConditionalOnProperty(name = "storage.backend", havingValue = "file", matchIfMissing = true)
 public class FileBasedStorageRepository implements StorageRepository {
     
     private static final Logger logger = LoggerFactory.getLogger(FileBasedStorageRepository.class);
     
+    private static final String CHECKPOINT_FILE_SUFFIX = ".json";
+    
+    // Checkpoint IDs are time-ordered, so this is oldest first
+    private static final Comparator<CommentCheckpoint> CHECKPOINT_ORDER =
+        Comparator.comparing(CommentCheckpoint::getId);
+    
     private final ObjectMapper objectMapper;
-    private final Set<String> processedComments;
     private final List<Interaction> interactions;
+    private ProcessedCommentStore processedComments;
+    private final Map<String, CommentCursor> commentCursors = new ConcurrentHashMap<>();
+    private final Map<String, PendingApproval> pendingApprovals = new LinkedHashMap<>();
+    private final Map<String, ReplyRetry> replyRetries = new LinkedHashMap<>();
+    private final Map<String, CommentCheckpoint> commentCheckpoints = new HashMap<>();
+    private final Map<String, BackfillJob> backfillJobs = new LinkedHashMap<>();
+    
+    // Each collection is rewritten to its file while holding its lock, except comment checkpoints,
+    // which are written one file each with the lock guarding only the map. Locks rather than
+    // monitors, so virtual threads queueing behind a write unmount instead of pinning their carriers.
+    private final ReentrantLock interactionsLock = new ReentrantLock();
+    private final ReentrantLock commentCursorsLock = new ReentrantLock();
+    private final ReentrantLock pendingApprovalsLock = new ReentrantLock();
+    private final ReentrantLock replyRetriesLock = new ReentrantLock();
+    private final ReentrantLock commentCheckpointsLock = new ReentrantLock();
+    private final ReentrantLock backfillJobsLock = new ReentrantLock();
+    
+    // Guarded by interactionsLock; set while a batch is uploaded to the archive outside the lock
+    private boolean archiving;
     
     @Value("${storage.directory:./data}")
     private String storageDirectory;
@@ -42,28 +87,92 @@ public class FileBasedStorageRepository implements StorageRepository {
     @Value("${storage.processed.file:processed-comments.json}")
     private String processedCommentsFile;
     
+    @Value("${storage.processed.directory:processed}")
+    private String processedPostsDirectory = "processed";
+    
+    @Value("${storage.processed.index.file:processed-index.bin}")
+    private String processedIndexFile = "processed-index.bin";
+    
+    @Value("${storage.processed.idle-eviction-minutes:1440}")
+    private long processedIdleEvictionMinutes = 1440;
+    
+    @Value("${storage.cursors.file:comment-cursors.json}")
+    private String commentCursorsFile = "comment-cursors.json";
+    
+    @Value("${storage.approvals.file:pending-approvals.json}")
+    private String pendingApprovalsFile = "pending-approvals.json";
+    
+    @Value("${storage.retries.file:reply-retries.json}")
+    private String replyRetriesFile = "reply-retries.json";
+    
+    @Value("${storage.checkpoints.file:comment-checkpoints.json}")
+    private String commentCheckpointsFile = "comment-checkpoints.json";
+    
+    @Value("${storage.checkpoints.directory:checkpoints}")
+    private String commentCheckpointsDirectory = "checkpoints";
+    
+    @Value("${storage.backfill.file:backfill-jobs.json}")
+    private String backfillJobsFile = "backfill-jobs.json";
+    
     @Value("${storage.max.capacity:1000}")
     private int maxCapacity;
     
     @Value("${storage.archive.directory:./data/archive}")
     private String archiveDirectory;
     
+    @Value("${storage.export.parallelism:0}")
+    private int exportParallelism;
+    
+    @Value("${storage.export.chunk-size:5000}")
+    private int exportChunkSize = 5000;
+    
+    private ParallelHistoryExporter exporter;
+    
+    private ArchiveSink archiveSink;
+    private ArchiveStore archiveStore;
+    
+    private final Clock clock;
+    
+    @Autowired
     public FileBasedStorageRepository() {
+        this(Clock.systemUTC());
+    }
+    
+    /**
+     * @param clock Times post accesses for evicting idle processed-comment sets
+     */
+    public FileBasedStorageRepository(Clock clock) {
+        this.clock = clock;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
         this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
         
-        this.processedComments = ConcurrentHashMap.newKeySet();
         this.interactions = Collections.synchronizedList(new ArrayList<>());
     }
     
+    /**
+     * Sets where archive segments are written. Defaults to the local archive directory.
+     */
+    @Autowired(required = false)
+    public void setArchiveSink(ArchiveSink archiveSink) {
+        this.archiveSink = archiveSink;
+    }
+    
     @PostConstruct
     public void initialize() {
         try {
             createDirectories();
             loadProcessedComments();
             loadInteractions();
+            loadCommentCursors();
+            loadPendingApprovals();
+            loadReplyRetries();
+            loadCommentCheckpoints();
+            loadBackfillJobs();
+            openArchive();
+            int parallelism = exportParallelism > 0 ? exportParallelism : Runtime.getRuntime().availableProcessors();
+            exporter = new ParallelHistoryExporter(objectMapper, parallelism, exportChunkSize);
             logger.info("Storage repository initialized successfully");
         } catch (IOException e) {
             logger.error("Failed to initialize storage repository", e);
@@ -82,15 +191,25 @@ public class FileBasedStorageRepository implements StorageRepository {
             throw new IllegalArgumentException("Interaction cannot be null");
         }
         
-        synchronized (interactions) {
-            // Check capacity and archive if needed
-            if (interactions.size() >= maxCapacity) {
-                archiveOldestInteractions();
+        List<Interaction> toArchive = null;
+        interactionsLock.lock();
+        try {
+            // Check capacity and pick the batch to archive; one upload at a time
+            if (interactions.size() >= maxCapacity && !archiving) {
+                toArchive = oldestInteractions();
+                archiving = true;
             }
             
             interactions.add(interaction);
             persistInteractions();
             logger.debug("Saved interaction: {}", interaction.getId());
+        } finally {
+            interactionsLock.unlock();
+        }
+        
+        if (toArchive != null) {
+            // The upload may go to S3, so saves and reads are not held up while it runs
+            archiveInteractions(toArchive);
         }
     }
     
@@ -102,49 +221,282 @@ public class FileBasedStorageRepository implements StorageRepository {
         return processedComments.contains(commentId);
     }
     
+    @Override
+    public boolean isCommentProcessed(String postId, String commentId) {
+        if (commentId == null || commentId.isBlank()) {
+            throw new IllegalArgumentException("Comment ID cannot be null or blank");
+        }
+        return processedComments.contains(postId, commentId);
+    }
+    
     @Override
     public void markCommentProcessed(String commentId) {
+        markCommentProcessed(null, commentId);
+    }
+    
+    @Override
+    public void markCommentProcessed(String postId, String commentId) {
         if (commentId == null || commentId.isBlank()) {
             throw new IllegalArgumentException("Comment ID cannot be null or blank");
         }
         
-        processedComments.add(commentId);
-        persistProcessedComments();
+        try {
+            processedComments.add(postId, commentId);
+        } catch (IOException e) {
+            logger.error("Failed to persist processed comment", e);
+            throw new RuntimeException("Failed to save processed comments", e);
+        }
         logger.debug("Marked comment as processed: {}", commentId);
     }
     
+    /**
+     * Evicts processed-comment sets of posts that have been idle longer than the
+     * configured period. Their IDs remain answerable through the on-disk index.
+     */
+    @Scheduled(fixedDelayString = "${storage.processed.eviction-check-interval-ms:600000}")
+    public void evictIdleProcessedPosts() {
+        if (processedComments == null) {
+            return;
+        }
+        try {
+            processedComments.evictIdle(processedIdleEvictionMinutes * 60_000L);
+        } catch (IOException e) {
+            logger.error("Failed to evict idle processed comment sets", e);
+        }
+    }
+    
+    /**
+     * Number of posts whose processed-comment sets are currently held in memory.
+     */
+    public int getActiveProcessedPostCount() {
+        return processedComments.activePostCount();
+    }
+    
+    @Override
+    public CommentCursor getCommentCursor(String postId) {
+        return postId == null ? null : commentCursors.get(postId);
+    }
+    
+    @Override
+    public void saveCommentCursor(CommentCursor cursor) {
+        if (cursor == null || cursor.getPostId() == null || cursor.getPostId().isBlank()) {
+            throw new IllegalArgumentException("Cursor post ID cannot be null or empty");
+        }
+        
+        commentCursorsLock.lock();
+        try {
+            commentCursors.put(cursor.getPostId(), cursor);
+            persistCommentCursors();
+        } finally {
+            commentCursorsLock.unlock();
+        }
+    }
+    
+    @Override
+    public List<PendingApproval> getPendingApprovals() {
+        pendingApprovalsLock.lock();
+        try {
+            return new ArrayList<>(pendingApprovals.values());
+        } finally {
+            pendingApprovalsLock.unlock();
+        }
+    }
+    
+    @Override
+    public void savePendingApproval(PendingApproval approval) {
+        if (approval == null || approval.getId() == null || approval.getId().isBlank()) {
+            throw new IllegalArgumentException("Approval ID cannot be null or empty");
+        }
+        
+        pendingApprovalsLock.lock();
+        try {
+            pendingApprovals.put(approval.getId(), approval);
+            persistPendingApprovals();
+        } finally {
+            pendingApprovalsLock.unlock();
+        }
+    }
+    
+    @Override
+    public void deletePendingApproval(String approvalId) {
+        pendingApprovalsLock.lock();
+        try {
+            if (pendingApprovals.remove(approvalId) != null) {
+                persistPendingApprovals();
+            }
+        } finally {
+            pendingApprovalsLock.unlock();
+        }
+    }
+    
+    @Override
+    public List<ReplyRetry> getReplyRetries() {
+        replyRetriesLock.lock();
+        try {
+            return new ArrayList<>(replyRetries.values());
+        } finally {
+            replyRetriesLock.unlock();
+        }
+    }
+    
+    @Override
+    public void saveReplyRetry(ReplyRetry retry) {
+        if (retry == null || retry.getId() == null || retry.getId().isBlank()) {
+            throw new IllegalArgumentException("Retry ID cannot be null or empty");
+        }
+        
+        replyRetriesLock.lock();
+        try {
+            replyRetries.put(retry.getId(), retry);
+            persistReplyRetries();
+        } finally {
+            replyRetriesLock.unlock();
+        }
+    }
+    
+    @Override
+    public void deleteReplyRetry(String retryId) {
+        replyRetriesLock.lock();
+        try {
+            if (replyRetries.remove(retryId) != null) {
+                persistReplyRetries();
+            }
+        } finally {
+            replyRetriesLock.unlock();
+        }
+    }
+    
+    @Override
+    public List<CommentCheckpoint> getCommentCheckpoints() {
+        List<CommentCheckpoint> checkpoints;
+        commentCheckpointsLock.lock();
+        try {
+            checkpoints = new ArrayList<>(commentCheckpoints.values());
+        } finally {
+            commentCheckpointsLock.unlock();
+        }
+        checkpoints.sort(CHECKPOINT_ORDER);
+        return checkpoints;
+    }
+    
+    /**
+     * Writes the checkpoint to its own file, so a stage costs one small write whatever the number
+     * of comments in progress. Writes of the same checkpoint must not race each other; the
+     * workflow handles a comment on one thread at a time.
+     */
+    @Override
+    public void saveCommentCheckpoint(CommentCheckpoint checkpoint) {
+        if (checkpoint == null || checkpoint.getId() == null || checkpoint.getId().isBlank()) {
+            throw new IllegalArgumentException("Checkpoint ID cannot be null or empty");
+        }
+        
+        persistCommentCheckpoint(checkpoint);
+        commentCheckpointsLock.lock();
+        try {
+            commentCheckpoints.put(checkpoint.getId(), checkpoint);
+        } finally {
+            commentCheckpointsLock.unlock();
+        }
+    }
+    
+    @Override
+    public void deleteCommentCheckpoint(String checkpointId) {
+        commentCheckpointsLock.lock();
+        try {
+            if (commentCheckpoints.remove(checkpointId) == null) {
+                return;
+            }
+        } finally {
+            commentCheckpointsLock.unlock();
+        }
+        try {
+            Files.deleteIfExists(checkpointPath(checkpointId));
+        } catch (IOException e) {
+            logger.error("Failed to delete comment checkpoint {}", checkpointId, e);
+            throw new RuntimeException("Failed to delete comment checkpoint", e);
+        }
+    }
+    
+    @Override
+    public List<BackfillJob> getBackfillJobs() {
+        backfillJobsLock.lock();
+        try {
+            return new ArrayList<>(backfillJobs.values());
+        } finally {
+            backfillJobsLock.unlock();
+        }
+    }
+    
+    @Override
+    public void saveBackfillJob(BackfillJob job) {
+        if (job == null || job.getId() == null || job.getId().isBlank()) {
+            throw new IllegalArgumentException("Backfill job ID cannot be null or empty");
+        }
+        
+        backfillJobsLock.lock();
+        try {
+            backfillJobs.put(job.getId(), job);
+            persistBackfillJobs();
+        } finally {
+            backfillJobsLock.unlock();
+        }
+    }
+    
     @Override
     public List<Interaction> getInteractionHistory(String postId, Instant startDate, Instant endDate) {
-        synchronized (interactions) {
+        interactionsLock.lock();
+        try {
             return interactions.stream()
                 .filter(interaction -> postId == null || postId.equals(interaction.getPostId()))
                 .filter(interaction -> startDate == null || !interaction.getTimestamp().isBefore(startDate))
                 .filter(interaction -> endDate == null || !interaction.getTimestamp().isAfter(endDate))
                 .collect(Collectors.toList());
+        } finally {
+            interactionsLock.unlock();
         }
     }
     
     @Override
-    public String exportHistory(String format) {
-        if (format == null || format.isBlank()) {
-            throw new IllegalArgumentException("Export format cannot be null or blank");
+    public List<Interaction> getInteractionHistory(String postId, Instant startDate, Instant endDate,
+                                                   boolean includeArchived) {
+        List<Interaction> history = getInteractionHistory(postId, startDate, endDate);
+        if (!includeArchived) {
+            return history;
         }
-        
-        String normalizedFormat = format.toLowerCase();
-        if (!normalizedFormat.equals("json") && !normalizedFormat.equals("csv")) {
-            throw new IllegalArgumentException("Export format must be 'json' or 'csv'");
+        try {
+            // A batch being archived is briefly in both places
+            Set<String> active = history.stream().map(Interaction::getId).collect(Collectors.toSet());
+            List<Interaction> combined = new ArrayList<>();
+            for (Interaction archived : archiveStore.read(postId, startDate, endDate)) {
+                if (!active.contains(archived.getId())) {
+                    combined.add(archived);
+                }
+            }
+            combined.addAll(history);
+            return combined;
+        } catch (IOException e) {
+            logger.error("Failed to read archived interactions", e);
+            throw new RuntimeException("Failed to read archived history", e);
         }
+    }
+    
+    /**
+     * Segments recorded in the archive manifest.
+     */
+    public List<ArchiveSegment> getArchiveSegments() {
+        return archiveStore.getSegments();
+    }
+    
+    @Override
+    public String exportHistory(String format) {
+        ParallelHistoryExporter.Format exportFormat = ParallelHistoryExporter.Format.parse(format);
         
         try {
             String timestamp = DateTimeFormatter.ISO_INSTANT.format(Instant.now()).replace(":", "-");
-            String filename = "history-export-" + timestamp + "." + normalizedFormat;
+            String filename = "history-export-" + timestamp + "." + exportFormat.getExtension();
             Path exportPath = Paths.get(storageDirectory, filename);
             
-            if (normalizedFormat.equals("json")) {
-                exportToJson(exportPath);
-            } else {
-                exportToCsv(exportPath);
-            }
+            exporter.export(snapshotInteractions(), exportFormat, exportPath);
             
             logger.info("Exported history to: {}", exportPath);
             return exportPath.toString();
@@ -154,26 +506,47 @@ public class FileBasedStorageRepository implements StorageRepository {
         }
     }
     
-    private void loadProcessedComments() throws IOException {
-        Path path = Paths.get(storageDirectory, processedCommentsFile);
-        if (Files.exists(path)) {
-            String json = Files.readString(path);
-            Set<String> loaded = objectMapper.readValue(json, 
-                objectMapper.getTypeFactory().constructCollectionType(Set.class, String.class));
-            processedComments.addAll(loaded);
-            logger.info("Loaded {} processed comments", processedComments.size());
-        }
+    @Override
+    public void exportHistory(String format, OutputStream out) throws IOException {
+        ParallelHistoryExporter.Format exportFormat = ParallelHistoryExporter.Format.parse(format);
+        exporter.export(snapshotInteractions(), exportFormat, Channels.newChannel(out));
+        out.flush();
     }
     
-    private void persistProcessedComments() {
+    /**
+     * Copies the active interactions under the lock so encoding can run without holding it.
+     */
+    private List<Interaction> snapshotInteractions() {
+        interactionsLock.lock();
         try {
-            Path path = Paths.get(storageDirectory, processedCommentsFile);
-            String json = objectMapper.writeValueAsString(processedComments);
-            Files.writeString(path, json);
-        } catch (IOException e) {
-            logger.error("Failed to persist processed comments", e);
-            throw new RuntimeException("Failed to save processed comments", e);
+            return new ArrayList<>(interactions);
+        } finally {
+            interactionsLock.unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (exporter != null) {
+            exporter.close();
+        }
+    }
+    
+    private void loadProcessedComments() throws IOException {
+        // Per-post sets are loaded lazily; the legacy global file is folded into the index once
+        processedComments = new ProcessedCommentStore(
+            Paths.get(storageDirectory, processedPostsDirectory),
+            Paths.get(storageDirectory, processedIndexFile),
+            clock);
+        processedComments.open(Paths.get(storageDirectory, processedCommentsFile), objectMapper);
+    }
+    
+    private void openArchive() throws IOException {
+        if (archiveSink == null) {
+            archiveSink = new LocalArchiveSink(archiveDirectory);
         }
+        archiveStore = new ArchiveStore(Paths.get(archiveDirectory), archiveSink, objectMapper);
+        archiveStore.open();
     }
     
     private void loadInteractions() throws IOException {
@@ -187,104 +560,197 @@ public class FileBasedStorageRepository implements StorageRepository {
         }
     }
     
-    private void persistInteractions() {
+    private void loadCommentCursors() throws IOException {
+        Path path = Paths.get(storageDirectory, commentCursorsFile);
+        if (Files.exists(path)) {
+            Map<String, CommentCursor> loaded = objectMapper.readValue(path.toFile(),
+                objectMapper.getTypeFactory().constructMapType(Map.class, String.class, CommentCursor.class));
+            commentCursors.putAll(loaded);
+            logger.info("Loaded comment cursors for {} posts", commentCursors.size());
+        }
+    }
+    
+    private void persistCommentCursors() {
         try {
-            Path path = Paths.get(storageDirectory, interactionsFile);
-            String json = objectMapper.writeValueAsString(interactions);
-            Files.writeString(path, json);
+            // Write then rename so a crash never leaves a truncated cursor file
+            Path path = Paths.get(storageDirectory, commentCursorsFile);
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), new TreeMap<>(commentCursors));
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
-            logger.error("Failed to persist interactions", e);
-            throw new RuntimeException("Failed to save interactions", e);
+            logger.error("Failed to persist comment cursors", e);
+            throw new RuntimeException("Failed to save comment cursors", e);
         }
     }
     
-    private void archiveOldestInteractions() {
+    private void loadPendingApprovals() throws IOException {
+        Path path = Paths.get(storageDirectory, pendingApprovalsFile);
+        if (Files.exists(path)) {
+            List<PendingApproval> loaded = objectMapper.readValue(path.toFile(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, PendingApproval.class));
+            loaded.forEach(approval -> pendingApprovals.put(approval.getId(), approval));
+            logger.info("Loaded {} pending approvals", pendingApprovals.size());
+        }
+    }
+    
+    private void persistPendingApprovals() {
         try {
-            // Calculate how many to archive (archive 20% when at capacity)
-            int archiveCount = Math.max(1, maxCapacity / 5);
-            
-            // Sort by timestamp and get oldest
-            List<Interaction> toArchive = interactions.stream()
-                .sorted(Comparator.comparing(Interaction::getTimestamp))
-                .limit(archiveCount)
-                .collect(Collectors.toList());
-            
-            // Create archive file
-            String timestamp = DateTimeFormatter.ISO_INSTANT.format(Instant.now()).replace(":", "-");
-            String archiveFilename = "archive-" + timestamp + ".json";
-            Path archivePath = Paths.get(archiveDirectory, archiveFilename);
-            
-            // Write to archive
-            String json = objectMapper.writeValueAsString(toArchive);
-            Files.writeString(archivePath, json);
-            
-            // Remove from active storage
-            interactions.removeAll(toArchive);
-            
-            logger.info("Archived {} interactions to {}", archiveCount, archivePath);
+            Path path = Paths.get(storageDirectory, pendingApprovalsFile);
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), pendingApprovals.values());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
-            logger.error("Failed to archive interactions", e);
-            throw new RuntimeException("Archival failed", e);
+            logger.error("Failed to persist pending approvals", e);
+            throw new RuntimeException("Failed to save pending approvals", e);
         }
     }
     
-    private void exportToJson(Path exportPath) throws IOException {
-        synchronized (interactions) {
-            String json = objectMapper.writeValueAsString(interactions);
-            Files.writeString(exportPath, json);
-        }
-    }
-    
-    private void exportToCsv(Path exportPath) throws IOException {
-        synchronized (interactions) {
-            try (BufferedWriter writer = Files.newBufferedWriter(exportPath)) {
-                // Write CSV header
-                writer.write("ID,Post ID,Comment ID,Commenter Name,Comment Text,Generated Response,Posted Response,Timestamp,Status,Metadata\n");
-                
-                // Write data rows
-                for (Interaction interaction : interactions) {
-                    writer.write(escapeCsv(interaction.getId()));
-                    writer.write(",");
-                    writer.write(escapeCsv(interaction.getPostId()));
-                    writer.write(",");
-                    writer.write(escapeCsv(interaction.getCommentId()));
-                    writer.write(",");
-                    writer.write(escapeCsv(interaction.getCommenterName()));
-                    writer.write(",");
-                    writer.write(escapeCsv(interaction.getCommentText()));
-                    writer.write(",");
-                    writer.write(escapeCsv(interaction.getGeneratedResponse()));
-                    writer.write(",");
-                    writer.write(escapeCsv(interaction.getPostedResponse()));
-                    writer.write(",");
-                    writer.write(interaction.getTimestamp().toString());
-                    writer.write(",");
-                    writer.write(interaction.getStatus().toString());
-                    writer.write(",");
-                    writer.write(escapeCsv(formatMetadata(interaction.getMetadata())));
-                    writer.write("\n");
+    private void loadReplyRetries() throws IOException {
+        Path path = Paths.get(storageDirectory, replyRetriesFile);
+        if (Files.exists(path)) {
+            List<ReplyRetry> loaded = objectMapper.readValue(path.toFile(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, ReplyRetry.class));
+            loaded.forEach(retry -> replyRetries.put(retry.getId(), retry));
+            logger.info("Loaded {} reply retries", replyRetries.size());
+        }
+    }
+    
+    private void persistReplyRetries() {
+        try {
+            Path path = Paths.get(storageDirectory, replyRetriesFile);
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), replyRetries.values());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Failed to persist reply retries", e);
+            throw new RuntimeException("Failed to save reply retries", e);
+        }
+    }
+    
+    private void loadCommentCheckpoints() throws IOException {
+        Path directory = Paths.get(storageDirectory, commentCheckpointsDirectory);
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(CHECKPOINT_FILE_SUFFIX + ".tmp")) {
+                    // Left by a crash before the rename; the previous version is still in place
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(CHECKPOINT_FILE_SUFFIX)) {
+                    CommentCheckpoint checkpoint = objectMapper.readValue(file.toFile(), CommentCheckpoint.class);
+                    commentCheckpoints.put(checkpoint.getId(), checkpoint);
+                }
+            }
+        }
+        
+        // Checkpoints written by earlier versions all share one file; split it up once
+        Path legacy = Paths.get(storageDirectory, commentCheckpointsFile);
+        if (Files.exists(legacy)) {
+            List<CommentCheckpoint> loaded = objectMapper.readValue(legacy.toFile(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, CommentCheckpoint.class));
+            for (CommentCheckpoint checkpoint : loaded) {
+                if (commentCheckpoints.putIfAbsent(checkpoint.getId(), checkpoint) == null) {
+                    persistCommentCheckpoint(checkpoint);
                 }
             }
+            Files.delete(legacy);
+            logger.info("Migrated {} comment checkpoints from {}", loaded.size(), legacy);
+        }
+        if (!commentCheckpoints.isEmpty()) {
+            logger.info("Loaded {} comment checkpoints", commentCheckpoints.size());
         }
     }
     
-    private String escapeCsv(String value) {
-        if (value == null) {
-            return "";
+    private void persistCommentCheckpoint(CommentCheckpoint checkpoint) {
+        try {
+            Path path = checkpointPath(checkpoint.getId());
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), checkpoint);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Failed to persist comment checkpoint {}", checkpoint.getId(), e);
+            throw new RuntimeException("Failed to save comment checkpoint", e);
         }
-        // Escape quotes and wrap in quotes if contains comma, quote, or newline
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    
+    private Path checkpointPath(String checkpointId) {
+        return Paths.get(storageDirectory, commentCheckpointsDirectory,
+            URLEncoder.encode(checkpointId, StandardCharsets.UTF_8) + CHECKPOINT_FILE_SUFFIX);
+    }
+    
+    private void loadBackfillJobs() throws IOException {
+        Path path = Paths.get(storageDirectory, backfillJobsFile);
+        if (Files.exists(path)) {
+            List<BackfillJob> loaded = objectMapper.readValue(path.toFile(),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, BackfillJob.class));
+            loaded.forEach(job -> backfillJobs.put(job.getId(), job));
+            logger.info("Loaded {} backfill jobs", backfillJobs.size());
+        }
+    }
+    
+    private void persistBackfillJobs() {
+        try {
+            Path path = Paths.get(storageDirectory, backfillJobsFile);
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), backfillJobs.values());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Failed to persist backfill jobs", e);
+            throw new RuntimeException("Failed to save backfill jobs", e);
         }
-        return value;
     }
     
-    private String formatMetadata(Map<String, String> metadata) {
-        if (metadata == null || metadata.isEmpty()) {
-            return "";
+    private void persistInteractions() {
+        try {
+            Path path = Paths.get(storageDirectory, interactionsFile);
+            String json = objectMapper.writeValueAsString(interactions);
+            Files.writeString(path, json);
+        } catch (IOException e) {
+            logger.error("Failed to persist interactions", e);
+            throw new RuntimeException("Failed to save interactions", e);
+        }
+    }
+    
+    /**
+     * Returns the oldest interactions, 20% of the capacity, to archive. Called holding interactionsLock.
+     */
+    private List<Interaction> oldestInteractions() {
+        int archiveCount = Math.max(1, maxCapacity / 5);
+        return interactions.stream()
+            .sorted(Comparator.comparing(Interaction::getTimestamp))
+            .limit(archiveCount)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Uploads a batch to the archive without holding interactionsLock, then drops it from active
+     * storage. The interaction being saved is already persisted, so a failed upload is only
+     * logged; the batch stays active and a later save archives it.
+     */
+    private void archiveInteractions(List<Interaction> toArchive) {
+        ArchiveSegment segment = null;
+        try {
+            // Stream a compressed segment to the archive sink
+            String timestamp = DateTimeFormatter.ISO_INSTANT.format(Instant.now()).replace(":", "-");
+            segment = archiveStore.write("archive-" + timestamp, toArchive);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to archive interactions; they stay in active storage", e);
+        } finally {
+            interactionsLock.lock();
+            try {
+                if (segment != null) {
+                    // Remove from active storage
+                    interactions.removeAll(toArchive);
+                    persistInteractions();
+                }
+            } finally {
+                archiving = false;
+                interactionsLock.unlock();
+            }
+        }
+        if (segment != null) {
+            logger.info("Archived {} interactions to {} ({} bytes)",
+                segment.getInteractionCount(), segment.getLocation(), segment.getSizeBytes());
         }
-        return metadata.entrySet().stream()
-            .map(entry -> entry.getKey() + "=" + entry.getValue())
-            .collect(Collectors.joining("; "));
     }
 }
@@ -0,0 +1,239 @@
+package com.example.linkedin.repository;
+
+import com.example.linkedin.model.BackfillJob;
+import com.example.linkedin.model.CommentCheckpoint;
+import com.example.linkedin.model.CommentCursor;
+import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.PendingApproval;
+import com.example.linkedin.model.ReplyRetry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Volatile StorageRepository that keeps everything in memory.
+ * Nothing survives a restart and nothing is archived, so it suits tests, local
+ * experiments and benchmarking other backends against a no-I/O baseline.
+ * Enabled with {@code storage.backend=memory}.
+ */
+@Repository
+@ConditionalOnProperty(name = "storage.backend", havingValue = "memory")
+public class InMemoryStorageRepository implements StorageRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryStorageRepository.class);
+    
+    private final List<Interaction> interactions = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> processed = ConcurrentHashMap.newKeySet();
+    private final Map<String, CommentCursor> commentCursors = new ConcurrentHashMap<>();
+    private final Map<String, PendingApproval> pendingApprovals = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, ReplyRetry> replyRetries = new ConcurrentHashMap<>();
+    private final Map<String, CommentCheckpoint> commentCheckpoints = new ConcurrentHashMap<>();
+    private final Map<String, BackfillJob> backfillJobs = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final ObjectMapper objectMapper;
+    
+    @Value("${storage.directory:./data}")
+    private String storageDirectory = "./data";
+    
+    @Value("${storage.export.parallelism:0}")
+    private int exportParallelism;
+    
+    @Value("${storage.export.chunk-size:5000}")
+    private int exportChunkSize = 5000;
+    
+    private ParallelHistoryExporter exporter;
+    
+    public InMemoryStorageRepository() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+    
+    @PostConstruct
+    public void initialize() {
+        int parallelism = exportParallelism > 0 ? exportParallelism : Runtime.getRuntime().availableProcessors();
+        exporter = new ParallelHistoryExporter(objectMapper, parallelism, exportChunkSize);
+        logger.info("In-memory storage repository initialized; data will not survive a restart");
+    }
+    
+    @Override
+    public void saveInteraction(Interaction interaction) {
+        if (interaction == null) {
+            throw new IllegalArgumentException("Interaction cannot be null");
+        }
+        interactions.add(interaction);
+    }
+    
+    @Override
+    public boolean isCommentProcessed(String commentId) {
+        requireCommentId(commentId);
+        return processed.contains(commentId);
+    }
+    
+    @Override
+    public void markCommentProcessed(String commentId) {
+        requireCommentId(commentId);
+        processed.add(commentId);
+    }
+    
+    @Override
+    public CommentCursor getCommentCursor(String postId) {
+        return postId == null ? null : commentCursors.get(postId);
+    }
+    
+    @Override
+    public void saveCommentCursor(CommentCursor cursor) {
+        if (cursor == null || cursor.getPostId() == null || cursor.getPostId().isBlank()) {
+            throw new IllegalArgumentException("Cursor post ID cannot be null or empty");
+        }
+        commentCursors.put(cursor.getPostId(), cursor);
+    }
+    
+    @Override
+    public List<PendingApproval> getPendingApprovals() {
+        synchronized (pendingApprovals) {
+            return new ArrayList<>(pendingApprovals.values());
+        }
+    }
+    
+    @Override
+    public void savePendingApproval(PendingApproval approval) {
+        if (approval == null || approval.getId() == null || approval.getId().isBlank()) {
+            throw new IllegalArgumentException("Approval ID cannot be null or empty");
+        }
+        pendingApprovals.put(approval.getId(), approval);
+    }
+    
+    @Override
+    public void deletePendingApproval(String approvalId) {
+        pendingApprovals.remove(approvalId);
+    }
+    
+    @Override
+    public List<ReplyRetry> getReplyRetries() {
+        return new ArrayList<>(replyRetries.values());
+    }
+    
+    @Override
+    public void saveReplyRetry(ReplyRetry retry) {
+        if (retry == null || retry.getId() == null || retry.getId().isBlank()) {
+            throw new IllegalArgumentException("Retry ID cannot be null or empty");
+        }
+        replyRetries.put(retry.getId(), retry);
+    }
+    
+    @Override
+    public void deleteReplyRetry(String retryId) {
+        replyRetries.remove(retryId);
+    }
+    
+    @Override
+    public List<CommentCheckpoint> getCommentCheckpoints() {
+        return new ArrayList<>(commentCheckpoints.values());
+    }
+    
+    @Override
+    public void saveCommentCheckpoint(CommentCheckpoint checkpoint) {
+        if (checkpoint == null || checkpoint.getId() == null || checkpoint.getId().isBlank()) {
+            throw new IllegalArgumentException("Checkpoint ID cannot be null or empty");
+        }
+        commentCheckpoints.put(checkpoint.getId(), checkpoint);
+    }
+    
+    @Override
+    public void deleteCommentCheckpoint(String checkpointId) {
+        commentCheckpoints.remove(checkpointId);
+    }
+    
+    @Override
+    public List<BackfillJob> getBackfillJobs() {
+        synchronized (backfillJobs) {
+            return new ArrayList<>(backfillJobs.values());
+        }
+    }
+    
+    @Override
+    public void saveBackfillJob(BackfillJob job) {
+        if (job == null || job.getId() == null || job.getId().isBlank()) {
+            throw new IllegalArgumentException("Backfill job ID cannot be null or empty");
+        }
+        backfillJobs.put(job.getId(), job);
+    }
+    
+    @Override
+    public List<Interaction> getInteractionHistory(String postId, Instant startDate, Instant endDate) {
+        synchronized (interactions) {
+            return interactions.stream()
+                .filter(interaction -> postId == null || postId.equals(interaction.getPostId()))
+                .filter(interaction -> startDate == null || !interaction.getTimestamp().isBefore(startDate))
+                .filter(interaction -> endDate == null || !interaction.getTimestamp().isAfter(endDate))
+                .collect(Collectors.toList());
+        }
+    }
+    
+    @Override
+    public String exportHistory(String format) {
+        ParallelHistoryExporter.Format exportFormat = ParallelHistoryExporter.Format.parse(format);
+        
+        try {
+            Files.createDirectories(Paths.get(storageDirectory));
+            String timestamp = DateTimeFormatter.ISO_INSTANT.format(Instant.now()).replace(":", "-");
+            Path exportPath = Paths.get(storageDirectory,
+                "history-export-" + timestamp + "." + exportFormat.getExtension());
+            exporter.export(snapshotInteractions(), exportFormat, exportPath);
+            return exportPath.toString();
+        } catch (IOException e) {
+            logger.error("Failed to export history", e);
+            throw new RuntimeException("Export failed", e);
+        }
+    }
+    
+    @Override
+    public void exportHistory(String format, OutputStream out) throws IOException {
+        ParallelHistoryExporter.Format exportFormat = ParallelHistoryExporter.Format.parse(format);
+        exporter.export(snapshotInteractions(), exportFormat, Channels.newChannel(out));
+        out.flush();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (exporter != null) {
+            exporter.close();
+        }
+    }
+    
+    private List<Interaction> snapshotInteractions() {
+        synchronized (interactions) {
+            return new ArrayList<>(interactions);
+        }
+    }
+    
+    private static void requireCommentId(String commentId) {
+        if (commentId == null || commentId.isBlank()) {
+            throw new IllegalArgumentException("Comment ID cannot be null or blank");
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.linkedin.repository;
+
+import com.example.linkedin.model.Interaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodes interaction snapshots to JSON, NDJSON or CSV.
+ *
+ * The snapshot is split into fixed-size chunks that are encoded in parallel into byte
+ * buffers and written to the target channel strictly in order. At most a few chunks per
+ * worker are in flight at a time, so memory stays bounded regardless of export size.
+ */
+public class ParallelHistoryExporter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelHistoryExporter.class);
+    
+    static final String CSV_HEADER =
+        "ID,Post ID,Comment ID,Commenter Name,Comment Text,Generated Response,Posted Response,Timestamp,Status,Metadata\n";
+    
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        JSON("json"),
+        NDJSON("ndjson"),
+        CSV("csv");
+        
+        private final String extension;
+        
+        Format(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Export format cannot be null or blank");
+            }
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Export format must be 'json', 'ndjson' or 'csv'");
+        }
+    }
+    
+    private final ObjectWriter prettyWriter;
+    private final ObjectWriter compactWriter;
+    private final int parallelism;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    
+    public ParallelHistoryExporter(ObjectMapper objectMapper, int parallelism, int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.prettyWriter = objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT);
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "history-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Exports the snapshot to a file, replacing any existing content.
+     *
+     * @return number of bytes written
+     */
+    public long export(List<Interaction> snapshot, Format format, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(snapshot, format, channel);
+        }
+    }
+    
+    /**
+     * Exports the snapshot to an arbitrary channel such as a response stream.
+     * The channel is not closed.
+     *
+     * @return number of bytes written
+     */
+    public long export(List<Interaction> snapshot, Format format, WritableByteChannel target) throws IOException {
+        long startNanos = System.nanoTime();
+        long written = 0;
+        
+        written += writeFully(target, encodeString(prefix(format, snapshot.isEmpty())));
+        
+        int chunkCount = (snapshot.size() + chunkSize - 1) / chunkSize;
+        int window = parallelism * 2;
+        Deque<CompletableFuture<ByteBuffer>> inFlight = new ArrayDeque<>(window);
+        int nextChunk = 0;
+        
+        try {
+            while (nextChunk < chunkCount || !inFlight.isEmpty()) {
+                while (nextChunk < chunkCount && inFlight.size() < window) {
+                    int from = nextChunk * chunkSize;
+                    int to = Math.min(from + chunkSize, snapshot.size());
+                    List<Interaction> chunk = snapshot.subList(from, to);
+                    boolean firstChunk = nextChunk == 0;
+                    inFlight.addLast(CompletableFuture.supplyAsync(
+                        () -> encodeChunk(chunk, format, firstChunk), executor));
+                    nextChunk++;
+                }
+                written += writeFully(target, inFlight.removeFirst().join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        } finally {
+            // Empty once every chunk is written; otherwise a chunk or a write failed, e.g. because
+            // the client disconnected, and the chunks not yet started need not be formatted
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        
+        written += writeFully(target, encodeString(suffix(format, snapshot.isEmpty())));
+        
+        logger.debug("Encoded {} interactions as {} in {} chunks ({} bytes, {} ms)",
+            snapshot.size(), format, chunkCount, written, (System.nanoTime() - startNanos) / 1_000_000);
+        return written;
+    }
+    
+    ByteBuffer encodeChunk(List<Interaction> chunk, Format format, boolean firstChunk) {
+        StringBuilder sb = new StringBuilder(chunk.size() * 256);
+        try {
+            for (int i = 0; i < chunk.size(); i++) {
+                Interaction interaction = chunk.get(i);
+                switch (format) {
+                    case JSON:
+                        if (!firstChunk || i > 0) {
+                            sb.append(",\n");
+                        }
+                        sb.append(prettyWriter.writeValueAsString(interaction));
+                        break;
+                    case NDJSON:
+                        sb.append(compactWriter.writeValueAsString(interaction)).append('\n');
+                        break;
+                    case CSV:
+                        appendCsvRow(sb, interaction);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unsupported format: " + format);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return encodeString(sb);
+    }
+    
+    private static void appendCsvRow(StringBuilder sb, Interaction interaction) {
+        appendCsv(sb, interaction.getId());
+        sb.append(',');
+        appendCsv(sb, interaction.getPostId());
+        sb.append(',');
+        appendCsv(sb, interaction.getCommentId());
+        sb.append(',');
+        appendCsv(sb, interaction.getCommenterName());
+        sb.append(',');
+        appendCsv(sb, interaction.getCommentText());
+        sb.append(',');
+        appendCsv(sb, interaction.getGeneratedResponse());
+        sb.append(',');
+        appendCsv(sb, interaction.getPostedResponse());
+        sb.append(',');
+        if (interaction.getTimestamp() != null) {
+            sb.append(interaction.getTimestamp());
+        }
+        sb.append(',');
+        if (interaction.getStatus() != null) {
+            sb.append(interaction.getStatus());
+        }
+        sb.append(',');
+        appendCsvMetadata(sb, interaction.getMetadata());
+        sb.append('\n');
+    }
+    
+    /**
+     * Appends a CSV field, quoting it only when it contains a comma, quote or line break.
+     * Characters are copied as they are scanned, so each field is traversed once.
+     */
+    static void appendCsv(StringBuilder sb, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        int start = sb.length();
+        boolean quoted = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                quoted = true;
+                sb.append('"');
+            } else if (c == ',' || c == '\n' || c == '\r') {
+                quoted = true;
+            }
+            sb.append(c);
+        }
+        if (quoted) {
+            sb.insert(start, '"').append('"');
+        }
+    }
+    
+    private static void appendCsvMetadata(StringBuilder sb, Map<String, String> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return;
+        }
+        StringBuilder joined = new StringBuilder();
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            if (joined.length() > 0) {
+                joined.append("; ");
+            }
+            joined.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        appendCsv(sb, joined.toString());
+    }
+    
+    private static String prefix(Format format, boolean empty) {
+        switch (format) {
+            case JSON:
+                return empty ? "[" : "[\n";
+            case CSV:
+                return CSV_HEADER;
+            default:
+                return "";
+        }
+    }
+    
+    private static String suffix(Format format, boolean empty) {
+        if (format == Format.JSON) {
+            return empty ? "]" : "\n]";
+        }
+        return "";
+    }
+    
+    private static ByteBuffer encodeString(CharSequence value) {
+        return StandardCharsets.UTF_8.encode(CharBuffer.wrap(value));
+    }
+    
+    private static long writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.linkedin.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Tracks processed comment IDs grouped by post.
+ *
+ * Each post's IDs live in an append-only file and are loaded into memory the first
+ * time the post is touched. Posts that stay idle longer than the eviction period are
+ * dropped from memory after their IDs are merged into a sorted, memory-mapped index
+ * of 64-bit hashes, which keeps answering lookups that do not carry a post ID. The
+ * index only rules IDs out: a hit may be another ID with the same hash, so it is
+ * confirmed against the post files before a comment counts as processed.
+ */
+class ProcessedCommentStore {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedCommentStore.class);
+    
+    private static final String UNASSIGNED_POST_ID = "_unassigned";
+    private static final String POST_FILE_SUFFIX = ".ids";
+    
+    private final Path postsDirectory;
+    private final Path indexFile;
+    private final ConcurrentHashMap<String, PostEntry> activePosts;
+    private final Object indexLock = new Object();
+    private final Clock clock;
+    
+    private volatile LongBuffer index;
+    
+    /**
+     * @param clock Times post accesses for idle eviction
+     */
+    ProcessedCommentStore(Path postsDirectory, Path indexFile, Clock clock) {
+        this.postsDirectory = postsDirectory;
+        this.indexFile = indexFile;
+        this.clock = clock;
+        this.activePosts = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Opens the store, migrating a legacy global processed-comments file if present and
+     * folding any post files written after the last index merge back into the index.
+     */
+    void open(Path legacyFile, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(postsDirectory);
+        mapIndex();
+        
+        if (legacyFile != null && Files.exists(legacyFile)) {
+            Set<String> legacy = objectMapper.readValue(Files.readString(legacyFile),
+                objectMapper.getTypeFactory().constructCollectionType(Set.class, String.class));
+            // Kept as unassigned IDs, so index hits on them can be confirmed like any other
+            Files.write(postFile(UNASSIGNED_POST_ID), legacy, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            mergeIntoIndex(legacy);
+            Files.move(legacyFile, legacyFile.resolveSibling(legacyFile.getFileName() + ".migrated"),
+                StandardCopyOption.REPLACE_EXISTING);
+            logger.info("Migrated {} legacy processed comments into the on-disk index", legacy.size());
+        }
+        
+        recoverUnmergedPosts();
+        logger.info("Processed comment index opened with {} entries", indexSize());
+    }
+    
+    /**
+     * Checks the post's own IDs first, then every other post's, since comment IDs are unique
+     * across posts and one marked under another post, or under none, still counts.
+     */
+    boolean contains(String postId, String commentId) {
+        PostEntry entry = activate(postId);
+        return entry.ids.contains(commentId) || contains(commentId);
+    }
+    
+    boolean contains(String commentId) {
+        for (PostEntry entry : activePosts.values()) {
+            if (entry.ids.contains(commentId)) {
+                return true;
+            }
+        }
+        return indexContains(hash(commentId)) && isInPostFiles(commentId);
+    }
+    
+    void add(String postId, String commentId) throws IOException {
+        PostEntry entry = activate(postId);
+        entry.lock.lock();
+        try {
+            if (entry.ids.add(commentId)) {
+                Files.writeString(postFile(entry.postId), commentId + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+    
+    /**
+     * Evicts posts that have not been touched within the given period.
+     *
+     * @return number of posts evicted
+     */
+    int evictIdle(long idleMillis) throws IOException {
+        long cutoff = clock.millis() - idleMillis;
+        List<PostEntry> idle = new ArrayList<>();
+        for (PostEntry entry : activePosts.values()) {
+            if (entry.lastAccess <= cutoff) {
+                idle.add(entry);
+            }
+        }
+        if (idle.isEmpty()) {
+            return 0;
+        }
+        
+        List<String> ids = new ArrayList<>();
+        for (PostEntry entry : idle) {
+            ids.addAll(entry.ids);
+        }
+        mergeIntoIndex(ids);
+        
+        int evicted = 0;
+        for (PostEntry entry : idle) {
+            // Only drop the entry if nobody touched it while the merge was running
+            if (entry.lastAccess <= cutoff && activePosts.remove(entry.postId, entry)) {
+                evicted++;
+            }
+        }
+        logger.info("Evicted {} idle posts from processed comment cache", evicted);
+        return evicted;
+    }
+    
+    int activePostCount() {
+        return activePosts.size();
+    }
+    
+    long indexSize() {
+        LongBuffer current = index;
+        return current == null ? 0 : current.limit();
+    }
+    
+    private PostEntry activate(String postId) {
+        String key = postId == null || postId.isBlank() ? UNASSIGNED_POST_ID : postId;
+        PostEntry entry = activePosts.computeIfAbsent(key, this::load);
+        entry.lastAccess = clock.millis();
+        return entry;
+    }
+    
+    private PostEntry load(String postId) {
+        PostEntry entry = new PostEntry(postId);
+        Path file = postFile(postId);
+        if (Files.exists(file)) {
+            try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                lines.filter(line -> !line.isBlank()).forEach(entry.ids::add);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load processed comments for post " + postId, e);
+            }
+            logger.debug("Loaded {} processed comments for post {}", entry.ids.size(), postId);
+        }
+        return entry;
+    }
+    
+    private void recoverUnmergedPosts() throws IOException {
+        FileTime indexTime = Files.exists(indexFile) ? Files.getLastModifiedTime(indexFile) : FileTime.fromMillis(0);
+        List<String> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(postsDirectory)) {
+            Iterator<Path> it = files.filter(p -> p.getFileName().toString().endsWith(POST_FILE_SUFFIX)).iterator();
+            while (it.hasNext()) {
+                Path file = it.next();
+                if (Files.getLastModifiedTime(file).compareTo(indexTime) >= 0) {
+                    try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                        lines.filter(line -> !line.isBlank()).forEach(ids::add);
+                    }
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            mergeIntoIndex(ids);
+            logger.info("Recovered {} processed comments written since the last index merge", ids.size());
+        }
+    }
+    
+    /**
+     * Confirms an index hit by reading the post files until one lists the ID. Every indexed ID
+     * comes from a post file, so this only fails for a different ID with the same hash.
+     */
+    private boolean isInPostFiles(String commentId) {
+        try (Stream<Path> files = Files.list(postsDirectory)) {
+            Iterator<Path> it = files.filter(p -> p.getFileName().toString().endsWith(POST_FILE_SUFFIX)).iterator();
+            while (it.hasNext()) {
+                try (Stream<String> lines = Files.lines(it.next(), StandardCharsets.UTF_8)) {
+                    if (lines.anyMatch(commentId::equals)) {
+                        return true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to look up processed comment " + commentId, e);
+        }
+        logger.debug("Index hit for comment {} was a hash collision", commentId);
+        return false;
+    }
+    
+    private boolean indexContains(long key) {
+        LongBuffer current = index;
+        if (current == null) {
+            return false;
+        }
+        int low = 0;
+        int high = current.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = current.get(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Merges the hashes of the given IDs into the sorted index file and remaps it.
+     * Readers keep using the previous mapping until the new one is published.
+     */
+    private void mergeIntoIndex(Collection<String> commentIds) throws IOException {
+        long[] incoming = commentIds.stream().mapToLong(ProcessedCommentStore::hash).sorted().distinct().toArray();
+        if (incoming.length == 0) {
+            return;
+        }
+        
+        synchronized (indexLock) {
+            LongBuffer existing = index;
+            Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try (OutputStream fileOut = Files.newOutputStream(tempFile);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+                int i = 0;
+                int j = 0;
+                int existingSize = existing == null ? 0 : existing.limit();
+                long last = 0;
+                boolean first = true;
+                while (i < existingSize || j < incoming.length) {
+                    long next;
+                    if (j >= incoming.length || (i < existingSize && existing.get(i) <= incoming[j])) {
+                        next = existing.get(i++);
+                    } else {
+                        next = incoming[j++];
+                    }
+                    if (first || next != last) {
+                        out.writeLong(next);
+                        last = next;
+                        first = false;
+                    }
+                }
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            mapIndex();
+        }
+    }
+    
+    private void mapIndex() throws IOException {
+        if (!Files.exists(indexFile) || Files.size(indexFile) == 0) {
+            index = null;
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
+        }
+    }
+    
+    private Path postFile(String postId) {
+        return postsDirectory.resolve(URLEncoder.encode(postId, StandardCharsets.UTF_8) + POST_FILE_SUFFIX);
+    }
+    
+    /**
+     * 64-bit FNV-1a with a murmur-style finalizer; collisions are rare and confirmed away.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+    
+    private static final class PostEntry {
+        private final String postId;
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+        // Serializes appends to the post's file; a lock so waiting virtual threads do not pin their carriers
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastAccess;
+        
+        private PostEntry(String postId) {
+            this.postId = postId;
+        }
+    }
+}
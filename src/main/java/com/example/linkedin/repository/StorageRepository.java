@@ -1,6 +1,16 @@
 package com.example.linkedin.repository;
 
+import com.example.linkedin.model.BackfillJob;
+import com.example.linkedin.model.CommentCheckpoint;
+import com.example.linkedin.model.CommentCursor;
 import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.PendingApproval;
+import com.example.linkedin.model.ReplyRetry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.List;
 
@@ -28,6 +38,124 @@ public interface StorageRepository {
      */
     void markCommentProcessed(String commentId);
     
+    /**
+     * Checks if a comment on a specific post has been processed.
+     * Comment IDs are unique across posts, so a comment marked under any post, or under none,
+     * counts as processed; implementations may use the post ID to look in that post's data first.
+     * @param postId The post the comment belongs to
+     * @param commentId The comment identifier
+     * @return true if processed, false otherwise
+     */
+    default boolean isCommentProcessed(String postId, String commentId) {
+        return isCommentProcessed(commentId);
+    }
+    
+    /**
+     * Marks a comment on a specific post as processed.
+     * @param postId The post the comment belongs to
+     * @param commentId The comment identifier
+     */
+    default void markCommentProcessed(String postId, String commentId) {
+        markCommentProcessed(commentId);
+    }
+    
+    /**
+     * Returns the comment polling cursor of a post.
+     * @param postId The post identifier
+     * @return The stored cursor, or null if the post has not been polled incrementally yet
+     */
+    default CommentCursor getCommentCursor(String postId) {
+        return null;
+    }
+    
+    /**
+     * Stores the comment polling cursor of a post, replacing any previous cursor.
+     * @param cursor The cursor to store
+     */
+    default void saveCommentCursor(CommentCursor cursor) {
+    }
+    
+    /**
+     * Returns every stored approval queue item, oldest first.
+     * @return The persisted approval items
+     */
+    default List<PendingApproval> getPendingApprovals() {
+        return List.of();
+    }
+    
+    /**
+     * Stores an approval queue item, replacing any item with the same ID.
+     * @param approval The item to store
+     */
+    default void savePendingApproval(PendingApproval approval) {
+    }
+    
+    /**
+     * Removes an approval queue item.
+     * @param approvalId The item identifier
+     */
+    default void deletePendingApproval(String approvalId) {
+    }
+    
+    /**
+     * Returns every stored reply retry.
+     * @return The persisted retries
+     */
+    default List<ReplyRetry> getReplyRetries() {
+        return List.of();
+    }
+    
+    /**
+     * Stores a reply retry, replacing any retry with the same ID.
+     * @param retry The retry to store
+     */
+    default void saveReplyRetry(ReplyRetry retry) {
+    }
+    
+    /**
+     * Removes a reply retry.
+     * @param retryId The retry identifier
+     */
+    default void deleteReplyRetry(String retryId) {
+    }
+    
+    /**
+     * Returns every stored comment checkpoint.
+     * @return The persisted checkpoints of comments still in progress
+     */
+    default List<CommentCheckpoint> getCommentCheckpoints() {
+        return List.of();
+    }
+    
+    /**
+     * Stores a comment checkpoint, replacing any checkpoint with the same ID.
+     * @param checkpoint The checkpoint to store
+     */
+    default void saveCommentCheckpoint(CommentCheckpoint checkpoint) {
+    }
+    
+    /**
+     * Removes a comment checkpoint.
+     * @param checkpointId The checkpoint identifier
+     */
+    default void deleteCommentCheckpoint(String checkpointId) {
+    }
+    
+    /**
+     * Returns every stored backfill job, oldest first.
+     * @return The persisted backfill jobs, finished or not
+     */
+    default List<BackfillJob> getBackfillJobs() {
+        return List.of();
+    }
+    
+    /**
+     * Stores a backfill job with its progress, replacing any job with the same ID.
+     * @param job The job to store
+     */
+    default void saveBackfillJob(BackfillJob job) {
+    }
+    
     /**
      * Retrieves interaction history with optional filtering.
      * @param postId Optional post ID filter
@@ -37,10 +165,34 @@ public interface StorageRepository {
      */
     List<Interaction> getInteractionHistory(String postId, Instant startDate, Instant endDate);
     
+    /**
+     * Retrieves interaction history, optionally including archived interactions.
+     * Archived segments may live in remote storage and are fetched on demand.
+     * @param postId Optional post ID filter
+     * @param startDate Optional start date filter
+     * @param endDate Optional end date filter
+     * @param includeArchived Whether to also search archived segments
+     * @return List of interactions matching the filters, archived entries first
+     */
+    default List<Interaction> getInteractionHistory(String postId, Instant startDate, Instant endDate,
+                                                    boolean includeArchived) {
+        return getInteractionHistory(postId, startDate, endDate);
+    }
+    
     /**
      * Exports interaction history to a file.
-     * @param format The export format ("json" or "csv")
+     * @param format The export format ("json", "ndjson" or "csv")
      * @return Path to the exported file
      */
     String exportHistory(String format);
+    
+    /**
+     * Streams interaction history directly to an output stream without keeping a file.
+     * The stream is not closed.
+     * @param format The export format ("json", "ndjson" or "csv")
+     * @param out The destination stream
+     */
+    default void exportHistory(String format, OutputStream out) throws IOException {
+        Files.copy(Path.of(exportHistory(format)), out);
+    }
 }
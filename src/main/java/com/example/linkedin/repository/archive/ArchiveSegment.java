@@ -0,0 +1,119 @@
+package com.example.linkedin.repository.archive;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes one archived batch of interactions and where its compressed bytes live.
+ */
+public class ArchiveSegment {
+    private String name;
+    
+    private String sink;
+    
+    private String location;
+    
+    private int interactionCount;
+    
+    private long sizeBytes;
+    
+    private Instant earliest;
+    
+    private Instant latest;
+    
+    private Set<String> postIds;
+    
+    private Instant createdAt;
+    
+    // Constructors
+    public ArchiveSegment() {
+        this.postIds = new HashSet<>();
+    }
+    
+    /**
+     * Checks whether this segment may contain interactions matching the filters.
+     */
+    public boolean overlaps(String postId, Instant startDate, Instant endDate) {
+        if (postId != null && !postIds.contains(postId)) {
+            return false;
+        }
+        if (startDate != null && latest != null && latest.isBefore(startDate)) {
+            return false;
+        }
+        return endDate == null || earliest == null || !earliest.isAfter(endDate);
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getSink() {
+        return sink;
+    }
+    
+    public void setSink(String sink) {
+        this.sink = sink;
+    }
+    
+    public String getLocation() {
+        return location;
+    }
+    
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    
+    public int getInteractionCount() {
+        return interactionCount;
+    }
+    
+    public void setInteractionCount(int interactionCount) {
+        this.interactionCount = interactionCount;
+    }
+    
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+    
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+    
+    public Instant getEarliest() {
+        return earliest;
+    }
+    
+    public void setEarliest(Instant earliest) {
+        this.earliest = earliest;
+    }
+    
+    public Instant getLatest() {
+        return latest;
+    }
+    
+    public void setLatest(Instant latest) {
+        this.latest = latest;
+    }
+    
+    public Set<String> getPostIds() {
+        return postIds;
+    }
+    
+    public void setPostIds(Set<String> postIds) {
+        this.postIds = postIds;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
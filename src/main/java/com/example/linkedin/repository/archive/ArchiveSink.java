@@ -0,0 +1,44 @@
+package com.example.linkedin.repository.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Destination for compressed archive segments.
+ */
+public interface ArchiveSink {
+    
+    /**
+     * Short identifier recorded in the manifest (e.g. "local", "s3").
+     */
+    String getType();
+    
+    /**
+     * Returns where a segment with the given name is stored.
+     * @param segmentName Segment file name
+     * @return Sink-specific location (file path or object key)
+     */
+    String locationOf(String segmentName);
+    
+    /**
+     * Opens a stream for writing a new segment. Closing the stream completes the segment;
+     * if writing fails the caller must call {@link #discard(String)} instead of closing it.
+     * @param segmentName Segment file name
+     * @return Stream accepting the compressed segment bytes
+     */
+    OutputStream create(String segmentName) throws IOException;
+    
+    /**
+     * Opens a stored segment for reading.
+     * @param location Location previously returned by {@link #locationOf(String)}
+     * @return Stream over the compressed segment bytes
+     */
+    InputStream open(String location) throws IOException;
+    
+    /**
+     * Abandons a segment whose stream failed, removing any partially written bytes.
+     * @param segmentName Segment file name
+     */
+    void discard(String segmentName);
+}
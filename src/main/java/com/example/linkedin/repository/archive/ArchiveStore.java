@@ -0,0 +1,293 @@
+package com.example.linkedin.repository.archive;
+
+import com.example.linkedin.model.Interaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes archived interactions as gzip-compressed NDJSON segments to an {@link ArchiveSink}
+ * and keeps a local manifest describing every segment.
+ *
+ * The manifest records the post IDs and time range of each segment, so history queries
+ * only open segments that can match. For remote sinks the segment bytes are fetched on
+ * demand; nothing but the manifest has to stay on local disk.
+ */
+public class ArchiveStore {
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveStore.class);
+    
+    static final String SEGMENT_EXTENSION = ".ndjson.gz";
+    static final String LEGACY_EXTENSION = ".json";
+    
+    private final Path archiveDirectory;
+    private final Path manifestFile;
+    private final ArchiveSink sink;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final List<ArchiveSegment> segments = new ArrayList<>();
+    
+    public ArchiveStore(Path archiveDirectory, ArchiveSink sink, ObjectMapper objectMapper) {
+        this.archiveDirectory = archiveDirectory;
+        this.manifestFile = archiveDirectory.resolve("manifest.json");
+        this.sink = sink;
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+    
+    /**
+     * Loads the manifest and registers archive files written before it existed.
+     * When the sink is remote, local segments are uploaded and removed from disk.
+     */
+    public void open() throws IOException {
+        Files.createDirectories(archiveDirectory);
+        synchronized (segments) {
+            if (Files.exists(manifestFile)) {
+                segments.addAll(objectMapper.readValue(manifestFile.toFile(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, ArchiveSegment.class)));
+            }
+            registerUntrackedLocalFiles();
+            if (!"local".equals(sink.getType())) {
+                offloadLocalSegments();
+            }
+            writeManifest();
+        }
+        logger.info("Archive manifest holds {} segments (sink: {})", segments.size(), sink.getType());
+    }
+    
+    /**
+     * Streams interactions into a new segment and records it in the manifest.
+     * Nothing is recorded if the write fails.
+     */
+    public ArchiveSegment write(String baseName, List<Interaction> batch) throws IOException {
+        String name = baseName + SEGMENT_EXTENSION;
+        ArchiveSegment segment = describe(name, batch);
+        
+        OutputStream target = sink.create(name);
+        CountingOutputStream counter = new CountingOutputStream(target);
+        try {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(new NonClosingOutputStream(counter), 64 * 1024)) {
+                for (Interaction interaction : batch) {
+                    gzip.write(lineWriter.writeValueAsBytes(interaction));
+                    gzip.write('\n');
+                }
+            }
+            target.close();
+        } catch (IOException | RuntimeException e) {
+            // The sink stream is not closed on failure so a remote upload is aborted rather than completed
+            sink.discard(name);
+            throw e instanceof IOException ? (IOException) e : new IOException("Failed to write archive " + name, e);
+        }
+        segment.setSizeBytes(counter.count);
+        
+        synchronized (segments) {
+            segments.add(segment);
+            writeManifest();
+        }
+        return segment;
+    }
+    
+    /**
+     * Reads archived interactions matching the filters, opening only overlapping segments.
+     */
+    public List<Interaction> read(String postId, Instant startDate, Instant endDate) throws IOException {
+        List<ArchiveSegment> candidates = new ArrayList<>();
+        synchronized (segments) {
+            for (ArchiveSegment segment : segments) {
+                if (segment.overlaps(postId, startDate, endDate)) {
+                    candidates.add(segment);
+                }
+            }
+        }
+        
+        List<Interaction> result = new ArrayList<>();
+        for (ArchiveSegment segment : candidates) {
+            for (Interaction interaction : readSegment(segment)) {
+                if ((postId == null || postId.equals(interaction.getPostId()))
+                    && (startDate == null || !interaction.getTimestamp().isBefore(startDate))
+                    && (endDate == null || !interaction.getTimestamp().isAfter(endDate))) {
+                    result.add(interaction);
+                }
+            }
+        }
+        return result;
+    }
+    
+    public List<ArchiveSegment> getSegments() {
+        synchronized (segments) {
+            return Collections.unmodifiableList(new ArrayList<>(segments));
+        }
+    }
+    
+    private List<Interaction> readSegment(ArchiveSegment segment) throws IOException {
+        ArchiveSink source = sink.getType().equals(segment.getSink()) ? sink : new LocalArchiveSink(archiveDirectory.toString());
+        try (InputStream in = source.open(segment.getLocation())) {
+            if (segment.getName().endsWith(LEGACY_EXTENSION)) {
+                return objectMapper.readValue(in,
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, Interaction.class));
+            }
+            List<Interaction> loaded = new ArrayList<>(segment.getInteractionCount());
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new GZIPInputStream(in, 64 * 1024), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    loaded.add(objectMapper.readValue(line, Interaction.class));
+                }
+            }
+            return loaded;
+        }
+    }
+    
+    private ArchiveSegment describe(String name, List<Interaction> batch) {
+        ArchiveSegment segment = new ArchiveSegment();
+        segment.setName(name);
+        segment.setSink(sink.getType());
+        segment.setLocation(sink.locationOf(name));
+        segment.setInteractionCount(batch.size());
+        segment.setCreatedAt(Instant.now());
+        Set<String> postIds = new HashSet<>();
+        for (Interaction interaction : batch) {
+            postIds.add(interaction.getPostId());
+            Instant timestamp = interaction.getTimestamp();
+            if (timestamp != null) {
+                if (segment.getEarliest() == null || timestamp.isBefore(segment.getEarliest())) {
+                    segment.setEarliest(timestamp);
+                }
+                if (segment.getLatest() == null || timestamp.isAfter(segment.getLatest())) {
+                    segment.setLatest(timestamp);
+                }
+            }
+        }
+        segment.setPostIds(postIds);
+        return segment;
+    }
+    
+    private void registerUntrackedLocalFiles() throws IOException {
+        Set<String> known = new HashSet<>();
+        segments.forEach(segment -> known.add(segment.getName()));
+        List<Path> untracked = new ArrayList<>();
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            files.filter(file -> file.getFileName().toString().startsWith("archive-"))
+                .filter(file -> !known.contains(file.getFileName().toString()))
+                .forEach(untracked::add);
+        }
+        LocalArchiveSink local = new LocalArchiveSink(archiveDirectory.toString());
+        for (Path file : untracked) {
+            String name = file.getFileName().toString();
+            ArchiveSegment probe = new ArchiveSegment();
+            probe.setName(name);
+            probe.setLocation(file.toString());
+            probe.setSink(local.getType());
+            try {
+                List<Interaction> contents = readSegment(probe);
+                ArchiveSegment segment = describe(name, contents);
+                segment.setSink(local.getType());
+                segment.setLocation(file.toString());
+                segment.setSizeBytes(Files.size(file));
+                segments.add(segment);
+                logger.info("Registered existing archive file {} ({} interactions)", name, contents.size());
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable archive file {}: {}", name, e.getMessage());
+            }
+        }
+    }
+    
+    private void offloadLocalSegments() throws IOException {
+        LocalArchiveSink local = new LocalArchiveSink(archiveDirectory.toString());
+        for (int i = 0; i < segments.size(); i++) {
+            ArchiveSegment segment = segments.get(i);
+            if (!local.getType().equals(segment.getSink())) {
+                continue;
+            }
+            Path file = Path.of(segment.getLocation());
+            try (InputStream in = local.open(segment.getLocation())) {
+                OutputStream out = sink.create(segment.getName());
+                in.transferTo(out);
+                out.close();
+            } catch (IOException | RuntimeException e) {
+                sink.discard(segment.getName());
+                logger.warn("Failed to offload archive segment {}, keeping it locally: {}",
+                    segment.getName(), e.getMessage());
+                continue;
+            }
+            segment.setSink(sink.getType());
+            segment.setLocation(sink.locationOf(segment.getName()));
+            // Persist before deleting so a crash never leaves the manifest pointing at a missing file
+            writeManifest();
+            Files.deleteIfExists(file);
+            logger.info("Offloaded archive segment {} to {}", segment.getName(), sink.getType());
+        }
+    }
+    
+    private void writeManifest() throws IOException {
+        Path temp = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), segments);
+        Files.move(temp, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+        
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+    }
+    
+    /**
+     * Lets the gzip stream finish without closing the sink stream, which the caller closes.
+     */
+    private static final class NonClosingOutputStream extends java.io.FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
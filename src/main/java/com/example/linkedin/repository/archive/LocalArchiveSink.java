@@ -0,0 +1,74 @@
+package com.example.linkedin.repository.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores archive segments as files in the local archive directory.
+ */
+public class LocalArchiveSink implements ArchiveSink {
+    private static final Logger logger = LoggerFactory.getLogger(LocalArchiveSink.class);
+    
+    private final Path directory;
+    private final Map<String, OutputStream> openFiles = new ConcurrentHashMap<>();
+    
+    public LocalArchiveSink(String directory) {
+        this.directory = Paths.get(directory);
+    }
+    
+    @Override
+    public String getType() {
+        return "local";
+    }
+    
+    @Override
+    public String locationOf(String segmentName) {
+        return directory.resolve(segmentName).toString();
+    }
+    
+    @Override
+    public OutputStream create(String segmentName) throws IOException {
+        Files.createDirectories(directory);
+        OutputStream file = Files.newOutputStream(directory.resolve(segmentName));
+        openFiles.put(segmentName, file);
+        return new BufferedOutputStream(file, 64 * 1024) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    openFiles.remove(segmentName);
+                }
+            }
+        };
+    }
+    
+    @Override
+    public InputStream open(String location) throws IOException {
+        return new BufferedInputStream(Files.newInputStream(Paths.get(location)), 64 * 1024);
+    }
+    
+    @Override
+    public void discard(String segmentName) {
+        try {
+            OutputStream file = openFiles.remove(segmentName);
+            if (file != null) {
+                file.close();
+            }
+            Files.deleteIfExists(directory.resolve(segmentName));
+        } catch (IOException e) {
+            logger.warn("Failed to delete partial archive segment {}: {}", segmentName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.linkedin.repository.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Streams archive segments to an S3-compatible object store.
+ *
+ * Segments are uploaded with multipart upload and not kept locally. When a history
+ * query needs a remote segment it is downloaded into a small local cache, which is
+ * trimmed least-recently-used first so it never exceeds the configured size.
+ */
+public class S3ArchiveSink implements ArchiveSink {
+    private static final Logger logger = LoggerFactory.getLogger(S3ArchiveSink.class);
+    
+    private final S3ObjectClient client;
+    private final String prefix;
+    private final int partSize;
+    private final Path cacheDirectory;
+    private final long cacheMaxBytes;
+    private final Map<String, S3MultipartOutputStream> openUploads = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Path, Long> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    
+    public S3ArchiveSink(S3ObjectClient client, String prefix, int partSize,
+                         String cacheDirectory, long cacheMaxBytes) throws IOException {
+        this.client = client;
+        this.prefix = prefix == null || prefix.isEmpty() || prefix.endsWith("/") ? nullToEmpty(prefix) : prefix + "/";
+        this.partSize = partSize;
+        this.cacheDirectory = Paths.get(cacheDirectory);
+        this.cacheMaxBytes = cacheMaxBytes;
+        
+        Files.createDirectories(this.cacheDirectory);
+        try (Stream<Path> files = Files.list(this.cacheDirectory)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    long size = Files.size(file);
+                    cachedFiles.put(file, size);
+                    cachedBytes += size;
+                } catch (IOException e) {
+                    logger.warn("Ignoring unreadable cached segment {}", file);
+                }
+            });
+        }
+        trimCache(0);
+    }
+    
+    @Override
+    public String getType() {
+        return "s3";
+    }
+    
+    @Override
+    public String locationOf(String segmentName) {
+        return prefix + segmentName;
+    }
+    
+    @Override
+    public OutputStream create(String segmentName) {
+        S3MultipartOutputStream upload = new S3MultipartOutputStream(client, locationOf(segmentName), partSize);
+        openUploads.put(segmentName, upload);
+        return new BufferedOutputStream(upload, 64 * 1024) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    openUploads.remove(segmentName);
+                }
+            }
+        };
+    }
+    
+    @Override
+    public InputStream open(String location) throws IOException {
+        Path cached = cacheDirectory.resolve(location.replace('/', '_'));
+        synchronized (cachedFiles) {
+            if (cachedFiles.get(cached) != null && Files.exists(cached)) {
+                return new BufferedInputStream(Files.newInputStream(cached), 64 * 1024);
+            }
+        }
+        
+        Path partial = cacheDirectory.resolve(cached.getFileName() + ".part");
+        try {
+            client.download(location, partial);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw new IOException("Failed to download archive segment " + location, e);
+        }
+        Files.move(partial, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        long size = Files.size(cached);
+        // Open before trimming so the file can be read even if it alone exceeds the cache
+        InputStream in = new BufferedInputStream(Files.newInputStream(cached), 64 * 1024);
+        synchronized (cachedFiles) {
+            Long previous = cachedFiles.put(cached, size);
+            cachedBytes += size - (previous == null ? 0 : previous);
+            trimCache(size > cacheMaxBytes ? 0 : 1);
+        }
+        logger.debug("Fetched archive segment {} ({} bytes) from bucket {}", location, size, client.getBucket());
+        return in;
+    }
+    
+    @Override
+    public void discard(String segmentName) {
+        S3MultipartOutputStream upload = openUploads.remove(segmentName);
+        if (upload != null) {
+            upload.abort();
+        }
+    }
+    
+    public long getCachedBytes() {
+        synchronized (cachedFiles) {
+            return cachedBytes;
+        }
+    }
+    
+    /**
+     * Evicts least recently used files until the cache fits, keeping the newest
+     * {@code keep} entries.
+     */
+    private void trimCache(int keep) {
+        synchronized (cachedFiles) {
+            Iterator<Map.Entry<Path, Long>> iterator = cachedFiles.entrySet().iterator();
+            int remaining = cachedFiles.size();
+            while (cachedBytes > cacheMaxBytes && remaining > keep && iterator.hasNext()) {
+                Map.Entry<Path, Long> eldest = iterator.next();
+                try {
+                    Files.deleteIfExists(eldest.getKey());
+                } catch (IOException e) {
+                    logger.warn("Failed to evict cached segment {}: {}", eldest.getKey(), e.getMessage());
+                }
+                cachedBytes -= eldest.getValue();
+                iterator.remove();
+                remaining--;
+            }
+        }
+    }
+    
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.linkedin.repository.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams bytes to an S3 object using multipart upload.
+ *
+ * Only one part is buffered at a time, so memory use is bounded by the part size no
+ * matter how large the object grows. Objects smaller than one part are sent with a
+ * single PUT. If writing or closing fails the multipart upload is aborted.
+ */
+public class S3MultipartOutputStream extends OutputStream {
+    /** S3 rejects non-final parts smaller than 5 MiB. */
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+    
+    private final S3ObjectClient client;
+    private final String key;
+    private final byte[] buffer;
+    private final List<String> etags = new ArrayList<>();
+    private int position;
+    private String uploadId;
+    private long bytesWritten;
+    private boolean closed;
+    
+    public S3MultipartOutputStream(S3ObjectClient client, String key, int partSize) {
+        this.client = client;
+        this.key = key;
+        this.buffer = new byte[Math.max(partSize, MIN_PART_SIZE)];
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (position == buffer.length) {
+            flushPart();
+        }
+        buffer[position++] = (byte) b;
+        bytesWritten++;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (position == buffer.length) {
+                flushPart();
+            }
+            int count = Math.min(len, buffer.length - position);
+            System.arraycopy(b, off, buffer, position, count);
+            position += count;
+            off += count;
+            len -= count;
+            bytesWritten += count;
+        }
+    }
+    
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+    
+    private void flushPart() throws IOException {
+        try {
+            if (uploadId == null) {
+                uploadId = client.createMultipartUpload(key);
+            }
+            etags.add(client.uploadPart(key, uploadId, etags.size() + 1, buffer, position));
+            position = 0;
+        } catch (RuntimeException e) {
+            abort();
+            throw new IOException("Failed to upload part " + (etags.size() + 1) + " of " + key, e);
+        }
+    }
+    
+    /**
+     * Abandons the upload without completing the object.
+     */
+    public void abort() {
+        if (uploadId != null) {
+            client.abortMultipartUpload(key, uploadId);
+            uploadId = null;
+        }
+        closed = true;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (uploadId == null) {
+                client.putObject(key, buffer, position);
+            } else {
+                if (position > 0) {
+                    flushPart();
+                }
+                client.completeMultipartUpload(key, uploadId, etags);
+            }
+            closed = true;
+        } catch (RuntimeException e) {
+            abort();
+            throw new IOException("Failed to complete upload of " + key, e);
+        }
+    }
+    
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed for " + key);
+        }
+    }
+}
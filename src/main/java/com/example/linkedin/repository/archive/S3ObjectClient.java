@@ -0,0 +1,269 @@
+package com.example.linkedin.repository.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal client for S3-compatible object stores (AWS S3, MinIO).
+ * Uses path-style addressing and AWS Signature Version 4 over WebClient, and supports
+ * only the calls needed for archive offload: multipart upload, put and streaming get.
+ */
+public class S3ObjectClient {
+    private static final Logger logger = LoggerFactory.getLogger(S3ObjectClient.class);
+    
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter AMZ_DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    
+    private final URI endpoint;
+    private final String region;
+    private final String bucket;
+    private final String accessKey;
+    private final String secretKey;
+    private final WebClient webClient;
+    
+    public S3ObjectClient(String endpoint, String region, String bucket, String accessKey, String secretKey) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.region = region;
+        this.bucket = bucket;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.webClient = WebClient.builder().build();
+    }
+    
+    public String getBucket() {
+        return bucket;
+    }
+    
+    /**
+     * Creates the bucket if it does not exist yet.
+     */
+    public void ensureBucket() {
+        try {
+            execute(HttpMethod.HEAD, "", Map.of(), null, 0);
+        } catch (WebClientResponseException.NotFound e) {
+            logger.info("Creating archive bucket {}", bucket);
+            execute(HttpMethod.PUT, "", Map.of(), null, 0);
+        }
+    }
+    
+    public String createMultipartUpload(String key) {
+        String body = execute(HttpMethod.POST, key, Map.of("uploads", ""), null, 0).getBody();
+        Matcher matcher = UPLOAD_ID.matcher(body == null ? "" : body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No UploadId in multipart upload response for " + key);
+        }
+        return matcher.group(1);
+    }
+    
+    /**
+     * Uploads one part of a multipart upload.
+     * @return ETag of the uploaded part
+     */
+    public String uploadPart(String key, String uploadId, int partNumber, byte[] data, int length) {
+        Map<String, String> query = Map.of("partNumber", String.valueOf(partNumber), "uploadId", uploadId);
+        ResponseEntity<String> response = execute(HttpMethod.PUT, key, query, data, length);
+        String etag = response.getHeaders().getETag();
+        if (etag == null) {
+            throw new IllegalStateException("No ETag returned for part " + partNumber + " of " + key);
+        }
+        return etag;
+    }
+    
+    public void completeMultipartUpload(String key, String uploadId, List<String> etags) {
+        StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < etags.size(); i++) {
+            xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+               .append(etags.get(i)).append("</ETag></Part>");
+        }
+        xml.append("</CompleteMultipartUpload>");
+        byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+        execute(HttpMethod.POST, key, Map.of("uploadId", uploadId), body, body.length);
+    }
+    
+    public void abortMultipartUpload(String key, String uploadId) {
+        try {
+            execute(HttpMethod.DELETE, key, Map.of("uploadId", uploadId), null, 0);
+        } catch (Exception e) {
+            logger.warn("Failed to abort multipart upload {} for {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+    
+    public void putObject(String key, byte[] data, int length) {
+        execute(HttpMethod.PUT, key, Map.of(), data, length);
+    }
+    
+    public void deleteObject(String key) {
+        execute(HttpMethod.DELETE, key, Map.of(), null, 0);
+    }
+    
+    /**
+     * Streams an object to a local file without buffering it in memory.
+     */
+    public void download(String key, Path target) {
+        URI uri = buildUri(key, Map.of());
+        Map<String, String> headers = sign(HttpMethod.GET, uri, Map.of(), EMPTY_SHA256);
+        Flux<DataBuffer> body = webClient.get()
+                .uri(uri)
+                .headers(h -> headers.forEach(h::set))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+        DataBufferUtils.write(body, target,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                .block();
+    }
+    
+    private ResponseEntity<String> execute(HttpMethod method, String key, Map<String, String> query,
+                                           byte[] body, int length) {
+        URI uri = buildUri(key, query);
+        byte[] payload = body == null ? new byte[0] : (length == body.length ? body : java.util.Arrays.copyOf(body, length));
+        Map<String, String> headers = sign(method, uri, query, sha256Hex(payload));
+        
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(h -> headers.forEach(h::set));
+        WebClient.RequestHeadersSpec<?> spec = payload.length > 0 ? request.bodyValue(payload) : request;
+        return spec.retrieve().toEntity(String.class).block();
+    }
+    
+    private URI buildUri(String key, Map<String, String> query) {
+        StringBuilder uri = new StringBuilder(endpoint.toString()).append(canonicalPath(key));
+        String canonicalQuery = canonicalQuery(query);
+        if (!canonicalQuery.isEmpty()) {
+            uri.append('?').append(canonicalQuery);
+        }
+        return URI.create(uri.toString());
+    }
+    
+    private String canonicalPath(String key) {
+        StringBuilder path = new StringBuilder("/").append(encode(bucket));
+        if (!key.isEmpty()) {
+            path.append('/');
+            String[] segments = key.split("/", -1);
+            for (int i = 0; i < segments.length; i++) {
+                if (i > 0) {
+                    path.append('/');
+                }
+                path.append(encode(segments[i]));
+            }
+        }
+        return path.toString();
+    }
+    
+    private static String canonicalQuery(Map<String, String> query) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : new TreeMap<>(query).entrySet()) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(encode(entry.getKey())).append('=').append(encode(entry.getValue()));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Computes the SigV4 headers for a request.
+     */
+    private Map<String, String> sign(HttpMethod method, URI uri, Map<String, String> query, String payloadHash) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String amzDate = AMZ_DATE.format(now);
+        String day = AMZ_DAY.format(now);
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        
+        String canonicalRequest = method.name() + "\n"
+                + uri.getRawPath() + "\n"
+                + canonicalQuery(query) + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\n"
+                + "host;x-amz-content-sha256;x-amz-date\n"
+                + payloadHash;
+        
+        String scope = day + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+        
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), day);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = toHex(hmac(signingKey, stringToSign));
+        
+        Map<String, String> headers = new TreeMap<>();
+        headers.put("x-amz-date", amzDate);
+        headers.put("x-amz-content-sha256", payloadHash);
+        headers.put("Authorization", "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=host;x-amz-content-sha256;x-amz-date, Signature=" + signature);
+        return headers;
+    }
+    
+    /**
+     * RFC 3986 percent-encoding as required by SigV4.
+     */
+    private static String encode(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~') {
+                sb.append(c);
+            } else {
+                sb.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xf, 16)))
+                  .append(Character.toUpperCase(Character.forDigit(b & 0xf, 16)));
+            }
+        }
+        return sb.toString();
+    }
+    
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+    
+    private static String sha256Hex(byte[] data) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
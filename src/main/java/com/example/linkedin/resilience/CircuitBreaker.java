@@ -3,6 +3,7 @@ package com.example.linkedin.resilience;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -19,6 +20,7 @@ public class CircuitBreaker {
     private final int failureThreshold;
     private final long resetTimeoutMs;
     private final int successThreshold;
+    private final Clock clock;
     
     private final AtomicInteger failureCount;
     private final AtomicInteger successCount;
@@ -26,15 +28,23 @@ public class CircuitBreaker {
     private final AtomicReference<Instant> lastFailureTime;
     
     public CircuitBreaker(String name, int failureThreshold, long resetTimeoutMs, int successThreshold) {
+        this(name, failureThreshold, resetTimeoutMs, successThreshold, Clock.systemUTC());
+    }
+    
+    /**
+     * @param clock Measures the reset timeout; a simulated clock lets tests step through transitions
+     */
+    public CircuitBreaker(String name, int failureThreshold, long resetTimeoutMs, int successThreshold, Clock clock) {
         this.name = name;
         this.failureThreshold = failureThreshold;
         this.resetTimeoutMs = resetTimeoutMs;
         this.successThreshold = successThreshold;
+        this.clock = clock;
         
         this.failureCount = new AtomicInteger(0);
         this.successCount = new AtomicInteger(0);
         this.state = new AtomicReference<>(CircuitState.CLOSED);
-        this.lastFailureTime = new AtomicReference<>(Instant.now());
+        this.lastFailureTime = new AtomicReference<>(clock.instant());
         
         logger.info("Circuit breaker '{}' initialized. Failure threshold: {}, Reset timeout: {}ms, Success threshold: {}", 
                    name, failureThreshold, resetTimeoutMs, successThreshold);
@@ -103,7 +113,7 @@ public class CircuitBreaker {
      * Records a failed operation.
      */
     private void onFailure() {
-        lastFailureTime.set(Instant.now());
+        lastFailureTime.set(clock.instant());
         CircuitState currentState = state.get();
         
         if (currentState == CircuitState.HALF_OPEN) {
@@ -128,7 +138,7 @@ public class CircuitBreaker {
      */
     private boolean shouldAttemptReset() {
         Instant lastFailure = lastFailureTime.get();
-        long timeSinceLastFailure = Instant.now().toEpochMilli() - lastFailure.toEpochMilli();
+        long timeSinceLastFailure = clock.millis() - lastFailure.toEpochMilli();
         return timeSinceLastFailure >= resetTimeoutMs;
     }
     
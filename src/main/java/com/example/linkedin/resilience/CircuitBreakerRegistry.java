@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -14,6 +15,7 @@ public class CircuitBreakerRegistry {
     private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerRegistry.class);
     
     private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakers;
+    private final Clock clock;
     
     // Default configuration
     private static final int DEFAULT_FAILURE_THRESHOLD = 5;
@@ -21,7 +23,15 @@ public class CircuitBreakerRegistry {
     private static final int DEFAULT_SUCCESS_THRESHOLD = 3;
     
     public CircuitBreakerRegistry() {
+        this(Clock.systemUTC());
+    }
+    
+    /**
+     * @param clock Clock of every circuit breaker created by this registry
+     */
+    public CircuitBreakerRegistry(Clock clock) {
         this.circuitBreakers = new ConcurrentHashMap<>();
+        this.clock = clock;
         logger.info("Circuit breaker registry initialized");
     }
     
@@ -38,7 +48,8 @@ public class CircuitBreakerRegistry {
                 name,
                 DEFAULT_FAILURE_THRESHOLD,
                 DEFAULT_RESET_TIMEOUT_MS,
-                DEFAULT_SUCCESS_THRESHOLD
+                DEFAULT_SUCCESS_THRESHOLD,
+                clock
             );
         });
     }
@@ -50,7 +61,7 @@ public class CircuitBreakerRegistry {
                                      long resetTimeoutMs, int successThreshold) {
         return circuitBreakers.computeIfAbsent(serviceName, name -> {
             logger.info("Creating new circuit breaker for service: {} with custom config", name);
-            return new CircuitBreaker(name, failureThreshold, resetTimeoutMs, successThreshold);
+            return new CircuitBreaker(name, failureThreshold, resetTimeoutMs, successThreshold, clock);
         });
     }
     
@@ -0,0 +1,291 @@
+package com.example.linkedin.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds which of a set of keywords occur in a text, in a single pass over the text.
+ *
+ * The keywords are compiled once into an Aho-Corasick automaton, so matching costs a constant
+ * amount of work per character of text (amortized) no matter how many keywords there are. Text
+ * and keywords are compared under simple Unicode case folding, code point by code point, so
+ * "RÉSUMÉ" matches "résumé" and "ΣΟΦΊΑ" matches "σοφία"; foldings that change length, such as
+ * "ß" to "ss", are not applied. With whole-word matching a keyword counts only where it is not
+ * preceded or followed by another letter or digit, so "refund" matches "refund!" but not
+ * "refunded"; otherwise keywords match anywhere, as {@link String#contains} would.
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+public final class KeywordMatcher {
+    
+    private static final KeywordMatcher EMPTY = new KeywordMatcher(List.of(), false);
+    
+    private final List<String> keywords;
+    private final boolean wholeWords;
+    
+    // Automaton states; state 0 is the root
+    private final Transitions transitions;
+    private final int[] fail;
+    private final int[] output;
+    private final int[] dictionaryLink;
+    private final int[] depth;
+    
+    private KeywordMatcher(List<String> keywords, boolean wholeWords) {
+        this.keywords = keywords;
+        this.wholeWords = wholeWords;
+        
+        int capacity = 1;
+        for (String keyword : keywords) {
+            capacity += keyword.length();
+        }
+        transitions = new Transitions();
+        fail = new int[capacity];
+        output = new int[capacity];
+        dictionaryLink = new int[capacity];
+        depth = new int[capacity];
+        int[] parent = new int[capacity];
+        int[] label = new int[capacity];
+        Arrays.fill(output, -1);
+        
+        // Trie of the folded keywords; a keyword folding to an earlier one keeps the earlier one's state
+        int states = 1;
+        for (int index = 0; index < keywords.size(); index++) {
+            int state = 0;
+            for (int codePoint : fold(keywords.get(index))) {
+                int next = transitions.get(state, codePoint);
+                if (next < 0) {
+                    next = states++;
+                    parent[next] = state;
+                    label[next] = codePoint;
+                    depth[next] = depth[state] + 1;
+                    transitions.put(state, codePoint, next);
+                }
+                state = next;
+            }
+            if (output[state] < 0) {
+                output[state] = index;
+            }
+        }
+        
+        // Failure and dictionary links, breadth first so shallower states are linked before deeper ones
+        Integer[] byDepth = new Integer[states];
+        for (int state = 0; state < states; state++) {
+            byDepth[state] = state;
+        }
+        Arrays.sort(byDepth, (a, b) -> Integer.compare(depth[a], depth[b]));
+        dictionaryLink[0] = -1;
+        for (int state : byDepth) {
+            if (state == 0) {
+                continue;
+            }
+            int target = 0;
+            if (parent[state] != 0) {
+                int candidate = fail[parent[state]];
+                while (true) {
+                    int next = transitions.get(candidate, label[state]);
+                    if (next >= 0) {
+                        target = next;
+                        break;
+                    }
+                    if (candidate == 0) {
+                        break;
+                    }
+                    candidate = fail[candidate];
+                }
+            }
+            fail[state] = target;
+            dictionaryLink[state] = target != 0 && output[target] >= 0 ? target : dictionaryLink[target];
+        }
+    }
+    
+    /**
+     * Compiles a set of keywords. Keywords are trimmed; null and blank ones are ignored.
+     *
+     * @param wholeWords Whether keywords only match as whole words
+     */
+    public static KeywordMatcher compile(Collection<String> keywords, boolean wholeWords) {
+        if (keywords == null || keywords.isEmpty()) {
+            return wholeWords ? new KeywordMatcher(List.of(), true) : EMPTY;
+        }
+        List<String> cleaned = new ArrayList<>(keywords.size());
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isBlank()) {
+                cleaned.add(keyword.trim());
+            }
+        }
+        return new KeywordMatcher(Collections.unmodifiableList(cleaned), wholeWords);
+    }
+    
+    /**
+     * Returns the first keyword to complete in the text, or null if none occurs.
+     * Among keywords ending at the same character the longest is returned.
+     */
+    public String findFirst(String text) {
+        List<String> found = scan(text, true);
+        return found.isEmpty() ? null : found.get(0);
+    }
+    
+    /**
+     * Returns every keyword occurring in the text, each once, in the order their first occurrence completes.
+     */
+    public List<String> findAll(String text) {
+        return scan(text, false);
+    }
+    
+    public boolean matches(String text) {
+        return findFirst(text) != null;
+    }
+    
+    public List<String> getKeywords() {
+        return keywords;
+    }
+    
+    public boolean isWholeWords() {
+        return wholeWords;
+    }
+    
+    public boolean isEmpty() {
+        return keywords.isEmpty();
+    }
+    
+    private List<String> scan(String text, boolean firstOnly) {
+        if (text == null || text.isEmpty() || keywords.isEmpty()) {
+            return List.of();
+        }
+        int[] folded = fold(text);
+        Set<Integer> found = null;
+        int state = 0;
+        for (int i = 0; i < folded.length; i++) {
+            int codePoint = folded[i];
+            int next = transitions.get(state, codePoint);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = transitions.get(state, codePoint);
+            }
+            state = Math.max(next, 0);
+            
+            for (int match = output[state] >= 0 ? state : dictionaryLink[state]; match > 0; match = dictionaryLink[match]) {
+                if (wholeWords && !isWholeWord(folded, i - depth[match] + 1, i)) {
+                    continue;
+                }
+                if (found == null) {
+                    found = new LinkedHashSet<>();
+                }
+                found.add(output[match]);
+                if (firstOnly) {
+                    return List.of(keywords.get(output[match]));
+                }
+            }
+        }
+        if (found == null) {
+            return List.of();
+        }
+        List<String> matched = new ArrayList<>(found.size());
+        found.forEach(index -> matched.add(keywords.get(index)));
+        return matched;
+    }
+    
+    /**
+     * Checks that a match is not glued to a letter or digit on a side where the keyword itself
+     * starts or ends with one, the way a regular expression's {@code \b} would.
+     */
+    private static boolean isWholeWord(int[] text, int start, int end) {
+        if (start > 0 && isWordChar(text[start]) && isWordChar(text[start - 1])) {
+            return false;
+        }
+        return end + 1 >= text.length || !isWordChar(text[end]) || !isWordChar(text[end + 1]);
+    }
+    
+    private static boolean isWordChar(int codePoint) {
+        return Character.isLetterOrDigit(codePoint);
+    }
+    
+    /**
+     * Simple case folding of one code point: upper-casing first maps variants such as final
+     * sigma and the Kelvin sign onto the same letter before lower-casing.
+     */
+    private static int fold(int codePoint) {
+        return Character.toLowerCase(Character.toUpperCase(codePoint));
+    }
+    
+    private static int[] fold(String text) {
+        int[] codePoints = new int[text.length()];
+        int count = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            codePoints[count++] = fold(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return count == codePoints.length ? codePoints : Arrays.copyOf(codePoints, count);
+    }
+    
+    /**
+     * Goto function of the automaton, (state, code point) to state, in an open-addressing hash table.
+     */
+    private static final class Transitions {
+        private static final long NO_KEY = -1;
+        
+        private long[] keys = new long[16];
+        private int[] targets = new int[16];
+        private int size;
+        
+        Transitions() {
+            Arrays.fill(keys, NO_KEY);
+        }
+        
+        int get(int state, int codePoint) {
+            long key = key(state, codePoint);
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return targets[slot];
+                }
+                if (keys[slot] == NO_KEY) {
+                    return -1;
+                }
+            }
+        }
+        
+        void put(int state, int codePoint, int target) {
+            if ((size + 1) * 2 > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldTargets = targets;
+                keys = new long[oldKeys.length * 2];
+                targets = new int[oldKeys.length * 2];
+                Arrays.fill(keys, NO_KEY);
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != NO_KEY) {
+                        insert(oldKeys[i], oldTargets[i]);
+                    }
+                }
+            }
+            insert(key(state, codePoint), target);
+            size++;
+        }
+        
+        private void insert(long key, int target) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != NO_KEY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            targets[slot] = target;
+        }
+        
+        private static long key(int state, int codePoint) {
+            // Code points fit in 21 bits
+            return ((long) state << 21) | codePoint;
+        }
+        
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
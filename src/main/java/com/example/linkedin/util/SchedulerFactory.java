@@ -0,0 +1,36 @@
+package com.example.linkedin.util;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors that run delayed work, so components that schedule ahead can be driven
+ * by a {@link SimulatedClock} instead of real time.
+ */
+@FunctionalInterface
+public interface SchedulerFactory {
+    
+    /**
+     * Daemon threads named {@code <name>-N} that wait in real time; pairs with
+     * {@link java.time.Clock#systemUTC()}.
+     */
+    SchedulerFactory SYSTEM = SchedulerFactory::threadPool;
+    
+    /**
+     * @param name Prefix of the thread names, where threads are used
+     * @param threads Number of threads, where threads are used
+     */
+    ScheduledExecutorService newScheduledExecutor(String name, int threads);
+    
+    private static ScheduledExecutorService threadPool(String name, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
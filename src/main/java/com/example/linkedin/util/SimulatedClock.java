@@ -0,0 +1,383 @@
+package com.example.linkedin.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A clock that only moves when told to, for simulating hours of rate limiting, circuit breaker
+ * transitions, backoff and polling in milliseconds.
+ *
+ * Time starts at the given instant and moves forward by {@link #advance(Duration)} or by
+ * {@link #sleep(long)}, which returns at once after moving the clock to the sleeper's wake-up
+ * time. Executors created by {@link #newScheduledExecutor()} keep their tasks on this clock:
+ * advancing it runs every task that falls due on the way, on the advancing thread, in due
+ * order with ties in submission order, and each task sees the clock at its due time. Nothing
+ * runs in the background, so a simulation driven from one thread is deterministic.
+ */
+public final class SimulatedClock extends Clock implements Sleeper, SchedulerFactory {
+    
+    // Guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Task<?>> tasks = new PriorityQueue<>();
+    private long nanos;
+    private long sequence;
+    
+    public SimulatedClock(Instant start) {
+        this.nanos = Math.addExact(Math.multiplyExact(start.getEpochSecond(), 1_000_000_000L), start.getNano());
+    }
+    
+    @Override
+    public Instant instant() {
+        long now = nanos();
+        return Instant.ofEpochSecond(Math.floorDiv(now, 1_000_000_000L), Math.floorMod(now, 1_000_000_000L));
+    }
+    
+    @Override
+    public long millis() {
+        return Math.floorDiv(nanos(), 1_000_000L);
+    }
+    
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+    
+    /**
+     * Returns a view of this clock in another zone; advancing either moves both.
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        SimulatedClock source = this;
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+            
+            @Override
+            public Clock withZone(ZoneId other) {
+                return source.withZone(other);
+            }
+            
+            @Override
+            public Instant instant() {
+                return source.instant();
+            }
+        };
+    }
+    
+    /**
+     * Moves the clock forward, running the tasks that fall due on the way.
+     *
+     * @return number of tasks run
+     */
+    public int advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("A clock cannot move back: " + duration);
+        }
+        long target;
+        lock.lock();
+        try {
+            target = Math.addExact(nanos, duration.toNanos());
+        } finally {
+            lock.unlock();
+        }
+        return runUntil(target);
+    }
+    
+    /**
+     * Moves the clock forward to an instant, if it is not already past it.
+     *
+     * @return number of tasks run
+     */
+    public int advanceTo(Instant instant) {
+        return runUntil(Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano()));
+    }
+    
+    /**
+     * Runs the tasks due now without moving the clock.
+     *
+     * @return number of tasks run
+     */
+    public int runDueTasks() {
+        return advance(Duration.ZERO);
+    }
+    
+    /**
+     * @return When the next scheduled task is due, or null if none is
+     */
+    public Instant nextTaskTime() {
+        lock.lock();
+        try {
+            Task<?> next = tasks.peek();
+            return next == null ? null : Instant.ofEpochSecond(Math.floorDiv(next.due, 1_000_000_000L),
+                    Math.floorMod(next.due, 1_000_000_000L));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Advances the clock by the given time instead of waiting for it.
+     */
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        advance(Duration.ofMillis(Math.max(0, millis)));
+    }
+    
+    /**
+     * Creates an executor whose tasks run when this clock is advanced past their due time.
+     * {@code awaitTermination} does not wait, since no time passes unless the clock is advanced.
+     */
+    public ScheduledExecutorService newScheduledExecutor() {
+        return new ScheduledExecutor();
+    }
+    
+    /**
+     * Same as {@link #newScheduledExecutor()}; there are no threads to name or count.
+     */
+    @Override
+    public ScheduledExecutorService newScheduledExecutor(String name, int threads) {
+        return newScheduledExecutor();
+    }
+    
+    /**
+     * Reads this clock as a nanosecond ticker, for components that measure elapsed time.
+     */
+    public long nanoTime() {
+        return nanos();
+    }
+    
+    private long nanos() {
+        lock.lock();
+        try {
+            return nanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private int runUntil(long target) {
+        int run = 0;
+        while (true) {
+            Task<?> task;
+            lock.lock();
+            try {
+                task = tasks.peek();
+                if (task == null || task.due > target) {
+                    nanos = Math.max(nanos, target);
+                    return run;
+                }
+                tasks.poll();
+                nanos = Math.max(nanos, task.due);
+            } finally {
+                lock.unlock();
+            }
+            task.run();
+            run++;
+        }
+    }
+    
+    private <V> Task<V> enqueue(Task<V> task) {
+        lock.lock();
+        try {
+            if (task.owner.shutdown) {
+                throw new RejectedExecutionException("Executor is shut down");
+            }
+            tasks.add(task);
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private final class ScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+        // Guarded by the clock's lock
+        private boolean shutdown;
+        
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            return enqueue(new Task<Void>(this, command, null, unit.toNanos(delay), 0));
+        }
+        
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            return enqueue(new Task<>(this, null, callable, unit.toNanos(delay), 0));
+        }
+        
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            if (period <= 0) {
+                throw new IllegalArgumentException("Period must be positive: " + period);
+            }
+            return enqueue(new Task<Void>(this, command, null, unit.toNanos(initialDelay), unit.toNanos(period)));
+        }
+        
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            if (delay <= 0) {
+                throw new IllegalArgumentException("Delay must be positive: " + delay);
+            }
+            return enqueue(new Task<Void>(this, command, null, unit.toNanos(initialDelay), -unit.toNanos(delay)));
+        }
+        
+        @Override
+        public void execute(Runnable command) {
+            schedule(command, 0, TimeUnit.NANOSECONDS);
+        }
+        
+        /**
+         * Rejects new tasks; periodic tasks are dropped, delayed ones still run when due.
+         */
+        @Override
+        public void shutdown() {
+            lock.lock();
+            try {
+                shutdown = true;
+                tasks.removeIf(task -> task.owner == this && task.isPeriodic());
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Runnable> pending = new ArrayList<>();
+            lock.lock();
+            try {
+                shutdown = true;
+                tasks.removeIf(task -> task.owner == this && pending.add(task));
+            } finally {
+                lock.unlock();
+            }
+            return pending;
+        }
+        
+        @Override
+        public boolean isShutdown() {
+            lock.lock();
+            try {
+                return shutdown;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        @Override
+        public boolean isTerminated() {
+            lock.lock();
+            try {
+                return shutdown && tasks.stream().noneMatch(task -> task.owner == this);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+    
+    /**
+     * A task due at a simulated time. A positive period repeats it at a fixed rate and a
+     * negative one with a fixed delay after each run.
+     */
+    private final class Task<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+        private final ScheduledExecutor owner;
+        private final long period;
+        private final long order;
+        private long due;
+        
+        Task(ScheduledExecutor owner, Runnable runnable, Callable<V> callable, long delayNanos, long period) {
+            super(callable != null ? callable : () -> {
+                runnable.run();
+                return null;
+            });
+            this.owner = owner;
+            this.period = period;
+            lock.lock();
+            try {
+                this.due = Math.addExact(nanos, Math.max(0, delayNanos));
+                this.order = sequence++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        @Override
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+        
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset()) {
+                lock.lock();
+                try {
+                    due = period > 0 ? due + period : nanos - period;
+                    if (!owner.shutdown) {
+                        tasks.add(this);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                lock.lock();
+                try {
+                    tasks.remove(this);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return cancelled;
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            lock.lock();
+            try {
+                return unit.convert(due - nanos, TimeUnit.NANOSECONDS);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Task) {
+                Task<?> task = (Task<?>) other;
+                int byDue = Long.compare(due, task.due);
+                return byDue != 0 ? byDue : Long.compare(order, task.order);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
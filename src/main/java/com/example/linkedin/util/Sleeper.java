@@ -0,0 +1,16 @@
+package com.example.linkedin.util;
+
+/**
+ * Waits for a while, so components that back off or pace themselves can be driven by a
+ * {@link SimulatedClock} instead of real time.
+ */
+@FunctionalInterface
+public interface Sleeper {
+    
+    /**
+     * Blocks the calling thread; pairs with {@link java.time.Clock#systemUTC()}.
+     */
+    Sleeper SYSTEM = Thread::sleep;
+    
+    void sleep(long millis) throws InterruptedException;
+}
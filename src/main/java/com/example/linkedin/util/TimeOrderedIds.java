@@ -0,0 +1,79 @@
+package com.example.linkedin.util;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDs (version 7, RFC 9562) for interaction and correlation IDs.
+ *
+ * Layout: 48-bit Unix epoch milliseconds, version, a 12-bit sequence that increases within
+ * a millisecond, variant, and 62 random bits. The timestamp and sequence come from a single
+ * atomic counter, so IDs issued by this process are strictly increasing even across
+ * threads. The random bits come from {@link ThreadLocalRandom} rather than SecureRandom,
+ * so generation never blocks. These IDs are identifiers, not secrets; use
+ * {@link UUID#randomUUID()} where unpredictability matters (e.g. OAuth state).
+ *
+ * The canonical string form is fixed-width lowercase hex, so string order equals creation
+ * order. {@link UUID#compareTo(UUID)} compares signed longs and does not preserve it.
+ */
+public final class TimeOrderedIds {
+    
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    /** Milliseconds in the high bits, sequence in the low 12 bits. */
+    private static final AtomicLong state = new AtomicLong();
+    
+    private TimeOrderedIds() {
+    }
+    
+    /**
+     * Returns a new UUIDv7, strictly greater than every ID previously returned.
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long current;
+        long updated;
+        do {
+            current = state.get();
+            // When the sequence overflows within a millisecond the timestamp moves ahead by one
+            updated = Math.max(now, current + 1);
+        } while (!state.compareAndSet(current, updated));
+        
+        long millis = updated >>> SEQUENCE_BITS;
+        long sequence = updated & SEQUENCE_MASK;
+        long mostSignificant = (millis << 16) | 0x7000L | sequence;
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+    
+    /**
+     * Returns a new ID in canonical string form.
+     */
+    public static String nextString() {
+        return next().toString();
+    }
+    
+    /**
+     * Extracts the creation time from a time-ordered ID.
+     * @throws IllegalArgumentException if the value is not a version 7 UUID
+     */
+    public static Instant timestampOf(String id) {
+        UUID uuid = UUID.fromString(id);
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a time-ordered ID: " + id);
+        }
+        return Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16);
+    }
+    
+    /**
+     * Returns the smallest ID string that could be generated at the given instant, for use
+     * as an inclusive lower bound when range-scanning IDs by time.
+     */
+    public static String lowerBound(Instant instant) {
+        long mostSignificant = (instant.toEpochMilli() << 16) | 0x7000L;
+        return new UUID(mostSignificant, 0x8000000000000000L).toString();
+    }
+}
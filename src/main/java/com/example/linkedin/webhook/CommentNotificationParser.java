@@ -0,0 +1,92 @@
+package com.example.linkedin.webhook;
+
+import com.example.linkedin.model.Comment;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the comments out of a LinkedIn social action notification delivery.
+ *
+ * A delivery is an object with a {@code notifications} array, as LinkedIn sends it, or a single
+ * notification or an array of them. Each notification names the post in {@code sourcePost}, the
+ * comment URN {@code urn:li:comment:(<activity>,<comment ID>)} in {@code generatedActivity}, and
+ * carries the comment itself in {@code decoratedGeneratedActivity.comment}. Only {@code COMMENT}
+ * actions are read; likes, shares, edits and deletions are skipped, as are notifications missing
+ * the post or comment. Comment IDs are the trailing part of the URN, as the comments API returns
+ * them, so pushed and polled comments de-duplicate against each other.
+ */
+public class CommentNotificationParser {
+    private static final Logger logger = LoggerFactory.getLogger(CommentNotificationParser.class);
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    /**
+     * @throws IllegalArgumentException if the body is not a JSON notification delivery
+     */
+    public List<Comment> parse(byte[] body) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Notification is not valid JSON: " + e.getMessage(), e);
+        }
+        if (root == null || !(root.isObject() || root.isArray())) {
+            throw new IllegalArgumentException("Notification must be a JSON object or array");
+        }
+        JsonNode notifications = root.isArray() ? root : root.has("notifications") ? root.get("notifications") : null;
+        List<Comment> comments = new ArrayList<>();
+        if (notifications == null) {
+            addComment(root, comments);
+        } else if (notifications.isArray()) {
+            notifications.forEach(notification -> addComment(notification, comments));
+        } else {
+            throw new IllegalArgumentException("Notifications must be an array");
+        }
+        return comments;
+    }
+    
+    private void addComment(JsonNode notification, List<Comment> comments) {
+        if (!"COMMENT".equals(notification.path("action").asText())) {
+            return;
+        }
+        JsonNode decorated = notification.path("decoratedGeneratedActivity").path("comment");
+        String postId = notification.path("sourcePost").asText("");
+        String commentId = commentId(notification.path("generatedActivity").asText(""));
+        if (commentId == null) {
+            commentId = commentId(decorated.path("entity").asText(""));
+        }
+        if (postId.isEmpty() || commentId == null) {
+            logger.debug("Skipping comment notification {} without post or comment", notification.path("notificationId"));
+            return;
+        }
+        
+        String authorId = notification.path("actor").asText(decorated.path("owner").asText(""));
+        String authorName = authorId.isEmpty() ? "Unknown" : "User " + authorId.substring(0, Math.min(8, authorId.length()));
+        Instant timestamp = notification.hasNonNull("lastModifiedAt")
+                ? Instant.ofEpochMilli(notification.get("lastModifiedAt").asLong()) : Instant.now();
+        comments.add(new Comment(commentId, postId, authorId.isEmpty() ? null : authorId, authorName,
+                decorated.path("text").asText(""), timestamp));
+    }
+    
+    /**
+     * Extracts the comment ID from {@code urn:li:comment:(<activity>,<ID>)}, or null if the URN has another form.
+     */
+    static String commentId(String urn) {
+        if (!urn.startsWith("urn:li:comment:(") || !urn.endsWith(")")) {
+            return null;
+        }
+        int comma = urn.lastIndexOf(',');
+        if (comma < 0) {
+            return null;
+        }
+        String id = urn.substring(comma + 1, urn.length() - 1).trim();
+        return id.isEmpty() ? null : id;
+    }
+}
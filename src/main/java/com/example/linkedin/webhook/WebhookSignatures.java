@@ -0,0 +1,74 @@
+package com.example.linkedin.webhook;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * Signatures of LinkedIn webhook deliveries.
+ *
+ * LinkedIn signs every notification with the app's client secret: the {@code X-LI-Signature}
+ * header carries {@code hmacsha256=} followed by the hex HMAC-SHA256 of the raw request body.
+ * When a webhook URL is registered, and periodically afterwards, LinkedIn sends a
+ * {@code challengeCode} that the endpoint must answer with its HMAC-SHA256 under the same secret.
+ */
+public final class WebhookSignatures {
+    
+    public static final String HEADER = "X-LI-Signature";
+    
+    private static final String PREFIX = "hmacsha256=";
+    
+    private WebhookSignatures() {
+    }
+    
+    /**
+     * Returns the {@code X-LI-Signature} header value of a body.
+     */
+    public static String sign(String secret, byte[] body) {
+        return PREFIX + toHex(hmac(secret, body));
+    }
+    
+    /**
+     * Checks a signature header against the body, in constant time. The prefix is optional.
+     *
+     * @return false if the secret is empty or the header missing or wrong
+     */
+    public static boolean verify(String secret, byte[] body, String header) {
+        if (secret == null || secret.isEmpty() || header == null) {
+            return false;
+        }
+        String signature = header.trim();
+        if (signature.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            signature = signature.substring(PREFIX.length());
+        }
+        byte[] expected = toHex(hmac(secret, body)).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    /**
+     * Returns the response to a validation challenge: the hex HMAC-SHA256 of the challenge code.
+     */
+    public static String challengeResponse(String secret, String challengeCode) {
+        return toHex(hmac(secret, challengeCode.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    private static byte[] hmac(String secret, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
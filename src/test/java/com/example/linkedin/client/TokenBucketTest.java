@@ -0,0 +1,61 @@
+package com.example.linkedin.client;
+
+import com.example.linkedin.util.SimulatedClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LinkedInApiClient.TokenBucket.
+ */
+class TokenBucketTest {
+    
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    
+    private final SimulatedClock clock = new SimulatedClock(START);
+    
+    @Test
+    void testFullBucketDoesNotWait() {
+        LinkedInApiClient.TokenBucket bucket = new LinkedInApiClient.TokenBucket(10, 10, clock, clock);
+        
+        for (int i = 0; i < 10; i++) {
+            bucket.acquire();
+        }
+        
+        assertEquals(START, clock.instant());
+    }
+    
+    @Test
+    void testEmptyBucketWaitsForTheRefill() {
+        // One token a second
+        LinkedInApiClient.TokenBucket bucket = new LinkedInApiClient.TokenBucket(10, 10, clock, clock);
+        for (int i = 0; i < 10; i++) {
+            bucket.acquire();
+        }
+        
+        bucket.acquire();
+        assertEquals(START.plus(Duration.ofSeconds(1)), clock.instant());
+        
+        // A minute of 100-requests-a-minute traffic paces out at the refill rate
+        LinkedInApiClient.TokenBucket perMinute = new LinkedInApiClient.TokenBucket(100, 60, clock, clock);
+        Instant started = clock.instant();
+        for (int i = 0; i < 200; i++) {
+            perMinute.acquire();
+        }
+        assertEquals(started.plus(Duration.ofSeconds(100)), clock.instant());
+    }
+    
+    @Test
+    void testRateLimitResponseEmptiesTheBucket() {
+        LinkedInApiClient.TokenBucket bucket = new LinkedInApiClient.TokenBucket(10, 10, clock, clock);
+        clock.advance(Duration.ofMinutes(5));
+        
+        bucket.handleRateLimit();
+        bucket.acquire();
+        
+        assertEquals(START.plus(Duration.ofMinutes(5)).plus(Duration.ofSeconds(1)), clock.instant());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.linkedin.coordination;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileCoordinationStore, with two stores sharing one directory as two instances would.
+ */
+class FileCoordinationStoreTest {
+    
+    private static final Duration TTL = Duration.ofSeconds(30);
+    
+    @TempDir
+    Path directory;
+    
+    private MutableClock clock;
+    private FileCoordinationStore first;
+    private FileCoordinationStore second;
+    
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-15T10:00:00Z"));
+        first = new FileCoordinationStore(directory, clock);
+        second = new FileCoordinationStore(directory, clock);
+    }
+    
+    @Test
+    void testLeaseIsExclusiveUntilItExpires() {
+        Lease lease = first.tryAcquire("post-1", "node-a", TTL);
+        
+        assertNotNull(lease);
+        assertEquals(1, lease.getToken());
+        assertNull(second.tryAcquire("post-1", "node-b", TTL));
+        assertTrue(second.isCurrent(lease));
+        
+        clock.advance(Duration.ofSeconds(31));
+        Lease takenOver = second.tryAcquire("post-1", "node-b", TTL);
+        
+        assertNotNull(takenOver);
+        assertEquals(2, takenOver.getToken());
+        assertFalse(first.isCurrent(lease));
+        assertNull(first.tryAcquire("post-1", "node-a", TTL));
+    }
+    
+    @Test
+    void testRenewalKeepsTokenAndReleaseHandsOver() {
+        Lease lease = first.tryAcquire("post-1", "node-a", TTL);
+        clock.advance(Duration.ofSeconds(20));
+        Lease renewed = first.tryAcquire("post-1", "node-a", TTL);
+        
+        assertEquals(lease.getToken(), renewed.getToken());
+        assertEquals(clock.instant().plus(TTL), renewed.getExpiresAt());
+        
+        first.release(renewed);
+        Lease next = second.tryAcquire("post-1", "node-b", TTL);
+        
+        assertEquals(2, next.getToken());
+        assertEquals(1, second.leases().size());
+        assertEquals("node-b", second.leases().get(0).getOwner());
+    }
+    
+    @Test
+    void testLiveNodesExpireWithoutHeartbeat() {
+        first.heartbeat("node-b", TTL);
+        second.heartbeat("node-a", Duration.ofSeconds(10));
+        
+        assertEquals(List.of("node-a", "node-b"), first.liveNodes());
+        
+        clock.advance(Duration.ofSeconds(15));
+        assertEquals(List.of("node-b"), second.liveNodes());
+        
+        first.leave("node-b");
+        assertTrue(second.liveNodes().isEmpty());
+    }
+    
+    @Test
+    void testProcessedCommentsAreSharedBetweenInstances() {
+        assertFalse(second.isProcessed("urn:li:share:1", "comment-1"));
+        
+        first.markProcessed("urn:li:share:1", "comment-1");
+        second.markProcessed("urn:li:share:1", "comment-2");
+        
+        assertTrue(second.isProcessed("urn:li:share:1", "comment-1"));
+        assertTrue(first.isProcessed("urn:li:share:1", "comment-2"));
+        assertFalse(first.isProcessed("urn:li:share:2", "comment-1"));
+        assertTrue(new FileCoordinationStore(directory, clock).isProcessed("urn:li:share:1", "comment-2"));
+    }
+    
+    /**
+     * A clock tests can move forward.
+     */
+    static final class MutableClock extends Clock {
+        private volatile Instant now;
+        
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
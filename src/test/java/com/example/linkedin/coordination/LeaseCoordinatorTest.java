@@ -0,0 +1,134 @@
+package com.example.linkedin.coordination;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LeaseCoordinator.
+ */
+class LeaseCoordinatorTest {
+    
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final List<String> POSTS = IntStream.range(0, 40)
+            .mapToObj(i -> "post-" + i).collect(Collectors.toList());
+    
+    @TempDir
+    Path directory;
+    
+    private FileCoordinationStoreTest.MutableClock clock;
+    
+    @BeforeEach
+    void setUp() {
+        clock = new FileCoordinationStoreTest.MutableClock(Instant.parse("2024-01-15T10:00:00Z"));
+    }
+    
+    @Test
+    void testPostsAreSplitBetweenNodesWithoutOverlap() {
+        LeaseCoordinator a = coordinator("node-a");
+        LeaseCoordinator b = coordinator("node-b");
+        
+        // Each node must see the other before the split settles
+        a.rebalance(POSTS);
+        b.rebalance(POSTS);
+        a.rebalance(POSTS);
+        b.rebalance(POSTS);
+        
+        List<String> ownedByA = owned(a);
+        List<String> ownedByB = owned(b);
+        assertEquals(POSTS.size(), ownedByA.size() + ownedByB.size());
+        assertTrue(ownedByA.stream().noneMatch(ownedByB::contains));
+        assertTrue(ownedByA.size() > 5 && ownedByB.size() > 5, "posts should spread over both nodes");
+    }
+    
+    @Test
+    void testJoiningNodeTakesOverOnlyItsShare() {
+        LeaseCoordinator a = coordinator("node-a");
+        a.rebalance(POSTS);
+        assertEquals(POSTS.size(), owned(a).size());
+        
+        LeaseCoordinator b = coordinator("node-b");
+        b.rebalance(POSTS);
+        assertTrue(owned(b).isEmpty(), "leases are still held by node-a");
+        a.rebalance(POSTS);
+        b.rebalance(POSTS);
+        
+        for (String post : POSTS) {
+            String expected = LeaseCoordinator.assign(post, List.of("node-a", "node-b"));
+            assertEquals(expected.equals("node-b"), b.owns(post), post);
+            assertEquals(expected.equals("node-a"), a.owns(post), post);
+        }
+    }
+    
+    @Test
+    void testPostsMoveWhenNodeLeavesOrDies() {
+        LeaseCoordinator a = coordinator("node-a");
+        LeaseCoordinator b = coordinator("node-b");
+        LeaseCoordinator c = coordinator("node-c");
+        for (int round = 0; round < 2; round++) {
+            a.rebalance(POSTS);
+            b.rebalance(POSTS);
+            c.rebalance(POSTS);
+        }
+        
+        // node-b shuts down cleanly and hands over at once
+        b.close();
+        a.rebalance(POSTS);
+        c.rebalance(POSTS);
+        assertEquals(POSTS.size(), owned(a).size() + owned(c).size());
+        
+        // node-c dies; its posts move once its heartbeat and leases expire
+        clock.advance(TTL.plusSeconds(1));
+        a.rebalance(POSTS);
+        assertEquals(POSTS.size(), owned(a).size());
+    }
+    
+    @Test
+    void testFenceFailsAfterLeaseIsTakenOver() {
+        LeaseCoordinator a = coordinator("node-a");
+        a.rebalance(List.of("post-1"));
+        Lease lease = a.fence("post-1");
+        assertNotNull(lease);
+        
+        // node-a stalls past its TTL while node-b takes the post over
+        clock.advance(TTL.plusSeconds(1));
+        LeaseCoordinator b = coordinator("node-b");
+        b.rebalance(List.of("post-1"));
+        
+        assertTrue(b.owns("post-1"));
+        assertTrue(b.fence("post-1").getToken() > lease.getToken());
+        assertNull(a.fence("post-1"));
+        assertFalse(a.owns("post-1"));
+    }
+    
+    @Test
+    void testAssignmentIsStable() {
+        List<String> nodes = List.of("node-a", "node-b", "node-c");
+        for (String post : POSTS) {
+            String owner = LeaseCoordinator.assign(post, nodes);
+            assertEquals(owner, LeaseCoordinator.assign(post, List.of("node-c", "node-a", "node-b")));
+            // Removing another node never moves the post
+            List<String> remaining = new ArrayList<>(nodes);
+            remaining.remove(owner.equals("node-a") ? "node-b" : "node-a");
+            assertEquals(owner, LeaseCoordinator.assign(post, remaining));
+        }
+    }
+    
+    private LeaseCoordinator coordinator(String node) {
+        return new LeaseCoordinator(new FileCoordinationStore(directory, clock), node, TTL, clock);
+    }
+    
+    private static List<String> owned(LeaseCoordinator coordinator) {
+        return POSTS.stream().filter(coordinator::owns).collect(Collectors.toList());
+    }
+}
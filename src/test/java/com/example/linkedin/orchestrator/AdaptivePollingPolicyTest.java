@@ -0,0 +1,123 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.WorkflowConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptivePollingPolicy.
+ */
+class AdaptivePollingPolicyTest {
+    
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    
+    @Test
+    void testDisabledPolicyUsesConfiguredInterval() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(false, 30, 1800, 0.3, 5, 1);
+        WatchedPost post = watched("post-1", 300, policy);
+        
+        assertEquals(300, policy.nextIntervalSeconds(post, 0, START, List.of(post)));
+        assertEquals(300, policy.nextIntervalSeconds(post, 50, START, List.of(post)));
+        assertTrue(policy.tryAcquirePoll(0));
+        assertTrue(policy.tryAcquirePoll(0));
+    }
+    
+    @Test
+    void testIdlePostBacksOffExponentiallyToMaximum() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(true, 30, 1800, 0.3, 5, 0);
+        WatchedPost post = watched("post-1", 300, policy);
+        
+        List<Long> intervals = new ArrayList<>();
+        Instant polledAt = START;
+        for (int i = 0; i < 4; i++) {
+            long interval = policy.nextIntervalSeconds(post, 0, polledAt, List.of(post));
+            post.completePoll(polledAt, null, interval, interval * 1000);
+            intervals.add(interval);
+            polledAt = polledAt.plusSeconds(interval);
+        }
+        
+        assertEquals(List.of(600L, 1200L, 1800L, 1800L), intervals);
+    }
+    
+    @Test
+    void testBusyPostShrinksTowardMinimum() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(true, 30, 1800, 0.3, 5, 0);
+        WatchedPost post = watched("post-1", 300, policy);
+        
+        // 50 new comments in 300 s is one every 6 s, so 5 per poll needs a 30 s interval
+        long interval = policy.nextIntervalSeconds(post, 50, START, List.of(post));
+        assertEquals(30, interval);
+        post.completePoll(START, null, interval, interval * 1000);
+        
+        // A quieter poll moves the interval back up, smoothed by the moving average
+        interval = policy.nextIntervalSeconds(post, 1, START.plusSeconds(30), List.of(post));
+        assertEquals(39, interval);
+        assertEquals(7.6, post.getCommentsPerMinute(), 0.01);
+    }
+    
+    @Test
+    void testFailedPollKeepsInterval() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(true, 30, 1800, 0.3, 5, 0);
+        WatchedPost post = watched("post-1", 120, policy);
+        
+        assertEquals(120, policy.nextIntervalSeconds(post, -1, START, List.of(post)));
+        assertEquals(0.0, post.getCommentsPerMinute());
+    }
+    
+    @Test
+    void testRateCountsTheTimeSinceThePreviousPoll() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(true, 30, 1800, 0.3, 5, 0);
+        WatchedPost post = watched("post-1", 60, policy);
+        post.completePoll(START, null, 60, 60_000);
+        
+        // Polled ten minutes late, e.g. held back by the budget: 10 comments in 600 s, not in 60 s
+        assertEquals(300, policy.nextIntervalSeconds(post, 10, START.plusSeconds(600), List.of(post)));
+        assertEquals(1.0, post.getCommentsPerMinute(), 0.001);
+    }
+    
+    @Test
+    void testIntervalsStretchToFitBudget() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(true, 30, 1800, 0.3, 5, 4);
+        WatchedPost busy = watched("post-1", 30, policy);
+        WatchedPost other = watched("post-2", 30, policy);
+        List<WatchedPost> watched = List.of(busy, other);
+        
+        // Two posts at 30 s use the whole budget of 4 polls a minute
+        assertEquals(30, policy.nextIntervalSeconds(busy, 500, START, watched));
+        
+        // A third post at 30 s would make it 6, so its interval is stretched by 6/4
+        WatchedPost third = watched("post-3", 30, policy);
+        assertEquals(45, policy.nextIntervalSeconds(third, 500, START, List.of(busy, other, third)));
+    }
+    
+    @Test
+    void testBudgetIsEnforcedPerMinute() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(true, 30, 1800, 0.3, 5, 2);
+        
+        assertTrue(policy.tryAcquirePoll(0));
+        assertTrue(policy.tryAcquirePoll(1_000));
+        assertFalse(policy.tryAcquirePoll(59_999));
+        assertTrue(policy.tryAcquirePoll(60_000));
+    }
+    
+    @Test
+    void testInitialIntervalIsClamped() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(true, 30, 1800, 0.3, 5, 0);
+        
+        assertEquals(30, policy.initialIntervalSeconds(5));
+        assertEquals(1800, policy.initialIntervalSeconds(86_400));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePollingPolicy(true, 60, 30, 0.3, 5, 0));
+    }
+    
+    private static WatchedPost watched(String postId, int intervalSeconds, AdaptivePollingPolicy policy) {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId(postId);
+        config.setPollingIntervalSeconds(intervalSeconds);
+        return new WatchedPost(config, START, policy.initialIntervalSeconds(intervalSeconds));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.GeneratedResponse;
+import com.example.linkedin.model.PendingApproval;
+import com.example.linkedin.model.Post;
+import com.example.linkedin.model.WorkflowConfig;
+import com.example.linkedin.repository.InMemoryStorageRepository;
+import com.example.linkedin.util.SimulatedClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ApprovalQueue.
+ */
+class ApprovalQueueTest {
+    
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    
+    private final SimulatedClock clock = new SimulatedClock(START);
+    private InMemoryStorageRepository storage;
+    private ApprovalQueue queue;
+    
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorageRepository();
+        queue = new ApprovalQueue(storage, clock);
+    }
+    
+    @Test
+    void testItemsAreIndexedByIdPostAndComment() {
+        assertTrue(queue.add(approval("a-1", "post-1", "comment-1")));
+        assertTrue(queue.add(approval("a-2", "post-2", "comment-2")));
+        assertTrue(queue.add(approval("a-3", "post-1", "comment-3")));
+        
+        assertEquals("comment-2", queue.get("a-2").getComment().getId());
+        assertNull(queue.get("missing"));
+        assertEquals(List.of("a-1", "a-3"), ids(queue.list("post-1")));
+        assertEquals(List.of("a-1", "a-2", "a-3"), ids(queue.list(null)));
+        assertTrue(queue.list("post-3").isEmpty());
+        assertTrue(queue.containsComment("post-2", "comment-2"));
+        assertFalse(queue.containsComment("post-1", "comment-2"));
+    }
+    
+    @Test
+    void testSameCommentIsQueuedOnce() {
+        assertTrue(queue.add(approval("a-1", "post-1", "comment-1")));
+        assertFalse(queue.add(approval("a-2", "post-1", "comment-1")));
+        
+        assertEquals(1, queue.size());
+    }
+    
+    @Test
+    void testApprovedItemsCannotBeDecidedAgain() {
+        queue.add(approval("a-1", "post-1", "comment-1"));
+        queue.add(approval("a-2", "post-1", "comment-2"));
+        
+        clock.advance(Duration.ofMinutes(5));
+        PendingApproval approved = queue.markApproved("a-1");
+        assertEquals(PendingApproval.State.APPROVED, approved.getState());
+        assertEquals(START.plus(Duration.ofMinutes(5)), approved.getDecidedAt());
+        assertNull(queue.markApproved("a-1"));
+        assertNull(queue.removePending("a-1"));
+        
+        // The oldest item still awaiting a decision skips approved ones
+        assertEquals("a-2", queue.oldestPending().getId());
+        
+        queue.remove("a-1");
+        assertEquals(List.of("a-2"), ids(queue.list("post-1")));
+        assertFalse(queue.containsComment("post-1", "comment-1"));
+    }
+    
+    @Test
+    void testQueueIsRestoredFromStorage() {
+        queue.add(approval("a-1", "post-1", "comment-1"));
+        queue.add(approval("a-2", "post-2", "comment-2"));
+        queue.markApproved("a-2");
+        queue.removePending("a-1");
+        
+        ApprovalQueue restored = new ApprovalQueue(storage);
+        
+        assertEquals(1, restored.size());
+        assertEquals(PendingApproval.State.APPROVED, restored.get("a-2").getState());
+        assertTrue(restored.containsComment("post-2", "comment-2"));
+        assertNull(restored.oldestPending());
+    }
+    
+    private static PendingApproval approval(String id, String postId, String commentId) {
+        Post post = new Post();
+        post.setId(postId);
+        post.setContent("Post " + postId);
+        
+        Comment comment = new Comment();
+        comment.setId(commentId);
+        comment.setPostId(postId);
+        comment.setAuthorName("User");
+        comment.setText("Comment " + commentId);
+        comment.setTimestamp(Instant.now());
+        
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId(postId);
+        return new PendingApproval(id, post, comment, response, config, Instant.now());
+    }
+    
+    private static List<String> ids(List<PendingApproval> approvals) {
+        return approvals.stream().map(PendingApproval::getId).collect(Collectors.toList());
+    }
+}
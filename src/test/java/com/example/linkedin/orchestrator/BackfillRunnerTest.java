@@ -0,0 +1,243 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.BackfillJob;
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.WorkflowConfig;
+import com.example.linkedin.repository.InMemoryStorageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BackfillRunner.
+ */
+class BackfillRunnerTest {
+    
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    
+    private final InMemoryStorageRepository storage = new InMemoryStorageRepository();
+    private final Map<String, List<Comment>> history = new ConcurrentHashMap<>();
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+    private volatile Predicate<Comment> fails = comment -> false;
+    private volatile CountDownLatch batchGate;
+    private BackfillRunner runner;
+    
+    @AfterEach
+    void tearDown() {
+        if (runner != null) {
+            runner.close();
+        }
+    }
+    
+    @Test
+    void testJobProcessesEveryPostInBatchesAndRecordsProgress() throws Exception {
+        history.put("post-1", comments("post-1", 5));
+        history.put("post-2", comments("post-2", 2));
+        fails = comment -> comment.getId().equals("post-1-c3");
+        runner = new BackfillRunner(storage, new RecordingSteps(), 2, 2, 0);
+        
+        BackfillJob job = runner.submit(job("job-1", List.of("post-1", "post-2"), 0));
+        awaitFinished(job);
+        
+        assertEquals(BackfillJob.State.COMPLETED, job.getState());
+        assertEquals(6, job.getProcessedComments());
+        assertEquals(1, job.getFailedComments());
+        assertEquals(0, job.getRemainingComments());
+        assertEquals(List.of("post-1", "post-2"), job.getCompletedPostIds());
+        assertNotNull(job.getFinishedAt());
+        assertEquals(4, batches.size());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 2));
+        assertEquals(BackfillJob.State.COMPLETED, storage.getBackfillJobs().get(0).getState());
+    }
+    
+    @Test
+    void testMaxCommentsLimitsTheJobToTheOldestComments() throws Exception {
+        history.put("post-1", comments("post-1", 5));
+        history.put("post-2", comments("post-2", 5));
+        runner = new BackfillRunner(storage, new RecordingSteps(), 1, 2, 0);
+        
+        BackfillJob job = runner.submit(job("job-1", List.of("post-1", "post-2"), 3));
+        awaitFinished(job);
+        
+        assertEquals(3, job.getProcessedComments());
+        assertEquals(List.of(List.of("post-1-c0", "post-1-c1"), List.of("post-1-c2")), batches);
+    }
+    
+    @Test
+    void testRunningBackfillCoversCommentsUpToTheNewestFetched() throws Exception {
+        history.put("post-1", comments("post-1", 2));
+        batchGate = new CountDownLatch(1);
+        runner = new BackfillRunner(storage, new RecordingSteps(), 1, 10, 0);
+        
+        BackfillJob job = runner.submit(job("job-1", List.of("post-1"), 0));
+        waitUntil(() -> !batches.isEmpty());
+        
+        assertTrue(runner.covers(history.get("post-1").get(1)));
+        assertFalse(runner.covers(new Comment("later", "post-1", "u", "n", "hi", START.plusSeconds(60))));
+        assertFalse(runner.covers(new Comment("other", "post-2", "u", "n", "hi", START)));
+        
+        batchGate.countDown();
+        awaitFinished(job);
+        assertFalse(runner.covers(history.get("post-1").get(1)));
+    }
+    
+    @Test
+    void testCancelledJobStartsNoFurtherBatches() throws Exception {
+        history.put("post-1", comments("post-1", 6));
+        batchGate = new CountDownLatch(1);
+        runner = new BackfillRunner(storage, new RecordingSteps(), 1, 2, 0);
+        
+        BackfillJob job = runner.submit(job("job-1", List.of("post-1"), 0));
+        waitUntil(() -> !batches.isEmpty());
+        
+        assertSame(job, runner.cancel("job-1"));
+        batchGate.countDown();
+        Thread.sleep(200);
+        
+        assertEquals(BackfillJob.State.CANCELLED, job.getState());
+        assertEquals(1, batches.size());
+        assertNull(runner.cancel("job-1"));
+        assertNull(runner.cancel("unknown"));
+    }
+    
+    @Test
+    void testDrainedJobFinishesRunningBatchesAndResumesOnNextStart() throws Exception {
+        history.put("post-1", comments("post-1", 6));
+        batchGate = new CountDownLatch(1);
+        runner = new BackfillRunner(storage, new RecordingSteps(), 1, 2, 0);
+        
+        BackfillJob job = runner.submit(job("job-1", List.of("post-1"), 0));
+        waitUntil(() -> !batches.isEmpty());
+        runner.drain();
+        batchGate.countDown();
+        waitUntil(() -> job.getProcessedComments() == 2);
+        Thread.sleep(200);
+        
+        assertEquals(1, batches.size());
+        assertEquals(BackfillJob.State.RUNNING, job.getState());
+        assertTrue(job.getCompletedPostIds().isEmpty());
+        
+        runner.close();
+        batches.clear();
+        history.put("post-1", comments("post-1", 6).subList(2, 6));
+        runner = new BackfillRunner(storage, new RecordingSteps(), 1, 2, 0);
+        BackfillJob resumed = runner.get("job-1");
+        awaitFinished(resumed);
+        
+        assertEquals(BackfillJob.State.COMPLETED, resumed.getState());
+        assertEquals(List.of(List.of("post-1-c2", "post-1-c3"), List.of("post-1-c4", "post-1-c5")), batches);
+        assertEquals(6, resumed.getProcessedComments());
+    }
+    
+    @Test
+    void testUnfinishedJobsResumeOnStartSkippingCompletedPosts() throws Exception {
+        history.put("post-1", comments("post-1", 2));
+        history.put("post-2", comments("post-2", 2));
+        BackfillJob interrupted = job("job-1", List.of("post-1", "post-2"), 0);
+        interrupted.setState(BackfillJob.State.RUNNING);
+        interrupted.getCompletedPostIds().add("post-1");
+        interrupted.setProcessedComments(2);
+        storage.saveBackfillJob(interrupted);
+        BackfillJob finished = job("job-0", List.of("post-1"), 0);
+        finished.setState(BackfillJob.State.COMPLETED);
+        storage.saveBackfillJob(finished);
+        
+        runner = new BackfillRunner(storage, new RecordingSteps(), 1, 10, 0);
+        BackfillJob job = runner.get("job-1");
+        awaitFinished(job);
+        
+        assertEquals(BackfillJob.State.COMPLETED, job.getState());
+        assertEquals(List.of(List.of("post-2-c0", "post-2-c1")), batches);
+        assertEquals(4, job.getProcessedComments());
+        assertEquals(2, runner.list().size());
+    }
+    
+    @Test
+    void testBudgetPacesBatches() throws Exception {
+        history.put("post-1", comments("post-1", 4));
+        // 600 comments per minute: a batch of 2 takes 200 ms of budget
+        runner = new BackfillRunner(storage, new RecordingSteps(), 4, 2, 600);
+        
+        long startNanos = System.nanoTime();
+        BackfillJob job = runner.submit(job("job-1", List.of("post-1"), 0));
+        awaitFinished(job);
+        
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) >= 180);
+        assertEquals(4, job.getProcessedComments());
+    }
+    
+    @Test
+    void testFailingPostFailsTheJob() throws Exception {
+        runner = new BackfillRunner(storage, new RecordingSteps(), 1, 2, 0);
+        
+        BackfillJob job = runner.submit(job("job-1", List.of("missing"), 0));
+        awaitFinished(job);
+        
+        assertEquals(BackfillJob.State.FAILED, job.getState());
+        assertEquals("No such post: missing", job.getError());
+    }
+    
+    private class RecordingSteps implements BackfillRunner.Steps {
+        @Override
+        public List<Comment> pendingComments(String postId) {
+            List<Comment> comments = history.get(postId);
+            if (comments == null) {
+                throw new IllegalStateException("No such post: " + postId);
+            }
+            return comments;
+        }
+        
+        @Override
+        public int processBatch(BackfillJob job, String postId, List<Comment> batch) {
+            List<String> ids = new ArrayList<>();
+            batch.forEach(comment -> ids.add(comment.getId()));
+            batches.add(ids);
+            CountDownLatch gate = batchGate;
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return (int) batch.stream().filter(fails.negate()).count();
+        }
+    }
+    
+    private static List<Comment> comments(String postId, int count) {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            comments.add(new Comment(postId + "-c" + i, postId, "urn:li:person:" + i, "User " + i, "Comment " + i,
+                    START.plusSeconds(i)));
+        }
+        return comments;
+    }
+    
+    private static BackfillJob job(String id, List<String> postIds, int maxComments) {
+        return new BackfillJob(id, postIds, new WorkflowConfig(), null, maxComments, Instant.now());
+    }
+    
+    private static void awaitFinished(BackfillJob job) throws InterruptedException {
+        waitUntil(job::hasFinished);
+    }
+    
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CommentPrioritizer.
+ */
+class CommentPrioritizerTest {
+    
+    private static final Instant EPOCH = Instant.parse("2024-01-15T10:00:00Z");
+    
+    private final CommentPrioritizer prioritizer = new CommentPrioritizer(true, 10, 2, 3600, 1, 100, 1,
+            Map.of("urn:li:person:vip", 4.0, "Known Name", 3.0), EPOCH);
+    
+    @Test
+    void testScoreAddsKeywordRecencyLengthAndAuthor() {
+        Comment comment = comment("urn:li:person:1", "Ann", "x".repeat(50), EPOCH);
+        
+        assertEquals(2.5, prioritizer.score(comment, false, EPOCH), 1e-9);
+        assertEquals(12.5, prioritizer.score(comment, true, EPOCH), 1e-9);
+        // Half of the recency window has passed
+        assertEquals(1.5, prioritizer.score(comment, false, EPOCH.plusSeconds(1800)), 1e-9);
+        assertEquals(0.5, prioritizer.score(comment, false, EPOCH.plusSeconds(7200)), 1e-9);
+        
+        Comment longComment = comment("urn:li:person:1", "Ann", "x".repeat(500), EPOCH);
+        assertEquals(3.0, prioritizer.score(longComment, false, EPOCH), 1e-9);
+    }
+    
+    @Test
+    void testAuthorWeightMatchesIdBeforeName() {
+        assertEquals(4.0, prioritizer.score(comment("urn:li:person:vip", "Known Name", "", null), false, EPOCH), 1e-9);
+        assertEquals(3.0, prioritizer.score(comment("urn:li:person:2", "Known Name", "", null), false, EPOCH), 1e-9);
+        assertEquals(0.0, prioritizer.score(comment(null, "Someone", null, null), false, EPOCH), 1e-9);
+    }
+    
+    @Test
+    void testAgingLetsLongWaitingCommentsOvertakeUrgentOnes() {
+        Comment plain = comment("urn:li:person:1", "Ann", "Nice", null);
+        Comment urgent = comment("urn:li:person:2", "Ben", "Refund?", null);
+        
+        double plainQueuedEarly = prioritizer.rank(plain, false, EPOCH);
+        assertTrue(prioritizer.rank(urgent, true, EPOCH.plusSeconds(5 * 60)) > plainQueuedEarly);
+        assertTrue(prioritizer.rank(urgent, true, EPOCH.plusSeconds(11 * 60)) < plainQueuedEarly);
+    }
+    
+    @Test
+    void testPlainCommentIsNotStarvedByUrgentStream() {
+        // One urgent comment arrives and one comment is served per minute, behind a single plain one
+        List<double[]> queue = new ArrayList<>();
+        queue.add(new double[] {prioritizer.rank(comment(null, "Plain", "Nice", null), false, EPOCH), -1});
+        int plainServedAt = -1;
+        int maxUrgentWait = 0;
+        for (int minute = 0; minute < 30; minute++) {
+            Instant now = EPOCH.plusSeconds(minute * 60L);
+            queue.add(new double[] {prioritizer.rank(comment(null, "Urgent", "Refund?", null), true, now), minute});
+            queue.sort(Comparator.comparingDouble((double[] entry) -> entry[0]).reversed());
+            double[] served = queue.remove(0);
+            if (served[1] < 0) {
+                plainServedAt = minute;
+            } else {
+                maxUrgentWait = Math.max(maxUrgentWait, minute - (int) served[1]);
+            }
+        }
+        
+        // The plain comment overtakes once it has waited about keywordWeight / agingPerMinute minutes
+        assertEquals(11, plainServedAt);
+        assertEquals(1, maxUrgentWait);
+    }
+    
+    @Test
+    void testParseWeights() {
+        assertEquals(Map.of("urn:li:person:a", 2.0, "Jane Doe", 1.5),
+                CommentPrioritizer.parseWeights("urn:li:person:a=2, Jane Doe=1.5,"));
+        assertTrue(CommentPrioritizer.parseWeights("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> CommentPrioritizer.parseWeights("nobody"));
+        assertThrows(IllegalArgumentException.class, () -> CommentPrioritizer.parseWeights("a=lots"));
+    }
+    
+    private static Comment comment(String authorId, String authorName, String text, Instant timestamp) {
+        return new Comment("comment", "post-1", authorId, authorName, text, timestamp);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.WorkflowConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CommentWorkQueue.
+ */
+class CommentWorkQueueTest {
+    
+    @TempDir
+    Path directory;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final WorkflowConfig config = new WorkflowConfig("post-1", 60, true, "witty", 3, 2);
+    private CommentWorkQueue queue;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        queue = open();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        queue.close();
+    }
+    
+    @Test
+    void testCommentsAreReadInOrderWithTheirConfiguration() throws IOException {
+        queue.append(comments(0, 3), config);
+        
+        List<CommentWorkQueue.Item> items = queue.read(10);
+        
+        assertEquals(List.of("c-0", "c-1", "c-2"), ids(items));
+        assertEquals("post-1", items.get(0).getComment().getPostId());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), items.get(0).getComment().getTimestamp());
+        assertTrue(items.get(0).getConfig().isRequireManualApproval());
+        assertTrue(queue.read(10).isEmpty());
+        assertEquals(3, queue.size());
+    }
+    
+    @Test
+    void testReadsAreBoundedAndContinueWhereTheLastStopped() throws IOException {
+        queue.append(comments(0, 5), config);
+        
+        assertEquals(List.of("c-0", "c-1"), ids(queue.read(2)));
+        assertEquals(List.of("c-2", "c-3"), ids(queue.read(2)));
+        assertEquals(List.of("c-4"), ids(queue.read(2)));
+    }
+    
+    @Test
+    void testRestartResumesAfterTheLastContiguousAcknowledgement() throws IOException {
+        queue.append(comments(0, 4), config);
+        List<CommentWorkQueue.Item> items = queue.read(4);
+        queue.acknowledge(items.get(0));
+        queue.acknowledge(items.get(2));
+        assertEquals(2, queue.size());
+        
+        queue.close();
+        queue = open();
+        
+        // c-2 was acknowledged out of order, so it is read again
+        assertEquals(List.of("c-1", "c-2", "c-3"), ids(queue.read(10)));
+        assertEquals(1, queue.getStats().getConsumerOffset());
+    }
+    
+    @Test
+    void testRewindRereadsUnacknowledgedComments() throws IOException {
+        queue.append(comments(0, 3), config);
+        List<CommentWorkQueue.Item> items = queue.read(3);
+        queue.acknowledge(items.get(0));
+        
+        queue.rewind();
+        
+        assertEquals(List.of("c-1", "c-2"), ids(queue.read(10)));
+    }
+    
+    @Test
+    void testBurstSpillsIntoSegmentsThatAreDeletedOnceAcknowledged() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            queue.append(comments(i * 20, 20), config);
+        }
+        int segments = queue.getStats().getSegments();
+        assertTrue(segments > 1, "expected several segments, got " + segments);
+        assertEquals(segments, segmentFiles().size());
+        
+        List<String> read = new ArrayList<>();
+        List<CommentWorkQueue.Item> batch;
+        while (!(batch = queue.read(25)).isEmpty()) {
+            read.addAll(ids(batch));
+            batch.forEach(queue::acknowledge);
+        }
+        
+        assertEquals(200, read.size());
+        assertEquals("c-199", read.get(199));
+        assertEquals(0, queue.size());
+        assertEquals(1, segmentFiles().size());
+        
+        queue.close();
+        queue = open();
+        assertEquals(0, queue.size());
+        queue.append(comments(200, 1), config);
+        assertEquals(List.of("c-200"), ids(queue.read(10)));
+        assertEquals(200, queue.getStats().getConsumerOffset());
+    }
+    
+    @Test
+    void testTornRecordIsDiscardedOnReopen() throws IOException {
+        queue.append(comments(0, 2), config);
+        queue.close();
+        
+        // Corrupt the payload of the second record, as if the crash hit while it was written
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int second = 8 + buffer.getInt(0);
+            buffer.put(second + 8, (byte) (buffer.get(second + 8) ^ 0xff));
+            buffer.force();
+        }
+        
+        queue = open();
+        assertEquals(List.of("c-0"), ids(queue.read(10)));
+        queue.append(comments(2, 1), config);
+        assertEquals(List.of("c-2"), ids(queue.read(10)));
+    }
+    
+    @Test
+    void testCommentLargerThanASegmentIsRejected() {
+        List<Comment> huge = List.of(new Comment("c-big", "post-1", "author", "Author", "x".repeat(8192),
+                Instant.parse("2024-01-01T00:00:00Z")));
+        
+        assertThrows(IllegalArgumentException.class, () -> queue.append(huge, config));
+        assertEquals(0, queue.size());
+    }
+    
+    private CommentWorkQueue open() throws IOException {
+        return new CommentWorkQueue(directory, 4096, objectMapper);
+    }
+    
+    private static List<Comment> comments(int from, int count) {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            comments.add(new Comment("c-" + i, "post-1", "author-" + i, "Author " + i, "Comment number " + i,
+                    Instant.parse("2024-01-01T00:00:00Z").plusSeconds(i)));
+        }
+        return comments;
+    }
+    
+    private static List<String> ids(List<CommentWorkQueue.Item> items) {
+        return items.stream().map(item -> item.getComment().getId()).collect(Collectors.toList());
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+}
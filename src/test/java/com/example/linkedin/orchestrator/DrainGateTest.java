@@ -0,0 +1,62 @@
+package com.example.linkedin.orchestrator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DrainGate.
+ */
+class DrainGateTest {
+    
+    private final DrainGate gate = new DrainGate();
+    
+    @Test
+    void testDrainingAdmitsNoNewWorkButLetsAdmittedWorkFinish() throws Exception {
+        assertTrue(gate.tryEnter());
+        assertTrue(gate.tryEnter());
+        
+        gate.beginDrain();
+        
+        assertTrue(gate.isDraining());
+        assertFalse(gate.tryEnter());
+        assertEquals(2, gate.getActive());
+        CompletableFuture<Boolean> idle = CompletableFuture.supplyAsync(() -> {
+            try {
+                return gate.awaitIdle(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        gate.exit();
+        Thread.sleep(100);
+        assertFalse(idle.isDone());
+        gate.exit();
+        assertTrue(idle.get(5, TimeUnit.SECONDS));
+        assertFalse(gate.isAbandoned());
+    }
+    
+    @Test
+    void testAwaitIdleGivesUpAtTheDeadline() throws Exception {
+        assertTrue(gate.tryEnter());
+        gate.beginDrain();
+        
+        long startNanos = System.nanoTime();
+        assertFalse(gate.awaitIdle(Duration.ofMillis(100)));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) >= 90);
+        
+        gate.abandon();
+        assertTrue(gate.isAbandoned());
+        assertEquals(1, gate.getActive());
+    }
+    
+    @Test
+    void testIdleGateDrainsAtOnce() throws Exception {
+        assertTrue(gate.awaitIdle(Duration.ZERO));
+        assertThrows(IllegalStateException.class, gate::exit);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.linkedin.orchestrator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Replays a recorded comment stream through the orchestrator with stubbed LinkedIn and LLM
+ * latencies and prints throughput and per-stage latency percentiles, once with the worker pool
+ * (the baseline) and once with the staged pipeline.
+ *
+ * Run with: mvn test -Dtest=PipelineReplayBenchmark -Dbenchmark=true
+ * Replay a recording with -Dbenchmark.replay.file=recording.json (see {@link ReplayRecording}),
+ * otherwise a synthetic one is generated from -Dbenchmark.replay.posts=20
+ * -Dbenchmark.replay.comments=2000 -Dbenchmark.replay.span-seconds=600.
+ * Tune with -Dbenchmark.replay.speed=max (original, max or a factor such as 10x)
+ * -Dbenchmark.replay.fetch-latency=lognormal:80,400 -Dbenchmark.replay.llm-latency=lognormal:1200,6000
+ * -Dbenchmark.replay.reply-latency=lognormal:150,800 -Dbenchmark.replay.concurrency=8
+ * -Dbenchmark.replay.poll-interval-seconds=1
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PipelineReplayBenchmark {
+    
+    private static final String FILE = System.getProperty("benchmark.replay.file", "");
+    private static final int POSTS = Integer.getInteger("benchmark.replay.posts", 20);
+    private static final int COMMENTS = Integer.getInteger("benchmark.replay.comments", 2000);
+    private static final int SPAN_SECONDS = Integer.getInteger("benchmark.replay.span-seconds", 600);
+    private static final String SPEED = System.getProperty("benchmark.replay.speed", "max");
+    private static final String FETCH_LATENCY = System.getProperty("benchmark.replay.fetch-latency", "lognormal:80,400");
+    private static final String LLM_LATENCY = System.getProperty("benchmark.replay.llm-latency", "lognormal:1200,6000");
+    private static final String REPLY_LATENCY = System.getProperty("benchmark.replay.reply-latency", "lognormal:150,800");
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.replay.concurrency", 8);
+    private static final int POLL_INTERVAL_SECONDS = Integer.getInteger("benchmark.replay.poll-interval-seconds", 1);
+    
+    @Test
+    void compareProcessingModes() throws Exception {
+        ReplayRecording recording = FILE.isEmpty()
+                ? ReplayRecording.synthetic(POSTS, COMMENTS, Duration.ofSeconds(SPAN_SECONDS), 42)
+                : ReplayRecording.load(Path.of(FILE));
+        ReplayHarness harness = new ReplayHarness(recording, ReplayHarness.parseSpeed(SPEED),
+                ReplayHarness.Latency.parse(FETCH_LATENCY), ReplayHarness.Latency.parse(LLM_LATENCY),
+                ReplayHarness.Latency.parse(REPLY_LATENCY), POLL_INTERVAL_SECONDS);
+        System.out.printf("Replay: %s, %d posts, %d comments over %ds, speed=%s, latency fetch=%s llm=%s reply=%s, "
+                + "concurrency=%d%n", FILE.isEmpty() ? "synthetic" : FILE, recording.getPosts().size(),
+                recording.getComments().size(), recording.span().toSeconds(), SPEED, FETCH_LATENCY, LLM_LATENCY,
+                REPLY_LATENCY, CONCURRENCY);
+        
+        run("worker pool (baseline)", harness.run(orchestrator -> {
+            ReflectionTestUtils.setField(orchestrator, "pipelineEnabled", false);
+            ReflectionTestUtils.setField(orchestrator, "processingConcurrency", CONCURRENCY);
+        }));
+        run("staged pipeline", harness.run(orchestrator -> {
+            ReflectionTestUtils.setField(orchestrator, "pipelineEnabled", true);
+            ReflectionTestUtils.setField(orchestrator, "generateWorkers", CONCURRENCY);
+        }));
+    }
+    
+    private void run(String mode, ReplayHarness.Result result) {
+        System.out.print(result.format(mode));
+        assertEquals(result.comments(), result.replied() + result.heldForReview(), mode + " left comments unanswered");
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.util.SimulatedClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PollScheduler.
+ */
+class PollSchedulerTest {
+    
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    
+    private final SimulatedClock clock = new SimulatedClock(START);
+    private final AtomicReference<Instant> nextDue = new AtomicReference<>();
+    private final AtomicInteger polls = new AtomicInteger();
+    private PollScheduler scheduler;
+    
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+    
+    @Test
+    void testNothingIsScheduledWhileNothingIsWatched() {
+        scheduler = scheduler(polls::incrementAndGet, Duration.ofMinutes(1));
+        
+        scheduler.reschedule();
+        clock.advance(Duration.ofDays(1));
+        
+        assertNull(scheduler.getNextWakeUp());
+        assertEquals(0, polls.get());
+    }
+    
+    @Test
+    void testPollsWhenDueAndGoesIdleAfterwards() {
+        List<Instant> polledAt = new ArrayList<>();
+        scheduler = scheduler(() -> {
+            polledAt.add(clock.instant());
+            nextDue.set(null);
+        }, Duration.ofMinutes(1));
+        Instant due = START.plus(Duration.ofMinutes(5));
+        nextDue.set(due);
+        
+        scheduler.reschedule();
+        assertEquals(due, scheduler.getNextWakeUp());
+        clock.advance(Duration.ofMinutes(4));
+        assertTrue(polledAt.isEmpty());
+        clock.advance(Duration.ofHours(1));
+        
+        assertEquals(List.of(due), polledAt);
+        assertNull(scheduler.getNextWakeUp());
+    }
+    
+    @Test
+    void testRescheduleMovesThePendingWakeUp() {
+        scheduler = scheduler(() -> {
+            polls.incrementAndGet();
+            nextDue.set(null);
+        }, Duration.ofMinutes(1));
+        nextDue.set(START.plus(Duration.ofHours(1)));
+        scheduler.reschedule();
+        assertEquals(START.plus(Duration.ofHours(1)), scheduler.getNextWakeUp());
+        
+        // E.g. a post was started or its interval shortened
+        nextDue.set(START.plus(Duration.ofMinutes(1)));
+        scheduler.reschedule();
+        
+        assertEquals(START.plus(Duration.ofMinutes(1)), scheduler.getNextWakeUp());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(1, polls.get());
+    }
+    
+    @Test
+    void testPostLeftDueIsRetriedAfterTheRetryDelayNotInALoop() {
+        // The poll never moves the due time, e.g. because the poll budget is spent
+        nextDue.set(START);
+        scheduler = scheduler(polls::incrementAndGet, Duration.ofMinutes(1));
+        
+        scheduler.reschedule();
+        clock.advance(Duration.ofMinutes(5).plusSeconds(30));
+        
+        // At 0, 1, 2, 3, 4 and 5 minutes
+        assertEquals(6, polls.get());
+        assertEquals(START.plus(Duration.ofMinutes(6)), scheduler.getNextWakeUp());
+    }
+    
+    @Test
+    void testChangeDuringAPollIsPickedUpWhenItFinishes() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Instant> polledAt = new ArrayList<>();
+        scheduler = scheduler(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            polledAt.add(clock.instant());
+            if (polledAt.size() == 1) {
+                // A post is started while the first poll runs
+                nextDue.set(clock.instant().plus(Duration.ofMinutes(2)));
+                scheduler.reschedule();
+                assertNull(scheduler.getNextWakeUp());
+            } else {
+                nextDue.set(null);
+            }
+            running.decrementAndGet();
+        }, Duration.ofMinutes(1));
+        nextDue.set(START.plus(Duration.ofMinutes(1)));
+        
+        scheduler.reschedule();
+        clock.advance(Duration.ofHours(1));
+        
+        assertEquals(List.of(START.plus(Duration.ofMinutes(1)), START.plus(Duration.ofMinutes(3))), polledAt);
+        assertEquals(1, maxRunning.get());
+    }
+    
+    @Test
+    void testSimulatedDayOfPollingRunsOnTheSimulatedClock() {
+        List<Instant> polledAt = new ArrayList<>();
+        scheduler = scheduler(() -> {
+            polledAt.add(clock.instant());
+            nextDue.set(clock.instant().plus(Duration.ofMinutes(15)));
+        }, Duration.ofMinutes(1));
+        nextDue.set(clock.instant().plus(Duration.ofMinutes(15)));
+        
+        scheduler.reschedule();
+        clock.advance(Duration.ofDays(1));
+        
+        assertEquals(96, polledAt.size());
+        assertEquals(Instant.parse("2024-01-01T00:15:00Z"), polledAt.get(0));
+        assertEquals(Instant.parse("2024-01-02T00:00:00Z"), polledAt.get(95));
+        assertEquals(Instant.parse("2024-01-02T00:15:00Z"), scheduler.getNextWakeUp());
+    }
+    
+    @Test
+    void testCloseCancelsThePendingWakeUp() {
+        scheduler = scheduler(polls::incrementAndGet, Duration.ofMinutes(1));
+        nextDue.set(START.plus(Duration.ofMinutes(1)));
+        scheduler.reschedule();
+        
+        scheduler.close();
+        scheduler.reschedule();
+        clock.advance(Duration.ofHours(1));
+        
+        assertEquals(0, polls.get());
+        assertNull(scheduler.getNextWakeUp());
+    }
+    
+    private PollScheduler scheduler(Runnable poll, Duration retryDelay) {
+        return new PollScheduler(nextDue::get, poll, retryDelay, clock.newScheduledExecutor(), clock);
+    }
+}
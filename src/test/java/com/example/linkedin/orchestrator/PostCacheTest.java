@@ -0,0 +1,152 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PostCache.
+ */
+class PostCacheTest {
+    
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, Post> loader = postId -> {
+        loads.incrementAndGet();
+        Post post = new Post();
+        post.setId(postId);
+        post.setContent("Content of " + postId);
+        return post;
+    };
+    
+    @Test
+    void testCachesUntilTtlExpires() {
+        PostCache cache = new PostCache(Duration.ofSeconds(60), 10, clock::get);
+        
+        Post first = cache.get("post-1", loader);
+        Post second = cache.get("post-1", loader);
+        
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.get("post-1", loader);
+        
+        assertEquals(2, loads.get());
+        PostCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+    
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        PostCache cache = new PostCache(Duration.ofSeconds(60), 10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, Post> slowLoader = postId -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.apply(postId);
+        };
+        
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Post>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.get("post-1", slowLoader)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> cache.get("post-1", slowLoader)));
+            }
+            Thread.sleep(50);
+            release.countDown();
+            
+            Post expected = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Post> result : results) {
+                assertSame(expected, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getMisses());
+        assertEquals(7, cache.getStats().getHits());
+    }
+    
+    @Test
+    void testFailedLoadIsNotCached() {
+        PostCache cache = new PostCache(Duration.ofSeconds(60), 10, clock::get);
+        
+        assertThrows(IllegalStateException.class, () -> cache.get("post-1", postId -> {
+            throw new IllegalStateException("LinkedIn unavailable");
+        }));
+        assertEquals(0, cache.getStats().getSize());
+        
+        assertNotNull(cache.get("post-1", loader));
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void testLoadFailingWithAnErrorIsNotCached() {
+        PostCache cache = new PostCache(Duration.ofSeconds(60), 10, clock::get);
+        
+        assertThrows(AssertionError.class, () -> cache.get("post-1", postId -> {
+            throw new AssertionError("Loader broke");
+        }));
+        assertEquals(0, cache.getStats().getSize());
+        
+        assertNotNull(cache.get("post-1", loader));
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void testInvalidateForcesReload() {
+        PostCache cache = new PostCache(Duration.ofSeconds(60), 10, clock::get);
+        cache.get("post-1", loader);
+        cache.get("post-2", loader);
+        
+        cache.invalidate("post-1");
+        cache.get("post-1", loader);
+        cache.get("post-2", loader);
+        assertEquals(3, loads.get());
+        
+        cache.invalidateAll();
+        assertEquals(0, cache.getStats().getSize());
+    }
+    
+    @Test
+    void testSizeBoundEvictsOldestEntries() {
+        PostCache cache = new PostCache(Duration.ofSeconds(60), 2, clock::get);
+        cache.get("post-1", loader);
+        clock.incrementAndGet();
+        cache.get("post-2", loader);
+        clock.incrementAndGet();
+        cache.get("post-3", loader);
+        
+        PostCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+        
+        cache.get("post-3", loader);
+        cache.get("post-1", loader);
+        assertEquals(4, loads.get());
+    }
+}
@@ -0,0 +1,569 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.agent.LLMAgent;
+import com.example.linkedin.client.LinkedInApiClient;
+import com.example.linkedin.error.ErrorHandler;
+import com.example.linkedin.error.ErrorNotificationService;
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.GeneratedResponse;
+import com.example.linkedin.model.Post;
+import com.example.linkedin.model.PostResult;
+import com.example.linkedin.model.WorkflowConfig;
+import com.example.linkedin.repository.InMemoryStorageRepository;
+import com.example.linkedin.resilience.CircuitBreakerRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Replays a {@link ReplayRecording} through a real {@link WorkflowOrchestrator} whose LinkedIn API
+ * client and LLM agent are stubs with configurable latency, and reports end-to-end throughput and
+ * latency percentiles per stage.
+ *
+ * Each comment becomes visible to the stubbed API at its recorded offset divided by the replay
+ * speed; at max speed every comment is visible from the start. Replayed comments are stamped with
+ * the time they become visible, so cursors and re-scan windows behave as they do live. The
+ * harness polls on a short tick of its own instead of the scheduler, with adaptive polling off
+ * unless the caller turns it on. The result also reports the most comments that were waiting on
+ * a stubbed post fetch, LLM call or reply at the same time. Stages are measured at the stub boundaries:
+ * <ul>
+ *   <li>detect: visible until first returned by a fetch</li>
+ *   <li>queue: fetched until its response generation starts</li>
+ *   <li>generate: the LLM call</li>
+ *   <li>dispatch: generated until its reply is sent</li>
+ *   <li>post: the reply call</li>
+ *   <li>total: visible until replied</li>
+ * </ul>
+ */
+class ReplayHarness {
+    
+    enum Stage {
+        DETECT, QUEUE, GENERATE, DISPATCH, POST, TOTAL
+    }
+    
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    // Give up on comments that make no progress for this long once all are visible, e.g. held for review
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    
+    private final ReplayRecording recording;
+    private final double speed;
+    private final Latency fetchLatency;
+    private final Latency llmLatency;
+    private final Latency replyLatency;
+    private final int pollIntervalSeconds;
+    
+    /**
+     * @param speed Recorded time per wall-clock time, e.g. 1 for original speed, or
+     *              {@link Double#POSITIVE_INFINITY} to release every comment at once
+     * @param fetchLatency Latency of each comment or post fetch
+     * @param llmLatency Latency of each response generation
+     * @param replyLatency Latency of each reply posted
+     * @param pollIntervalSeconds Polling interval of every replayed post
+     */
+    ReplayHarness(ReplayRecording recording, double speed, Latency fetchLatency, Latency llmLatency,
+                  Latency replyLatency, int pollIntervalSeconds) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        this.recording = recording;
+        this.speed = speed;
+        this.fetchLatency = fetchLatency;
+        this.llmLatency = llmLatency;
+        this.replyLatency = replyLatency;
+        this.pollIntervalSeconds = pollIntervalSeconds;
+    }
+    
+    /**
+     * Parses "original", "max", or a speed-up factor such as "10" or "10x".
+     */
+    static double parseSpeed(String speed) {
+        String value = speed.trim().toLowerCase();
+        if (value.equals("original")) {
+            return 1;
+        }
+        if (value.equals("max")) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (value.endsWith("x")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        double factor = Double.parseDouble(value);
+        if (!(factor > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        return factor;
+    }
+    
+    /**
+     * Replays the recording once against a fresh orchestrator and in-memory storage.
+     *
+     * @param configure Adjusts the orchestrator's settings before it is initialized
+     */
+    Result run(Consumer<WorkflowOrchestrator> configure) throws InterruptedException {
+        InMemoryStorageRepository storage = new InMemoryStorageRepository();
+        storage.initialize();
+        Replay replay = new Replay();
+        WorkflowOrchestrator orchestrator = new WorkflowOrchestrator(replay.api, replay.agent, storage,
+                new ErrorHandler(new ErrorNotificationService("log", false)));
+        ReflectionTestUtils.setField(orchestrator, "adaptivePolling", false);
+        configure.accept(orchestrator);
+        orchestrator.initialize();
+        try {
+            replay.start();
+            for (Post post : recording.getPosts()) {
+                orchestrator.startPolling(new WorkflowConfig(post.getId(), pollIntervalSeconds, false, "witty", 3, 1));
+            }
+            
+            int lastReplied = -1;
+            long lastProgressNanos = System.nanoTime();
+            while (!Thread.currentThread().isInterrupted()) {
+                orchestrator.pollForComments();
+                long now = System.nanoTime();
+                int replied = replay.replied.get();
+                if (replied != lastReplied) {
+                    lastReplied = replied;
+                    lastProgressNanos = now;
+                }
+                if (now >= replay.lastVisibleNanos) {
+                    if (replied + storage.getPendingApprovals().size() >= replay.traces.length
+                            || now - Math.max(lastProgressNanos, replay.lastVisibleNanos) > DRAIN_TIMEOUT_NANOS) {
+                        break;
+                    }
+                }
+                LockSupport.parkNanos(TICK_NANOS);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Replay interrupted");
+            }
+            return replay.result(storage.getPendingApprovals().size());
+        } finally {
+            orchestrator.shutdown();
+            storage.shutdown();
+        }
+    }
+    
+    /**
+     * One replay: when each comment becomes visible, and when it passed each stub boundary.
+     */
+    private final class Replay {
+        private static final int FETCHED = 0;
+        private static final int GENERATE_START = 1;
+        private static final int GENERATE_END = 2;
+        private static final int POST_START = 3;
+        private static final int POST_END = 4;
+        
+        final Trace[] traces = new Trace[recording.getComments().size()];
+        final Map<String, Trace[]> byPost = new HashMap<>();
+        final Map<String, Trace> byComment = new HashMap<>();
+        final Map<String, Post> posts = new HashMap<>();
+        final AtomicInteger replied = new AtomicInteger();
+        final AtomicInteger fetches = new AtomicInteger();
+        final AtomicInteger generations = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger peakInFlight = new AtomicInteger();
+        final AtomicLong lastReplyNanos = new AtomicLong();
+        final LinkedInApiClient api = new StubApiClient();
+        final LLMAgent agent = new StubAgent();
+        volatile long startNanos;
+        volatile long lastVisibleNanos;
+        
+        /**
+         * Starts the replay clock: comment offsets are counted from now.
+         */
+        void start() {
+            long now = System.nanoTime();
+            Instant startInstant = Instant.now();
+            List<Comment> comments = recording.getComments();
+            Instant origin = comments.isEmpty() ? startInstant : comments.get(0).getTimestamp();
+            Map<String, List<Trace>> grouped = new HashMap<>();
+            for (int i = 0; i < traces.length; i++) {
+                Comment recorded = comments.get(i);
+                // At max speed the comments keep their order a nanosecond apart
+                long offsetNanos = Double.isInfinite(speed) ? i
+                        : (long) (Duration.between(origin, recorded.getTimestamp()).toNanos() / speed);
+                Trace trace = new Trace(recorded, now + offsetNanos, startInstant.plusNanos(offsetNanos));
+                traces[i] = trace;
+                byComment.put(recorded.getId(), trace);
+                grouped.computeIfAbsent(recorded.getPostId(), id -> new ArrayList<>()).add(trace);
+            }
+            grouped.forEach((postId, list) -> byPost.put(postId, list.toArray(new Trace[0])));
+            recording.getPosts().forEach(post -> posts.put(post.getId(), post));
+            startNanos = now;
+            lastVisibleNanos = traces.length == 0 ? now : traces[traces.length - 1].visibleNanos;
+        }
+        
+        /**
+         * Returns the post's visible comments created at or after {@code since}, oldest first.
+         */
+        List<Comment> visible(String postId, Instant since) {
+            pause(fetchLatency.sampleNanos());
+            fetches.incrementAndGet();
+            Trace[] post = byPost.getOrDefault(postId, new Trace[0]);
+            long now = System.nanoTime();
+            int low = 0;
+            int end = post.length;
+            while (low < end) {
+                int mid = (low + end) >>> 1;
+                if (post[mid].visibleNanos <= now) {
+                    low = mid + 1;
+                } else {
+                    end = mid;
+                }
+            }
+            int begin = end;
+            while (begin > 0 && (since == null || !post[begin - 1].timestamp.isBefore(since))) {
+                begin--;
+            }
+            List<Comment> comments = new ArrayList<>(end - begin);
+            for (int i = begin; i < end; i++) {
+                post[i].marks.compareAndSet(FETCHED, 0, now);
+                comments.add(post[i].copy());
+            }
+            return comments;
+        }
+        
+        Result result(int heldForReview) {
+            Map<Stage, long[]> latencies = new EnumMap<>(Stage.class);
+            for (Stage stage : Stage.values()) {
+                latencies.put(stage, Arrays.stream(traces)
+                        .filter(trace -> trace.marks.get(POST_END) != 0)
+                        .mapToLong(trace -> trace.latency(stage))
+                        .filter(latency -> latency >= 0)
+                        .toArray());
+            }
+            long firstVisible = traces.length == 0 ? startNanos : traces[0].visibleNanos;
+            long elapsed = Math.max(0, lastReplyNanos.get() - firstVisible);
+            double offeredRate = Double.isInfinite(speed) || recording.span().isZero() ? Double.POSITIVE_INFINITY
+                    : traces.length / (recording.span().toNanos() / speed / 1e9);
+            return new Result(latencies, traces.length, replied.get(), heldForReview, fetches.get(),
+                    generations.get(), peakInFlight.get(), elapsed, offeredRate);
+        }
+        
+        /**
+         * Waits out a per-comment call's latency, counting the comment as in flight meanwhile.
+         */
+        void call(long nanos) {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                pause(nanos);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+        
+        private final class StubApiClient extends LinkedInApiClient {
+            StubApiClient() {
+                super(new CircuitBreakerRegistry());
+            }
+            
+            @Override
+            public List<Comment> fetchComments(String postId) {
+                return visible(postId, null);
+            }
+            
+            @Override
+            public List<Comment> fetchCommentsSince(String postId, Instant since) {
+                return visible(postId, since);
+            }
+            
+            @Override
+            public Post fetchPost(String postId) {
+                call(fetchLatency.sampleNanos());
+                fetches.incrementAndGet();
+                return posts.get(postId);
+            }
+            
+            @Override
+            public PostResult postReply(String commentId, String responseText) {
+                Trace trace = byComment.get(commentId);
+                trace.marks.compareAndSet(POST_START, 0, System.nanoTime());
+                call(replyLatency.sampleNanos());
+                long now = System.nanoTime();
+                if (trace.marks.compareAndSet(POST_END, 0, now)) {
+                    replied.incrementAndGet();
+                    lastReplyNanos.accumulateAndGet(now, Math::max);
+                }
+                return new PostResult(true, "reply-" + commentId);
+            }
+        }
+        
+        private final class StubAgent implements LLMAgent {
+            @Override
+            public GeneratedResponse generateResponse(Post post, Comment comment, String tonePreference) {
+                Trace trace = byComment.get(comment.getId());
+                trace.marks.compareAndSet(GENERATE_START, 0, System.nanoTime());
+                call(llmLatency.sampleNanos());
+                generations.incrementAndGet();
+                trace.marks.set(GENERATE_END, System.nanoTime());
+                return new GeneratedResponse("Thanks for your comment, " + comment.getAuthorName() + "!", 0.9,
+                        "Replayed response");
+            }
+            
+            @Override
+            public String analyzePostTheme(Post post) {
+                return "Replayed post";
+            }
+            
+            @Override
+            public boolean validateResponse(String response) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * A replayed comment and the times (System.nanoTime, 0 if not reached) it passed each stub boundary.
+     */
+    private static final class Trace {
+        final Comment recorded;
+        final long visibleNanos;
+        final Instant timestamp;
+        final AtomicLongArray marks = new AtomicLongArray(5);
+        
+        Trace(Comment recorded, long visibleNanos, Instant timestamp) {
+            this.recorded = recorded;
+            this.visibleNanos = visibleNanos;
+            this.timestamp = timestamp;
+        }
+        
+        Comment copy() {
+            return new Comment(recorded.getId(), recorded.getPostId(), recorded.getAuthorId(),
+                    recorded.getAuthorName(), recorded.getText(), timestamp);
+        }
+        
+        /**
+         * Time spent in a stage, or -1 if the comment skipped it, e.g. a response resumed from a checkpoint.
+         */
+        long latency(Stage stage) {
+            switch (stage) {
+                case DETECT:
+                    return between(visibleNanos, marks.get(Replay.FETCHED));
+                case QUEUE:
+                    return between(marks.get(Replay.FETCHED), marks.get(Replay.GENERATE_START));
+                case GENERATE:
+                    return between(marks.get(Replay.GENERATE_START), marks.get(Replay.GENERATE_END));
+                case DISPATCH:
+                    return between(marks.get(Replay.GENERATE_END), marks.get(Replay.POST_START));
+                case POST:
+                    return between(marks.get(Replay.POST_START), marks.get(Replay.POST_END));
+                case TOTAL:
+                    return between(visibleNanos, marks.get(Replay.POST_END));
+                default:
+                    throw new IllegalStateException("Unknown stage " + stage);
+            }
+        }
+        
+        private static long between(long from, long to) {
+            return from == 0 || to == 0 ? -1 : Math.max(0, to - from);
+        }
+    }
+    
+    /**
+     * Waits out a stubbed call's latency.
+     */
+    private static void pause(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long left = nanos; left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Distribution of a stubbed call's latency, in milliseconds:
+     * "fixed:50", "uniform:20-80", "normal:200,50" (mean, standard deviation) or
+     * "lognormal:800,3000" (median, 99th percentile). "none" or "0" means no latency.
+     */
+    static final class Latency {
+        private final String spec;
+        private final char kind;
+        private final double a;
+        private final double b;
+        
+        private Latency(String spec, char kind, double a, double b) {
+            this.spec = spec;
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+        }
+        
+        static Latency parse(String spec) {
+            String value = spec.trim().toLowerCase();
+            if (value.equals("none") || value.equals("0")) {
+                return new Latency(spec, 'f', 0, 0);
+            }
+            int colon = value.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Latency must look like 'fixed:50' or 'lognormal:800,3000': " + spec);
+            }
+            String kind = value.substring(0, colon);
+            String[] args = value.substring(colon + 1).split("[,-]");
+            try {
+                switch (kind) {
+                    case "fixed":
+                        return new Latency(spec, 'f', nonNegative(args[0], spec), 0);
+                    case "uniform":
+                        double min = nonNegative(args[0], spec);
+                        double max = nonNegative(args[1], spec);
+                        if (max < min) {
+                            throw new IllegalArgumentException("Uniform latency needs min <= max: " + spec);
+                        }
+                        return new Latency(spec, 'u', min, max);
+                    case "normal":
+                        return new Latency(spec, 'n', nonNegative(args[0], spec), nonNegative(args[1], spec));
+                    case "lognormal":
+                        double median = nonNegative(args[0], spec);
+                        double p99 = nonNegative(args[1], spec);
+                        if (median <= 0 || p99 < median) {
+                            throw new IllegalArgumentException("Log-normal latency needs 0 < median <= p99: " + spec);
+                        }
+                        // The 99th percentile of a standard normal is 2.3263
+                        return new Latency(spec, 'l', Math.log(median), Math.log(p99 / median) / 2.3263);
+                    default:
+                        throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+                }
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Missing latency parameter: " + spec, e);
+            }
+        }
+        
+        private static double nonNegative(String value, String spec) {
+            double parsed = Double.parseDouble(value.trim());
+            if (parsed < 0) {
+                throw new IllegalArgumentException("Latency cannot be negative: " + spec);
+            }
+            return parsed;
+        }
+        
+        long sampleNanos() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double millis;
+            switch (kind) {
+                case 'u':
+                    millis = a + random.nextDouble() * (b - a);
+                    break;
+                case 'n':
+                    millis = Math.max(0, a + random.nextGaussian() * b);
+                    break;
+                case 'l':
+                    millis = Math.exp(a + random.nextGaussian() * b);
+                    break;
+                default:
+                    millis = a;
+            }
+            return (long) (millis * 1_000_000);
+        }
+        
+        @Override
+        public String toString() {
+            return spec;
+        }
+    }
+    
+    /**
+     * Stage latencies (nanoseconds) of the replied comments and the overall throughput of one replay.
+     */
+    static class Result {
+        private final Map<Stage, long[]> latencies;
+        private final int comments;
+        private final int replied;
+        private final int heldForReview;
+        private final int fetches;
+        private final int generations;
+        private final int peakInFlight;
+        private final long elapsedNanos;
+        private final double offeredRate;
+        
+        Result(Map<Stage, long[]> latencies, int comments, int replied, int heldForReview, int fetches,
+               int generations, int peakInFlight, long elapsedNanos, double offeredRate) {
+            this.latencies = latencies;
+            this.comments = comments;
+            this.replied = replied;
+            this.heldForReview = heldForReview;
+            this.fetches = fetches;
+            this.generations = generations;
+            this.peakInFlight = peakInFlight;
+            this.elapsedNanos = elapsedNanos;
+            this.offeredRate = offeredRate;
+            latencies.values().forEach(Arrays::sort);
+        }
+        
+        /**
+         * Replies posted per second, from the first comment becoming visible to the last reply.
+         */
+        double throughput() {
+            return elapsedNanos == 0 ? 0 : replied / (elapsedNanos / 1e9);
+        }
+        
+        int comments() {
+            return comments;
+        }
+        
+        int replied() {
+            return replied;
+        }
+        
+        int heldForReview() {
+            return heldForReview;
+        }
+        
+        int generations() {
+            return generations;
+        }
+        
+        /**
+         * Most comments waiting on a post fetch, LLM call or reply at the same time.
+         */
+        int peakInFlight() {
+            return peakInFlight;
+        }
+        
+        /**
+         * Latency in milliseconds at the given percentile (0-100), or -1 if no comment passed the stage.
+         */
+        double percentileMillis(Stage stage, double percentile) {
+            long[] sorted = latencies.get(stage);
+            if (sorted.length == 0) {
+                return -1;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+        
+        String format(String label) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%s: %d/%d replied (%d held for review) in %.1f s, %,.1f replies/s (offered %s), "
+                    + "%d fetches, %d LLM calls, peak %d in flight%n", label, replied, comments, heldForReview,
+                    elapsedNanos / 1e9, throughput(),
+                    Double.isInfinite(offeredRate) ? "all at once" : String.format("%,.1f/s", offeredRate),
+                    fetches, generations, peakInFlight));
+            sb.append(String.format("  %-9s %8s %10s %10s %10s %10s%n", "stage", "count", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+            for (Stage stage : Stage.values()) {
+                int count = latencies.get(stage).length;
+                if (count > 0) {
+                    sb.append(String.format("  %-9s %8d %10.1f %10.1f %10.1f %10.1f%n", stage.name().toLowerCase(), count,
+                            percentileMillis(stage, 50), percentileMillis(stage, 90),
+                            percentileMillis(stage, 99), percentileMillis(stage, 100)));
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
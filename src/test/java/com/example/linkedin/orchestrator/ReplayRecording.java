@@ -0,0 +1,143 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.Post;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Posts and timestamped comments captured from a real comment stream, replayed by {@link ReplayHarness}.
+ *
+ * A recording is a JSON document {@code {"posts": [...], "comments": [...]}} whose entries have the
+ * fields of {@link Post} and {@link Comment}. Comments are kept in timestamp order; the harness
+ * replays each one at its offset from the first.
+ */
+class ReplayRecording {
+    
+    private static final String[] TEXTS = {
+        "Great post!",
+        "Thanks for sharing this, it matches what we have been seeing on our team.",
+        "Interesting take. How would this work for a smaller company with only a couple of engineers?",
+        "Couldn't agree more.",
+        "We tried something similar last year and ran into a few problems with rollout. The biggest was "
+            + "getting everyone to agree on the process before changing the tooling. Curious how you handled that.",
+        "Saving this for later."
+    };
+    
+    private final List<Post> posts;
+    private final List<Comment> comments;
+    
+    ReplayRecording(List<Post> posts, List<Comment> comments) {
+        this.posts = new ArrayList<>(posts);
+        this.comments = new ArrayList<>(comments);
+        this.comments.sort(Comparator.comparing(Comment::getTimestamp).thenComparing(Comment::getId));
+        
+        // Comments may refer to posts the recording does not describe
+        Map<String, Post> byId = new LinkedHashMap<>();
+        this.posts.forEach(post -> byId.put(post.getId(), post));
+        for (Comment comment : this.comments) {
+            byId.computeIfAbsent(comment.getPostId(), id -> {
+                Post post = new Post(id, "urn:li:person:author", "Recorded post " + id, comment.getTimestamp());
+                this.posts.add(post);
+                return post;
+            });
+        }
+    }
+    
+    static ReplayRecording load(Path path) throws IOException {
+        Document document = mapper().readValue(path.toFile(), Document.class);
+        return new ReplayRecording(document.posts, document.comments);
+    }
+    
+    void write(Path path) throws IOException {
+        Document document = new Document();
+        document.posts = posts;
+        document.comments = comments;
+        mapper().writeValue(path.toFile(), document);
+    }
+    
+    /**
+     * Generates a recording with Poisson arrivals spread over the posts with Zipf-like weights,
+     * so a few posts are busy and most are quiet, as on a real account.
+     *
+     * @param postCount Posts receiving comments
+     * @param commentCount Comments in total
+     * @param span Time from the first to the last comment, on average
+     */
+    static ReplayRecording synthetic(int postCount, int commentCount, Duration span, long seed) {
+        if (postCount < 1 || commentCount < 0) {
+            throw new IllegalArgumentException("A recording needs at least one post and a non-negative comment count");
+        }
+        Random random = new Random(seed);
+        Instant origin = Instant.parse("2024-01-15T09:00:00Z");
+        List<Post> posts = new ArrayList<>();
+        double[] cumulative = new double[postCount];
+        double total = 0;
+        for (int i = 0; i < postCount; i++) {
+            posts.add(new Post("urn:li:share:" + (1000 + i), "urn:li:person:author", "Post number " + i,
+                    origin.minusSeconds(3600)));
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        
+        List<Comment> comments = new ArrayList<>(commentCount);
+        double meanGapNanos = commentCount == 0 ? 0 : (double) span.toNanos() / commentCount;
+        long offsetNanos = 0;
+        for (int i = 0; i < commentCount; i++) {
+            offsetNanos += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            double pick = random.nextDouble() * total;
+            int post = 0;
+            while (cumulative[post] < pick) {
+                post++;
+            }
+            int author = random.nextInt(500);
+            comments.add(new Comment("comment-" + i, posts.get(post).getId(), "urn:li:person:" + author,
+                    "User " + author, TEXTS[random.nextInt(TEXTS.length)], origin.plusNanos(offsetNanos)));
+        }
+        return new ReplayRecording(posts, comments);
+    }
+    
+    List<Post> getPosts() {
+        return posts;
+    }
+    
+    List<Comment> getComments() {
+        return comments;
+    }
+    
+    /**
+     * Time between the first and the last comment.
+     */
+    Duration span() {
+        if (comments.isEmpty()) {
+            return Duration.ZERO;
+        }
+        return Duration.between(comments.get(0).getTimestamp(), comments.get(comments.size() - 1).getTimestamp());
+    }
+    
+    private static ObjectMapper mapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+    
+    static class Document {
+        public List<Post> posts = new ArrayList<>();
+        public List<Comment> comments = new ArrayList<>();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.ReplyRetry;
+import com.example.linkedin.model.WorkflowConfig;
+import com.example.linkedin.repository.InMemoryStorageRepository;
+import com.example.linkedin.util.SimulatedClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReplyRetryScheduler.
+ */
+class ReplyRetrySchedulerTest {
+    
+    private final InMemoryStorageRepository storage = new InMemoryStorageRepository();
+    private final BlockingQueue<ReplyRetry> attempts = new LinkedBlockingQueue<>();
+    private ReplyRetryScheduler scheduler;
+    
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+    
+    @Test
+    void testBackoffGrowsExponentiallyWithJitterAndCap() {
+        assertEquals(1000, ReplyRetryScheduler.backoffMillis(1, 2000, 60_000, 0.0));
+        assertEquals(1500, ReplyRetryScheduler.backoffMillis(1, 2000, 60_000, 0.5));
+        assertTrue(ReplyRetryScheduler.backoffMillis(1, 2000, 60_000, 0.999) < 2000);
+        assertEquals(4000, ReplyRetryScheduler.backoffMillis(3, 2000, 60_000, 0.0));
+        assertEquals(6000, ReplyRetryScheduler.backoffMillis(3, 2000, 60_000, 0.5));
+        assertEquals(30_000, ReplyRetryScheduler.backoffMillis(20, 2000, 60_000, 0.0));
+        assertEquals(45_000, ReplyRetryScheduler.backoffMillis(1000, 2000, 60_000, 0.5));
+    }
+    
+    @Test
+    void testDueRetryIsAttemptedAndCompleted() throws Exception {
+        scheduler = new ReplyRetryScheduler(storage, 1, Duration.ofMinutes(15), attempts::add);
+        ReplyRetry retry = retry("retry-1", "comment-1", 0);
+        
+        CompletableFuture<Boolean> outcome = scheduler.schedule(retry);
+        
+        assertTrue(scheduler.containsComment("post-1", "comment-1"));
+        assertEquals(1, storage.getReplyRetries().size());
+        assertNotNull(retry.getNextAttemptAt());
+        assertSame(retry, attempts.poll(5, TimeUnit.SECONDS));
+        assertFalse(outcome.isDone());
+        
+        scheduler.complete(retry, true);
+        
+        assertTrue(outcome.get(5, TimeUnit.SECONDS));
+        assertFalse(scheduler.containsComment("post-1", "comment-1"));
+        assertTrue(storage.getReplyRetries().isEmpty());
+    }
+    
+    @Test
+    void testRescheduledRetryKeepsItsOutcome() throws Exception {
+        scheduler = new ReplyRetryScheduler(storage, 1, Duration.ofMinutes(15), attempts::add);
+        ReplyRetry retry = retry("retry-1", "comment-1", 0);
+        
+        CompletableFuture<Boolean> first = scheduler.schedule(retry);
+        attempts.poll(5, TimeUnit.SECONDS);
+        retry.setAttempts(2);
+        CompletableFuture<Boolean> second = scheduler.schedule(retry);
+        
+        assertSame(first, second);
+        assertEquals(1, scheduler.size());
+        scheduler.complete(retry, false);
+        assertFalse(first.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void testPendingRetriesResumeAfterRestart() throws Exception {
+        ReplyRetryScheduler stopped = new ReplyRetryScheduler(storage, 1, Duration.ofMinutes(15), attempts::add);
+        ReplyRetry due = retry("retry-1", "comment-1", 0);
+        ReplyRetry later = retry("retry-2", "comment-2", 3600);
+        stopped.close();
+        stopped.schedule(due);
+        stopped.schedule(later);
+        assertNull(attempts.poll(200, TimeUnit.MILLISECONDS));
+        
+        scheduler = new ReplyRetryScheduler(storage, 1, Duration.ofMinutes(15), attempts::add);
+        
+        assertEquals(2, scheduler.size());
+        assertTrue(scheduler.containsComment("post-1", "comment-2"));
+        assertEquals("retry-1", attempts.poll(5, TimeUnit.SECONDS).getId());
+        assertNull(attempts.poll(200, TimeUnit.MILLISECONDS));
+        List<ReplyRetry> stored = storage.getReplyRetries();
+        assertEquals(2, stored.size());
+    }
+    
+    @Test
+    void testHoursOfBackoffElapseOnTheSimulatedClock() throws Exception {
+        SimulatedClock clock = new SimulatedClock(Instant.parse("2024-01-01T00:00:00Z"));
+        List<Instant> attemptedAt = new ArrayList<>();
+        AtomicReference<ReplyRetryScheduler> self = new AtomicReference<>();
+        scheduler = new ReplyRetryScheduler(storage, clock.newScheduledExecutor(), clock, Duration.ofHours(2), retry -> {
+            assertEquals(retry.getNextAttemptAt(), clock.instant());
+            attemptedAt.add(clock.instant());
+            if (retry.getAttempts() < 6) {
+                retry.setAttempts(retry.getAttempts() + 1);
+                self.get().schedule(retry);
+            } else {
+                self.get().complete(retry, true);
+            }
+        });
+        self.set(scheduler);
+        
+        CompletableFuture<Boolean> outcome = scheduler.schedule(retry("retry-1", "comment-1", 600));
+        assertFalse(outcome.isDone());
+        clock.advance(Duration.ofDays(1));
+        
+        assertTrue(outcome.get(0, TimeUnit.SECONDS));
+        assertEquals(6, attemptedAt.size());
+        // At least half of each backoff: 5 + 10 + 20 + 40 minutes, then twice half the two hour cap
+        assertFalse(attemptedAt.get(5).isBefore(Instant.parse("2024-01-01T03:15:00Z")), "Last attempt: " + attemptedAt.get(5));
+        assertTrue(storage.getReplyRetries().isEmpty());
+        assertNull(clock.nextTaskTime());
+    }
+    
+    private static ReplyRetry retry(String id, String commentId, int backoffSeconds) {
+        Comment comment = new Comment();
+        comment.setId(commentId);
+        comment.setPostId("post-1");
+        comment.setText("Nice post");
+        
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-1");
+        config.setRetryBackoffSeconds(backoffSeconds);
+        
+        ReplyRetry retry = new ReplyRetry(id, null, comment, null, config, false, Instant.now());
+        retry.setAttempts(1);
+        return retry;
+    }
+}
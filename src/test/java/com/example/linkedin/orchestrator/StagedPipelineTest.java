@@ -0,0 +1,212 @@
+package com.example.linkedin.orchestrator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StagedPipeline.
+ */
+class StagedPipelineTest {
+    
+    private final List<String> completed = new CopyOnWriteArrayList<>();
+    private final Map<String, Exception> failures = new ConcurrentHashMap<>();
+    private StagedPipeline<String> pipeline;
+    
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+    
+    @Test
+    void testItemsPassEveryStageInOrder() throws Exception {
+        List<String> trace = new CopyOnWriteArrayList<>();
+        pipeline = pipeline(10, List.of(
+                stage("first", 2, item -> trace.add("first:" + item)),
+                stage("second", 1, item -> trace.add("second:" + item)),
+                stage("third", 1, completed::add)));
+        
+        CompletableFuture<Void> done = pipeline.submit("a");
+        done.get(5, TimeUnit.SECONDS);
+        
+        assertEquals(List.of("first:a", "second:a"), trace);
+        assertEquals(List.of("a"), completed);
+        List<StagedPipeline.StageStats> stats = pipeline.getStats();
+        assertEquals(3, stats.size());
+        assertEquals("first", stats.get(0).getName());
+        assertEquals(2, stats.get(0).getWorkers());
+        assertEquals(10, stats.get(0).getQueueCapacity());
+        for (StagedPipeline.StageStats stage : stats) {
+            assertEquals(1, stage.getProcessed());
+            assertEquals(0, stage.getQueueDepth());
+        }
+    }
+    
+    @Test
+    void testFullDownstreamQueueBlocksSubmit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline = pipeline(1, List.of(
+                stage("fast", 1, item -> { }),
+                stage("slow", 1, item -> {
+                    await(release);
+                    completed.add(item);
+                })));
+        
+        // "a" blocks the slow worker, "b" fills its queue, "c" blocks the fast worker on the
+        // full queue and "d" fills the fast stage's queue
+        List<CompletableFuture<Void>> accepted = new CopyOnWriteArrayList<>();
+        for (String item : List.of("a", "b", "c", "d")) {
+            accepted.add(pipeline.submit(item));
+            Thread.sleep(50);
+        }
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> {
+            try {
+                accepted.add(pipeline.submit("e"));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        
+        Thread.sleep(200);
+        assertFalse(blocked.isDone());
+        assertEquals(1, pipeline.getStats().get(0).getQueueDepth());
+        assertEquals(1, pipeline.getStats().get(1).getQueueDepth());
+        assertEquals(1, pipeline.getStats().get(1).getBusyWorkers());
+        
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(accepted.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b", "c", "d", "e"), completed);
+    }
+    
+    @Test
+    void testPriorityOrderOvertakesQueuedItems() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline = new StagedPipeline<>(List.of(stage("only", 1, item -> {
+            await(release);
+            completed.add(item);
+        })), 10, Comparator.comparing((String item) -> !item.startsWith("urgent")), item -> item, failures::put);
+        
+        // "blocker" occupies the worker while the rest queue up
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        done.add(pipeline.submit("blocker"));
+        Thread.sleep(50);
+        for (String item : List.of("plain-1", "urgent-1", "plain-2", "urgent-2")) {
+            done.add(pipeline.submit(item));
+        }
+        release.countDown();
+        CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        
+        assertEquals(List.of("blocker", "urgent-1", "urgent-2", "plain-1", "plain-2"), completed);
+    }
+    
+    @Test
+    void testFailedItemLeavesPipelineThroughFailureHandler() throws Exception {
+        pipeline = pipeline(10, List.of(
+                stage("check", 1, item -> {
+                    if (item.startsWith("bad")) {
+                        throw new IllegalArgumentException("rejected " + item);
+                    }
+                }),
+                stage("finish", 1, completed::add)));
+        
+        CompletableFuture<Void> bad = pipeline.submit("bad-1");
+        CompletableFuture<Void> good = pipeline.submit("good-1");
+        bad.get(5, TimeUnit.SECONDS);
+        good.get(5, TimeUnit.SECONDS);
+        
+        assertEquals(List.of("good-1"), completed);
+        assertEquals("rejected bad-1", failures.get("bad-1").getMessage());
+        assertEquals(1, pipeline.getStats().get(0).getFailed());
+        assertEquals(1, pipeline.getStats().get(0).getProcessed());
+        assertEquals(1, pipeline.getStats().get(1).getProcessed());
+    }
+    
+    @Test
+    void testErrorFailsTheItemAndKeepsTheWorker() throws Exception {
+        pipeline = pipeline(10, List.of(stage("only", 1, item -> {
+            if (item.startsWith("bad")) {
+                throw new AssertionError("broken " + item);
+            }
+            completed.add(item);
+        })));
+        
+        CompletableFuture<Void> bad = pipeline.submit("bad-1");
+        CompletableFuture<Void> good = pipeline.submit("good-1");
+        bad.get(5, TimeUnit.SECONDS);
+        good.get(5, TimeUnit.SECONDS);
+        
+        assertEquals(List.of("good-1"), completed);
+        assertEquals("broken bad-1", failures.get("bad-1").getCause().getMessage());
+        assertEquals(1, pipeline.getStats().get(0).getFailed());
+    }
+    
+    @Test
+    void testItemAlreadyInFlightIsNotAdmittedTwice() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline = pipeline(10, List.of(stage("only", 1, item -> {
+            await(release);
+            completed.add(item);
+        })));
+        
+        CompletableFuture<Void> first = pipeline.submit("a");
+        assertNull(pipeline.submit("a"));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        
+        // Once it has left the pipeline the same key is admitted again
+        pipeline.submit("a").get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "a"), completed);
+    }
+    
+    @Test
+    void testCloseCancelsQueuedItems() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline = pipeline(10, List.of(stage("only", 1, item -> await(release))));
+        
+        pipeline.submit("a");
+        Thread.sleep(50);
+        CompletableFuture<Void> queued = pipeline.submit("b");
+        pipeline.close();
+        
+        assertTrue(queued.isCancelled());
+        assertThrows(IllegalStateException.class, () -> pipeline.submit("c"));
+    }
+    
+    @Test
+    void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> stage("none", 0, item -> { }));
+        assertThrows(IllegalArgumentException.class, () -> pipeline(0, List.of(stage("one", 1, item -> { }))));
+        assertThrows(IllegalArgumentException.class, () -> pipeline(1, List.of()));
+    }
+    
+    private StagedPipeline<String> pipeline(int queueCapacity, List<StagedPipeline.StageSpec<String>> stages) {
+        return new StagedPipeline<>(stages, queueCapacity, item -> item, failures::put);
+    }
+    
+    private static StagedPipeline.StageSpec<String> stage(String name, int workers, Consumer<String> step) {
+        return new StagedPipeline.StageSpec<>(name, workers, step);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
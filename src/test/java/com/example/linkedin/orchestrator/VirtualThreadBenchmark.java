@@ -0,0 +1,110 @@
+package com.example.linkedin.orchestrator;
+
+import com.example.linkedin.util.VirtualThreads;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Releases more than a thousand comments at once through the orchestrator, with stubbed LinkedIn
+ * and LLM latencies, and prints how many were in flight at the peak and what that cost in
+ * platform threads and heap: once on a pool of platform threads (the baseline) and once on
+ * virtual threads, the latter only on Java 21 or later.
+ *
+ * Run with: mvn test -Dtest=VirtualThreadBenchmark -Dbenchmark=true
+ * Tune with -Dbenchmark.virtual.comments=2000 -Dbenchmark.virtual.posts=4
+ * -Dbenchmark.virtual.concurrency=1000 -Dbenchmark.virtual.llm-latency=lognormal:1200,6000
+ * -Dbenchmark.virtual.reply-latency=lognormal:150,800
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadBenchmark {
+    
+    private static final int COMMENTS = Integer.getInteger("benchmark.virtual.comments", 2000);
+    private static final int POSTS = Integer.getInteger("benchmark.virtual.posts", 4);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.virtual.concurrency", 1000);
+    private static final String LLM_LATENCY = System.getProperty("benchmark.virtual.llm-latency", "lognormal:1200,6000");
+    private static final String REPLY_LATENCY = System.getProperty("benchmark.virtual.reply-latency", "lognormal:150,800");
+    
+    @Test
+    void compareThreadModels() throws Exception {
+        ReplayRecording recording = ReplayRecording.synthetic(POSTS, COMMENTS, Duration.ofMinutes(10), 42);
+        ReplayHarness harness = new ReplayHarness(recording, Double.POSITIVE_INFINITY,
+                ReplayHarness.Latency.parse("fixed:100"), ReplayHarness.Latency.parse(LLM_LATENCY),
+                ReplayHarness.Latency.parse(REPLY_LATENCY), 1);
+        System.out.printf("%d comments on %d posts released at once, concurrency=%d, latency llm=%s reply=%s, Java %d%n",
+                COMMENTS, POSTS, CONCURRENCY, LLM_LATENCY, REPLY_LATENCY, Runtime.version().feature());
+        
+        run("platform threads (baseline)", harness, false);
+        if (VirtualThreads.isSupported()) {
+            run("virtual threads", harness, true);
+        } else {
+            System.out.println("virtual threads: skipped, they need Java 21 or later");
+        }
+    }
+    
+    private void run(String mode, ReplayHarness harness, boolean virtualThreads) throws InterruptedException {
+        try (Sampler sampler = new Sampler()) {
+            ReplayHarness.Result result = harness.run(orchestrator -> {
+                ReflectionTestUtils.setField(orchestrator, "pipelineEnabled", false);
+                ReflectionTestUtils.setField(orchestrator, "processingConcurrency", CONCURRENCY);
+                ReflectionTestUtils.setField(orchestrator, "virtualThreads", virtualThreads);
+            });
+            System.out.print(result.format(mode));
+            System.out.printf("  peak platform threads %d (%+d), peak heap used %,d KB (%+,d KB over idle)%n",
+                    sampler.peakThreads.get(), sampler.peakThreads.get() - sampler.idleThreads,
+                    sampler.peakHeapBytes.get() / 1024, (sampler.peakHeapBytes.get() - sampler.idleHeapBytes) / 1024);
+            assertEquals(result.comments(), result.replied() + result.heldForReview(), mode + " left comments unanswered");
+        }
+    }
+    
+    /**
+     * Samples live platform threads and used heap every 20 ms. Virtual threads are not counted as
+     * live threads and keep their stacks on the heap, while each platform thread reserves a stack
+     * outside it (-Xss), so the thread count stands for that part of the cost.
+     */
+    private static final class Sampler implements AutoCloseable {
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final int idleThreads;
+        private final long idleHeapBytes;
+        private final AtomicInteger peakThreads = new AtomicInteger();
+        private final AtomicLong peakHeapBytes = new AtomicLong();
+        private final Thread thread;
+        
+        Sampler() {
+            System.gc();
+            idleThreads = threads.getThreadCount();
+            idleHeapBytes = memory.getHeapMemoryUsage().getUsed();
+            thread = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+                    peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+                }
+            }, "benchmark-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        @Override
+        public void close() {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
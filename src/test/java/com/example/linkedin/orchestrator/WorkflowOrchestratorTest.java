@@ -2,17 +2,32 @@ package com.example.linkedin.orchestrator;
 
 import com.example.linkedin.agent.LLMAgent;
 import com.example.linkedin.client.LinkedInApiClient;
+import com.example.linkedin.coordination.CoordinationStore;
+import com.example.linkedin.coordination.Lease;
 import com.example.linkedin.error.ErrorHandler;
 import com.example.linkedin.model.*;
 import com.example.linkedin.repository.StorageRepository;
+import com.example.linkedin.util.SimulatedClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,6 +44,9 @@ class WorkflowOrchestratorTest {
     private ErrorHandler errorHandler;
     private WorkflowOrchestrator orchestrator;
     
+    @TempDir
+    Path tempDir;
+    
     @BeforeEach
     void setUp() {
         apiClient = mock(LinkedInApiClient.class);
@@ -104,7 +122,7 @@ class WorkflowOrchestratorTest {
         when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty")))
                 .thenReturn(response);
         when(apiClient.postReply("comment-123", response.getText())).thenReturn(postResult);
-        when(storageRepository.isCommentProcessed("comment-123")).thenReturn(false);
+        when(storageRepository.isCommentProcessed("post-123", "comment-123")).thenReturn(false);
         
         // Execute
         orchestrator.processComment(comment);
@@ -113,7 +131,7 @@ class WorkflowOrchestratorTest {
         verify(apiClient).fetchPost("post-123");
         verify(llmAgent).generateResponse(post, comment, "witty");
         verify(apiClient).postReply("comment-123", response.getText());
-        verify(storageRepository).markCommentProcessed("comment-123");
+        verify(storageRepository).markCommentProcessed("post-123", "comment-123");
         verify(storageRepository, times(2)).saveInteraction(any(Interaction.class));
     }
     
@@ -153,7 +171,7 @@ class WorkflowOrchestratorTest {
         verify(apiClient).fetchPost("post-123");
         verify(llmAgent).generateResponse(post, comment, "witty");
         verify(apiClient, never()).postReply(anyString(), anyString());
-        verify(storageRepository, never()).markCommentProcessed(anyString());
+        verify(storageRepository, never()).markCommentProcessed(anyString(), anyString());
         
         // Verify pending items are set
         assertNotNull(orchestrator.getPendingResponse());
@@ -202,11 +220,35 @@ class WorkflowOrchestratorTest {
         // Verify
         assertTrue(result);
         verify(apiClient).postReply("comment-123", response.getText());
-        verify(storageRepository).markCommentProcessed("comment-123");
+        verify(storageRepository).markCommentProcessed("post-123", "comment-123");
         assertNull(orchestrator.getPendingResponse());
         assertNull(orchestrator.getPendingComment());
     }
     
+    @Test
+    void testApproveResponse_WhileDrainingIsLeftForTheRestart() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setRequireManualApproval(true);
+        config.setTonePreference("witty");
+        orchestrator.startPolling(config);
+        
+        Comment comment = new Comment("comment-123", "post-123", "urn:li:person:1", "Jane Doe", "Great work!", Instant.now());
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks Jane!");
+        response.setConfidenceScore(0.9);
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty"))).thenReturn(response);
+        orchestrator.processComment(comment);
+        
+        assertTrue(orchestrator.drain(Duration.ofSeconds(1)));
+        
+        // Reported as not posted instead of failing the request; the approval is posted after the restart
+        assertFalse(orchestrator.approveResponse());
+        verify(apiClient, never()).postReply(anyString(), anyString());
+        assertEquals(PendingApproval.State.APPROVED, orchestrator.getPendingApprovals("post-123").get(0).getState());
+    }
+    
     @Test
     void testRejectResponse() {
         // Setup - first process a comment in manual mode
@@ -243,7 +285,7 @@ class WorkflowOrchestratorTest {
         
         // Verify
         verify(apiClient, never()).postReply(anyString(), anyString());
-        verify(storageRepository, never()).markCommentProcessed(anyString());
+        verify(storageRepository, never()).markCommentProcessed(anyString(), anyString());
         
         ArgumentCaptor<Interaction> captor = ArgumentCaptor.forClass(Interaction.class);
         verify(storageRepository, times(3)).saveInteraction(captor.capture());
@@ -338,8 +380,8 @@ class WorkflowOrchestratorTest {
         PostResult postResult = new PostResult(true, "response-id");
         
         when(apiClient.fetchComments("post-123")).thenReturn(allComments);
-        when(storageRepository.isCommentProcessed("comment-1")).thenReturn(true); // Already processed
-        when(storageRepository.isCommentProcessed("comment-2")).thenReturn(false); // Not processed
+        when(storageRepository.isCommentProcessed("post-123", "comment-1")).thenReturn(true); // Already processed
+        when(storageRepository.isCommentProcessed("post-123", "comment-2")).thenReturn(false); // Not processed
         when(apiClient.fetchPost("post-123")).thenReturn(post);
         when(llmAgent.generateResponse(any(Post.class), any(Comment.class), anyString()))
                 .thenReturn(response);
@@ -350,9 +392,836 @@ class WorkflowOrchestratorTest {
         
         // Verify - should only process comment-2
         verify(apiClient).fetchComments("post-123");
-        verify(storageRepository).isCommentProcessed("comment-1");
-        verify(storageRepository).isCommentProcessed("comment-2");
+        verify(storageRepository).isCommentProcessed("post-123", "comment-1");
+        verify(storageRepository).isCommentProcessed("post-123", "comment-2");
         verify(apiClient, times(1)).fetchPost("post-123"); // Only once for comment-2
         verify(llmAgent, times(1)).generateResponse(any(), any(), anyString()); // Only once
     }
+    
+    @Test
+    void testPollForComments_ParallelProcessingIsBoundedAndSkipsDuplicates() {
+        ReflectionTestUtils.setField(orchestrator, "processingConcurrency", 4);
+        
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setRequireManualApproval(false);
+        config.setTonePreference("witty");
+        config.setMaxRetries(1);
+        orchestrator.startPolling(config);
+        
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Comment comment = new Comment();
+            comment.setId("comment-" + i);
+            comment.setPostId("post-123");
+            comment.setAuthorName("User " + i);
+            comment.setText("Comment " + i);
+            comment.setTimestamp(Instant.now());
+            comments.add(comment);
+        }
+        comments.add(comments.get(0)); // Same comment returned twice by the API
+        
+        Post post = new Post();
+        post.setId("post-123");
+        post.setContent("Test post");
+        
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        when(apiClient.fetchComments("post-123")).thenReturn(comments);
+        when(storageRepository.isCommentProcessed(anyString(), anyString())).thenReturn(false);
+        when(apiClient.fetchPost("post-123")).thenReturn(post);
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), anyString())).thenReturn(response);
+        when(apiClient.postReply(anyString(), anyString())).thenAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            active.decrementAndGet();
+            return new PostResult(true, "response-id");
+        });
+        
+        try {
+            // Returns only after the whole batch is done
+            orchestrator.pollForComments();
+            
+            verify(apiClient, times(12)).postReply(anyString(), anyString());
+            verify(storageRepository, times(12)).markCommentProcessed(eq("post-123"), anyString());
+            assertEquals(0, active.get());
+            assertTrue(maxActive.get() > 1, "Comments should be processed concurrently");
+            assertTrue(maxActive.get() <= 4, "Concurrency limit exceeded: " + maxActive.get());
+        } finally {
+            orchestrator.shutdown();
+        }
+    }
+    
+    @Test
+    void testPollForComments_PrioritizedCommentsAreProcessedFirst() {
+        ReflectionTestUtils.setField(orchestrator, "priorityEnabled", true);
+        ReflectionTestUtils.setField(orchestrator, "priorityAuthorWeights", "urn:li:person:vip=5");
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setRequireManualApproval(true);
+        config.setManualReviewKeywords(List.of("refund"));
+        orchestrator.startPolling(config);
+        
+        Instant now = Instant.now();
+        List<Comment> comments = List.of(
+                new Comment("comment-0", "post-123", "urn:li:person:0", "Ann", "Nice", now),
+                new Comment("comment-1", "post-123", "urn:li:person:1", "Ben", "Great post", now),
+                new Comment("comment-2", "post-123", "urn:li:person:2", "Cid", "I want a refund", now),
+                new Comment("comment-3", "post-123", "urn:li:person:3", "Dee",
+                        "This matches what we saw when migrating our own services last year, in detail", now),
+                new Comment("comment-4", "post-123", "urn:li:person:vip", "Eve", "Thanks", now));
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        when(apiClient.fetchComments("post-123")).thenReturn(comments);
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), anyString())).thenReturn(response);
+        
+        orchestrator.pollForComments();
+        
+        ArgumentCaptor<Comment> captor = ArgumentCaptor.forClass(Comment.class);
+        verify(llmAgent, times(5)).generateResponse(any(Post.class), captor.capture(), anyString());
+        assertEquals(List.of("comment-2", "comment-4", "comment-3", "comment-1", "comment-0"),
+                captor.getAllValues().stream().map(Comment::getId).collect(Collectors.toList()));
+    }
+    
+    @Test
+    void testPollForComments_RestoresCallerMdc() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setTonePreference("witty");
+        orchestrator.startPolling(config);
+        
+        Comment comment = new Comment();
+        comment.setId("comment-1");
+        comment.setPostId("post-123");
+        comment.setAuthorName("User 1");
+        comment.setText("First comment");
+        comment.setTimestamp(Instant.now());
+        
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of(comment));
+        when(apiClient.fetchPost("post-123")).thenThrow(new RuntimeException("boom"));
+        
+        MDC.put("requestId", "poller");
+        try {
+            orchestrator.pollForComments();
+            
+            // processComment clears its own MDC; the caller's context must survive
+            assertEquals("poller", MDC.get("requestId"));
+            assertNull(MDC.get("correlationId"));
+        } finally {
+            MDC.clear();
+        }
+    }
+    
+    @Test
+    void testMultiplePosts_PolledTogetherWithOwnConfig() {
+        WorkflowConfig wittyConfig = new WorkflowConfig();
+        wittyConfig.setPostId("post-a");
+        wittyConfig.setTonePreference("witty");
+        orchestrator.startPolling(wittyConfig);
+        
+        WorkflowConfig professionalConfig = new WorkflowConfig();
+        professionalConfig.setPostId("post-b");
+        professionalConfig.setTonePreference("professional");
+        orchestrator.startPolling(professionalConfig);
+        
+        assertEquals(2, orchestrator.getWatchedPosts().size());
+        assertEquals(professionalConfig, orchestrator.getConfig());
+        assertEquals(wittyConfig, orchestrator.getConfig("post-a"));
+        
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        
+        for (String postId : List.of("post-a", "post-b")) {
+            Comment comment = new Comment();
+            comment.setId(postId + "-comment");
+            comment.setPostId(postId);
+            comment.setAuthorName("User");
+            comment.setText("Nice post");
+            comment.setTimestamp(Instant.now());
+            
+            Post post = new Post();
+            post.setId(postId);
+            post.setContent("Test post");
+            
+            when(apiClient.fetchComments(postId)).thenReturn(List.of(comment));
+            when(apiClient.fetchPost(postId)).thenReturn(post);
+        }
+        when(storageRepository.isCommentProcessed(anyString(), anyString())).thenReturn(false);
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), anyString())).thenReturn(response);
+        when(apiClient.postReply(anyString(), anyString())).thenReturn(new PostResult(true, "response-id"));
+        
+        orchestrator.pollForComments();
+        
+        verify(llmAgent).generateResponse(any(Post.class), argThat(c -> c.getPostId().equals("post-a")), eq("witty"));
+        verify(llmAgent).generateResponse(any(Post.class), argThat(c -> c.getPostId().equals("post-b")), eq("professional"));
+        verify(storageRepository).markCommentProcessed("post-a", "post-a-comment");
+        verify(storageRepository).markCommentProcessed("post-b", "post-b-comment");
+        for (WatchedPost watched : orchestrator.getWatchedPosts()) {
+            assertEquals(1, watched.getPollCount());
+            assertEquals(1, watched.getCommentsProcessed());
+            assertNotNull(watched.getNextPollAt());
+        }
+        
+        // Stopping one post leaves the other watched
+        assertTrue(orchestrator.stopPolling("post-a"));
+        assertFalse(orchestrator.stopPolling("post-a"));
+        assertTrue(orchestrator.isPolling());
+        assertFalse(orchestrator.isPolling("post-a"));
+        assertTrue(orchestrator.isPolling("post-b"));
+    }
+    
+    @Test
+    void testPollForComments_WaitsForPostInterval() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setPollingIntervalSeconds(300);
+        orchestrator.startPolling(config);
+        
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of());
+        
+        orchestrator.pollForComments();
+        orchestrator.pollForComments(); // Not due again for another 300 seconds
+        
+        verify(apiClient, times(1)).fetchComments("post-123");
+    }
+    
+    @Test
+    void testPollForComments_AdaptiveIntervalFollowsActivity() {
+        ReflectionTestUtils.setField(orchestrator, "adaptivePolling", true);
+        WorkflowConfig quietConfig = new WorkflowConfig();
+        quietConfig.setPostId("post-quiet");
+        quietConfig.setPollingIntervalSeconds(60);
+        orchestrator.startPolling(quietConfig);
+        WorkflowConfig busyConfig = new WorkflowConfig();
+        busyConfig.setPostId("post-busy");
+        busyConfig.setPollingIntervalSeconds(60);
+        busyConfig.setRequireManualApproval(true);
+        orchestrator.startPolling(busyConfig);
+        
+        List<Comment> busyComments = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Comment comment = new Comment();
+            comment.setId("comment-" + i);
+            comment.setPostId("post-busy");
+            comment.setAuthorName("User " + i);
+            comment.setText("Comment " + i);
+            comment.setTimestamp(Instant.now());
+            busyComments.add(comment);
+        }
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        when(apiClient.fetchComments("post-quiet")).thenReturn(List.of());
+        when(apiClient.fetchComments("post-busy")).thenReturn(busyComments);
+        when(apiClient.fetchPost("post-busy")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), anyString())).thenReturn(response);
+        
+        orchestrator.pollForComments();
+        
+        // No new comments doubles the interval; 40 in 60 s needs only 7.5 s for 5, clamped to the minimum
+        assertEquals(120, orchestrator.getWatchedPosts().stream()
+                .filter(post -> post.getPostId().equals("post-quiet")).findFirst().get().getPollIntervalSeconds());
+        WatchedPost busy = orchestrator.getWatchedPosts().stream()
+                .filter(post -> post.getPostId().equals("post-busy")).findFirst().get();
+        assertEquals(30, busy.getPollIntervalSeconds());
+        assertEquals(40.0, busy.getCommentsPerMinute(), 0.001);
+    }
+    
+    @Test
+    void testPollForComments_FailureOnOnePostDoesNotBlockOthers() {
+        WorkflowConfig failingConfig = new WorkflowConfig();
+        failingConfig.setPostId("post-a");
+        orchestrator.startPolling(failingConfig);
+        
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-b");
+        orchestrator.startPolling(config);
+        
+        when(apiClient.fetchComments("post-a")).thenThrow(new RuntimeException("boom"));
+        when(apiClient.fetchComments("post-b")).thenReturn(List.of());
+        
+        orchestrator.pollForComments();
+        
+        verify(apiClient).fetchComments("post-b");
+        WatchedPost failing = orchestrator.getWatchedPosts().stream()
+                .filter(post -> post.getPostId().equals("post-a"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("boom", failing.getLastError());
+        assertFalse(failing.isPollInProgress());
+    }
+    
+    @Test
+    void testProcessComment_FetchesPostOncePerPost() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        orchestrator.startPolling(config);
+        
+        Post post = new Post();
+        post.setId("post-123");
+        post.setContent("Test post");
+        
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        
+        when(apiClient.fetchPost("post-123")).thenReturn(post);
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), anyString())).thenReturn(response);
+        when(apiClient.postReply(anyString(), anyString())).thenReturn(new PostResult(true, "response-id"));
+        
+        for (int i = 0; i < 5; i++) {
+            Comment comment = new Comment();
+            comment.setId("comment-" + i);
+            comment.setPostId("post-123");
+            comment.setAuthorName("User " + i);
+            comment.setText("Comment " + i);
+            comment.setTimestamp(Instant.now());
+            orchestrator.processComment(comment);
+        }
+        
+        verify(apiClient, times(1)).fetchPost("post-123");
+        assertEquals(4, orchestrator.getPostCacheStats().getHits());
+        assertEquals(1, orchestrator.getPostCacheStats().getMisses());
+        
+        // Invalidation forces the next comment to fetch the post again
+        orchestrator.invalidatePostCache("post-123");
+        Comment comment = new Comment();
+        comment.setId("comment-5");
+        comment.setPostId("post-123");
+        comment.setAuthorName("User 5");
+        comment.setText("Comment 5");
+        comment.setTimestamp(Instant.now());
+        orchestrator.processComment(comment);
+        
+        verify(apiClient, times(2)).fetchPost("post-123");
+    }
+    
+    @Test
+    void testPollForComments_FetchesIncrementallyFromCursor() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        orchestrator.startPolling(config);
+        
+        Instant watermark = Instant.parse("2024-01-01T10:00:00Z");
+        Comment newComment = new Comment();
+        newComment.setId("comment-9");
+        newComment.setPostId("post-123");
+        newComment.setAuthorName("User 9");
+        newComment.setText("Late but new");
+        newComment.setTimestamp(watermark.plusSeconds(30));
+        
+        when(storageRepository.getCommentCursor("post-123"))
+                .thenReturn(new CommentCursor("post-123", watermark, "comment-8", watermark));
+        when(apiClient.fetchCommentsSince(eq("post-123"), any(Instant.class))).thenReturn(List.of(newComment));
+        when(storageRepository.isCommentProcessed("post-123", "comment-9")).thenReturn(true);
+        
+        orchestrator.pollForComments();
+        
+        // Re-scans the default 600 second window before the watermark instead of fetching everything
+        verify(apiClient).fetchCommentsSince("post-123", watermark.minusSeconds(600));
+        verify(apiClient, never()).fetchComments(anyString());
+        
+        ArgumentCaptor<CommentCursor> saved = ArgumentCaptor.forClass(CommentCursor.class);
+        verify(storageRepository).saveCommentCursor(saved.capture());
+        assertEquals("post-123", saved.getValue().getPostId());
+        assertEquals(newComment.getTimestamp(), saved.getValue().getLastCreatedAt());
+        assertEquals("comment-9", saved.getValue().getLastCommentId());
+    }
+    
+    @Test
+    void testPollForComments_FailedCommentHoldsCursorUntilRetried() {
+        SimulatedClock clock = new SimulatedClock(Instant.parse("2024-01-01T10:00:00Z"));
+        orchestrator.setClock(clock, clock, clock::nanoTime);
+        trackProcessedComments();
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setPollingIntervalSeconds(60);
+        orchestrator.startPolling(config);
+        
+        Comment failing = new Comment("comment-1", "post-123", "urn:li:person:1", "Ann", "First!",
+                Instant.parse("2024-01-01T09:00:00Z"));
+        Comment newer = new Comment("comment-2", "post-123", "urn:li:person:2", "Bob", "Second",
+                Instant.parse("2024-01-01T09:30:00Z"));
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of(failing, newer));
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), eq(failing), anyString()))
+                .thenThrow(new RuntimeException("LLM unavailable"))
+                .thenReturn(response);
+        when(llmAgent.generateResponse(any(Post.class), eq(newer), anyString())).thenReturn(response);
+        when(apiClient.postReply(anyString(), anyString())).thenReturn(new PostResult(true, "reply"));
+        
+        orchestrator.pollForComments();
+        
+        // The newer comment was replied to, but the cursor stays before the failed one
+        verify(apiClient).postReply("comment-2", "Thanks!");
+        verify(storageRepository, never()).saveCommentCursor(any(CommentCursor.class));
+        
+        clock.advance(Duration.ofMinutes(2));
+        orchestrator.pollForComments();
+        
+        verify(apiClient).postReply("comment-1", "Thanks!");
+        verify(apiClient, times(1)).postReply("comment-2", "Thanks!");
+        ArgumentCaptor<CommentCursor> saved = ArgumentCaptor.forClass(CommentCursor.class);
+        verify(storageRepository).saveCommentCursor(saved.capture());
+        assertEquals("comment-2", saved.getValue().getLastCommentId());
+    }
+    
+    @Test
+    void testPollForComments_CommentInFlightHoldsCursorWithoutCountingAsAttempt() throws Exception {
+        SimulatedClock clock = new SimulatedClock(Instant.parse("2024-01-01T10:00:00Z"));
+        orchestrator.setClock(clock, clock, clock::nanoTime);
+        ReflectionTestUtils.setField(orchestrator, "webhookEnabled", true);
+        ReflectionTestUtils.setField(orchestrator, "maxCommentAttempts", 1);
+        trackProcessedComments();
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setPollingIntervalSeconds(60);
+        orchestrator.startPolling(config);
+        
+        Comment pushed = new Comment("comment-1", "post-123", "urn:li:person:1", "Ann", "First!",
+                Instant.parse("2024-01-01T09:00:00Z"));
+        Comment newer = new Comment("comment-2", "post-123", "urn:li:person:2", "Bob", "Second",
+                Instant.parse("2024-01-01T09:30:00Z"));
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        CountDownLatch generating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of(pushed, newer));
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), eq(pushed), anyString())).thenAnswer(invocation -> {
+            generating.countDown();
+            release.await();
+            return response;
+        });
+        when(llmAgent.generateResponse(any(Post.class), eq(newer), anyString())).thenReturn(response);
+        when(apiClient.postReply(anyString(), anyString())).thenReturn(new PostResult(true, "reply"));
+        
+        orchestrator.ingestComments(List.of(pushed));
+        assertTrue(generating.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            clock.advance(Duration.ofMinutes(16));
+            orchestrator.pollForComments();
+        }
+        
+        // The polls left the webhook's comment alone and kept the cursor before it
+        verify(apiClient, times(3)).fetchComments("post-123");
+        verify(llmAgent, times(1)).generateResponse(any(Post.class), eq(pushed), anyString());
+        verify(apiClient, times(1)).postReply("comment-2", "Thanks!");
+        verify(storageRepository, never()).saveCommentCursor(any(CommentCursor.class));
+        
+        release.countDown();
+        // Dropped once the reply is posted and the comment marked processed, for both comments
+        verify(storageRepository, timeout(5000).times(2)).deleteCommentCheckpoint(anyString());
+        clock.advance(Duration.ofMinutes(16));
+        orchestrator.pollForComments();
+        
+        verify(apiClient, times(1)).postReply("comment-1", "Thanks!");
+        ArgumentCaptor<CommentCursor> saved = ArgumentCaptor.forClass(CommentCursor.class);
+        verify(storageRepository).saveCommentCursor(saved.capture());
+        assertEquals("comment-2", saved.getValue().getLastCommentId());
+    }
+    
+    @Test
+    void testManualApproval_QueuesEveryCommentAndDecidesById() throws Exception {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setRequireManualApproval(true);
+        config.setTonePreference("witty");
+        config.setMaxRetries(1);
+        orchestrator.startPolling(config);
+        
+        Post post = new Post();
+        post.setId("post-123");
+        post.setContent("My post");
+        
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Comment comment = new Comment();
+            comment.setId("comment-" + i);
+            comment.setPostId("post-123");
+            comment.setAuthorName("User " + i);
+            comment.setText("Comment " + i);
+            comment.setTimestamp(Instant.now());
+            comments.add(comment);
+        }
+        
+        when(apiClient.fetchPost("post-123")).thenReturn(post);
+        when(apiClient.fetchComments("post-123")).thenReturn(comments);
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty"))).thenReturn(response);
+        when(apiClient.postReply("comment-2", "Thanks!")).thenReturn(new PostResult(true, "reply-2"));
+        
+        orchestrator.pollForComments();
+        
+        List<PendingApproval> queued = orchestrator.getPendingApprovals("post-123");
+        assertEquals(3, queued.size());
+        assertTrue(orchestrator.getPendingApprovals("other-post").isEmpty());
+        verify(storageRepository, times(3)).savePendingApproval(any(PendingApproval.class));
+        
+        // Approve the second item without touching the others
+        assertTrue(orchestrator.approveResponse(queued.get(1).getId()).get(5, TimeUnit.SECONDS));
+        verify(apiClient).postReply("comment-2", "Thanks!");
+        verify(storageRepository).markCommentProcessed("post-123", "comment-2");
+        assertThrows(IllegalArgumentException.class, () -> orchestrator.approveResponse(queued.get(1).getId()));
+        
+        assertTrue(orchestrator.rejectResponse(queued.get(2).getId()));
+        assertFalse(orchestrator.rejectResponse(queued.get(2).getId()));
+        assertEquals("comment-1", orchestrator.getPendingComment().getId());
+        
+        // A re-poll does not regenerate responses for comments still awaiting review
+        orchestrator.pollForComments();
+        verify(llmAgent, times(3)).generateResponse(any(Post.class), any(Comment.class), eq("witty"));
+    }
+    
+    @Test
+    void testAutomaticMode_FailedReplyIsRetriedInBackground() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setTonePreference("witty");
+        config.setMaxRetries(3);
+        config.setRetryBackoffSeconds(0);
+        orchestrator.startPolling(config);
+        
+        Comment comment = new Comment();
+        comment.setId("comment-123");
+        comment.setPostId("post-123");
+        comment.setAuthorName("John Doe");
+        comment.setText("Great post!");
+        comment.setTimestamp(Instant.now());
+        
+        Post post = new Post();
+        post.setId("post-123");
+        
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks John!");
+        response.setConfidenceScore(0.95);
+        
+        when(apiClient.fetchPost("post-123")).thenReturn(post);
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty"))).thenReturn(response);
+        when(apiClient.postReply("comment-123", "Thanks John!"))
+                .thenReturn(new PostResult(false, "Service Unavailable", 503))
+                .thenReturn(new PostResult(false, "Too Many Requests", 429))
+                .thenReturn(new PostResult(true, "response-123"));
+        
+        orchestrator.processComment(comment);
+        
+        // The processing thread returns after the first attempt; the rest happen on the retry scheduler
+        verify(storageRepository, atLeastOnce()).saveReplyRetry(any(ReplyRetry.class));
+        verify(apiClient, timeout(5000).times(3)).postReply("comment-123", "Thanks John!");
+        verify(storageRepository, timeout(5000)).markCommentProcessed("post-123", "comment-123");
+        verify(storageRepository, timeout(5000)).deleteReplyRetry(anyString());
+        
+        ArgumentCaptor<Interaction> captor = ArgumentCaptor.forClass(Interaction.class);
+        verify(storageRepository, times(2)).saveInteraction(captor.capture());
+        Interaction posted = captor.getAllValues().get(1);
+        assertEquals(ResponseStatus.POSTED, posted.getStatus());
+        assertEquals("3", posted.getMetadata().get("attempts"));
+        assertTrue(orchestrator.getReplyRetries().isEmpty());
+    }
+    
+    @Test
+    void testAutomaticMode_ClientErrorIsNotRetried() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setTonePreference("witty");
+        config.setMaxRetries(3);
+        orchestrator.startPolling(config);
+        
+        Comment comment = new Comment();
+        comment.setId("comment-123");
+        comment.setPostId("post-123");
+        comment.setAuthorName("John Doe");
+        comment.setText("Great post!");
+        comment.setTimestamp(Instant.now());
+        
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks John!");
+        response.setConfidenceScore(0.95);
+        
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty"))).thenReturn(response);
+        when(apiClient.postReply("comment-123", "Thanks John!")).thenReturn(new PostResult(false, "Forbidden", 403));
+        
+        orchestrator.processComment(comment);
+        
+        verify(apiClient, times(1)).postReply(anyString(), anyString());
+        verify(storageRepository, never()).saveReplyRetry(any(ReplyRetry.class));
+        verify(storageRepository, never()).markCommentProcessed(anyString(), anyString());
+        
+        ArgumentCaptor<Interaction> captor = ArgumentCaptor.forClass(Interaction.class);
+        verify(storageRepository, times(2)).saveInteraction(captor.capture());
+        assertEquals(ResponseStatus.FAILED, captor.getAllValues().get(1).getStatus());
+    }
+    
+    @Test
+    void testCoordination_PollsOwnedPostsAndFencesReplies() {
+        CoordinationStore store = mock(CoordinationStore.class);
+        ReflectionTestUtils.setField(orchestrator, "nodeId", "node-a");
+        orchestrator.setCoordinationStore(store);
+        when(store.liveNodes()).thenReturn(List.of("node-a"));
+        when(store.tryAcquire(eq("post-owned"), eq("node-a"), any()))
+                .thenReturn(new Lease("post-owned", "node-a", 7, Instant.now().plusSeconds(30)));
+        when(store.tryAcquire(eq("post-taken"), eq("node-a"), any())).thenReturn(null);
+        for (String postId : List.of("post-owned", "post-taken")) {
+            WorkflowConfig config = new WorkflowConfig();
+            config.setPostId(postId);
+            orchestrator.startPolling(config);
+        }
+        orchestrator.initialize();
+        
+        Comment comment = new Comment("comment-1", "post-owned", "urn:li:person:1", "Ann", "Nice", Instant.now());
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        when(apiClient.fetchComments("post-owned")).thenReturn(List.of(comment));
+        when(apiClient.fetchPost("post-owned")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), anyString())).thenReturn(response);
+        // The lease is taken over between polling and posting
+        when(store.isCurrent(any())).thenReturn(false);
+        
+        orchestrator.pollForComments();
+        orchestrator.shutdown();
+        
+        verify(apiClient, never()).fetchComments("post-taken");
+        verify(llmAgent).generateResponse(any(Post.class), eq(comment), anyString());
+        verify(apiClient, never()).postReply(anyString(), anyString());
+        verify(store, never()).markProcessed(anyString(), anyString());
+        verify(storageRepository, never()).markCommentProcessed(anyString(), anyString());
+    }
+    
+    @Test
+    void testPollForComments_ReusesCheckpointedResponse() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        Comment comment = new Comment("comment-1", "post-123", "urn:li:person:1", "Ann", "Nice", Instant.now());
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks, Ann!");
+        CommentCheckpoint checkpoint = new CommentCheckpoint("checkpoint-1", comment, config, Instant.now());
+        checkpoint.setPost(new Post());
+        checkpoint.setResponse(response);
+        checkpoint.setState(CommentCheckpoint.State.GENERATED);
+        when(storageRepository.getCommentCheckpoints()).thenReturn(List.of(checkpoint));
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of(comment));
+        when(apiClient.postReply("comment-1", "Thanks, Ann!")).thenReturn(new PostResult(true, "reply-1"));
+        orchestrator.startPolling(config);
+        
+        orchestrator.pollForComments();
+        
+        verify(llmAgent, never()).generateResponse(any(), any(), anyString());
+        verify(apiClient, never()).fetchPost(anyString());
+        verify(apiClient).postReply("comment-1", "Thanks, Ann!");
+        verify(storageRepository).markCommentProcessed("post-123", "comment-1");
+        verify(storageRepository).deleteCommentCheckpoint("checkpoint-1");
+    }
+    
+    @Test
+    void testInitialize_PostedCheckpointIsNotPostedAgain() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        Comment comment = new Comment("comment-1", "post-123", "urn:li:person:1", "Ann", "Nice", Instant.now());
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks, Ann!");
+        CommentCheckpoint checkpoint = new CommentCheckpoint("checkpoint-1", comment, config, Instant.now());
+        checkpoint.setPost(new Post());
+        checkpoint.setResponse(response);
+        checkpoint.setResponseId("reply-1");
+        checkpoint.setState(CommentCheckpoint.State.POSTED);
+        when(storageRepository.getCommentCheckpoints()).thenReturn(List.of(checkpoint));
+        
+        orchestrator.initialize();
+        
+        // Only the bookkeeping after posting is left
+        verify(storageRepository, timeout(5000)).deleteCommentCheckpoint("checkpoint-1");
+        verify(storageRepository).markCommentProcessed("post-123", "comment-1");
+        verify(apiClient, never()).postReply(anyString(), anyString());
+        verify(llmAgent, never()).generateResponse(any(), any(), anyString());
+        ArgumentCaptor<Interaction> captor = ArgumentCaptor.forClass(Interaction.class);
+        verify(storageRepository).saveInteraction(captor.capture());
+        assertEquals(ResponseStatus.POSTED, captor.getValue().getStatus());
+        assertEquals("reply-1", captor.getValue().getMetadata().get("response_id"));
+    }
+    
+    @Test
+    void testWebhook_PushedCommentIsProcessedWithoutPolling() {
+        ReflectionTestUtils.setField(orchestrator, "webhookEnabled", true);
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setTonePreference("witty");
+        orchestrator.startPolling(config);
+        
+        Comment comment = new Comment("comment-1", "post-123", "urn:li:person:1", "Ann", "Great post!", Instant.now());
+        Comment replied = new Comment("comment-0", "post-123", "urn:li:person:2", "Bob", "First!", Instant.now());
+        Comment elsewhere = new Comment("comment-9", "post-999", "urn:li:person:3", "Cy", "Hello", Instant.now());
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks, Ann!");
+        response.setConfidenceScore(0.95);
+        when(storageRepository.isCommentProcessed("post-123", "comment-0")).thenReturn(true);
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty"))).thenReturn(response);
+        when(apiClient.postReply("comment-1", "Thanks, Ann!")).thenReturn(new PostResult(true, "reply-1"));
+        
+        WorkflowOrchestrator.IngestResult result = orchestrator.ingestComments(List.of(comment, replied, elsewhere));
+        
+        assertEquals(1, result.getQueued());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(1, result.getIgnored());
+        verify(storageRepository, timeout(5000)).markCommentProcessed("post-123", "comment-1");
+        verify(apiClient).postReply("comment-1", "Thanks, Ann!");
+        verify(apiClient, never()).postReply(eq("comment-0"), anyString());
+        verify(apiClient, never()).fetchComments(anyString());
+    }
+    
+    @Test
+    void testWebhook_PollsOnlyToReconcile() {
+        ReflectionTestUtils.setField(orchestrator, "webhookEnabled", true);
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setPollingIntervalSeconds(60);
+        orchestrator.startPolling(config);
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of());
+        
+        orchestrator.pollForComments();
+        
+        // The first poll catches up right away; later ones only pick up lost notifications
+        verify(apiClient).fetchComments("post-123");
+        assertEquals(900, orchestrator.getWatchedPosts().get(0).getPollIntervalSeconds());
+    }
+    
+    @Test
+    void testWorkQueue_PolledCommentsAreProcessedFromDisk() throws Exception {
+        ReflectionTestUtils.setField(orchestrator, "workQueueEnabled", true);
+        ReflectionTestUtils.setField(orchestrator, "workQueueDirectory", tempDir.resolve("work-queue").toString());
+        ReflectionTestUtils.setField(orchestrator, "workQueueBatchSize", 1);
+        trackProcessedComments();
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setTonePreference("witty");
+        orchestrator.startPolling(config);
+        
+        Comment first = new Comment("comment-1", "post-123", "urn:li:person:1", "Ann", "Great post!", Instant.now());
+        Comment second = new Comment("comment-2", "post-123", "urn:li:person:2", "Bob", "Agreed", Instant.now());
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of(first, second));
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty"))).thenReturn(response);
+        when(apiClient.postReply(anyString(), anyString())).thenReturn(new PostResult(true, "reply"));
+        
+        orchestrator.pollForComments();
+        
+        // The cursor moves once the comments are on disk, before they are processed
+        verify(storageRepository).saveCommentCursor(any(CommentCursor.class));
+        
+        // The consumer took both comments through the queue one batch at a time and acknowledged them
+        verify(apiClient, timeout(5000)).postReply("comment-1", "Thanks!");
+        verify(apiClient, timeout(5000)).postReply("comment-2", "Thanks!");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (orchestrator.getWorkQueueStats().getPending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, orchestrator.getWorkQueueStats().getPending());
+        assertEquals(2, orchestrator.getWorkQueueStats().getConsumerOffset());
+    }
+    
+    @Test
+    void testDrain_FinishesCommentsInProgressAndStartsNoNewPolls() throws Exception {
+        ReflectionTestUtils.setField(orchestrator, "processingConcurrency", 2);
+        trackProcessedComments();
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setTonePreference("witty");
+        orchestrator.startPolling(config);
+        
+        Comment comment = new Comment("comment-1", "post-123", "urn:li:person:1", "Ann", "Great post!", Instant.now());
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        response.setConfidenceScore(0.9);
+        CountDownLatch generating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of(comment));
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty"))).thenAnswer(invocation -> {
+            generating.countDown();
+            release.await();
+            return response;
+        });
+        when(apiClient.postReply(anyString(), anyString())).thenReturn(new PostResult(true, "reply"));
+        
+        Thread poll = new Thread(orchestrator::pollForComments);
+        poll.start();
+        assertTrue(generating.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> drained = CompletableFuture.supplyAsync(() -> orchestrator.drain(Duration.ofSeconds(5)));
+        Thread.sleep(100);
+        orchestrator.pollForComments();
+        
+        assertFalse(drained.isDone(), "Drain returned while a comment was in progress");
+        assertTrue(orchestrator.isDraining());
+        release.countDown();
+        assertTrue(drained.get(5, TimeUnit.SECONDS));
+        poll.join(5000);
+        orchestrator.shutdown();
+        
+        verify(apiClient).fetchComments("post-123");
+        verify(apiClient).postReply("comment-1", "Thanks!");
+        verify(storageRepository).markCommentProcessed("post-123", "comment-1");
+        verify(storageRepository).saveCommentCursor(any(CommentCursor.class));
+    }
+    
+    @Test
+    void testShutdown_WorkPastTheDrainDeadlineIsLeftForTheNextRun() throws Exception {
+        ReflectionTestUtils.setField(orchestrator, "processingConcurrency", 2);
+        ReflectionTestUtils.setField(orchestrator, "drainTimeoutSeconds", 0L);
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-123");
+        config.setTonePreference("witty");
+        orchestrator.startPolling(config);
+        
+        Comment comment = new Comment("comment-1", "post-123", "urn:li:person:1", "Ann", "Great post!", Instant.now());
+        CountDownLatch generating = new CountDownLatch(1);
+        when(apiClient.fetchComments("post-123")).thenReturn(List.of(comment));
+        when(apiClient.fetchPost("post-123")).thenReturn(new Post());
+        when(llmAgent.generateResponse(any(Post.class), any(Comment.class), eq("witty"))).thenAnswer(invocation -> {
+            generating.countDown();
+            // An LLM call that outlasts the deadline; shutdown interrupts it
+            new CountDownLatch(1).await();
+            return null;
+        });
+        
+        Thread poll = new Thread(orchestrator::pollForComments);
+        poll.start();
+        assertTrue(generating.await(5, TimeUnit.SECONDS));
+        orchestrator.shutdown();
+        poll.join(5000);
+        
+        assertFalse(poll.isAlive(), "The poll should return once its comments are interrupted");
+        // Not recorded as failed: the checkpoint resumes it, and the unmoved cursor fetches it again
+        verify(storageRepository, never()).saveInteraction(any(Interaction.class));
+        verify(errorHandler, never()).handleError(any(Throwable.class), anyMap());
+        verify(storageRepository, never()).saveCommentCursor(any(CommentCursor.class));
+        verify(storageRepository, never()).deleteCommentCheckpoint(anyString());
+    }
+    
+    /**
+     * Makes the mocked repository report comments as processed once they are marked, as a real
+     * one does; the cursor and the work queue only move past handled comments.
+     */
+    private void trackProcessedComments() {
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> processed.add(invocation.getArgument(0) + "/" + invocation.getArgument(1)))
+                .when(storageRepository).markCommentProcessed(anyString(), anyString());
+        when(storageRepository.isCommentProcessed(anyString(), anyString()))
+                .thenAnswer(invocation -> processed.contains(invocation.getArgument(0) + "/" + invocation.getArgument(1)));
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.linkedin.repository;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the StorageRepository conformance suite against the file-based backend.
+ */
+class FileBasedStorageRepositoryContractTest extends StorageRepositoryContractTest {
+    
+    @Override
+    protected StorageRepository createRepository(Path directory) {
+        FileBasedStorageRepository repository = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(repository, "storageDirectory", directory.toString());
+        ReflectionTestUtils.setField(repository, "archiveDirectory", directory.resolve("archive").toString());
+        ReflectionTestUtils.setField(repository, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(repository, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(repository, "maxCapacity", CAPACITY);
+        repository.initialize();
+        return repository;
+    }
+    
+    @Override
+    protected void closeRepository(StorageRepository repository) {
+        ((FileBasedStorageRepository) repository).shutdown();
+    }
+}
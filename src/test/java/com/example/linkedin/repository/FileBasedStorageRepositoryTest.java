@@ -1,7 +1,18 @@
 package com.example.linkedin.repository;
 
+import com.example.linkedin.model.BackfillJob;
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.CommentCheckpoint;
+import com.example.linkedin.model.CommentCursor;
+import com.example.linkedin.model.GeneratedResponse;
 import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.PendingApproval;
+import com.example.linkedin.model.Post;
 import com.example.linkedin.model.ResponseStatus;
+import com.example.linkedin.model.WorkflowConfig;
+import com.example.linkedin.repository.archive.ArchiveSink;
+import com.example.linkedin.repository.archive.LocalArchiveSink;
+import com.example.linkedin.util.SimulatedClock;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,10 +20,17 @@ import org.junit.jupiter.api.io.TempDir;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,6 +101,252 @@ class FileBasedStorageRepositoryTest {
         assertTrue(repository.isCommentProcessed(commentId));
     }
     
+    @Test
+    void testProcessedCommentsSurviveEvictionAndRestart() {
+        repository.markCommentProcessed("post-1", "comment-1");
+        repository.markCommentProcessed("post-2", "comment-2");
+        assertEquals(2, repository.getActiveProcessedPostCount());
+        
+        // Evict everything that has been idle for zero minutes
+        ReflectionTestUtils.setField(repository, "processedIdleEvictionMinutes", 0L);
+        repository.evictIdleProcessedPosts();
+        assertEquals(0, repository.getActiveProcessedPostCount());
+        
+        // Lookups without a post ID are answered from the on-disk index
+        assertTrue(repository.isCommentProcessed("comment-1"));
+        assertFalse(repository.isCommentProcessed("comment-3"));
+        
+        // Lookups with a post ID lazily reload only that post
+        assertTrue(repository.isCommentProcessed("post-2", "comment-2"));
+        assertEquals(1, repository.getActiveProcessedPostCount());
+        
+        // A fresh instance over the same directory starts with nothing in memory
+        FileBasedStorageRepository restarted = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(restarted, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(restarted, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(restarted, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(restarted, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(restarted, "maxCapacity", 10);
+        restarted.initialize();
+        
+        assertEquals(0, restarted.getActiveProcessedPostCount());
+        assertTrue(restarted.isCommentProcessed("comment-2"));
+        assertTrue(restarted.isCommentProcessed("post-1", "comment-1"));
+    }
+    
+    @Test
+    void testIndexHitNoPostFileListsIsNotProcessed() throws IOException {
+        // An index entry without a post file behind it stands in for another ID with the same hash
+        ByteBuffer index = ByteBuffer.allocate(Long.BYTES).putLong(ProcessedCommentStore.hash("comment-9"));
+        Files.write(tempDir.resolve("processed-index.bin"), index.array());
+        
+        FileBasedStorageRepository restarted = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(restarted, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(restarted, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(restarted, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(restarted, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(restarted, "maxCapacity", 10);
+        restarted.initialize();
+        
+        assertFalse(restarted.isCommentProcessed("comment-9"));
+        assertFalse(restarted.isCommentProcessed("post-1", "comment-9"));
+        restarted.markCommentProcessed("post-2", "comment-9");
+        assertTrue(restarted.isCommentProcessed("post-1", "comment-9"));
+        restarted.shutdown();
+    }
+    
+    @Test
+    void testIdleProcessedPostsAreEvictedOnTheClock() {
+        SimulatedClock clock = new SimulatedClock(Instant.parse("2024-01-01T10:00:00Z"));
+        FileBasedStorageRepository timed = new FileBasedStorageRepository(clock);
+        ReflectionTestUtils.setField(timed, "storageDirectory", tempDir.resolve("timed").toString());
+        ReflectionTestUtils.setField(timed, "archiveDirectory", tempDir.resolve("timed-archive").toString());
+        ReflectionTestUtils.setField(timed, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(timed, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(timed, "maxCapacity", 10);
+        ReflectionTestUtils.setField(timed, "processedIdleEvictionMinutes", 60L);
+        timed.initialize();
+        
+        timed.markCommentProcessed("post-1", "comment-1");
+        clock.advance(Duration.ofMinutes(45));
+        timed.markCommentProcessed("post-2", "comment-2");
+        timed.evictIdleProcessedPosts();
+        assertEquals(2, timed.getActiveProcessedPostCount());
+        
+        // Only post-1 has been idle for the full hour
+        clock.advance(Duration.ofMinutes(15));
+        timed.evictIdleProcessedPosts();
+        assertEquals(1, timed.getActiveProcessedPostCount());
+        assertTrue(timed.isCommentProcessed("comment-1"));
+        timed.shutdown();
+    }
+    
+    @Test
+    void testCommentCursorsSurviveRestart() {
+        Instant createdAt = Instant.parse("2024-01-01T10:00:00Z");
+        repository.saveCommentCursor(new CommentCursor("post-1", createdAt, "comment-7", Instant.now()));
+        
+        FileBasedStorageRepository restarted = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(restarted, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(restarted, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(restarted, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(restarted, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(restarted, "maxCapacity", 10);
+        restarted.initialize();
+        
+        CommentCursor cursor = restarted.getCommentCursor("post-1");
+        assertEquals(createdAt, cursor.getLastCreatedAt());
+        assertEquals("comment-7", cursor.getLastCommentId());
+        restarted.shutdown();
+    }
+    
+    @Test
+    void testPendingApprovalsSurviveRestart() {
+        Comment comment = new Comment();
+        comment.setId("comment-1");
+        comment.setPostId("post-1");
+        comment.setText("Refund please");
+        comment.setTimestamp(Instant.parse("2024-01-01T10:00:00Z"));
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("We'll be in touch");
+        response.setConfidenceScore(0.8);
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-1");
+        repository.savePendingApproval(new PendingApproval("approval-1", new Post(), comment, response, config, Instant.now()));
+        
+        FileBasedStorageRepository restarted = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(restarted, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(restarted, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(restarted, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(restarted, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(restarted, "maxCapacity", 10);
+        restarted.initialize();
+        
+        List<PendingApproval> approvals = restarted.getPendingApprovals();
+        assertEquals(1, approvals.size());
+        assertEquals("comment-1", approvals.get(0).getComment().getId());
+        assertEquals(comment.getTimestamp(), approvals.get(0).getComment().getTimestamp());
+        assertEquals("post-1", approvals.get(0).getConfig().getPostId());
+        restarted.shutdown();
+    }
+    
+    @Test
+    void testCommentCheckpointsSurviveRestart() {
+        Comment comment = new Comment();
+        comment.setId("comment-1");
+        comment.setPostId("post-1");
+        comment.setText("Great post");
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        WorkflowConfig config = new WorkflowConfig();
+        config.setPostId("post-1");
+        CommentCheckpoint checkpoint = new CommentCheckpoint("checkpoint-1", comment, config, Instant.now());
+        checkpoint.setState(CommentCheckpoint.State.POSTED);
+        checkpoint.setResponse(response);
+        checkpoint.setResponseId("reply-9");
+        repository.saveCommentCheckpoint(checkpoint);
+        
+        FileBasedStorageRepository restarted = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(restarted, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(restarted, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(restarted, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(restarted, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(restarted, "maxCapacity", 10);
+        restarted.initialize();
+        
+        List<CommentCheckpoint> checkpoints = restarted.getCommentCheckpoints();
+        assertEquals(1, checkpoints.size());
+        assertEquals(CommentCheckpoint.State.POSTED, checkpoints.get(0).getState());
+        assertEquals("Thanks!", checkpoints.get(0).getResponse().getText());
+        assertEquals("reply-9", checkpoints.get(0).getResponseId());
+        assertEquals("post-1", checkpoints.get(0).getConfig().getPostId());
+        restarted.shutdown();
+    }
+    
+    @Test
+    void testEachCheckpointIsItsOwnFileAndLegacyFileIsSplit() throws IOException {
+        Comment comment = new Comment();
+        comment.setId("comment-1");
+        comment.setPostId("post-1");
+        CommentCheckpoint first = new CommentCheckpoint("checkpoint-1", comment, null, Instant.now());
+        CommentCheckpoint second = new CommentCheckpoint("checkpoint-2", comment, null, Instant.now());
+        repository.saveCommentCheckpoint(first);
+        repository.saveCommentCheckpoint(second);
+        
+        Path directory = tempDir.resolve("checkpoints");
+        assertTrue(Files.exists(directory.resolve("checkpoint-1.json")));
+        assertTrue(Files.exists(directory.resolve("checkpoint-2.json")));
+        repository.deleteCommentCheckpoint("checkpoint-1");
+        assertFalse(Files.exists(directory.resolve("checkpoint-1.json")));
+        
+        // An earlier version kept every checkpoint in one file
+        Files.writeString(tempDir.resolve("comment-checkpoints.json"),
+            "[{\"id\":\"checkpoint-0\",\"state\":\"GENERATED\",\"comment\":{\"id\":\"comment-0\",\"postId\":\"post-1\"}}]");
+        FileBasedStorageRepository restarted = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(restarted, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(restarted, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(restarted, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(restarted, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(restarted, "maxCapacity", 10);
+        restarted.initialize();
+        
+        List<CommentCheckpoint> checkpoints = restarted.getCommentCheckpoints();
+        assertEquals(List.of("checkpoint-0", "checkpoint-2"),
+            checkpoints.stream().map(CommentCheckpoint::getId).toList());
+        assertEquals(CommentCheckpoint.State.GENERATED, checkpoints.get(0).getState());
+        assertFalse(Files.exists(tempDir.resolve("comment-checkpoints.json")));
+        assertTrue(Files.exists(directory.resolve("checkpoint-0.json")));
+        restarted.shutdown();
+    }
+    
+    @Test
+    void testBackfillJobsSurviveRestart() {
+        WorkflowConfig config = new WorkflowConfig();
+        config.setTonePreference("formal");
+        BackfillJob job = new BackfillJob("job-1", List.of("post-1", "post-2"), config, "gpt-3.5-turbo", 50,
+                Instant.now());
+        job.setState(BackfillJob.State.RUNNING);
+        job.getCompletedPostIds().add("post-1");
+        job.setCurrentPostId("post-2");
+        job.setProcessedComments(12);
+        repository.saveBackfillJob(job);
+        
+        FileBasedStorageRepository restarted = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(restarted, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(restarted, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(restarted, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(restarted, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(restarted, "maxCapacity", 10);
+        restarted.initialize();
+        
+        List<BackfillJob> jobs = restarted.getBackfillJobs();
+        assertEquals(1, jobs.size());
+        assertEquals(BackfillJob.State.RUNNING, jobs.get(0).getState());
+        assertEquals(List.of("post-1"), jobs.get(0).getCompletedPostIds());
+        assertEquals("post-2", jobs.get(0).getCurrentPostId());
+        assertEquals(12, jobs.get(0).getProcessedComments());
+        assertEquals("gpt-3.5-turbo", jobs.get(0).getModel());
+        assertEquals("formal", jobs.get(0).getConfig().getTonePreference());
+        restarted.shutdown();
+    }
+    
+    @Test
+    void testLegacyProcessedCommentsFileIsMigrated() throws IOException {
+        Files.writeString(tempDir.resolve("processed-comments.json"), "[\"legacy-1\",\"legacy-2\"]");
+        
+        FileBasedStorageRepository migrated = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(migrated, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(migrated, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(migrated, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(migrated, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(migrated, "maxCapacity", 10);
+        migrated.initialize();
+        
+        assertTrue(migrated.isCommentProcessed("legacy-1"));
+        assertTrue(migrated.isCommentProcessed("post-9", "legacy-2"));
+        assertFalse(Files.exists(tempDir.resolve("processed-comments.json")));
+    }
+    
     @Test
     void testFilterByPostId() {
         // Save interactions for different posts
@@ -151,6 +415,31 @@ class FileBasedStorageRepositoryTest {
         assertTrue(content.contains("int-1"));
     }
     
+    @Test
+    void testExportToCsvEscapesSpecialCharacters() throws IOException {
+        Interaction interaction = createTestInteraction("int-1", "post-1", "comment-1");
+        interaction.setCommentText("Hello, \"world\"\nsecond line");
+        repository.saveInteraction(interaction);
+        
+        String content = Files.readString(Path.of(repository.exportHistory("csv")));
+        
+        assertTrue(content.contains("\"Hello, \"\"world\"\"\nsecond line\""));
+        assertTrue(content.contains(",Test User,"));
+    }
+    
+    @Test
+    void testExportToNdjson() throws IOException {
+        repository.saveInteraction(createTestInteraction("int-1", "post-1", "comment-1"));
+        repository.saveInteraction(createTestInteraction("int-2", "post-2", "comment-2"));
+        
+        String exportPath = repository.exportHistory("ndjson");
+        
+        List<String> lines = Files.readAllLines(Path.of(exportPath));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{") && lines.get(0).contains("\"int-1\""));
+        assertTrue(lines.get(1).contains("\"int-2\""));
+    }
+    
     @Test
     void testArchivalOnCapacity() {
         // Fill to capacity (10 interactions)
@@ -170,6 +459,115 @@ class FileBasedStorageRepositoryTest {
         assertTrue(Files.exists(archiveDir));
     }
     
+    @Test
+    void testArchivedHistoryIsQueryable() {
+        for (int i = 0; i < 11; i++) {
+            repository.saveInteraction(createTestInteraction("int-" + i, i % 2 == 0 ? "post-1" : "post-2", "comment-" + i));
+        }
+        
+        // Archived entries are excluded by default and included on request
+        assertTrue(repository.getInteractionHistory(null, null, null).size() < 11);
+        assertEquals(11, repository.getInteractionHistory(null, null, null, true).size());
+        assertEquals(6, repository.getInteractionHistory("post-1", null, null, true).size());
+        
+        // Segments are compressed and listed in the manifest
+        assertEquals(1, repository.getArchiveSegments().size());
+        assertTrue(repository.getArchiveSegments().get(0).getName().endsWith(".ndjson.gz"));
+        assertTrue(Files.exists(tempDir.resolve("archive").resolve("manifest.json")));
+        
+        // The manifest survives a restart
+        repository.shutdown();
+        FileBasedStorageRepository reopened = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(reopened, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(reopened, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(reopened, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(reopened, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(reopened, "maxCapacity", 10);
+        reopened.initialize();
+        
+        assertEquals(11, reopened.getInteractionHistory(null, null, null, true).size());
+        reopened.shutdown();
+    }
+    
+    @Test
+    void testSlowArchiveUploadDoesNotBlockSavesOrReads() throws Exception {
+        CountDownLatch uploading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ArchiveSink local = new LocalArchiveSink(tempDir.resolve("slow-archive").toString());
+        ArchiveSink slow = new ArchiveSink() {
+            public String getType() {
+                return local.getType();
+            }
+            
+            public String locationOf(String segmentName) {
+                return local.locationOf(segmentName);
+            }
+            
+            public OutputStream create(String segmentName) throws IOException {
+                uploading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return local.create(segmentName);
+            }
+            
+            public InputStream open(String location) throws IOException {
+                return local.open(location);
+            }
+            
+            public void discard(String segmentName) {
+                local.discard(segmentName);
+            }
+        };
+        FileBasedStorageRepository slowArchive = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(slowArchive, "storageDirectory", tempDir.resolve("slow").toString());
+        ReflectionTestUtils.setField(slowArchive, "archiveDirectory", tempDir.resolve("slow-archive").toString());
+        ReflectionTestUtils.setField(slowArchive, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(slowArchive, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(slowArchive, "maxCapacity", 10);
+        slowArchive.setArchiveSink(slow);
+        slowArchive.initialize();
+        for (int i = 0; i < 10; i++) {
+            slowArchive.saveInteraction(createTestInteraction("int-" + i, "post-1", "comment-" + i));
+        }
+        
+        CompletableFuture<Void> archiving = CompletableFuture.runAsync(() ->
+                slowArchive.saveInteraction(createTestInteraction("int-10", "post-1", "comment-10")));
+        assertTrue(uploading.await(5, TimeUnit.SECONDS));
+        
+        // The upload is stuck, yet other saves and reads go ahead, and the batch is still readable
+        slowArchive.saveInteraction(createTestInteraction("int-11", "post-1", "comment-11"));
+        assertEquals(12, slowArchive.getInteractionHistory(null, null, null).size());
+        
+        release.countDown();
+        archiving.get(5, TimeUnit.SECONDS);
+        assertEquals(10, slowArchive.getInteractionHistory(null, null, null).size());
+        assertEquals(12, slowArchive.getInteractionHistory(null, null, null, true).size());
+        slowArchive.shutdown();
+    }
+    
+    @Test
+    void testLegacyArchiveFilesAreRegistered() throws IOException {
+        repository.shutdown();
+        Files.writeString(tempDir.resolve("archive").resolve("archive-legacy.json"),
+            "[{\"id\":\"old-1\",\"postId\":\"post-9\",\"commentId\":\"c-1\",\"commenterName\":\"A\","
+                + "\"commentText\":\"Hi\",\"timestamp\":\"2020-01-01T00:00:00Z\",\"status\":\"POSTED\"}]");
+        
+        repository = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(repository, "storageDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(repository, "archiveDirectory", tempDir.resolve("archive").toString());
+        ReflectionTestUtils.setField(repository, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(repository, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(repository, "maxCapacity", 10);
+        repository.initialize();
+        
+        List<Interaction> archived = repository.getInteractionHistory("post-9", null, null, true);
+        assertEquals(1, archived.size());
+        assertEquals("old-1", archived.get(0).getId());
+    }
+    
     @Test
     void testInvalidExportFormat() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -0,0 +1,130 @@
+package com.example.linkedin.repository;
+
+import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.ResponseStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput benchmark for history export.
+ * Compares the original field-by-field BufferedWriter CSV encoding with the chunked
+ * parallel encoder at increasing worker counts.
+ *
+ * Run with: mvn test -Dtest=HistoryExportBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HistoryExportBenchmark {
+    
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int ITERATIONS = 3;
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void compareCsvAndNdjsonThroughput() throws IOException {
+        List<Interaction> snapshot = createInteractions(ROWS);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        
+        Path target = tempDir.resolve("export.out");
+        report("csv  sequential (legacy)", snapshot.size(), () -> legacyCsv(snapshot, target));
+        
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+            try (ParallelHistoryExporter exporter = new ParallelHistoryExporter(objectMapper, parallelism, 5000)) {
+                report("csv    parallel x" + parallelism, snapshot.size(),
+                    () -> exporter.export(snapshot, ParallelHistoryExporter.Format.CSV, target));
+                report("ndjson parallel x" + parallelism, snapshot.size(),
+                    () -> exporter.export(snapshot, ParallelHistoryExporter.Format.NDJSON, target));
+            }
+        }
+    }
+    
+    private void report(String label, int rows, IoTask task) throws IOException {
+        task.run(); // warm-up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double seconds = best / 1e9;
+        System.out.printf("%-26s %8.0f ms  %,12.0f rows/s%n", label, seconds * 1000, rows / seconds);
+    }
+    
+    /**
+     * Reproduces the pre-parallel exporter: one writer, three contains scans plus replace per field.
+     */
+    private void legacyCsv(List<Interaction> snapshot, Path target) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(target)) {
+            writer.write(ParallelHistoryExporter.CSV_HEADER);
+            for (Interaction interaction : snapshot) {
+                writer.write(legacyEscape(interaction.getId()));
+                writer.write(",");
+                writer.write(legacyEscape(interaction.getPostId()));
+                writer.write(",");
+                writer.write(legacyEscape(interaction.getCommentId()));
+                writer.write(",");
+                writer.write(legacyEscape(interaction.getCommenterName()));
+                writer.write(",");
+                writer.write(legacyEscape(interaction.getCommentText()));
+                writer.write(",");
+                writer.write(legacyEscape(interaction.getGeneratedResponse()));
+                writer.write(",");
+                writer.write(legacyEscape(interaction.getPostedResponse()));
+                writer.write(",");
+                writer.write(interaction.getTimestamp().toString());
+                writer.write(",");
+                writer.write(interaction.getStatus().toString());
+                writer.write(",");
+                writer.write(legacyEscape(interaction.getMetadata().toString()));
+                writer.write("\n");
+            }
+        }
+    }
+    
+    private String legacyEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+    
+    private List<Interaction> createInteractions(int count) {
+        List<Interaction> result = new ArrayList<>(count);
+        Instant base = Instant.now();
+        for (int i = 0; i < count; i++) {
+            Interaction interaction = new Interaction("int-" + i, "post-" + (i % 40), "comment-" + i,
+                "User " + i, "Great post, thanks for sharing! \"Really\" insightful #" + i,
+                base.plusMillis(i), ResponseStatus.POSTED);
+            interaction.setGeneratedResponse("Thanks User " + i + ", glad it landed.\nSee you next week!");
+            interaction.setPostedResponse(interaction.getGeneratedResponse());
+            interaction.getMetadata().put("confidence_score", "0.85");
+            interaction.getMetadata().put("tone_preference", "witty");
+            result.add(interaction);
+        }
+        return result;
+    }
+    
+    @FunctionalInterface
+    private interface IoTask {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.linkedin.repository;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the StorageRepository conformance suite against the in-memory backend.
+ */
+class InMemoryStorageRepositoryContractTest extends StorageRepositoryContractTest {
+    
+    @Override
+    protected StorageRepository createRepository(Path directory) {
+        InMemoryStorageRepository repository = new InMemoryStorageRepository();
+        ReflectionTestUtils.setField(repository, "storageDirectory", directory.toString());
+        repository.initialize();
+        return repository;
+    }
+    
+    @Override
+    protected void closeRepository(StorageRepository repository) {
+        ((InMemoryStorageRepository) repository).shutdown();
+    }
+}
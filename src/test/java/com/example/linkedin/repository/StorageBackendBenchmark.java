@@ -0,0 +1,69 @@
+package com.example.linkedin.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Replays the same workload against every StorageRepository backend and prints
+ * throughput and latency percentiles per operation. The file-based backend is the baseline.
+ *
+ * Run with: mvn test -Dtest=StorageBackendBenchmark -Dbenchmark=true
+ * Tune with -Dbenchmark.storage.mix=save=40,mark=20,check=30,history=9,export=1
+ * -Dbenchmark.storage.rate=500 -Dbenchmark.storage.seconds=20 -Dbenchmark.storage.workers=8
+ * -Dbenchmark.storage.preload=1000
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StorageBackendBenchmark {
+    
+    private static final String MIX = System.getProperty("benchmark.storage.mix", "save=40,mark=20,check=30,history=9,export=1");
+    private static final int RATE = Integer.getInteger("benchmark.storage.rate", 500);
+    private static final int SECONDS = Integer.getInteger("benchmark.storage.seconds", 20);
+    private static final int WORKERS = Integer.getInteger("benchmark.storage.workers", 8);
+    private static final int PRELOAD = Integer.getInteger("benchmark.storage.preload", 1000);
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void compareBackends() throws Exception {
+        System.out.printf("Workload: mix=%s rate=%d/s duration=%ds workers=%d preload=%d%n",
+            MIX, RATE, SECONDS, WORKERS, PRELOAD);
+        
+        FileBasedStorageRepository file = new FileBasedStorageRepository();
+        ReflectionTestUtils.setField(file, "storageDirectory", tempDir.resolve("file").toString());
+        ReflectionTestUtils.setField(file, "archiveDirectory", tempDir.resolve("file").resolve("archive").toString());
+        ReflectionTestUtils.setField(file, "interactionsFile", "interactions.json");
+        ReflectionTestUtils.setField(file, "processedCommentsFile", "processed-comments.json");
+        ReflectionTestUtils.setField(file, "maxCapacity", 1000);
+        file.initialize();
+        try {
+            run("file (baseline)", file);
+        } finally {
+            file.shutdown();
+        }
+        
+        InMemoryStorageRepository memory = new InMemoryStorageRepository();
+        ReflectionTestUtils.setField(memory, "storageDirectory", tempDir.resolve("memory").toString());
+        memory.initialize();
+        try {
+            run("memory", memory);
+        } finally {
+            memory.shutdown();
+        }
+    }
+    
+    private void run(String backend, StorageRepository repository) throws InterruptedException {
+        StorageWorkloadRunner runner = new StorageWorkloadRunner(MIX, RATE, Duration.ofSeconds(SECONDS), WORKERS);
+        runner.preload(repository, PRELOAD);
+        StorageWorkloadRunner.Result result = runner.run(repository);
+        System.out.print(result.format(backend));
+        assertEquals(0, result.errors(), backend + " reported errors");
+    }
+}
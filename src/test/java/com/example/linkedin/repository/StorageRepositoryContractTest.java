@@ -0,0 +1,364 @@
+package com.example.linkedin.repository;
+
+import com.example.linkedin.model.BackfillJob;
+import com.example.linkedin.model.Comment;
+import com.example.linkedin.model.CommentCheckpoint;
+import com.example.linkedin.model.CommentCursor;
+import com.example.linkedin.model.GeneratedResponse;
+import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.PendingApproval;
+import com.example.linkedin.model.ReplyRetry;
+import com.example.linkedin.model.ResponseStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conformance suite for the StorageRepository contract.
+ *
+ * Every backend gets a subclass that only supplies {@link #createRepository(Path)}; the
+ * inherited tests then check the behaviour the orchestrator and management API rely on.
+ * Backends must accept at least {@link #CAPACITY} interactions without archiving.
+ */
+abstract class StorageRepositoryContractTest {
+    
+    protected static final int CAPACITY = 1000;
+    
+    @TempDir
+    Path tempDir;
+    
+    protected StorageRepository repository;
+    
+    /**
+     * Creates a fresh, initialized repository whose files (if any) live under the directory.
+     */
+    protected abstract StorageRepository createRepository(Path directory) throws Exception;
+    
+    /**
+     * Releases resources held by the repository.
+     */
+    protected void closeRepository(StorageRepository repository) throws Exception {
+    }
+    
+    @BeforeEach
+    void setUpRepository() throws Exception {
+        repository = createRepository(tempDir);
+    }
+    
+    @AfterEach
+    void tearDownRepository() throws Exception {
+        closeRepository(repository);
+    }
+    
+    @Test
+    void savedInteractionsAreReturnedInInsertionOrder() {
+        repository.saveInteraction(interaction("int-1", "post-1", Instant.parse("2024-01-01T00:00:00Z")));
+        repository.saveInteraction(interaction("int-2", "post-2", Instant.parse("2024-01-02T00:00:00Z")));
+        
+        List<Interaction> history = repository.getInteractionHistory(null, null, null);
+        
+        assertEquals(List.of("int-1", "int-2"), ids(history));
+        assertEquals("post-2", history.get(1).getPostId());
+        assertEquals(ResponseStatus.POSTED, history.get(1).getStatus());
+    }
+    
+    @Test
+    void saveRejectsNullInteraction() {
+        assertThrows(IllegalArgumentException.class, () -> repository.saveInteraction(null));
+    }
+    
+    @Test
+    void historyFiltersByPostAndInclusiveDateRange() {
+        Instant day1 = Instant.parse("2024-01-01T00:00:00Z");
+        Instant day2 = Instant.parse("2024-01-02T00:00:00Z");
+        Instant day3 = Instant.parse("2024-01-03T00:00:00Z");
+        repository.saveInteraction(interaction("int-1", "post-1", day1));
+        repository.saveInteraction(interaction("int-2", "post-1", day2));
+        repository.saveInteraction(interaction("int-3", "post-2", day2));
+        repository.saveInteraction(interaction("int-4", "post-1", day3));
+        
+        assertEquals(List.of("int-1", "int-2", "int-4"), ids(repository.getInteractionHistory("post-1", null, null)));
+        assertEquals(List.of("int-2", "int-3"), ids(repository.getInteractionHistory(null, day2, day2)));
+        assertEquals(List.of("int-2", "int-4"), ids(repository.getInteractionHistory("post-1", day2, null)));
+        assertEquals(List.of("int-1", "int-2", "int-3"), ids(repository.getInteractionHistory(null, null, day2)));
+        assertTrue(repository.getInteractionHistory("post-3", null, null).isEmpty());
+    }
+    
+    @Test
+    void processedCommentsAreTrackedPerPostAndGlobally() {
+        assertFalse(repository.isCommentProcessed("comment-1"));
+        assertFalse(repository.isCommentProcessed("post-1", "comment-1"));
+        
+        repository.markCommentProcessed("post-1", "comment-1");
+        repository.markCommentProcessed("comment-2");
+        
+        assertTrue(repository.isCommentProcessed("post-1", "comment-1"));
+        assertTrue(repository.isCommentProcessed("comment-1"));
+        assertTrue(repository.isCommentProcessed("comment-2"));
+        assertFalse(repository.isCommentProcessed("post-1", "comment-3"));
+    }
+    
+    @Test
+    void processedCommentIdsCountUnderEveryPost() {
+        repository.markCommentProcessed("post-1", "comment-1");
+        repository.markCommentProcessed("comment-2");
+        
+        // Comment IDs are unique across posts, so the post a comment was marked under does not matter
+        assertTrue(repository.isCommentProcessed("post-2", "comment-1"));
+        assertTrue(repository.isCommentProcessed("post-2", "comment-2"));
+        assertFalse(repository.isCommentProcessed("post-2", "comment-3"));
+    }
+    
+    @Test
+    void markingTwiceIsHarmless() {
+        repository.markCommentProcessed("post-1", "comment-1");
+        repository.markCommentProcessed("post-1", "comment-1");
+        
+        assertTrue(repository.isCommentProcessed("post-1", "comment-1"));
+    }
+    
+    @Test
+    void blankCommentIdsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> repository.isCommentProcessed(null));
+        assertThrows(IllegalArgumentException.class, () -> repository.isCommentProcessed(" "));
+        assertThrows(IllegalArgumentException.class, () -> repository.markCommentProcessed(null));
+        assertThrows(IllegalArgumentException.class, () -> repository.isCommentProcessed("post-1", null));
+        assertThrows(IllegalArgumentException.class, () -> repository.markCommentProcessed("post-1", ""));
+    }
+    
+    @Test
+    void commentCursorsAreStoredPerPost() {
+        assertNull(repository.getCommentCursor("post-1"));
+        
+        Instant createdAt = Instant.parse("2024-01-01T10:00:00Z");
+        repository.saveCommentCursor(new CommentCursor("post-1", createdAt, "comment-1", Instant.now()));
+        repository.saveCommentCursor(new CommentCursor("post-1", createdAt.plusSeconds(60), "comment-2", Instant.now()));
+        
+        CommentCursor cursor = repository.getCommentCursor("post-1");
+        assertEquals(createdAt.plusSeconds(60), cursor.getLastCreatedAt());
+        assertEquals("comment-2", cursor.getLastCommentId());
+        assertNull(repository.getCommentCursor("post-2"));
+        assertThrows(IllegalArgumentException.class,
+            () -> repository.saveCommentCursor(new CommentCursor(" ", createdAt, "comment-3", Instant.now())));
+    }
+    
+    @Test
+    void pendingApprovalsAreStoredInOrderAndDeletable() {
+        assertTrue(repository.getPendingApprovals().isEmpty());
+        
+        repository.savePendingApproval(approval("approval-1", "comment-1"));
+        repository.savePendingApproval(approval("approval-2", "comment-2"));
+        
+        PendingApproval approved = approval("approval-1", "comment-1");
+        approved.setState(PendingApproval.State.APPROVED);
+        repository.savePendingApproval(approved);
+        
+        List<PendingApproval> stored = repository.getPendingApprovals();
+        assertEquals(2, stored.size());
+        assertEquals("approval-1", stored.get(0).getId());
+        assertEquals(PendingApproval.State.APPROVED, stored.get(0).getState());
+        assertEquals("comment-2", stored.get(1).getComment().getId());
+        assertEquals("Thanks!", stored.get(1).getResponse().getText());
+        
+        repository.deletePendingApproval("approval-1");
+        repository.deletePendingApproval("unknown");
+        assertEquals(1, repository.getPendingApprovals().size());
+        assertThrows(IllegalArgumentException.class, () -> repository.savePendingApproval(approval(null, "comment-3")));
+    }
+    
+    @Test
+    void replyRetriesAreStoredAndDeletable() {
+        assertTrue(repository.getReplyRetries().isEmpty());
+        
+        PendingApproval approval = approval("retry-1", "comment-1");
+        ReplyRetry retry = new ReplyRetry("retry-1", null, approval.getComment(), approval.getResponse(),
+                null, true, Instant.parse("2024-01-01T00:00:00Z"));
+        retry.setAttempts(1);
+        repository.saveReplyRetry(retry);
+        retry.setAttempts(2);
+        retry.setNextAttemptAt(Instant.parse("2024-01-01T00:00:08Z"));
+        repository.saveReplyRetry(retry);
+        
+        List<ReplyRetry> stored = repository.getReplyRetries();
+        assertEquals(1, stored.size());
+        assertEquals(2, stored.get(0).getAttempts());
+        assertEquals(Instant.parse("2024-01-01T00:00:08Z"), stored.get(0).getNextAttemptAt());
+        assertTrue(stored.get(0).isManuallyApproved());
+        
+        repository.deleteReplyRetry("retry-1");
+        assertTrue(repository.getReplyRetries().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> repository.saveReplyRetry(new ReplyRetry()));
+    }
+    
+    @Test
+    void commentCheckpointsAreStoredAndDeletable() {
+        assertTrue(repository.getCommentCheckpoints().isEmpty());
+        
+        PendingApproval approval = approval("checkpoint-1", "comment-1");
+        CommentCheckpoint checkpoint = new CommentCheckpoint("checkpoint-1", approval.getComment(), null,
+                Instant.parse("2024-01-01T00:00:00Z"));
+        repository.saveCommentCheckpoint(checkpoint);
+        checkpoint.setState(CommentCheckpoint.State.GENERATED);
+        checkpoint.setResponse(approval.getResponse());
+        repository.saveCommentCheckpoint(checkpoint);
+        
+        List<CommentCheckpoint> stored = repository.getCommentCheckpoints();
+        assertEquals(1, stored.size());
+        assertEquals(CommentCheckpoint.State.GENERATED, stored.get(0).getState());
+        assertEquals("Thanks!", stored.get(0).getResponse().getText());
+        assertEquals("comment-1", stored.get(0).getComment().getId());
+        
+        repository.deleteCommentCheckpoint("checkpoint-1");
+        repository.deleteCommentCheckpoint("unknown");
+        assertTrue(repository.getCommentCheckpoints().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> repository.saveCommentCheckpoint(new CommentCheckpoint()));
+    }
+    
+    @Test
+    void backfillJobsAreStoredInSubmissionOrder() {
+        assertTrue(repository.getBackfillJobs().isEmpty());
+        
+        BackfillJob first = new BackfillJob("job-1", List.of("post-1", "post-2"), null, "gpt-3.5-turbo", 0,
+                Instant.parse("2024-01-01T00:00:00Z"));
+        BackfillJob second = new BackfillJob("job-2", List.of("post-3"), null, null, 10,
+                Instant.parse("2024-01-01T00:01:00Z"));
+        repository.saveBackfillJob(first);
+        repository.saveBackfillJob(second);
+        first.setState(BackfillJob.State.RUNNING);
+        first.getCompletedPostIds().add("post-1");
+        first.setProcessedComments(7);
+        repository.saveBackfillJob(first);
+        
+        List<BackfillJob> stored = repository.getBackfillJobs();
+        assertEquals(2, stored.size());
+        assertEquals("job-1", stored.get(0).getId());
+        assertEquals(BackfillJob.State.RUNNING, stored.get(0).getState());
+        assertEquals(List.of("post-1"), stored.get(0).getCompletedPostIds());
+        assertEquals(7, stored.get(0).getProcessedComments());
+        assertEquals("job-2", stored.get(1).getId());
+        assertThrows(IllegalArgumentException.class, () -> repository.saveBackfillJob(new BackfillJob()));
+    }
+    
+    @Test
+    void jsonExportContainsEveryInteraction() throws IOException {
+        for (int i = 0; i < 25; i++) {
+            repository.saveInteraction(interaction("int-" + i, "post-1", Instant.parse("2024-01-01T00:00:00Z")));
+        }
+        
+        String exportPath = repository.exportHistory("json");
+        
+        List<Interaction> exported = objectMapper().readValue(Path.of(exportPath).toFile(),
+            objectMapper().getTypeFactory().constructCollectionType(List.class, Interaction.class));
+        assertEquals(25, exported.size());
+        assertEquals("int-24", exported.get(24).getId());
+    }
+    
+    @Test
+    void csvAndNdjsonExportsHaveOneRowPerInteraction() throws IOException {
+        repository.saveInteraction(interaction("int-1", "post-1", Instant.parse("2024-01-01T00:00:00Z")));
+        repository.saveInteraction(interaction("int-2", "post-1", Instant.parse("2024-01-01T00:00:00Z")));
+        
+        List<String> csv = Files.readAllLines(Path.of(repository.exportHistory("csv")));
+        List<String> ndjson = Files.readAllLines(Path.of(repository.exportHistory("NDJSON")));
+        
+        assertEquals(3, csv.size());
+        assertTrue(csv.get(0).startsWith("ID,Post ID,Comment ID"));
+        assertEquals(2, ndjson.size());
+    }
+    
+    @Test
+    void streamedExportMatchesFileExport() throws IOException {
+        repository.saveInteraction(interaction("int-1", "post-1", Instant.parse("2024-01-01T00:00:00Z")));
+        repository.saveInteraction(interaction("int-2", "post-2", Instant.parse("2024-01-02T00:00:00Z")));
+        
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        repository.exportHistory("ndjson", streamed);
+        
+        assertEquals(Files.readString(Path.of(repository.exportHistory("ndjson"))),
+            streamed.toString(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void unknownExportFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> repository.exportHistory("xml"));
+        assertThrows(IllegalArgumentException.class, () -> repository.exportHistory(null));
+    }
+    
+    @Test
+    void concurrentWritersLoseNothing() throws Exception {
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String id = "t" + thread + "-" + i;
+                        repository.saveInteraction(interaction(id, "post-" + thread, Instant.now()));
+                        repository.markCommentProcessed("post-" + thread, "comment-" + id);
+                        assertTrue(repository.isCommentProcessed("post-" + thread, "comment-" + id));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(threads * perThread, repository.getInteractionHistory(null, null, null).size());
+        for (int t = 0; t < threads; t++) {
+            assertEquals(perThread, repository.getInteractionHistory("post-" + t, null, null).size());
+        }
+    }
+    
+    protected static PendingApproval approval(String id, String commentId) {
+        Comment comment = new Comment();
+        comment.setId(commentId);
+        comment.setPostId("post-1");
+        comment.setText("Nice post");
+        GeneratedResponse response = new GeneratedResponse();
+        response.setText("Thanks!");
+        return new PendingApproval(id, null, comment, response, null, Instant.parse("2024-01-01T00:00:00Z"));
+    }
+    
+    protected static Interaction interaction(String id, String postId, Instant timestamp) {
+        Interaction interaction = new Interaction(id, postId, "comment-" + id, "Test User",
+            "Test comment, with \"quotes\"", timestamp, ResponseStatus.POSTED);
+        interaction.setGeneratedResponse("Test response");
+        interaction.getMetadata().put("confidence_score", "0.9");
+        return interaction;
+    }
+    
+    private static List<String> ids(List<Interaction> interactions) {
+        List<String> ids = new ArrayList<>();
+        interactions.forEach(interaction -> ids.add(interaction.getId()));
+        return ids;
+    }
+    
+    private static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return objectMapper;
+    }
+}
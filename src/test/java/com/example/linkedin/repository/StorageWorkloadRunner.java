@@ -0,0 +1,233 @@
+package com.example.linkedin.repository;
+
+import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.ResponseStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a weighted mix of StorageRepository operations against a backend at a fixed
+ * target rate and reports throughput and latency percentiles per operation.
+ *
+ * The load is open-loop: operations are scheduled at fixed intervals regardless of how
+ * long earlier ones take, and latency is measured from the scheduled start. A backend
+ * that falls behind therefore shows queueing delay instead of silently lowering the rate.
+ */
+class StorageWorkloadRunner {
+    
+    enum Operation {
+        SAVE, MARK, CHECK, HISTORY, EXPORT
+    }
+    
+    private final Map<Operation, Integer> mix;
+    private final int ratePerSecond;
+    private final Duration duration;
+    private final int workers;
+    private final int posts;
+    private final long seed;
+    
+    /**
+     * @param mix Relative weight per operation, e.g. "save=40,mark=20,check=30,history=9,export=1"
+     * @param ratePerSecond Total target operations per second across all operation types
+     * @param duration How long to generate load
+     * @param workers Threads executing operations concurrently
+     */
+    StorageWorkloadRunner(String mix, int ratePerSecond, Duration duration, int workers) {
+        this.mix = parseMix(mix);
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.workers = workers;
+        this.posts = 20;
+        this.seed = 42;
+    }
+    
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries must look like 'save=40': " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights cannot be negative: " + entry);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix must contain at least one positive weight");
+        }
+        return weights;
+    }
+    
+    /**
+     * Seeds the repository with interactions and processed comments so reads have data to scan.
+     */
+    void preload(StorageRepository repository, int interactions) {
+        Instant base = Instant.now().minusSeconds(interactions);
+        for (int i = 0; i < interactions; i++) {
+            String postId = "post-" + (i % posts);
+            repository.saveInteraction(interaction("pre-" + i, postId, base.plusSeconds(i)));
+            repository.markCommentProcessed(postId, "comment-pre-" + i);
+        }
+    }
+    
+    Result run(StorageRepository repository) throws InterruptedException {
+        long totalOps = (long) ratePerSecond * duration.toSeconds();
+        long intervalNanos = 1_000_000_000L / ratePerSecond;
+        Operation[] schedule = buildSchedule((int) totalOps);
+        
+        Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, AtomicInteger> counts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new long[(int) Arrays.stream(schedule).filter(op -> op == operation).count()]);
+            counts.put(operation, new AtomicInteger());
+        }
+        AtomicLong errors = new AtomicLong();
+        AtomicLong sequence = new AtomicLong();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        for (int i = 0; i < schedule.length; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = schedule[i];
+            executor.execute(() -> {
+                try {
+                    execute(repository, operation, sequence.incrementAndGet());
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                }
+                long latency = System.nanoTime() - intended;
+                latencies.get(operation)[counts.get(operation).getAndIncrement()] = latency;
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        
+        return new Result(latencies, schedule.length, elapsed, errors.get());
+    }
+    
+    private Operation[] buildSchedule(int totalOps) {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Random random = new Random(seed);
+        Operation[] schedule = new Operation[totalOps];
+        for (int i = 0; i < totalOps; i++) {
+            int pick = random.nextInt(totalWeight);
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    schedule[i] = entry.getKey();
+                    break;
+                }
+            }
+        }
+        return schedule;
+    }
+    
+    private void execute(StorageRepository repository, Operation operation, long n) {
+        String postId = "post-" + (n % posts);
+        switch (operation) {
+            case SAVE:
+                repository.saveInteraction(interaction("load-" + n, postId, Instant.now()));
+                break;
+            case MARK:
+                repository.markCommentProcessed(postId, "comment-load-" + n);
+                break;
+            case CHECK:
+                // Alternate hits on preloaded comments with misses
+                repository.isCommentProcessed(postId, (n % 2 == 0 ? "comment-pre-" : "comment-miss-") + n);
+                break;
+            case HISTORY:
+                repository.getInteractionHistory(postId, Instant.now().minusSeconds(3600), null);
+                break;
+            case EXPORT:
+                try {
+                    repository.exportHistory("ndjson", OutputStream.nullOutputStream());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+    
+    private static Interaction interaction(String id, String postId, Instant timestamp) {
+        Interaction interaction = new Interaction(id, postId, "comment-" + id, "Load User",
+            "Benchmark comment for " + id, timestamp, ResponseStatus.POSTED);
+        interaction.setGeneratedResponse("Thanks for the comment!");
+        return interaction;
+    }
+    
+    /**
+     * Latencies (nanoseconds, from scheduled start) and overall throughput of one run.
+     */
+    static class Result {
+        private final Map<Operation, long[]> latencies;
+        private final int operations;
+        private final long elapsedNanos;
+        private final long errors;
+        
+        Result(Map<Operation, long[]> latencies, int operations, long elapsedNanos, long errors) {
+            this.latencies = latencies;
+            this.operations = operations;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+            latencies.values().forEach(Arrays::sort);
+        }
+        
+        double throughput() {
+            return operations / (elapsedNanos / 1e9);
+        }
+        
+        long errors() {
+            return errors;
+        }
+        
+        /**
+         * Latency in microseconds at the given percentile (0-100), or -1 if the operation never ran.
+         */
+        long percentileMicros(Operation operation, double percentile) {
+            long[] sorted = latencies.get(operation);
+            if (sorted.length == 0) {
+                return -1;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000;
+        }
+        
+        String format(String backend) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%s: %,.0f ops/s, %d errors%n", backend, throughput(), errors));
+            sb.append(String.format("  %-8s %8s %10s %10s %10s %10s%n", "op", "count", "p50 us", "p90 us", "p99 us", "max us"));
+            for (Operation operation : Operation.values()) {
+                int count = latencies.get(operation).length;
+                if (count > 0) {
+                    sb.append(String.format("  %-8s %8d %10d %10d %10d %10d%n", operation.name().toLowerCase(), count,
+                        percentileMicros(operation, 50), percentileMicros(operation, 90),
+                        percentileMicros(operation, 99), percentileMicros(operation, 100)));
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.linkedin.repository.archive;
+
+import com.example.linkedin.model.Interaction;
+import com.example.linkedin.model.ResponseStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the S3 archive sink against a real S3-compatible store.
+ *
+ * Run MinIO locally, e.g. {@code docker run -p 9000:9000 minio/minio server /data},
+ * then set ARCHIVE_S3_TEST_ENDPOINT=http://localhost:9000 (and optionally
+ * ARCHIVE_S3_TEST_ACCESS_KEY / ARCHIVE_S3_TEST_SECRET_KEY, default minioadmin).
+ */
+@EnabledIfEnvironmentVariable(named = "ARCHIVE_S3_TEST_ENDPOINT", matches = ".+")
+class S3ArchiveSinkIntegrationTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private S3ObjectClient client;
+    private ObjectMapper objectMapper;
+    
+    @BeforeEach
+    void setUp() {
+        client = new S3ObjectClient(
+            System.getenv("ARCHIVE_S3_TEST_ENDPOINT"),
+            "us-east-1",
+            "archive-test",
+            envOrDefault("ARCHIVE_S3_TEST_ACCESS_KEY", "minioadmin"),
+            envOrDefault("ARCHIVE_S3_TEST_SECRET_KEY", "minioadmin"));
+        client.ensureBucket();
+        
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+    
+    @Test
+    void testMultipartUploadRoundTrip() throws IOException {
+        S3ArchiveSink sink = new S3ArchiveSink(client, "it-" + UUID.randomUUID(), S3MultipartOutputStream.MIN_PART_SIZE,
+            tempDir.resolve("cache").toString(), 64L * 1024 * 1024);
+        
+        // Three parts: two full 5 MiB parts and a short final one
+        byte[] data = new byte[S3MultipartOutputStream.MIN_PART_SIZE * 2 + 12345];
+        new Random(42).nextBytes(data);
+        try (OutputStream out = sink.create("segment.bin")) {
+            out.write(data);
+        }
+        
+        try (InputStream in = sink.open(sink.locationOf("segment.bin"))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+    
+    @Test
+    void testArchiveStoreReadsRemoteSegmentsWithBoundedCache() throws IOException {
+        S3ArchiveSink sink = new S3ArchiveSink(client, "it-" + UUID.randomUUID(), S3MultipartOutputStream.MIN_PART_SIZE,
+            tempDir.resolve("cache").toString(), 1024);
+        ArchiveStore store = new ArchiveStore(tempDir.resolve("archive"), sink, objectMapper);
+        store.open();
+        
+        for (int segment = 0; segment < 5; segment++) {
+            List<Interaction> batch = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                batch.add(new Interaction("int-" + segment + "-" + i, "post-" + segment, "comment-" + i,
+                    "User", "Comment " + i, Instant.now(), ResponseStatus.POSTED));
+            }
+            store.write("archive-" + segment, batch);
+        }
+        
+        assertEquals(50, store.read("post-3", null, null).size());
+        assertEquals(250, store.read(null, null, null).size());
+        assertTrue(sink.getCachedBytes() <= 1024 || countCachedFiles() == 1);
+        
+        // Only the manifest is kept in the archive directory
+        try (var files = Files.list(tempDir.resolve("archive"))) {
+            assertEquals(List.of("manifest.json"), files.map(p -> p.getFileName().toString()).toList());
+        }
+    }
+    
+    private long countCachedFiles() throws IOException {
+        try (var files = Files.list(tempDir.resolve("cache"))) {
+            return files.count();
+        }
+    }
+    
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
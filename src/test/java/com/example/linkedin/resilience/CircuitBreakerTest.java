@@ -0,0 +1,68 @@
+package com.example.linkedin.resilience;
+
+import com.example.linkedin.util.SimulatedClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitBreaker.
+ */
+class CircuitBreakerTest {
+    
+    private final SimulatedClock clock = new SimulatedClock(Instant.parse("2024-01-01T00:00:00Z"));
+    
+    private final CircuitBreaker breaker = new CircuitBreaker("linkedin", 3, 60_000, 2, clock);
+    
+    @Test
+    void testOpensAfterConsecutiveFailures() throws Exception {
+        fail(2);
+        breaker.execute(() -> "ok");
+        assertEquals(0, breaker.getFailureCount());
+        
+        fail(3);
+        
+        assertEquals(CircuitBreaker.CircuitState.OPEN, breaker.getState());
+        assertThrows(CircuitBreaker.CircuitBreakerOpenException.class, () -> breaker.execute(() -> "ok"));
+    }
+    
+    @Test
+    void testHalfOpensAfterTheResetTimeoutAndClosesAfterSuccesses() throws Exception {
+        fail(3);
+        
+        clock.advance(Duration.ofSeconds(59));
+        assertThrows(CircuitBreaker.CircuitBreakerOpenException.class, () -> breaker.execute(() -> "ok"));
+        
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals("ok", breaker.execute(() -> "ok"));
+        assertEquals(CircuitBreaker.CircuitState.HALF_OPEN, breaker.getState());
+        assertEquals("ok", breaker.execute(() -> "ok"));
+        assertEquals(CircuitBreaker.CircuitState.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    void testFailureWhileHalfOpenReopensForAnotherTimeout() throws Exception {
+        fail(3);
+        clock.advance(Duration.ofMinutes(1));
+        
+        fail(1);
+        assertEquals(CircuitBreaker.CircuitState.OPEN, breaker.getState());
+        
+        // The timeout counts from the failed trial call, not from the first failures
+        clock.advance(Duration.ofSeconds(30));
+        assertThrows(CircuitBreaker.CircuitBreakerOpenException.class, () -> breaker.execute(() -> "ok"));
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals("ok", breaker.execute(() -> "ok"));
+    }
+    
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(IllegalStateException.class, () -> breaker.execute(() -> {
+                throw new IllegalStateException("unavailable");
+            }));
+        }
+    }
+}
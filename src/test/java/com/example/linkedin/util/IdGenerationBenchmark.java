@@ -0,0 +1,72 @@
+package com.example.linkedin.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Throughput benchmark for ID generation under contention.
+ * Compares UUID.randomUUID(), which draws from a shared SecureRandom, with TimeOrderedIds
+ * at increasing thread counts.
+ *
+ * Run with: mvn test -Dtest=IdGenerationBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdGenerationBenchmark {
+    
+    private static final int IDS_PER_THREAD = Integer.getInteger("benchmark.ids", 500_000);
+    private static final int ITERATIONS = 3;
+    
+    @Test
+    void compareRandomAndTimeOrderedIds() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores * 2; threads *= 2) {
+            report("randomUUID     x" + threads, threads, () -> UUID.randomUUID().toString());
+            report("TimeOrderedIds x" + threads, threads, TimeOrderedIds::nextString);
+        }
+    }
+    
+    private void report(String label, int threads, Supplier<String> generator) throws Exception {
+        run(threads, generator); // warm-up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            best = Math.min(best, run(threads, generator));
+        }
+        long total = (long) threads * IDS_PER_THREAD;
+        System.out.printf("%-22s %8.0f ms  %,14.0f ids/s%n", label, best / 1e6, total / (best / 1e9));
+    }
+    
+    private long run(int threads, Supplier<String> generator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int checksum = 0;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        checksum += generator.get().hashCode();
+                    }
+                    return checksum;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.linkedin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeywordMatcher.
+ */
+class KeywordMatcherTest {
+    
+    @Test
+    void testFindsEveryKeywordInOnePass() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of("refund", "legal", "urgent"), false);
+        
+        assertEquals(List.of("urgent", "refund"), matcher.findAll("URGENT: I want a refund, and another refund"));
+        assertEquals("urgent", matcher.findFirst("URGENT: I want a refund"));
+        assertTrue(matcher.matches("Talk to Legal"));
+        assertFalse(matcher.matches("Great post!"));
+        assertNull(matcher.findFirst(null));
+    }
+    
+    @Test
+    void testOverlappingAndNestedKeywords() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of("he", "she", "his", "hers"), false);
+        
+        assertEquals(List.of("she", "he", "hers"), matcher.findAll("ushers"));
+        // Among keywords ending at the same character the longest comes first
+        assertEquals("she", matcher.findFirst("ushers"));
+    }
+    
+    @Test
+    void testSubstringMatchingByDefault() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of("refund"), false);
+        
+        assertTrue(matcher.matches("It was refunded"));
+        assertEquals("refund", matcher.findFirst("Refunds?"));
+    }
+    
+    @Test
+    void testWholeWordsIgnoreMatchesInsideWords() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of("refund", "law", "legal action", "c++"), true);
+        
+        assertFalse(matcher.matches("It was refunded"));
+        assertFalse(matcher.matches("A flawless post"));
+        assertEquals(List.of("refund"), matcher.findAll("Refund! Now."));
+        assertEquals(List.of("law"), matcher.findAll("law"));
+        assertEquals(List.of("legal action"), matcher.findAll("We will take legal action."));
+        assertEquals(List.of("c++"), matcher.findAll("Is c++ still used?"));
+        // A shorter keyword still counts when a longer one ending at the same place does not
+        KeywordMatcher nested = KeywordMatcher.compile(List.of("pre-sale", "sale"), true);
+        assertEquals(List.of("sale"), nested.findAll("an expre-sale"));
+        assertEquals(List.of("pre-sale", "sale"), nested.findAll("a pre-sale"));
+    }
+    
+    @Test
+    void testUnicodeCaseFolding() {
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of("résumé", "σοφία", "straße"), false);
+        
+        assertEquals(List.of("résumé"), matcher.findAll("Send me your RÉSUMÉ"));
+        assertEquals(List.of("σοφία"), matcher.findAll("ΣΟΦΊΑ"));
+        assertEquals(List.of("straße"), matcher.findAll("STRAßE"));
+        // Final sigma folds like the other sigmas
+        assertTrue(KeywordMatcher.compile(List.of("λόγος"), true).matches("ΛΌΓΟΣ"));
+        // The Kelvin sign folds to k
+        assertTrue(KeywordMatcher.compile(List.of("kit"), false).matches("KIT"));
+        // Supplementary code points
+        assertTrue(KeywordMatcher.compile(List.of("😡 angry"), false).matches("so 😡 ANGRY"));
+    }
+    
+    @Test
+    void testBlankKeywordsAreIgnoredAndDuplicatesReportedOnce() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Arrays.asList(" refund ", "", null, "  ", "Refund"), false);
+        
+        assertEquals(List.of("refund", "Refund"), matcher.getKeywords());
+        assertEquals(List.of("refund"), matcher.findAll("refund refund REFUND"));
+        assertTrue(KeywordMatcher.compile(List.of(""), false).isEmpty());
+        assertFalse(KeywordMatcher.compile(null, false).matches("anything"));
+    }
+    
+    @Test
+    void testAgreesWithNaiveSearchOnRandomInput() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<String> keywords = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(20); i++) {
+                keywords.add(randomWord(random, 1 + random.nextInt(4)));
+            }
+            String text = randomWord(random, random.nextInt(60));
+            KeywordMatcher matcher = KeywordMatcher.compile(keywords, false);
+            
+            List<String> found = matcher.findAll(text);
+            for (String keyword : keywords) {
+                boolean expected = text.toLowerCase(Locale.ROOT).contains(keyword.toLowerCase(Locale.ROOT));
+                boolean reported = found.stream().anyMatch(match -> match.equalsIgnoreCase(keyword));
+                assertEquals(expected, reported, keyword + " in " + text);
+            }
+        }
+    }
+    
+    @Test
+    void testThousandsOfKeywords() {
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            keywords.add("keyword" + i);
+        }
+        KeywordMatcher matcher = KeywordMatcher.compile(keywords, true);
+        
+        assertEquals(List.of("keyword4999", "keyword17"), matcher.findAll("see keyword4999 and keyword17, not keyword50000"));
+    }
+    
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            char letter = (char) ('a' + random.nextInt(3));
+            word.append(random.nextBoolean() ? Character.toUpperCase(letter) : letter);
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.linkedin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SimulatedClock.
+ */
+class SimulatedClockTest {
+    
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    
+    private final SimulatedClock clock = new SimulatedClock(START);
+    
+    @Test
+    void testTimeOnlyMovesWhenAdvanced() {
+        assertEquals(START, clock.instant());
+        assertEquals(START.toEpochMilli(), clock.millis());
+        
+        clock.advance(Duration.ofHours(6));
+        
+        assertEquals(START.plus(Duration.ofHours(6)), clock.instant());
+        assertEquals(START.plus(Duration.ofHours(6)), clock.withZone(ZoneId.of("Europe/Paris")).instant());
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(Duration.ofSeconds(-1)));
+    }
+    
+    @Test
+    void testSleepAdvancesInsteadOfWaiting() throws InterruptedException {
+        long started = System.nanoTime();
+        
+        clock.sleep(TimeUnit.HOURS.toMillis(24));
+        
+        assertEquals(START.plus(Duration.ofDays(1)), clock.instant());
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+    }
+    
+    @Test
+    void testTasksRunInDueOrderAtTheirDueTime() {
+        ScheduledExecutorService executor = clock.newScheduledExecutor();
+        List<String> ran = new ArrayList<>();
+        executor.schedule(() -> ran.add("c@" + clock.instant()), 30, TimeUnit.MINUTES);
+        executor.schedule(() -> ran.add("a@" + clock.instant()), 10, TimeUnit.MINUTES);
+        executor.schedule(() -> ran.add("b@" + clock.instant()), 10, TimeUnit.MINUTES);
+        assertEquals(START.plus(Duration.ofMinutes(10)), clock.nextTaskTime());
+        
+        assertEquals(2, clock.advance(Duration.ofMinutes(20)));
+        assertEquals(List.of("a@2024-01-01T00:10:00Z", "b@2024-01-01T00:10:00Z"), ran);
+        assertEquals(START.plus(Duration.ofMinutes(20)), clock.instant());
+        
+        assertEquals(1, clock.advance(Duration.ofHours(1)));
+        assertEquals("c@2024-01-01T00:30:00Z", ran.get(2));
+        assertNull(clock.nextTaskTime());
+    }
+    
+    @Test
+    void testPeriodicTasksRepeatUntilCancelled() {
+        ScheduledExecutorService executor = clock.newScheduledExecutor();
+        List<Instant> fixedRate = new ArrayList<>();
+        List<Instant> fixedDelay = new ArrayList<>();
+        ScheduledFuture<?> rate = executor.scheduleAtFixedRate(() -> fixedRate.add(clock.instant()), 0, 1, TimeUnit.HOURS);
+        executor.scheduleWithFixedDelay(() -> {
+            fixedDelay.add(clock.instant());
+            clock.advance(Duration.ofMinutes(10));
+        }, 1, 1, TimeUnit.HOURS);
+        
+        clock.advance(Duration.ofHours(3));
+        
+        assertEquals(List.of(START, START.plus(Duration.ofHours(1)), START.plus(Duration.ofHours(2)),
+                START.plus(Duration.ofHours(3))), fixedRate);
+        // Each run takes ten simulated minutes before the next delay starts
+        assertEquals(List.of(START.plus(Duration.ofHours(1)), START.plus(Duration.ofMinutes(130))), fixedDelay);
+        
+        assertTrue(rate.cancel(false));
+        clock.advance(Duration.ofHours(3));
+        assertEquals(4, fixedRate.size());
+    }
+    
+    @Test
+    void testShutdownRejectsNewTasksAndShutdownNowReturnsPendingOnes() {
+        ScheduledExecutorService executor = clock.newScheduledExecutor();
+        ScheduledExecutorService other = clock.newScheduledExecutor();
+        List<String> ran = new ArrayList<>();
+        executor.schedule(() -> ran.add("executor"), 1, TimeUnit.MINUTES);
+        other.schedule(() -> ran.add("other"), 1, TimeUnit.MINUTES);
+        
+        assertEquals(1, executor.shutdownNow().size());
+        
+        assertTrue(executor.isTerminated());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> ran.add("late")));
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(List.of("other"), ran);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.linkedin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TimeOrderedIds.
+ */
+class TimeOrderedIdsTest {
+    
+    @Test
+    void testIdsAreVersion7WithRfcVariant() {
+        UUID id = TimeOrderedIds.next();
+        
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+    
+    @Test
+    void testStringOrderFollowsCreationOrder() {
+        String previous = TimeOrderedIds.nextString();
+        for (int i = 0; i < 100_000; i++) {
+            String next = TimeOrderedIds.nextString();
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+    
+    @Test
+    void testIdsAreUniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(TimeOrderedIds.nextString());
+                    }
+                    return ids;
+                }));
+            }
+            
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                List<String> ids = future.get();
+                // Each thread sees its own IDs in increasing order
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(ids.get(i).compareTo(ids.get(i - 1)) > 0);
+                }
+                all.addAll(ids);
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testTimestampRoundTrip() {
+        long before = System.currentTimeMillis();
+        String id = TimeOrderedIds.nextString();
+        
+        Instant timestamp = TimeOrderedIds.timestampOf(id);
+        
+        // The sequence may push the timestamp slightly ahead under heavy load
+        assertTrue(timestamp.toEpochMilli() >= before);
+        assertTrue(timestamp.toEpochMilli() <= System.currentTimeMillis() + 1000);
+    }
+    
+    @Test
+    void testLowerBoundSortsBeforeIdsFromThatMillisecond() {
+        String id = TimeOrderedIds.nextString();
+        Instant timestamp = TimeOrderedIds.timestampOf(id);
+        
+        assertTrue(TimeOrderedIds.lowerBound(timestamp).compareTo(id) <= 0);
+        assertTrue(TimeOrderedIds.lowerBound(timestamp.plusMillis(1)).compareTo(id) > 0);
+    }
+    
+    @Test
+    void testTimestampOfRejectsRandomUuids() {
+        assertThrows(IllegalArgumentException.class,
+            () -> TimeOrderedIds.timestampOf(UUID.randomUUID().toString()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.linkedin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for VirtualThreads.
+ */
+class VirtualThreadsTest {
+    
+    @Test
+    void testSupportFollowsTheRuntimeVersion() {
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isSupported());
+    }
+    
+    @Test
+    void testUnsupportedRuntimeRefusesToCreateVirtualThreads() {
+        if (VirtualThreads.isSupported()) {
+            return;
+        }
+        assertThrows(UnsupportedOperationException.class, () -> VirtualThreads.factory("worker-"));
+        assertThrows(UnsupportedOperationException.class, () -> VirtualThreads.newThreadPerTaskExecutor("worker-"));
+    }
+    
+    @Test
+    void testFactoryNamesVirtualThreadsInSequence() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            return;
+        }
+        ThreadFactory factory = VirtualThreads.factory("worker-");
+        Thread first = factory.newThread(() -> { });
+        Thread second = factory.newThread(() -> { });
+        
+        assertEquals("worker-1", first.getName());
+        assertEquals("worker-2", second.getName());
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(first));
+    }
+    
+    @Test
+    void testExecutorRunsEachTaskOnItsOwnVirtualThread() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            return;
+        }
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("task-");
+        try {
+            Future<String> first = executor.submit(() -> Thread.currentThread().getName());
+            Future<String> second = executor.submit(() -> Thread.currentThread().getName());
+            
+            assertNotEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.linkedin.webhook;
+
+import com.example.linkedin.model.Comment;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CommentNotificationParser.
+ */
+class CommentNotificationParserTest {
+    
+    private static final Instant AT = Instant.parse("2024-01-15T09:30:00Z");
+    
+    private final WebhookEventGenerator generator = new WebhookEventGenerator("secret");
+    private final CommentNotificationParser parser = new CommentNotificationParser();
+    
+    @Test
+    void testCommentNotificationBecomesAComment() {
+        byte[] body = generator.delivery(List.of(
+                generator.comment(1, "urn:li:share:6744", "6745", "urn:li:person:abcdef123", "Great post!", AT)));
+        
+        List<Comment> comments = parser.parse(body);
+        
+        assertEquals(1, comments.size());
+        Comment comment = comments.get(0);
+        assertEquals("6745", comment.getId());
+        assertEquals("urn:li:share:6744", comment.getPostId());
+        assertEquals("urn:li:person:abcdef123", comment.getAuthorId());
+        assertEquals("Great post!", comment.getText());
+        assertEquals(AT, comment.getTimestamp());
+    }
+    
+    @Test
+    void testOtherActionsAreSkipped() {
+        byte[] body = generator.delivery(List.of(
+                generator.action(1, "urn:li:share:6744", "LIKE", "urn:li:person:abc", AT),
+                generator.comment(2, "urn:li:share:6744", "6745", "urn:li:person:abc", "Nice", AT),
+                generator.action(3, "urn:li:share:6744", "SHARE", "urn:li:person:def", AT)));
+        
+        List<Comment> comments = parser.parse(body);
+        
+        assertEquals(1, comments.size());
+        assertEquals("6745", comments.get(0).getId());
+    }
+    
+    @Test
+    void testSingleNotificationAndBareArrayAreAccepted() {
+        String single = generator.comment(1, "urn:li:share:6744", "6745", "urn:li:person:abc", "One", AT).toString();
+        
+        assertEquals(1, parser.parse(single.getBytes(StandardCharsets.UTF_8)).size());
+        assertEquals(2, parser.parse(("[" + single + "," + single.replace("6745", "6746") + "]")
+                .getBytes(StandardCharsets.UTF_8)).size());
+    }
+    
+    @Test
+    void testNotificationWithoutCommentUrnIsSkipped() {
+        String body = "{\"notifications\":[{\"action\":\"COMMENT\",\"sourcePost\":\"urn:li:share:1\","
+                + "\"generatedActivity\":\"urn:li:activity:2\"}]}";
+        
+        assertTrue(parser.parse(body.getBytes(StandardCharsets.UTF_8)).isEmpty());
+    }
+    
+    @Test
+    void testMalformedBodyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("not json".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("42".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse("{\"notifications\":{}}".getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    @Test
+    void testCommentIdIsTheTrailingPartOfTheUrn() {
+        assertEquals("6745", CommentNotificationParser.commentId("urn:li:comment:(urn:li:activity:6744,6745)"));
+        assertEquals("6745", CommentNotificationParser.commentId("urn:li:comment:(urn:li:ugcPost:6744,6745)"));
+        assertNull(CommentNotificationParser.commentId("urn:li:activity:6744"));
+        assertNull(CommentNotificationParser.commentId("urn:li:comment:(urn:li:activity:6744,)"));
+    }
+}
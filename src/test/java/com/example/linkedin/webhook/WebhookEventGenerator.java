@@ -0,0 +1,144 @@
+package com.example.linkedin.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds signed LinkedIn comment notification deliveries, for tests and for exercising a running
+ * instance locally without registering a webhook with LinkedIn.
+ *
+ * Run against a local instance with webhooks enabled and a post being watched:
+ * <pre>
+ * java -cp target/test-classes:target/classes:... com.example.linkedin.webhook.WebhookEventGenerator \
+ *     url=http://localhost:8080/webhooks/linkedin secret=your-client-secret post=urn:li:share:123 \
+ *     count=100 rate=10 duplicates=0.1
+ * </pre>
+ * Every delivery carries one comment; with {@code duplicates} a share of them is sent again, as
+ * LinkedIn does when a delivery is not acknowledged in time.
+ */
+public class WebhookEventGenerator {
+    
+    private static final String[] TEXTS = {
+        "Great post!",
+        "Thanks for sharing, this is exactly what our team has been discussing.",
+        "How would this work for a smaller company?",
+        "I need a refund for the course I bought last week."
+    };
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String secret;
+    
+    public WebhookEventGenerator(String secret) {
+        this.secret = secret;
+    }
+    
+    /**
+     * Returns a COMMENT notification as LinkedIn sends it for an organization's post.
+     */
+    public ObjectNode comment(long notificationId, String postId, String commentId, String authorId, String text,
+                              Instant at) {
+        String activity = "urn:li:activity:" + postId.substring(postId.lastIndexOf(':') + 1);
+        String commentUrn = "urn:li:comment:(" + activity + "," + commentId + ")";
+        ObjectNode notification = objectMapper.createObjectNode();
+        notification.put("notificationId", notificationId);
+        notification.put("organizationalEntity", "urn:li:organization:1000");
+        notification.put("action", "COMMENT");
+        notification.put("actor", authorId);
+        notification.put("sourcePost", postId);
+        notification.put("generatedActivity", commentUrn);
+        ObjectNode comment = notification.putObject("decoratedGeneratedActivity").putObject("comment");
+        comment.put("entity", commentUrn);
+        comment.put("owner", authorId);
+        comment.put("text", text);
+        notification.put("lastModifiedAt", at.toEpochMilli());
+        return notification;
+    }
+    
+    /**
+     * Returns a notification of another social action, e.g. LIKE, which carries no comment.
+     */
+    public ObjectNode action(long notificationId, String postId, String action, String authorId, Instant at) {
+        ObjectNode notification = objectMapper.createObjectNode();
+        notification.put("notificationId", notificationId);
+        notification.put("organizationalEntity", "urn:li:organization:1000");
+        notification.put("action", action);
+        notification.put("actor", authorId);
+        notification.put("sourcePost", postId);
+        notification.put("lastModifiedAt", at.toEpochMilli());
+        return notification;
+    }
+    
+    /**
+     * Wraps notifications into a delivery body.
+     */
+    public byte[] delivery(List<ObjectNode> notifications) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("type", "ORGANIZATION_SOCIAL_ACTION_NOTIFICATIONS");
+        ArrayNode array = root.putArray("notifications");
+        notifications.forEach(array::add);
+        try {
+            return objectMapper.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Returns the X-LI-Signature header of a delivery body.
+     */
+    public String sign(byte[] body) {
+        return WebhookSignatures.sign(secret, body);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 1) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        URI url = URI.create(options.getOrDefault("url", "http://localhost:8080/webhooks/linkedin"));
+        String postId = options.getOrDefault("post", "urn:li:share:1000");
+        int count = Integer.parseInt(options.getOrDefault("count", "10"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "1"));
+        double duplicates = Double.parseDouble(options.getOrDefault("duplicates", "0"));
+        WebhookEventGenerator generator = new WebhookEventGenerator(options.getOrDefault("secret", "your-client-secret"));
+        
+        HttpClient client = HttpClient.newHttpClient();
+        Random random = new Random();
+        long base = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            int author = random.nextInt(500);
+            byte[] body = generator.delivery(List.of(generator.comment(base + i, postId, String.valueOf(base + i),
+                    "urn:li:person:" + author, TEXTS[random.nextInt(TEXTS.length)], Instant.now())));
+            int sends = random.nextDouble() < duplicates ? 2 : 1;
+            for (int send = 0; send < sends; send++) {
+                HttpRequest request = HttpRequest.newBuilder(url)
+                        .header("Content-Type", "application/json")
+                        .header(WebhookSignatures.HEADER, generator.sign(body))
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                        .build();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                System.out.printf("comment %d -> %d %s%n", base + i, response.statusCode(), response.body());
+            }
+            if (rate > 0) {
+                TimeUnit.MICROSECONDS.sleep((long) (1_000_000 / rate));
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.linkedin.webhook;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WebhookSignatures.
+ */
+class WebhookSignaturesTest {
+    
+    private static final String SECRET = "client-secret";
+    private static final byte[] BODY = "{\"notifications\":[]}".getBytes(StandardCharsets.UTF_8);
+    
+    @Test
+    void testSignatureOfTheBodyVerifies() {
+        String signature = WebhookSignatures.sign(SECRET, BODY);
+        
+        assertTrue(signature.startsWith("hmacsha256="));
+        assertTrue(WebhookSignatures.verify(SECRET, BODY, signature));
+    }
+    
+    @Test
+    void testPrefixIsOptionalAndCaseInsensitive() {
+        String hex = WebhookSignatures.sign(SECRET, BODY).substring("hmacsha256=".length());
+        
+        assertTrue(WebhookSignatures.verify(SECRET, BODY, hex));
+        assertTrue(WebhookSignatures.verify(SECRET, BODY, "HMACSHA256=" + hex.toUpperCase()));
+    }
+    
+    @Test
+    void testTamperedBodyOrWrongSecretIsRejected() {
+        String signature = WebhookSignatures.sign(SECRET, BODY);
+        byte[] tampered = "{\"notifications\":[{}]}".getBytes(StandardCharsets.UTF_8);
+        
+        assertFalse(WebhookSignatures.verify(SECRET, tampered, signature));
+        assertFalse(WebhookSignatures.verify("other-secret", BODY, signature));
+    }
+    
+    @Test
+    void testMissingSignatureOrSecretIsRejected() {
+        assertFalse(WebhookSignatures.verify(SECRET, BODY, null));
+        assertFalse(WebhookSignatures.verify(SECRET, BODY, ""));
+        assertFalse(WebhookSignatures.verify("", BODY, WebhookSignatures.sign(SECRET, BODY)));
+    }
+    
+    @Test
+    void testChallengeResponseIsHmacOfTheCode() {
+        // HMAC-SHA256("client-secret", "challenge-123")
+        assertEquals("40b806c30efd477d29cca8d2968df33de91bf245997646509b1a23a4200b69ac",
+                WebhookSignatures.challengeResponse(SECRET, "challenge-123"));
+    }
+}